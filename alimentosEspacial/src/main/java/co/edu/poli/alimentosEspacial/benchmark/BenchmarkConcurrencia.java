@@ -0,0 +1,159 @@
+package co.edu.poli.alimentosEspacial.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import co.edu.poli.alimentosEspacial.modelo.*;
+import co.edu.poli.alimentosEspacial.servicios.*;
+
+/**
+ * Benchmark de rendimiento multihilo de las implementaciones de {@link OperacionCRUD}.
+ * <p>
+ * Compara {@link ImplementacionOperacionCRUD}, cuyas operaciones se sincronizan sobre
+ * la instancia, contra {@link ImplementacionOperacionCRUDConcurrente}, que no toma un
+ * bloqueo global.
+ * Cada hilo ejecuta una mezcla de 80% lecturas por ID, 10% actualizaciones,
+ * 5% creaciones y 5% eliminaciones sobre un inventario precargado.
+ * </p>
+ * <p>
+ * Uso: {@code java co.edu.poli.alimentosEspacial.benchmark.BenchmarkConcurrencia [productos] [operacionesPorHilo]}
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD
+ * @see ImplementacionOperacionCRUDConcurrente
+ */
+public class BenchmarkConcurrencia {
+
+    /** Cantidades de hilos a medir. */
+    private static final int[] HILOS = {1, 2, 4, 8};
+
+    /**
+     * Punto de entrada del benchmark.
+     *
+     * @param args Cantidad de productos precargados y operaciones por hilo (opcionales)
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        System.out.printf("Productos: %d, operaciones por hilo: %d, núcleos: %d%n",
+                          cantidad, operaciones, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %22s %22s%n", "Hilos", "Arreglo (ops/s)", "Concurrente (ops/s)");
+        for (int hilos : HILOS) {
+            double arreglo = medir(() -> new ImplementacionOperacionCRUD(cantidad),
+                                   cantidad, hilos, operaciones);
+            double concurrente = medir(() -> new ImplementacionOperacionCRUDConcurrente(cantidad),
+                                       cantidad, hilos, operaciones);
+            System.out.printf("%-8d %,22.0f %,22.0f%n", hilos, arreglo, concurrente);
+        }
+    }
+
+    /**
+     * Mide el rendimiento de una implementación con la cantidad de hilos indicada.
+     * <p>
+     * Ejecuta una ronda de calentamiento y luego una ronda medida sobre un
+     * almacenamiento nuevo.
+     * </p>
+     *
+     * @param fabrica Proveedor de instancias nuevas de la implementación
+     * @param cantidad Productos precargados
+     * @param hilos Cantidad de hilos concurrentes
+     * @param operaciones Operaciones ejecutadas por cada hilo
+     * @return Operaciones por segundo alcanzadas
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private static double medir(Supplier<OperacionCRUD> fabrica, int cantidad, int hilos, int operaciones)
+            throws InterruptedException {
+        ejecutar(precargar(fabrica.get(), cantidad), cantidad, hilos, operaciones / 4);
+        long nanos = ejecutar(precargar(fabrica.get(), cantidad), cantidad, hilos, operaciones);
+        return (double) hilos * operaciones / (nanos / 1e9);
+    }
+
+    /**
+     * Carga el inventario inicial del benchmark.
+     *
+     * @param crud Implementación a cargar
+     * @param cantidad Cantidad de productos a crear
+     * @return La misma implementación, ya cargada
+     */
+    private static OperacionCRUD precargar(OperacionCRUD crud, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            crud.create(crearProducto("P" + i, i));
+        }
+        return crud;
+    }
+
+    /**
+     * Ejecuta la mezcla de operaciones en varios hilos y mide el tiempo transcurrido.
+     *
+     * @param crud Implementación a ejercitar
+     * @param cantidad Productos precargados
+     * @param hilos Cantidad de hilos concurrentes
+     * @param operaciones Operaciones ejecutadas por cada hilo
+     * @return Tiempo transcurrido en nanosegundos
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private static long ejecutar(OperacionCRUD crud, int cantidad, int hilos, int operaciones)
+            throws InterruptedException {
+        CountDownLatch inicio = new CountDownLatch(1);
+        CountDownLatch fin = new CountDownLatch(hilos);
+        for (int h = 0; h < hilos; h++) {
+            final int hilo = h;
+            Thread t = new Thread(() -> {
+                SplittableRandom aleatorio = new SplittableRandom(hilo);
+                int propios = 0;
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < operaciones; i++) {
+                    int accion = aleatorio.nextInt(100);
+                    String id = "P" + aleatorio.nextInt(cantidad);
+                    if (accion < 80) {
+                        crud.readId(id);
+                    } else if (accion < 90) {
+                        crud.update(id, crearProducto(id, i));
+                    } else if (accion < 95) {
+                        crud.create(crearProducto("H" + hilo + "-" + propios++, i));
+                    } else if (propios > 0) {
+                        crud.delete("H" + hilo + "-" + --propios);
+                    }
+                }
+                fin.countDown();
+            });
+            t.start();
+        }
+        long comienzo = System.nanoTime();
+        inicio.countDown();
+        fin.await();
+        return System.nanoTime() - comienzo;
+    }
+
+    /**
+     * Crea un producto de prueba alternando entre las categorías disponibles.
+     *
+     * @param id Identificador del producto
+     * @param semilla Valor usado para variar los atributos
+     * @return Producto de prueba
+     */
+    static Producto crearProducto(String id, int semilla) {
+        double peso = (semilla % 500) / 10.0;
+        double volumen = (semilla % 100) / 100.0;
+        switch (semilla & 3) {
+            case 0:
+                return new Alimento(id, "Alimento " + semilla, peso, volumen, "01/01/2030", "Liofilizado", semilla % 900);
+            case 1:
+                return new EquipoMedico(id, "Equipo " + semilla, peso, volumen, "Cirugía", true, "01/01/2024", "UDT-" + semilla % 10);
+            case 2:
+                return new Herramienta(id, "Kit " + semilla, peso, volumen, "Reparación", "Titanio", semilla % 2 == 0);
+            default:
+                return new EquipoComunicacion(id, "Radio " + semilla, peso, volumen, "Banda S", 2.2, semilla % 200);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package co.edu.poli.alimentosEspacial.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import co.edu.poli.alimentosEspacial.modelo.EquipoComunicacion;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+import co.edu.poli.alimentosEspacial.servicios.*;
+
+/**
+ * Benchmark de los formatos de archivo de productos.
+ * <p>
+ * Compara la serialización Java original contra el formato binario compacto: tamaño
+ * del archivo, tiempo de escritura y tiempo de lectura de un mismo inventario. Se
+ * trabaja en memoria para medir sólo la codificación y no el disco. Cada medición
+ * reporta la mejor de varias rondas, después de una ronda de calentamiento.
+ * </p>
+ * <p>
+ * Antes de medir cada formato se verifica que los decimales límite (negativos,
+ * {@code ±0}, {@code NaN}, infinitos y valores grandes) se lean exactamente como se
+ * escribieron. El formato fragmentado se verifica además con un arreglo de varios
+ * fragmentos, con los decimales límite y posiciones {@code null} en los extremos de
+ * cada fragmento.
+ * </p>
+ * <p>
+ * Uso: {@code java co.edu.poli.alimentosEspacial.benchmark.BenchmarkFormatoArchivo [productos] [rondas]}
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo
+ */
+public class BenchmarkFormatoArchivo {
+
+    /** Posiciones por fragmento del formato {@link FormatoArchivo#FRAGMENTADO}. */
+    private static final int PRODUCTOS_POR_FRAGMENTO = 8192;
+
+    /** Decimales que se verifican en cada formato antes de medirlo. */
+    static final double[] DECIMALES_LIMITE = {
+        -0.001, 0.001, -0.002, -0.01, -0.1, -1, -2.5, -1234.567, 0.0, -0.0,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.MAX_VALUE, -Double.MAX_VALUE, Double.MIN_VALUE, 1e300, -1e300,
+        (1 << 26) - 1, -(1 << 26), 67108.863, 0.1 + 0.2, Math.PI
+    };
+
+    /**
+     * Punto de entrada del benchmark.
+     *
+     * @param args Cantidad de productos y rondas por medición (opcionales)
+     * @throws IOException Si falla la codificación
+     */
+    public static void main(String[] args) throws IOException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Producto[] productos = new Producto[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            productos[i] = BenchmarkConcurrencia.crearProducto("P" + i, i);
+        }
+
+        System.out.printf("Productos: %d, rondas: %d%n", cantidad, rondas);
+        System.out.printf("%-20s %14s %16s %16s%n", "Formato", "Tamaño (KB)", "Escritura (ms)", "Lectura (ms)");
+        for (FormatoArchivo formato : FormatoArchivo.values()) {
+            CodecProductos codec = formato.getCodec();
+            verificarDecimales(formato);
+            if (formato == FormatoArchivo.FRAGMENTADO) {
+                verificarFragmentos();
+            }
+            byte[] archivo = escribir(codec, productos);
+            leer(codec, archivo);
+
+            long mejorEscritura = Long.MAX_VALUE;
+            long mejorLectura = Long.MAX_VALUE;
+            for (int r = 0; r < rondas; r++) {
+                long inicio = System.nanoTime();
+                archivo = escribir(codec, productos);
+                mejorEscritura = Math.min(mejorEscritura, System.nanoTime() - inicio);
+
+                inicio = System.nanoTime();
+                Producto[] leidos = leer(codec, archivo);
+                mejorLectura = Math.min(mejorLectura, System.nanoTime() - inicio);
+                if (leidos.length != cantidad) {
+                    throw new IllegalStateException("Lectura incompleta con " + formato);
+                }
+            }
+            System.out.printf("%-20s %,14d %16.1f %16.1f%n", formato, archivo.length / 1024,
+                              mejorEscritura / 1e6, mejorLectura / 1e6);
+        }
+    }
+
+    /**
+     * Escribe y vuelve a leer productos con decimales límite en peso, volumen y rango
+     * de frecuencia, comparando los valores bit a bit.
+     *
+     * @param formato Formato a verificar
+     * @throws IOException Si falla la codificación
+     * @throws IllegalStateException Si algún decimal no se lee igual a como se escribió
+     */
+    static void verificarDecimales(FormatoArchivo formato) throws IOException {
+        Producto[] productos = new Producto[DECIMALES_LIMITE.length];
+        for (int i = 0; i < productos.length; i++) {
+            double valor = DECIMALES_LIMITE[i];
+            productos[i] = new EquipoComunicacion("D" + i, "Radio", valor, -valor, "Banda S", valor, i);
+        }
+        verificarDecimales(formato, productos);
+    }
+
+    /**
+     * Verifica el formato fragmentado con un arreglo que ocupa tres fragmentos. Cada
+     * fragmento se codifica por separado, así que los decimales límite se colocan al
+     * inicio y al final de cada uno, con posiciones {@code null} entre ellos.
+     *
+     * @throws IOException Si falla la codificación
+     * @throws IllegalStateException Si algún decimal o posición no se conserva
+     */
+    static void verificarFragmentos() throws IOException {
+        Producto[] productos = new Producto[2 * PRODUCTOS_POR_FRAGMENTO + DECIMALES_LIMITE.length];
+        for (int i = 0; i < productos.length; i++) {
+            int desplazamiento = i % PRODUCTOS_POR_FRAGMENTO;
+            if (desplazamiento < DECIMALES_LIMITE.length
+                    || desplazamiento >= PRODUCTOS_POR_FRAGMENTO - DECIMALES_LIMITE.length) {
+                double valor = DECIMALES_LIMITE[desplazamiento % DECIMALES_LIMITE.length];
+                productos[i] = new EquipoComunicacion("F" + i, "Radio", valor, -valor, "Banda S", valor, i);
+            } else if (i % 3 != 0) {
+                productos[i] = new EquipoComunicacion("F" + i, "Radio", i / 10.0, 0.5, "Banda S", 2.2, i);
+            }
+        }
+        verificarDecimales(FormatoArchivo.FRAGMENTADO, productos);
+    }
+
+    /**
+     * Escribe y vuelve a leer un arreglo de equipos de comunicación, comparando sus
+     * decimales bit a bit. Las posiciones {@code null} deben conservarse.
+     *
+     * @param formato Formato a verificar
+     * @param productos Productos a escribir; cada uno es un {@link EquipoComunicacion} o {@code null}
+     * @throws IOException Si falla la codificación
+     * @throws IllegalStateException Si algún decimal no se lee igual a como se escribió
+     */
+    static void verificarDecimales(FormatoArchivo formato, Producto[] productos) throws IOException {
+        CodecProductos codec = formato.getCodec();
+        Producto[] leidos = leer(codec, escribir(codec, productos));
+        if (leidos.length != productos.length) {
+            throw new IllegalStateException(formato + ": se leyeron " + leidos.length + " de " + productos.length);
+        }
+        for (int i = 0; i < productos.length; i++) {
+            if (productos[i] == null || leidos[i] == null) {
+                if (productos[i] != leidos[i]) {
+                    throw new IllegalStateException(formato + ": la posición " + i + " no se conservó");
+                }
+                continue;
+            }
+            EquipoComunicacion original = (EquipoComunicacion) productos[i];
+            EquipoComunicacion leido = (EquipoComunicacion) leidos[i];
+            if (Double.compare(original.getPeso(), leido.getPeso()) != 0
+                    || Double.compare(original.getVolumen(), leido.getVolumen()) != 0
+                    || Double.compare(original.getRangoFrecuencia(), leido.getRangoFrecuencia()) != 0) {
+                throw new IllegalStateException(formato + ": el decimal " + original.getPeso()
+                        + " se leyó como " + leido.getPeso());
+            }
+        }
+    }
+
+    /**
+     * Codifica un arreglo de productos en memoria.
+     *
+     * @param codec Codec a usar
+     * @param productos Productos a codificar
+     * @return Bytes del archivo
+     * @throws IOException Si falla la codificación
+     */
+    private static byte[] escribir(CodecProductos codec, Producto[] productos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        codec.escribir(productos, salida);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Decodifica un arreglo de productos desde memoria.
+     *
+     * @param codec Codec a usar
+     * @param archivo Bytes del archivo
+     * @return Productos leídos
+     * @throws IOException Si falla la decodificación
+     */
+    private static Producto[] leer(CodecProductos codec, byte[] archivo) throws IOException {
+        return codec.leer(new ByteArrayInputStream(archivo));
+    }
+}
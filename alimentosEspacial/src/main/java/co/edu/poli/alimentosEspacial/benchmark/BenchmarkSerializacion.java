@@ -0,0 +1,166 @@
+package co.edu.poli.alimentosEspacial.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Benchmark de la serialización Java de las clases del modelo.
+ * <p>
+ * Mide el tamaño y los tiempos de escritura y lectura con {@link ObjectOutputStream}
+ * de tres casos: un arreglo de productos de todas las categorías, como el formato
+ * {@code SERIALIZACION_JAVA}; cada producto en un flujo propio, donde pesa el costo
+ * fijo de los descriptores de clase; y naves, misiones y astronautas, tanto en arreglo
+ * como uno por flujo. Se
+ * trabaja en memoria y cada medición reporta la mejor de varias rondas, después de una
+ * ronda de calentamiento.
+ * </p>
+ * <p>
+ * Uso: {@code java co.edu.poli.alimentosEspacial.benchmark.BenchmarkSerializacion [objetos] [rondas]}
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see Producto
+ */
+public class BenchmarkSerializacion {
+
+    /**
+     * Punto de entrada del benchmark.
+     *
+     * @param args Cantidad de objetos y rondas por medición (opcionales)
+     * @throws Exception Si falla la serialización
+     */
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Producto[] productos = new Producto[cantidad];
+        Object[] otros = new Object[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            productos[i] = BenchmarkConcurrencia.crearProducto("P" + i, i);
+            switch (i % 3) {
+                case 0:
+                    otros[i] = new NaveEspacial("N" + i, "Modelo " + i % 7, 1000 + i, 500 + i);
+                    break;
+                case 1:
+                    otros[i] = new Mision("M" + i, "Misión " + i, "01/01/2024", "31/12/2024", "Marte", "Planificada");
+                    break;
+                default:
+                    otros[i] = new Astronauta("A" + i, "Astronauta " + i, "Ingeniería", "Comandante", i % 2 == 0);
+                    break;
+            }
+        }
+
+        System.out.printf("Objetos: %d, rondas: %d%n", cantidad, rondas);
+        System.out.printf("%-28s %14s %16s %16s%n", "Caso", "Tamaño (KB)", "Escritura (ms)", "Lectura (ms)");
+        medir("Arreglo de productos", productos, false, rondas);
+        medir("Producto por flujo", productos, true, rondas);
+        medir("Naves/misiones/astr.", otros, false, rondas);
+        medir("Nave/misión/astr. por flujo", otros, true, rondas);
+    }
+
+    /**
+     * Mide la escritura y la lectura de un caso e imprime el resultado.
+     *
+     * @param caso Nombre del caso
+     * @param objetos Objetos a serializar
+     * @param porObjeto {@code true} para usar un flujo por objeto
+     * @param rondas Rondas de medición
+     * @throws Exception Si falla la serialización
+     */
+    private static void medir(String caso, Object[] objetos, boolean porObjeto, int rondas) throws Exception {
+        byte[][] datos = escribir(objetos, porObjeto);
+        leer(datos, porObjeto);
+
+        long mejorEscritura = Long.MAX_VALUE;
+        long mejorLectura = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int r = 0; r < rondas; r++) {
+            long inicio = System.nanoTime();
+            datos = escribir(objetos, porObjeto);
+            mejorEscritura = Math.min(mejorEscritura, System.nanoTime() - inicio);
+
+            inicio = System.nanoTime();
+            int leidos = leer(datos, porObjeto);
+            mejorLectura = Math.min(mejorLectura, System.nanoTime() - inicio);
+            if (leidos != objetos.length) {
+                throw new IllegalStateException("Lectura incompleta en " + caso);
+            }
+        }
+        for (byte[] d : datos) {
+            bytes += d.length;
+        }
+        System.out.printf("%-28s %,14d %16.1f %16.1f%n", caso, bytes / 1024,
+                          mejorEscritura / 1e6, mejorLectura / 1e6);
+    }
+
+    /**
+     * Serializa los objetos en un solo flujo o en uno por objeto.
+     *
+     * @param objetos Objetos a serializar
+     * @param porObjeto {@code true} para usar un flujo por objeto
+     * @return Bytes de cada flujo
+     * @throws IOException Si falla la serialización
+     */
+    private static byte[][] escribir(Object[] objetos, boolean porObjeto) throws IOException {
+        if (!porObjeto) {
+            return new byte[][] {serializar(objetos)};
+        }
+        byte[][] datos = new byte[objetos.length][];
+        for (int i = 0; i < objetos.length; i++) {
+            datos[i] = serializar(objetos[i]);
+        }
+        return datos;
+    }
+
+    /**
+     * Deserializa los flujos escritos por {@link #escribir(Object[], boolean)}.
+     *
+     * @param datos Bytes de cada flujo
+     * @param porObjeto {@code true} si hay un flujo por objeto
+     * @return Cantidad de objetos leídos
+     * @throws Exception Si falla la deserialización
+     */
+    private static int leer(byte[][] datos, boolean porObjeto) throws Exception {
+        if (!porObjeto) {
+            return ((Object[]) deserializar(datos[0])).length;
+        }
+        for (byte[] d : datos) {
+            deserializar(d);
+        }
+        return datos.length;
+    }
+
+    /**
+     * Serializa un objeto en memoria.
+     *
+     * @param objeto Objeto a serializar
+     * @return Bytes del flujo
+     * @throws IOException Si falla la serialización
+     */
+    private static byte[] serializar(Object objeto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream salida = new ObjectOutputStream(bytes)) {
+            salida.writeObject(objeto);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserializa un objeto desde memoria.
+     *
+     * @param datos Bytes del flujo
+     * @return Objeto leído
+     * @throws Exception Si falla la deserialización
+     */
+    private static Object deserializar(byte[] datos) throws Exception {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(datos))) {
+            return entrada.readObject();
+        }
+    }
+}
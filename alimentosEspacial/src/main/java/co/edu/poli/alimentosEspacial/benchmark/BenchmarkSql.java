@@ -0,0 +1,202 @@
+package co.edu.poli.alimentosEspacial.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+import co.edu.poli.alimentosEspacial.servicios.*;
+
+/**
+ * Benchmark de {@link ImplementacionOperacionCRUDSql} contra la implementación sobre arreglo.
+ * <p>
+ * Sobre un almacenamiento nuevo mide, en orden: la creación del inventario por lotes con
+ * {@link OperacionCRUD#createAll(java.util.Collection)}, búsquedas aleatorias por ID,
+ * la actualización de todo el inventario por lotes, un recorrido completo página por
+ * página y la eliminación de todo el inventario por lotes. La base de datos H2 se mide
+ * en memoria y en un archivo temporal; el arreglo no persiste nada, por lo que sirve de
+ * referencia del costo del acceso por JDBC.
+ * </p>
+ * <p>
+ * Uso: {@code java co.edu.poli.alimentosEspacial.benchmark.BenchmarkSql [productos] [busquedas]}
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUDSql
+ * @see ImplementacionOperacionCRUD
+ */
+public class BenchmarkSql {
+
+    /** Cantidad de productos por lote y por página. */
+    private static final int TAMANO_LOTE = 1000;
+
+    /**
+     * Punto de entrada del benchmark.
+     *
+     * @param args Cantidad de productos y de búsquedas por ID (opcionales)
+     * @throws IOException Si falla el archivo temporal de la base de datos
+     * @throws SQLException Si la base de datos no puede abrirse
+     */
+    public static void main(String[] args) throws IOException, SQLException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int busquedas = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        List<Producto> productos = new ArrayList<>(cantidad);
+        List<String> ids = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            productos.add(BenchmarkConcurrencia.crearProducto("P" + i, i));
+            ids.add("P" + i);
+        }
+        List<Producto> actualizados = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            actualizados.add(BenchmarkConcurrencia.crearProducto("P" + i, i + 1));
+        }
+
+        Path directorio = Files.createTempDirectory("benchmark-sql");
+        System.out.printf("Productos: %d, búsquedas: %d, lote: %d%n", cantidad, busquedas, TAMANO_LOTE);
+        System.out.printf("%-12s %12s %12s %14s %12s %12s%n", "Almacén",
+                          "Crear (ms)", "Buscar (ms)", "Actualizar (ms)", "Recorrer (ms)", "Eliminar (ms)");
+        for (int ronda = 0; ronda < 2; ronda++) {
+            boolean calentamiento = ronda == 0;
+            String sufijo = String.valueOf(ronda);
+            medir("Arreglo", calentamiento, productos, actualizados, ids, busquedas, () -> {
+                ImplementacionOperacionCRUD crud = new ImplementacionOperacionCRUD(cantidad);
+                return almacen(crud, () -> { });
+            });
+            medir("H2 memoria", calentamiento, productos, actualizados, ids, busquedas, () -> {
+                ImplementacionOperacionCRUDSql crud = ImplementacionOperacionCRUDSql.abrirEnMemoria();
+                return almacen(crud, crud);
+            });
+            medir("H2 archivo", calentamiento, productos, actualizados, ids, busquedas, () -> {
+                ImplementacionOperacionCRUDSql crud =
+                        ImplementacionOperacionCRUDSql.abrirArchivo(directorio.toString(), "inventario" + sufijo);
+                return almacen(crud, crud);
+            });
+        }
+    }
+
+    /**
+     * Mide todas las fases sobre un almacenamiento nuevo e imprime una fila de resultados.
+     *
+     * @param nombre Nombre del almacenamiento
+     * @param calentamiento Indica si la ronda es de calentamiento y no se imprime
+     * @param productos Productos a crear
+     * @param actualizados Nuevas versiones de los productos
+     * @param ids IDs de los productos
+     * @param busquedas Cantidad de búsquedas por ID
+     * @param fabrica Fábrica del almacenamiento
+     * @throws IOException Si falla el almacenamiento
+     * @throws SQLException Si la base de datos no puede abrirse
+     */
+    private static void medir(String nombre, boolean calentamiento, List<Producto> productos,
+                              List<Producto> actualizados, List<String> ids, int busquedas,
+                              FabricaAlmacen fabrica) throws IOException, SQLException {
+        try (Almacen almacen = fabrica.crear()) {
+            OperacionCRUD crud = almacen.crud();
+            long inicio = System.nanoTime();
+            for (int i = 0; i < productos.size(); i += TAMANO_LOTE) {
+                verificar(crud.createAll(productos.subList(i, Math.min(productos.size(), i + TAMANO_LOTE))));
+            }
+            long crear = System.nanoTime() - inicio;
+
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            inicio = System.nanoTime();
+            for (int i = 0; i < busquedas; i++) {
+                if (crud.readId(ids.get(aleatorio.nextInt(ids.size()))) == null) {
+                    throw new IllegalStateException("Producto no encontrado en " + nombre);
+                }
+            }
+            long buscar = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < actualizados.size(); i += TAMANO_LOTE) {
+                verificar(crud.updateAll(actualizados.subList(i, Math.min(actualizados.size(), i + TAMANO_LOTE))));
+            }
+            long actualizar = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            long recorridos = crud.recorrer(TAMANO_LOTE).count();
+            long recorrer = System.nanoTime() - inicio;
+            if (recorridos != productos.size()) {
+                throw new IllegalStateException("Recorrido incompleto en " + nombre);
+            }
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ids.size(); i += TAMANO_LOTE) {
+                verificar(crud.deleteAll(ids.subList(i, Math.min(ids.size(), i + TAMANO_LOTE))));
+            }
+            long eliminar = System.nanoTime() - inicio;
+
+            if (!calentamiento) {
+                System.out.printf("%-12s %12.1f %12.1f %14.1f %12.1f %12.1f%n", nombre, crear / 1e6,
+                                  buscar / 1e6, actualizar / 1e6, recorrer / 1e6, eliminar / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Verifica que un lote se haya procesado completo.
+     *
+     * @param resultado Resultado del lote
+     */
+    private static void verificar(ResultadoLote resultado) {
+        if (!resultado.esCompleto()) {
+            throw new IllegalStateException("Lote incompleto: " + resultado);
+        }
+    }
+
+    /**
+     * Crea un almacenamiento a medir.
+     *
+     * @param crud Operaciones del almacenamiento
+     * @param cierre Acción que lo libera
+     * @return Almacenamiento a medir
+     */
+    private static Almacen almacen(OperacionCRUD crud, Closeable cierre) {
+        return new Almacen() {
+            @Override
+            public OperacionCRUD crud() {
+                return crud;
+            }
+
+            @Override
+            public void close() throws IOException {
+                cierre.close();
+            }
+        };
+    }
+
+    /**
+     * Fábrica de almacenamientos a medir.
+     */
+    @FunctionalInterface
+    private interface FabricaAlmacen {
+
+        /**
+         * Crea un almacenamiento vacío.
+         *
+         * @return Almacenamiento nuevo
+         * @throws SQLException Si la base de datos no puede abrirse
+         */
+        Almacen crear() throws SQLException;
+    }
+
+    /**
+     * Almacenamiento a medir, con la acción que lo libera.
+     */
+    private interface Almacen extends Closeable {
+
+        /**
+         * Obtiene las operaciones del almacenamiento.
+         *
+         * @return Operaciones CRUD
+         */
+        OperacionCRUD crud();
+    }
+}
@@ -0,0 +1,432 @@
+package co.edu.poli.alimentosEspacial.controlador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+import co.edu.poli.alimentosEspacial.servicios.EscuchaCambios;
+import co.edu.poli.alimentosEspacial.servicios.EventoCambio;
+import co.edu.poli.alimentosEspacial.servicios.InstantaneaProductos;
+import co.edu.poli.alimentosEspacial.servicios.OperacionCRUD;
+import co.edu.poli.alimentosEspacial.servicios.TipoCambio;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Lista observable de sólo lectura sobre el almacenamiento de productos.
+ * <p>
+ * Sus filas son las de la instantánea vigente del {@link OperacionCRUD}, sin copiarla,
+ * de modo que la tabla lee una sola fuente. Las modificaciones se hacen con
+ * {@link #crear(Producto)}, {@link #actualizar(int, Producto)} y {@link #eliminar(int)},
+ * que las aplican al almacenamiento y luego pasan a la instantánea siguiente. Si el
+ * motor {@linkplain OperacionCRUD#admiteCambiosIncrementales() lo admite}, se notifica
+ * a los oyentes sólo la posición de cada producto afectado, ubicada con
+ * {@link InstantaneaProductos#indiceDe(String)}; así la tabla conserva la selección y
+ * el desplazamiento. Con los demás motores se notifica el reemplazo de toda la lista.
+ * Debe usarse sólo desde el hilo de JavaFX.
+ * </p>
+ * <p>
+ * Si la instantánea es {@linkplain #isPerezosa() perezosa}, la lista decodifica sólo
+ * las filas que se leen. La excepción es el reemplazo de toda la lista, que decodifica
+ * una vez la instantánea anterior para informar las filas quitadas.
+ * </p>
+ * <p>
+ * La lista escucha los eventos de cambio del almacenamiento. Los que provocan sus
+ * propias operaciones se ignoran, porque esas operaciones ya pasan a la instantánea
+ * siguiente; los demás, hechos directamente sobre el almacenamiento y posiblemente
+ * desde otro hilo, se encolan y se aplican en el hilo de la interfaz como un único
+ * cambio de la lista, del mismo modo, con los IDs que nombran. Como la lista siempre
+ * muestra una instantánea completa, un evento encolado antes de una recarga no
+ * duplica filas: su producto ya está en ella y no presenta diferencias. Los eventos
+ * se retiran de la cola después de tomar cada instantánea, de modo que los de cambios
+ * que ella incluye nunca quedan para después; los retirados pueden, en cambio, ser de
+ * cambios posteriores, y por eso sus IDs se revisan también en la instantánea
+ * siguiente. Un evento
+ * {@link TipoCambio#RECARGADO} o más de {@value #MAXIMO_EVENTOS_INCREMENTALES} eventos
+ * pendientes provocan en cambio una {@link #recargar()}, porque la tabla ordenada
+ * procesa cada cambio por separado y un reemplazo completo le cuesta menos. Con un
+ * motor que no emite eventos, los cambios externos se reflejan invocando
+ * {@link #recargar()}.
+ * </p>
+ * <p>
+ * Durante una carga en segundo plano el almacenamiento puede estar bloqueado, por lo
+ * que la lista muestra los lotes recibidos con {@link #agregarCargados(List)} y, al
+ * terminar, los descarta y vuelve a leer el almacenamiento.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#instantanea()
+ * @see ProductoControlador
+ */
+public class ListaObservableProductos extends ObservableListBase<Producto> {
+
+    /** Cantidad máxima de eventos externos pendientes que se notifican fila por fila */
+    static final int MAXIMO_EVENTOS_INCREMENTALES = 1000;
+
+    /** Almacenamiento de los productos */
+    private final OperacionCRUD crud;
+
+    /** Instantánea que se muestra fuera de las cargas */
+    private InstantaneaProductos vista = InstantaneaProductos.de(null);
+
+    /** Productos recibidos durante una carga, o {@code null} si no hay carga en curso */
+    private List<Producto> cargados;
+
+    /** Ejecutor del hilo de la interfaz, donde se aplican los cambios externos */
+    private final Executor hiloInterfaz;
+
+    /** Escucha registrada en el almacenamiento */
+    private final EscuchaCambios escucha = this::alCambiar;
+
+    /** Hilo que está aplicando una operación de esta lista, cuyos eventos se ignoran */
+    private volatile Thread aplicando;
+
+    /** Eventos externos recibidos que aún no se aplican en el hilo de la interfaz */
+    private final Queue<EventoCambio> pendientes = new ConcurrentLinkedQueue<>();
+
+    /** Indica si ya hay una aplicación de eventos programada en el hilo de la interfaz */
+    private final AtomicBoolean aplicacionPendiente = new AtomicBoolean();
+
+    /** IDs de eventos retirados que pueden no estar en la instantánea mostrada */
+    private Set<String> arrastrados = new LinkedHashSet<>();
+
+    /** Indica si un evento retirado obliga a reemplazar también la instantánea siguiente */
+    private boolean reemplazoArrastrado;
+
+    /**
+     * Constructor de la lista.
+     *
+     * @param crud Almacenamiento de los productos
+     * @param hiloInterfaz Ejecutor del hilo de la interfaz, por ejemplo
+     *                     {@code Platform::runLater}
+     */
+    public ListaObservableProductos(OperacionCRUD crud, Executor hiloInterfaz) {
+        this.crud = crud;
+        this.hiloInterfaz = hiloInterfaz;
+        crud.agregarEscucha(escucha);
+    }
+
+    @Override
+    public Producto get(int indice) {
+        return cargados != null ? cargados.get(indice) : vista.get(indice);
+    }
+
+    @Override
+    public int size() {
+        return cargados != null ? cargados.size() : vista.size();
+    }
+
+    /**
+     * Indica si la instantánea mostrada decodifica sus productos al leerlos, de modo que
+     * recorrer la lista completa, por ejemplo para ordenarla, los decodifica todos.
+     *
+     * @return {@code true} si la instantánea vigente es perezosa
+     * @see InstantaneaProductos#isPerezosa()
+     */
+    public boolean isPerezosa() {
+        return vista.isPerezosa();
+    }
+
+    /**
+     * Crea un producto en el almacenamiento y lo agrega a la lista.
+     *
+     * @param producto Producto a crear
+     * @return Mensaje del resultado de la operación
+     * @throws IllegalArgumentException Si el almacenamiento rechaza el producto
+     * @throws IllegalStateException Si hay una carga en curso
+     */
+    public String crear(Producto producto) {
+        verificarSinCarga();
+        String resultado;
+        aplicando = Thread.currentThread();
+        try {
+            resultado = crud.create(producto);
+        } finally {
+            aplicando = null;
+        }
+        avanzar(Collections.singleton(producto.getId()), false);
+        return resultado;
+    }
+
+    /**
+     * Reemplaza el producto de una posición en el almacenamiento y en la lista.
+     * <p>
+     * Los motores informan un ID inexistente con el mensaje del resultado en lugar de
+     * una excepción, así que el éxito se comprueba en la instantánea siguiente: si no
+     * contiene el ID del producto actualizado, el mensaje se lanza como excepción.
+     * </p>
+     *
+     * @param indice Posición del producto en la lista
+     * @param producto Producto con los datos actualizados
+     * @return Mensaje del resultado de la operación
+     * @throws IllegalArgumentException Si el almacenamiento rechaza el producto o ya no
+     *                                  contiene el de la posición indicada
+     * @throws IndexOutOfBoundsException Si la posición no existe
+     * @throws IllegalStateException Si hay una carga en curso
+     */
+    public String actualizar(int indice, Producto producto) {
+        verificarSinCarga();
+        String idAnterior = vista.get(indice).getId();
+        String resultado;
+        aplicando = Thread.currentThread();
+        try {
+            resultado = crud.update(idAnterior, producto);
+        } finally {
+            aplicando = null;
+        }
+        avanzar(Arrays.asList(idAnterior, producto.getId()), false);
+        if (vista.indiceDe(producto.getId()) < 0) {
+            throw new IllegalArgumentException(resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Elimina el producto de una posición del almacenamiento y de la lista.
+     * <p>
+     * Si el producto ya no estaba en el almacenamiento, la fila desaparece igual al pasar
+     * a la instantánea siguiente.
+     * </p>
+     *
+     * @param indice Posición del producto en la lista
+     * @return Producto eliminado, o {@code null} si ya no estaba en el almacenamiento
+     * @throws IndexOutOfBoundsException Si la posición no existe
+     * @throws IllegalStateException Si hay una carga en curso
+     */
+    public Producto eliminar(int indice) {
+        verificarSinCarga();
+        String id = vista.get(indice).getId();
+        Producto eliminado;
+        aplicando = Thread.currentThread();
+        try {
+            eliminado = crud.delete(id);
+        } finally {
+            aplicando = null;
+        }
+        avanzar(Collections.singleton(id), false);
+        return eliminado;
+    }
+
+    /**
+     * Vuelve a leer el almacenamiento y notifica el reemplazo de la lista.
+     */
+    public void recargar() {
+        avanzar(Collections.emptySet(), true);
+    }
+
+    /**
+     * Inicia una carga en segundo plano, vaciando la lista.
+     */
+    public void iniciarCarga() {
+        List<Producto> anteriores = cargados != null ? cargados : vista.comoLista();
+        cargados = new ArrayList<>();
+        if (!anteriores.isEmpty()) {
+            beginChange();
+            nextRemove(0, anteriores);
+            endChange();
+        }
+    }
+
+    /**
+     * Agrega al final de la lista un lote recibido durante la carga.
+     *
+     * @param lote Productos del lote
+     */
+    public void agregarCargados(List<Producto> lote) {
+        if (cargados == null || lote.isEmpty()) {
+            return;
+        }
+        int desde = cargados.size();
+        cargados.addAll(lote);
+        beginChange();
+        nextAdd(desde, cargados.size());
+        endChange();
+    }
+
+    /**
+     * Termina la carga: descarta los lotes recibidos y muestra el contenido del
+     * almacenamiento.
+     */
+    public void terminarCarga() {
+        if (cargados == null) {
+            recargar();
+            return;
+        }
+        List<Producto> anteriores = cargados;
+        cargados = null;
+        vista = crud.instantanea();
+        arrastrados = new LinkedHashSet<>();
+        reemplazoArrastrado = !tomarPendientes(arrastrados);
+        notificarReemplazo(anteriores);
+    }
+
+    /**
+     * Deja de escuchar los cambios del almacenamiento. Debe invocarse antes de cerrarlo.
+     */
+    public void desconectar() {
+        crud.quitarEscucha(escucha);
+    }
+
+    /**
+     * Recibe un evento del almacenamiento, en el hilo que hizo el cambio, y si el
+     * cambio no lo hizo esta lista lo encola para aplicarlo en el hilo de la interfaz.
+     *
+     * @param evento Cambio ocurrido
+     */
+    private void alCambiar(EventoCambio evento) {
+        if (Thread.currentThread() == aplicando) {
+            return;
+        }
+        pendientes.add(evento);
+        if (aplicacionPendiente.compareAndSet(false, true)) {
+            hiloInterfaz.execute(this::aplicarPendientes);
+        }
+    }
+
+    /**
+     * Aplica en el hilo de la interfaz los eventos externos encolados.
+     * <p>
+     * Durante una carga se descartan, porque {@link #terminarCarga()} vuelve a leer el
+     * almacenamiento.
+     * </p>
+     */
+    private void aplicarPendientes() {
+        aplicacionPendiente.set(false);
+        if (cargados != null) {
+            pendientes.clear();
+            return;
+        }
+        avanzar(Collections.emptySet(), false);
+    }
+
+    /**
+     * Pasa a la instantánea vigente del almacenamiento y notifica la diferencia.
+     * <p>
+     * A los IDs indicados se suman los de los eventos externos encolados y los
+     * arrastrados desde la transición anterior. Si el motor admite cambios incrementales, se
+     * comparan sólo los productos de esos IDs, ubicados por ID en ambas instantáneas: los
+     * que desaparecen se quitan de su posición anterior, los que aparecen se agregan en
+     * la nueva y los que cambian se reemplazan. Como el resto conserva su orden relativo,
+     * el resultado coincide con la nueva instantánea. Se notifica en cambio el reemplazo
+     * de toda la lista si el motor no admite cambios incrementales, si hay un evento
+     * {@link TipoCambio#RECARGADO} o demasiados eventos, o si las cantidades no cuadran.
+     * </p>
+     *
+     * @param ids IDs de los productos que esta lista modificó
+     * @param reemplazar {@code true} para notificar el reemplazo de toda la lista si
+     *                   la instantánea cambió
+     */
+    private void avanzar(Collection<String> ids, boolean reemplazar) {
+        InstantaneaProductos anterior = vista;
+        InstantaneaProductos nueva = crud.instantanea();
+        Set<String> recibidos = new LinkedHashSet<>();
+        boolean incremental = tomarPendientes(recibidos);
+        if (nueva == anterior) {
+            arrastrados.addAll(recibidos);
+            reemplazoArrastrado |= !incremental || arrastrados.size() > MAXIMO_EVENTOS_INCREMENTALES;
+            return;
+        }
+        Set<String> afectados = new LinkedHashSet<>(ids);
+        afectados.addAll(arrastrados);
+        afectados.addAll(recibidos);
+        boolean completo = reemplazar || reemplazoArrastrado || !incremental;
+        vista = nueva;
+        arrastrados = recibidos;
+        reemplazoArrastrado = !incremental;
+        if (completo || !crud.admiteCambiosIncrementales()) {
+            notificarReemplazo(anterior.comoLista());
+            return;
+        }
+        List<Integer> quitadas = new ArrayList<>();
+        List<Integer> agregadas = new ArrayList<>();
+        List<int[]> reemplazadas = new ArrayList<>();
+        for (String id : afectados) {
+            int antes = anterior.indiceDe(id);
+            int despues = nueva.indiceDe(id);
+            if (antes >= 0 && despues < 0) {
+                quitadas.add(antes);
+            } else if (antes < 0 && despues >= 0) {
+                agregadas.add(despues);
+            } else if (antes >= 0 && anterior.get(antes) != nueva.get(despues)) {
+                reemplazadas.add(new int[] {antes, despues});
+            }
+        }
+        if (anterior.size() - quitadas.size() + agregadas.size() != nueva.size()) {
+            notificarReemplazo(anterior.comoLista());
+            return;
+        }
+        quitadas.sort(Collections.reverseOrder());
+        agregadas.sort(null);
+        beginChange();
+        for (int fila : quitadas) {
+            nextRemove(fila, anterior.get(fila));
+        }
+        for (int fila : agregadas) {
+            nextAdd(fila, fila + 1);
+        }
+        for (int[] fila : reemplazadas) {
+            nextSet(fila[1], anterior.get(fila[0]));
+        }
+        endChange();
+    }
+
+    /**
+     * Retira los eventos externos encolados y agrega a un conjunto los IDs que nombran.
+     *
+     * @param ids Conjunto donde se agregan los IDs
+     * @return {@code false} si hay un evento {@link TipoCambio#RECARGADO} o más de
+     *         {@value #MAXIMO_EVENTOS_INCREMENTALES} eventos, que no se ubican por ID
+     */
+    private boolean tomarPendientes(Set<String> ids) {
+        int cantidad = 0;
+        boolean incremental = true;
+        for (EventoCambio evento = pendientes.poll(); evento != null; evento = pendientes.poll()) {
+            if (evento.getTipo() == TipoCambio.RECARGADO || ++cantidad > MAXIMO_EVENTOS_INCREMENTALES) {
+                incremental = false;
+            } else {
+                ids.add(evento.getIdAnterior());
+                ids.add(evento.getId());
+            }
+        }
+        return incremental;
+    }
+
+    /**
+     * Notifica que toda la lista fue reemplazada por las filas vigentes.
+     *
+     * @param anteriores Filas mostradas antes del cambio
+     */
+    private void notificarReemplazo(List<Producto> anteriores) {
+        if (anteriores.isEmpty() && isEmpty()) {
+            return;
+        }
+        beginChange();
+        if (!anteriores.isEmpty()) {
+            nextRemove(0, anteriores);
+        }
+        if (!isEmpty()) {
+            nextAdd(0, size());
+        }
+        endChange();
+    }
+
+    /**
+     * Verifica que no haya una carga en curso antes de modificar el almacenamiento.
+     *
+     * @throws IllegalStateException Si hay una carga en curso
+     */
+    private void verificarSinCarga() {
+        if (cargados != null) {
+            throw new IllegalStateException("Hay una carga en curso");
+        }
+    }
+}
\ No newline at end of file
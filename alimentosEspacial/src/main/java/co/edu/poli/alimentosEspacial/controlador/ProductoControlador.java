@@ -1,11 +1,18 @@
 package co.edu.poli.alimentosEspacial.controlador;
 
+import java.io.IOException;
 import java.util.Optional;
+import java.util.Properties;
+import java.util.function.Consumer;
 import co.edu.poli.alimentosEspacial.modelo.*;
 import co.edu.poli.alimentosEspacial.servicios.*;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -29,6 +36,7 @@ public class ProductoControlador {
     // Componentes de la interfaz gráfica
     @FXML private Button btnCrear, btnActualizar, btnEliminar, btnLimpiar, btnGuardar, btnCargar;
     @FXML private Label lblContador;
+    @FXML private ProgressBar barCarga;
     @FXML private Label lblFechaCaducidad, lblTipoAlimento, lblCalorias;
     @FXML private Label lblUsoEspecifico, lblFechaEsterilizacion, lblUdt;
     @FXML private Label lblFuncion, lblMaterial;
@@ -50,17 +58,26 @@ public class ProductoControlador {
     
     @FXML private ToggleGroup categoria;
     
-    /** Lista observable de productos para la tabla */
-    ObservableList<Producto> productos;
+    /** Lista observable de la tabla, leída directamente del almacenamiento */
+    ListaObservableProductos productos;
+    
+    /**
+     * Vista de la lista en el orden elegido en la tabla, o {@code null} mientras la
+     * tabla muestre la lista directamente
+     */
+    SortedList<Producto> productosOrdenados;
+    
+    /** Almacenamiento elegido por la configuración */
+    Almacenamiento almacenamiento;
     
     /** Servicio para operaciones CRUD */
-    ImplementacionOperacionCRUD crud;
+    OperacionCRUD crud;
     
-    /** Ruta del archivo de datos */
-    private final String PATH = ".";
+    /** Servicio que guarda los datos en segundo plano */
+    ServicioGuardado servicioGuardado;
     
-    /** Nombre del archivo de datos */
-    private final String NOMBRE_ARCHIVO = "productos.dat";
+    /** Cantidad de productos que se agregan a la tabla en cada lote de la carga */
+    private final int TAMANO_LOTE_CARGA = 500;
 
     /**
      * Método de inicialización del controlador.
@@ -71,8 +88,12 @@ public class ProductoControlador {
      */
     @FXML
     public void initialize() {
-        productos = FXCollections.observableArrayList();
-        crud = new ImplementacionOperacionCRUD();
+        almacenamiento = abrirAlmacenamiento();
+        crud = almacenamiento.getOperaciones();
+        productos = new ListaObservableProductos(crud, Platform::runLater);
+        productos.addListener((ListChangeListener<Producto>) cambio -> actualizarContador());
+        servicioGuardado = new ServicioGuardado(almacenamiento::guardar, Platform::runLater,
+                                                this::mostrarResultadoGuardado);
 
         cargarDatosIniciales();
         configurarComboBoxes();
@@ -81,30 +102,149 @@ public class ProductoControlador {
     }
     
     /**
-     * Carga los datos iniciales desde el archivo de serialización.
+     * Crea el almacenamiento indicado en la configuración.
      * <p>
-     * Intenta cargar productos previamente guardados. Si no existen datos previos,
-     * inicializa con una lista vacía.
+     * El motor se elige con {@link ConfiguracionAlmacenamiento}, que lee el archivo
+     * {@value ConfiguracionAlmacenamiento#ARCHIVO} y las propiedades del sistema. Si el
+     * archivo no puede leerse se avisa al usuario y se usa la configuración por defecto.
      * </p>
+     *
+     * @return Almacenamiento creado, sin cargar
      */
-    private void cargarDatosIniciales() {
+    private Almacenamiento abrirAlmacenamiento() {
+        ConfiguracionAlmacenamiento configuracion;
         try {
-            Producto[] productosCargados = crud.deserializar(PATH, NOMBRE_ARCHIVO);
-            if (productosCargados != null) {
-                crud.setProductos(productosCargados);
-                productos.clear();
-                for (Producto p : crud.read()) {
-                    if (p != null) {
-                        productos.add(p);
-                    }
-                }
-                loadTable();
+            configuracion = ConfiguracionAlmacenamiento.cargar();
+        } catch (IOException e) {
+            Alert a = new Alert(AlertType.WARNING);
+            a.setContentText("Error al leer la configuración del almacenamiento: " + e.getMessage()
+                    + ". Se usará la configuración por defecto.");
+            a.show();
+            configuracion = new ConfiguracionAlmacenamiento(new Properties());
+        }
+        return configuracion.abrir();
+    }
+    
+    /**
+     * Carga los datos iniciales desde el almacenamiento configurado.
+     * <p>
+     * Con el almacenamiento por defecto, recupera la última instantánea guardada y
+     * reproduce sobre ella las operaciones registradas en el diario. Si no existen datos
+     * previos, inicializa con una lista vacía.
+     * </p>
+     * <p>
+     * La carga ocurre en segundo plano, por lo que la ventana se muestra de inmediato.
+     * Si la carga falla o el almacenamiento advierte que tuvo que descartar datos, por
+     * ejemplo una instantánea dañada, se muestra el mensaje.
+     * </p>
+     */
+    private void cargarDatosIniciales() {
+        loadTable();
+        cargarEnSegundoPlano(resultado -> {
+            if (resultado.startsWith("Error") || resultado.startsWith("Advertencia")) {
+                Alert a = new Alert(AlertType.WARNING);
+                a.setContentText(resultado);
+                a.show();
+            }
+        });
+    }
+    
+    /**
+     * Recupera el inventario del almacenamiento en un hilo de fondo.
+     * <p>
+     * Los productos se agregan a la tabla por lotes a medida que se leen, mientras la
+     * barra de progreso muestra el avance. Al terminar, la tabla pasa a leer el
+     * almacenamiento, cuyo contenido incluye por ejemplo las operaciones reproducidas del
+     * diario o los productos de un motor que no entrega lotes. Durante
+     * la carga los botones que modifican el inventario quedan deshabilitados.
+     * </p>
+     *
+     * @param alTerminar Acción que recibe el mensaje del resultado, o {@code null}
+     */
+    private void cargarEnSegundoPlano(Consumer<String> alTerminar) {
+        productos.iniciarCarga();
+        Task<String> carga = new Task<String>() {
+            @Override
+            protected String call() {
+                return almacenamiento.cargar((lote, leidos, total) -> {
+                    updateProgress(leidos, total);
+                    Platform.runLater(() -> {
+                        productos.agregarCargados(lote);
+                    });
+                }, TAMANO_LOTE_CARGA);
             }
-        } catch (Exception e) {
-            System.out.println("No hay datos previos: " + e.getMessage());
+        };
+        carga.setOnSucceeded(e -> terminarCarga(carga.getValue(), alTerminar));
+        carga.setOnFailed(e -> terminarCarga("Error al cargar archivo: " + carga.getException().getMessage(),
+                                             alTerminar));
+        barCarga.progressProperty().bind(carga.progressProperty());
+        barCarga.setVisible(true);
+        habilitarEdicion(false);
+        Thread hilo = new Thread(carga, "carga-productos");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+    
+    /**
+     * Restablece la interfaz al terminar una carga en segundo plano.
+     *
+     * @param resultado Mensaje del resultado de la carga
+     * @param alTerminar Acción que recibe el mensaje del resultado, o {@code null}
+     */
+    private void terminarCarga(String resultado, Consumer<String> alTerminar) {
+        barCarga.progressProperty().unbind();
+        barCarga.setVisible(false);
+        productos.terminarCarga();
+        ajustarOrdenTabla();
+        habilitarEdicion(true);
+        if (alTerminar != null) {
+            alTerminar.accept(resultado);
         }
     }
     
+    /**
+     * Permite ordenar la tabla por columnas si la lista no es perezosa.
+     * <p>
+     * Una {@link SortedList} lee todos los productos para ordenarlos, lo que con una
+     * instantánea perezosa, como la del almacenamiento mapeado, decodificaría el
+     * inventario completo. En ese caso la tabla sigue mostrando la lista directamente,
+     * en el orden del almacenamiento, y sólo lee las filas visibles. El almacenamiento no
+     * cambia de tipo, así que la vista ordenada se crea una sola vez.
+     * </p>
+     */
+    private void ajustarOrdenTabla() {
+        if (productosOrdenados != null || productos.isPerezosa()) {
+            return;
+        }
+        productosOrdenados = new SortedList<>(productos);
+        productosOrdenados.comparatorProperty().bind(tblView.comparatorProperty());
+        tblView.setItems(productosOrdenados);
+        tblView.getColumns().forEach(columna -> columna.setSortable(true));
+    }
+    
+    /**
+     * Obtiene la posición en la lista de una fila de la tabla.
+     *
+     * @param fila Posición de la fila en la tabla
+     * @return Posición del producto en la lista
+     */
+    private int indiceEnLista(int fila) {
+        return productosOrdenados != null ? productosOrdenados.getSourceIndex(fila) : fila;
+    }
+    
+    /**
+     * Habilita o deshabilita los botones que modifican el inventario.
+     *
+     * @param habilitar {@code true} para habilitarlos
+     */
+    private void habilitarEdicion(boolean habilitar) {
+        btnCrear.setDisable(!habilitar);
+        btnActualizar.setDisable(!habilitar);
+        btnEliminar.setDisable(!habilitar);
+        btnGuardar.setDisable(!habilitar);
+        btnCargar.setDisable(!habilitar);
+    }
+    
     /**
      * Configura los ComboBoxes de la interfaz.
      * <p>
@@ -228,7 +368,8 @@ public class ProductoControlador {
     /**
      * Actualiza el contador de productos en la interfaz.
      * <p>
-     * Muestra la cantidad total de productos en la lista.
+     * Muestra la cantidad total de productos en la lista. Se invoca en cada cambio de
+     * la lista observable, incluidos los que el almacenamiento notifica por su cuenta.
      * </p>
      */
     private void actualizarContador() {
@@ -241,7 +382,7 @@ public class ProductoControlador {
      * Maneja el evento de crear un nuevo producto.
      * <p>
      * Valida los campos, crea el producto según la categoría seleccionada
-     * y lo agrega a la lista.
+     * y lo agrega al almacenamiento, que la tabla muestra directamente.
      * </p>
      *
      * @param event Evento de acción del botón Crear
@@ -302,10 +443,7 @@ public class ProductoControlador {
                 }
 
                 if (nuevoProducto != null) {
-                    a.setContentText(crud.create(nuevoProducto));
-                    productos.add(nuevoProducto);
-                    loadTable();
-                    actualizarContador();
+                    a.setContentText(productos.crear(nuevoProducto));
                     clear();
                 }
 
@@ -325,15 +463,26 @@ public class ProductoControlador {
         /**
          * Maneja el evento de guardar los productos en archivo.
          * <p>
-         * Serializa la lista actual de productos y los guarda en el archivo especificado.
+         * Solicita un guardado al almacenamiento; con el almacenamiento por defecto es un
+         * punto de control que escribe los productos modificados y vacía el diario.
+         * La escritura ocurre en segundo plano y varias pulsaciones seguidas se combinan
+         * en una sola; el resultado se muestra al terminar.
          * </p>
          *
          * @param event Evento de acción del botón Guardar
          */
         @FXML
         void pressGuardar(ActionEvent event) {
-            Alert a = new Alert(AlertType.INFORMATION);
-            String mensaje = crud.serializar(crud.read(), PATH, NOMBRE_ARCHIVO);
+            servicioGuardado.solicitar();
+        }
+
+        /**
+         * Muestra el resultado de un guardado en segundo plano.
+         *
+         * @param mensaje Mensaje del resultado o del error
+         */
+        private void mostrarResultadoGuardado(String mensaje) {
+            Alert a = new Alert(mensaje.startsWith("Error") ? AlertType.WARNING : AlertType.INFORMATION);
             a.setContentText(mensaje);
             a.show();
         }
@@ -341,45 +490,32 @@ public class ProductoControlador {
         /**
          * Maneja el evento de cargar productos desde archivo.
          * <p>
-         * Deserializa los productos desde el archivo y los carga en la tabla.
+         * Descarta el estado en memoria y lo recupera del almacenamiento,
+         * cargando el resultado en la tabla en segundo plano.
          * </p>
          *
          * @param event Evento de acción del botón Cargar
          */
         @FXML
         void pressCargar(ActionEvent event) {
-            Alert a = new Alert(AlertType.INFORMATION);
-            try {
-                Producto[] productosCargados = crud.deserializar(PATH, NOMBRE_ARCHIVO);
-                if (productosCargados != null) {
-                    crud.setProductos(productosCargados);
-                    productos.clear();
-                    
-                    for (Producto p : crud.read()) {
-                        if (p != null) {
-                            productos.add(p);
-                        }
-                    }
-                    
-                    loadTable();
-                    actualizarContador();
+            cargarEnSegundoPlano(resultado -> {
+                Alert a = new Alert(AlertType.INFORMATION);
+                if (!resultado.startsWith("Error") && !resultado.startsWith("Advertencia")) {
                     a.setContentText("Archivo cargado exitosamente");
                 } else {
                     a.setAlertType(AlertType.WARNING);
-                    a.setContentText("No se encontró el archivo");
+                    a.setContentText(resultado);
                 }
-            } catch (Exception e) {
-                a.setAlertType(AlertType.WARNING);
-                a.setContentText("Error al cargar archivo: " + e.getMessage());
-            }
-            a.show();
+                a.show();
+            });
         }
 
         /**
          * Maneja el evento de actualizar un producto existente.
          * <p>
          * Toma el producto seleccionado en la tabla y actualiza sus datos
-         * con la información de los campos del formulario.
+         * con la información de los campos del formulario. La fila se reemplaza
+         * por su posición, sin buscar el producto en la lista.
          * </p>
          *
          * @param event Evento de acción del botón Actualizar
@@ -389,6 +525,7 @@ public class ProductoControlador {
             Alert a = new Alert(AlertType.CONFIRMATION);
             try {
                 Producto oldProducto = tblView.getSelectionModel().getSelectedItem();
+                int indice = tblView.getSelectionModel().getSelectedIndex();
 
                 if (oldProducto == null) {
                     throw new Exception("Debe seleccionar un producto de la tabla");
@@ -427,10 +564,8 @@ public class ProductoControlador {
                 }
 
                 if (productoActualizado != null) {
-                    productos.set(productos.indexOf(oldProducto), productoActualizado);
-                    a.setContentText(crud.update(oldProducto.getId(), productoActualizado));
-                    loadTable();
-                    actualizarContador();
+                    a.setContentText(productos.actualizar(indiceEnLista(indice),
+                                                          productoActualizado));
                     clear();
                 }
 
@@ -445,7 +580,7 @@ public class ProductoControlador {
          * Maneja el evento de eliminar un producto.
          * <p>
          * Solicita confirmación al usuario y elimina el producto seleccionado
-         * tanto de la lista como del servicio CRUD.
+         * del almacenamiento; la tabla se actualiza a través de la lista observable.
          * </p>
          *
          * @param event Evento de acción del botón Eliminar
@@ -458,16 +593,13 @@ public class ProductoControlador {
                 Optional<ButtonType> result = a.showAndWait();
                 
                 if (result.isPresent() && result.get() == ButtonType.OK) {
-                    Producto p = tblView.getSelectionModel().getSelectedItem();
+                    int indice = tblView.getSelectionModel().getSelectedIndex();
                     
-                    if (p == null) {
+                    if (indice < 0) {
                         throw new Exception("Debe seleccionar un producto");
                     }
                     
-                    crud.delete(p.getId());
-                    productos.remove(p);
-                    loadTable();
-                    actualizarContador();
+                    productos.eliminar(indiceEnLista(indice));
                     clear();
                     
                     a = new Alert(AlertType.INFORMATION);
@@ -554,6 +686,8 @@ public class ProductoControlador {
                 return new SimpleStringProperty("-");
             });
             
+            // Hasta terminar la carga la tabla muestra la lista sin ordenar
+            tblView.getColumns().forEach(columna -> columna.setSortable(false));
             tblView.setItems(productos);
         }
 
@@ -665,4 +799,17 @@ public class ProductoControlador {
                 a.show();
             }
         }
+
+        /**
+         * Libera los recursos del controlador al cerrar la aplicación.
+         * <p>
+         * Espera a que terminen los guardados solicitados y luego cierra el
+         * almacenamiento, que sincroniza con el disco los cambios pendientes.
+         * </p>
+         */
+        public void cerrar() {
+            servicioGuardado.close();
+            productos.desconectar();
+            almacenamiento.close();
+        }
     }
\ No newline at end of file
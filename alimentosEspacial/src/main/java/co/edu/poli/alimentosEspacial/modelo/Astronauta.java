@@ -1,5 +1,6 @@
 package co.edu.poli.alimentosEspacial.modelo;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 /**
@@ -200,4 +201,16 @@ public class Astronauta implements Serializable {
     public String getInfoResumida() {
         return nombre + " (" + rango + ") - " + especialidad;
     }
+    
+    /**
+     * Serializa al astronauta en su forma compacta, de modo que un astronauta enviado
+     * solo en un flujo no arrastra el descriptor de clase con los nombres de sus campos.
+     *
+     * @return Forma serializada del objeto
+     * @throws ObjectStreamException No se lanza; la declara el contrato de serialización
+     * @see FormaSerializada
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return FormaSerializada.reemplazar(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package co.edu.poli.alimentosEspacial.modelo;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Forma serializada compacta de las naves, misiones y astronautas.
+ * <p>
+ * Esas clases se reemplazan por ésta al serializarse, mediante {@code writeReplace},
+ * y ella las reconstruye al deserializarse, mediante {@code readResolve}. Como es
+ * {@link Externalizable}, el flujo contiene un solo descriptor de clase sin nombres de
+ * campo, y los campos se escriben y leen con llamadas directas en lugar de la
+ * reflexión de la serialización por defecto.
+ * </p>
+ * <p>
+ * Cada objeto se codifica como la versión del formato, una etiqueta con su clase y sus
+ * campos en el orden de los constructores. Los textos llevan un marcador que admite
+ * {@code null} y textos de cualquier longitud; a diferencia de la serialización por
+ * defecto, los textos repetidos no se comparten por referencia. Sólo se reemplazan
+ * las clases exactas; una subclase definida en otro lugar conserva la serialización
+ * por defecto para no perder sus campos.
+ * </p>
+ * <p>
+ * El costo de no compartir textos es el tamaño de los flujos con muchos objetos: según
+ * {@code BenchmarkSerializacion}, un arreglo de 100.000 naves, misiones y astronautas
+ * pasa de unos 4,9 MB a 6,8 MB. Se acepta porque estas clases se serializan sobre todo
+ * de a un objeto por flujo, y ahí el mismo benchmark baja de 22,6 MB a 13,6 MB, al no
+ * escribir los descriptores con los nombres de sus campos. Los productos no usan esta forma: sus
+ * arreglos son la carga habitual del formato {@code SERIALIZACION_JAVA}, donde compartir
+ * las fechas y los tipos repetidos pesa más que el ahorro de descriptores. Los flujos
+ * de productos escritos con esta forma por versiones anteriores se siguen leyendo.
+ * </p>
+ * <p>
+ * Los archivos anteriores, escritos con la serialización por defecto, siguen siendo
+ * legibles: las clases del modelo conservan sus campos serializables y su
+ * {@code serialVersionUID = 1L}, de modo que un flujo con sus descriptores se lee
+ * campo a campo como antes.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see Producto
+ */
+final class FormaSerializada implements Externalizable {
+
+    /**
+     * Identificador único para la serialización.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /** Versión del formato de los campos. */
+    private static final int VERSION = 1;
+
+    /** Etiqueta de {@link Producto}, sólo en flujos escritos por versiones anteriores. */
+    private static final byte PRODUCTO = 0;
+
+    /** Etiqueta de {@link Alimento}. */
+    private static final byte ALIMENTO = 1;
+
+    /** Etiqueta de {@link EquipoMedico}. */
+    private static final byte EQUIPO_MEDICO = 2;
+
+    /** Etiqueta de {@link Herramienta}. */
+    private static final byte HERRAMIENTA = 3;
+
+    /** Etiqueta de {@link EquipoComunicacion}. */
+    private static final byte EQUIPO_COMUNICACION = 4;
+
+    /** Etiqueta de {@link NaveEspacial}. */
+    private static final byte NAVE_ESPACIAL = 5;
+
+    /** Etiqueta de {@link Mision}. */
+    private static final byte MISION = 6;
+
+    /** Etiqueta de {@link Astronauta}. */
+    private static final byte ASTRONAUTA = 7;
+
+    /** Etiqueta de las clases que no tienen forma compacta. */
+    private static final int SIN_ETIQUETA = -1;
+
+    /** Marcador de texto nulo. */
+    private static final byte TEXTO_NULO = 0;
+
+    /** Marcador de texto escrito con {@code writeUTF}. */
+    private static final byte TEXTO_CORTO = 1;
+
+    /** Marcador de texto escrito carácter por carácter. */
+    private static final byte TEXTO_LARGO = 2;
+
+    /**
+     * Longitud máxima de un texto corto; en UTF-8 modificado cada carácter ocupa a lo
+     * sumo tres bytes y {@code writeUTF} admite hasta 65535.
+     */
+    private static final int LONGITUD_MAXIMA_CORTO = 65535 / 3;
+
+    /** Objeto serializado o reconstruido. */
+    private Object objeto;
+
+    /**
+     * Constructor sin parámetros que usa la deserialización.
+     */
+    public FormaSerializada() {
+    }
+
+    /**
+     * Constructor con el objeto a serializar.
+     *
+     * @param objeto Objeto de una de las clases del modelo
+     */
+    private FormaSerializada(Object objeto) {
+        this.objeto = objeto;
+    }
+
+    /**
+     * Obtiene el reemplazo de un objeto del modelo al serializarlo.
+     *
+     * @param objeto Objeto que se serializa
+     * @return Forma compacta del objeto, o el mismo objeto si su clase no tiene una
+     */
+    static Object reemplazar(Object objeto) {
+        return etiquetaDe(objeto) == SIN_ETIQUETA ? objeto : new FormaSerializada(objeto);
+    }
+
+    /**
+     * Obtiene la etiqueta de la clase exacta de un objeto.
+     *
+     * @param objeto Objeto del modelo
+     * @return Etiqueta, o {@link #SIN_ETIQUETA} si la clase no se escribe en forma compacta
+     */
+    private static int etiquetaDe(Object objeto) {
+        Class<?> clase = objeto.getClass();
+        if (clase == NaveEspacial.class) {
+            return NAVE_ESPACIAL;
+        } else if (clase == Mision.class) {
+            return MISION;
+        } else if (clase == Astronauta.class) {
+            return ASTRONAUTA;
+        }
+        return SIN_ETIQUETA;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput salida) throws IOException {
+        int etiqueta = etiquetaDe(objeto);
+        salida.writeByte(VERSION);
+        salida.writeByte(etiqueta);
+        switch (etiqueta) {
+            case NAVE_ESPACIAL:
+                NaveEspacial nave = (NaveEspacial) objeto;
+                escribirTexto(salida, nave.getIdNave());
+                escribirTexto(salida, nave.getModelo());
+                salida.writeDouble(nave.getCapacidadPeso());
+                salida.writeDouble(nave.getCapacidadVol());
+                salida.writeDouble(nave.getPesoActual());
+                salida.writeDouble(nave.getVolumenActual());
+                break;
+            case MISION:
+                Mision mision = (Mision) objeto;
+                escribirTexto(salida, mision.getCodigoMision());
+                escribirTexto(salida, mision.getNombre());
+                escribirTexto(salida, mision.getFechalnicio());
+                escribirTexto(salida, mision.getFechaFin());
+                escribirTexto(salida, mision.getDestino());
+                escribirTexto(salida, mision.getEstado());
+                break;
+            case ASTRONAUTA:
+                Astronauta astronauta = (Astronauta) objeto;
+                escribirTexto(salida, astronauta.getIdAstronauta());
+                escribirTexto(salida, astronauta.getNombre());
+                escribirTexto(salida, astronauta.getEspecialidad());
+                escribirTexto(salida, astronauta.getRango());
+                salida.writeBoolean(astronauta.isEsEMision());
+                break;
+            default:
+                throw new InvalidObjectException("Clase sin forma serializada: " + objeto.getClass().getName());
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput entrada) throws IOException {
+        int version = entrada.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidObjectException("Versión de forma serializada no soportada: " + version);
+        }
+        int etiqueta = entrada.readUnsignedByte();
+        switch (etiqueta) {
+            case PRODUCTO:
+                objeto = new Producto(leerTexto(entrada), leerTexto(entrada),
+                                      entrada.readDouble(), entrada.readDouble());
+                break;
+            case ALIMENTO:
+                objeto = new Alimento(leerTexto(entrada), leerTexto(entrada),
+                                      entrada.readDouble(), entrada.readDouble(),
+                                      leerTexto(entrada), leerTexto(entrada), entrada.readInt());
+                break;
+            case EQUIPO_MEDICO:
+                objeto = new EquipoMedico(leerTexto(entrada), leerTexto(entrada),
+                                          entrada.readDouble(), entrada.readDouble(),
+                                          leerTexto(entrada), entrada.readBoolean(),
+                                          leerTexto(entrada), leerTexto(entrada));
+                break;
+            case HERRAMIENTA:
+                objeto = new Herramienta(leerTexto(entrada), leerTexto(entrada),
+                                         entrada.readDouble(), entrada.readDouble(),
+                                         leerTexto(entrada), leerTexto(entrada), entrada.readBoolean());
+                break;
+            case EQUIPO_COMUNICACION:
+                objeto = new EquipoComunicacion(leerTexto(entrada), leerTexto(entrada),
+                                                entrada.readDouble(), entrada.readDouble(),
+                                                leerTexto(entrada), entrada.readDouble(), entrada.readInt());
+                break;
+            case NAVE_ESPACIAL:
+                NaveEspacial nave = new NaveEspacial(leerTexto(entrada), leerTexto(entrada),
+                                                     entrada.readDouble(), entrada.readDouble());
+                nave.setPesoActual(entrada.readDouble());
+                nave.setVolumenActual(entrada.readDouble());
+                objeto = nave;
+                break;
+            case MISION:
+                objeto = new Mision(leerTexto(entrada), leerTexto(entrada), leerTexto(entrada),
+                                    leerTexto(entrada), leerTexto(entrada), leerTexto(entrada));
+                break;
+            case ASTRONAUTA:
+                objeto = new Astronauta(leerTexto(entrada), leerTexto(entrada), leerTexto(entrada),
+                                        leerTexto(entrada), entrada.readBoolean());
+                break;
+            default:
+                throw new InvalidObjectException("Etiqueta de forma serializada desconocida: " + etiqueta);
+        }
+    }
+
+    /**
+     * Reemplaza la forma serializada por el objeto reconstruido.
+     *
+     * @return Objeto del modelo
+     */
+    private Object readResolve() {
+        return objeto;
+    }
+
+    /**
+     * Escribe un texto que puede ser nulo o de cualquier longitud.
+     *
+     * @param salida Flujo de salida
+     * @param texto Texto a escribir, o {@code null}
+     * @throws IOException Si falla la escritura
+     */
+    private static void escribirTexto(ObjectOutput salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeByte(TEXTO_NULO);
+        } else if (texto.length() <= LONGITUD_MAXIMA_CORTO) {
+            salida.writeByte(TEXTO_CORTO);
+            salida.writeUTF(texto);
+        } else {
+            salida.writeByte(TEXTO_LARGO);
+            salida.writeInt(texto.length());
+            salida.writeChars(texto);
+        }
+    }
+
+    /**
+     * Lee un texto escrito por {@link #escribirTexto(ObjectOutput, String)}.
+     *
+     * @param entrada Flujo de entrada
+     * @return Texto leído, o {@code null}
+     * @throws IOException Si falla la lectura o el marcador no es válido
+     */
+    private static String leerTexto(ObjectInput entrada) throws IOException {
+        int marcador = entrada.readUnsignedByte();
+        switch (marcador) {
+            case TEXTO_NULO:
+                return null;
+            case TEXTO_CORTO:
+                return entrada.readUTF();
+            case TEXTO_LARGO:
+                int longitud = entrada.readInt();
+                if (longitud < 0) {
+                    throw new InvalidObjectException("Longitud de texto no válida: " + longitud);
+                }
+                char[] caracteres = new char[longitud];
+                for (int i = 0; i < longitud; i++) {
+                    caracteres[i] = entrada.readChar();
+                }
+                return new String(caracteres);
+            default:
+                throw new InvalidObjectException("Marcador de texto desconocido: " + marcador);
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package co.edu.poli.alimentosEspacial.modelo;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 /**
@@ -318,4 +319,16 @@ public class Mision implements Serializable {
             return "La misión no está en estado Planificada, no puede prepararse para lanzamiento";
         }
     }
+    
+    /**
+     * Serializa la misión en su forma compacta: sus seis textos, en el orden del
+     * constructor, incluidos los nulos.
+     *
+     * @return Forma serializada del objeto
+     * @throws ObjectStreamException No se lanza; la declara el contrato de serialización
+     * @see FormaSerializada
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return FormaSerializada.reemplazar(this);
+    }
 }
\ No newline at end of file
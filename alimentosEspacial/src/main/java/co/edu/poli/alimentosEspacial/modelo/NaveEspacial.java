@@ -1,5 +1,6 @@
 package co.edu.poli.alimentosEspacial.modelo;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 
 /**
@@ -326,4 +327,18 @@ public class NaveEspacial implements Serializable {
                ", volumenActual=" + volumenActual +
                '}';
     }
+    
+    /**
+     * Serializa la nave en su forma compacta, con sus capacidades y su carga actual.
+     * <p>
+     * La carga actual se restaura al leerla aunque el constructor la inicie en cero.
+     * </p>
+     *
+     * @return Forma serializada del objeto
+     * @throws ObjectStreamException No se lanza; la declara el contrato de serialización
+     * @see FormaSerializada
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return FormaSerializada.reemplazar(this);
+    }
 }
\ No newline at end of file
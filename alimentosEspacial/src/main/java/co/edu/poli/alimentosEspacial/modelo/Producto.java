@@ -250,4 +250,4 @@ public class Producto implements Serializable {
     public String getTipoProducto() {
         return this.getClass().getSimpleName();
     }
-}
\ No newline at end of file
+    }
\ No newline at end of file
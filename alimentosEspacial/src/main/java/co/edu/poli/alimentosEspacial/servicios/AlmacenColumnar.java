@@ -0,0 +1,376 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.Arrays;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Almacenamiento columnar de los atributos numéricos de los productos.
+ * <p>
+ * Mantiene arreglos primitivos paralelos al arreglo de productos de
+ * {@link ImplementacionOperacionCRUD}: la posición {@code i} de cada columna
+ * corresponde a la posición {@code i} del arreglo de objetos. Las sumas, promedios y
+ * filtros por rango se resuelven con bucles sobre memoria contigua, sin desreferenciar
+ * un objeto {@link Producto} por elemento.
+ * </p>
+ * <p>
+ * Las posiciones vacías tienen categoría {@link #VACIA} y valores en cero, de modo que
+ * las sumas pueden recorrer las columnas completas sin comprobar huecos. Los atributos
+ * propios de un subtipo valen cero en los productos de otras categorías.
+ * </p>
+ * <p>
+ * Todas las lecturas se sincronizan con el bloqueo del almacenamiento propietario,
+ * por lo que son seguras aunque otros hilos lo modifiquen.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD#habilitarAlmacenColumnar()
+ * @see CategoriaProducto
+ */
+public final class AlmacenColumnar {
+
+    /** Código de categoría de una posición vacía. */
+    public static final byte VACIA = 0;
+
+    /** Bloqueo del almacenamiento propietario. */
+    private final Object bloqueo;
+
+    /** Código de categoría por posición: {@link #VACIA} u ordinal de la categoría más uno. */
+    private byte[] categoria;
+
+    /** Peso en kilogramos por posición. */
+    private double[] peso;
+
+    /** Volumen en metros cúbicos por posición. */
+    private double[] volumen;
+
+    /** Calorías por ración de los alimentos. */
+    private int[] calorias;
+
+    /** Potencia en vatios de los equipos de comunicación. */
+    private int[] potencia;
+
+    /** Rango de frecuencia de los equipos de comunicación. */
+    private double[] rangoFrecuencia;
+
+    /** Límite de posiciones utilizadas; las columnas se recorren hasta aquí. */
+    private int limite;
+
+    /**
+     * Constructor del almacenamiento columnar.
+     *
+     * @param bloqueo Objeto cuyo monitor protege las modificaciones del propietario
+     * @param capacidad Capacidad inicial de las columnas
+     */
+    AlmacenColumnar(Object bloqueo, int capacidad) {
+        this.bloqueo = bloqueo;
+        categoria = new byte[capacidad];
+        peso = new double[capacidad];
+        volumen = new double[capacidad];
+        calorias = new int[capacidad];
+        potencia = new int[capacidad];
+        rangoFrecuencia = new double[capacidad];
+    }
+
+    /**
+     * Amplía las columnas hasta la capacidad indicada.
+     *
+     * @param capacidad Nueva capacidad, igual a la del arreglo de productos
+     */
+    void asegurarCapacidad(int capacidad) {
+        if (capacidad > categoria.length) {
+            categoria = Arrays.copyOf(categoria, capacidad);
+            peso = Arrays.copyOf(peso, capacidad);
+            volumen = Arrays.copyOf(volumen, capacidad);
+            calorias = Arrays.copyOf(calorias, capacidad);
+            potencia = Arrays.copyOf(potencia, capacidad);
+            rangoFrecuencia = Arrays.copyOf(rangoFrecuencia, capacidad);
+        }
+    }
+
+    /**
+     * Copia los atributos numéricos de un producto a su posición.
+     *
+     * @param posicion Posición del producto en el arreglo de objetos
+     * @param producto Producto almacenado en esa posición
+     */
+    void escribir(int posicion, Producto producto) {
+        categoria[posicion] = (byte) (CategoriaProducto.de(producto).ordinal() + 1);
+        peso[posicion] = producto.getPeso();
+        volumen[posicion] = producto.getVolumen();
+        calorias[posicion] = producto instanceof Alimento ? ((Alimento) producto).getCaloriasPorRacion() : 0;
+        if (producto instanceof EquipoComunicacion) {
+            potencia[posicion] = ((EquipoComunicacion) producto).getPotencia();
+            rangoFrecuencia[posicion] = ((EquipoComunicacion) producto).getRangoFrecuencia();
+        } else {
+            potencia[posicion] = 0;
+            rangoFrecuencia[posicion] = 0;
+        }
+        if (posicion >= limite) {
+            limite = posicion + 1;
+        }
+    }
+
+    /**
+     * Marca una posición como vacía y pone sus valores en cero.
+     *
+     * @param posicion Posición liberada
+     */
+    void borrar(int posicion) {
+        categoria[posicion] = VACIA;
+        peso[posicion] = 0;
+        volumen[posicion] = 0;
+        calorias[posicion] = 0;
+        potencia[posicion] = 0;
+        rangoFrecuencia[posicion] = 0;
+    }
+
+    /**
+     * Vacía todas las columnas.
+     */
+    void limpiar() {
+        Arrays.fill(categoria, 0, limite, VACIA);
+        Arrays.fill(peso, 0, limite, 0);
+        Arrays.fill(volumen, 0, limite, 0);
+        Arrays.fill(calorias, 0, limite, 0);
+        Arrays.fill(potencia, 0, limite, 0);
+        Arrays.fill(rangoFrecuencia, 0, limite, 0);
+        limite = 0;
+    }
+
+    /**
+     * Calcula el peso total de los productos.
+     *
+     * @return Suma del peso en kilogramos
+     */
+    public double sumaPeso() {
+        synchronized (bloqueo) {
+            return sumar(peso);
+        }
+    }
+
+    /**
+     * Calcula el volumen total de los productos.
+     *
+     * @return Suma del volumen en metros cúbicos
+     */
+    public double sumaVolumen() {
+        synchronized (bloqueo) {
+            return sumar(volumen);
+        }
+    }
+
+    /**
+     * Calcula el peso total de los productos de una categoría.
+     *
+     * @param filtro Categoría a considerar
+     * @return Suma del peso en kilogramos de esa categoría
+     */
+    public double sumaPeso(CategoriaProducto filtro) {
+        synchronized (bloqueo) {
+            byte codigo = (byte) (filtro.ordinal() + 1);
+            double suma = 0;
+            for (int i = 0; i < limite; i++) {
+                suma += categoria[i] == codigo ? peso[i] : 0;
+            }
+            return suma;
+        }
+    }
+
+    /**
+     * Calcula el promedio de peso de los productos activos.
+     *
+     * @return Peso promedio en kilogramos, o 0 si no hay productos
+     */
+    public double promedioPeso() {
+        synchronized (bloqueo) {
+            int cantidad = contarActivos();
+            return cantidad == 0 ? 0 : sumar(peso) / cantidad;
+        }
+    }
+
+    /**
+     * Calcula el total de calorías por ración de los alimentos.
+     *
+     * @return Suma de calorías por ración
+     */
+    public long sumaCalorias() {
+        synchronized (bloqueo) {
+            long suma = 0;
+            for (int i = 0; i < limite; i++) {
+                suma += calorias[i];
+            }
+            return suma;
+        }
+    }
+
+    /**
+     * Calcula el promedio de calorías por ración de los alimentos.
+     *
+     * @return Calorías promedio, o 0 si no hay alimentos
+     */
+    public double promedioCalorias() {
+        synchronized (bloqueo) {
+            byte codigo = (byte) (CategoriaProducto.ALIMENTO.ordinal() + 1);
+            long suma = 0;
+            int cantidad = 0;
+            for (int i = 0; i < limite; i++) {
+                suma += calorias[i];
+                cantidad += categoria[i] == codigo ? 1 : 0;
+            }
+            return cantidad == 0 ? 0 : (double) suma / cantidad;
+        }
+    }
+
+    /**
+     * Calcula la potencia total de los equipos de comunicación.
+     *
+     * @return Suma de potencia en vatios
+     */
+    public long sumaPotencia() {
+        synchronized (bloqueo) {
+            long suma = 0;
+            for (int i = 0; i < limite; i++) {
+                suma += potencia[i];
+            }
+            return suma;
+        }
+    }
+
+    /**
+     * Calcula el rango de frecuencia promedio de los equipos de comunicación.
+     *
+     * @return Rango de frecuencia promedio, o 0 si no hay equipos de comunicación
+     */
+    public double promedioRangoFrecuencia() {
+        synchronized (bloqueo) {
+            byte codigo = (byte) (CategoriaProducto.EQUIPO_COMUNICACION.ordinal() + 1);
+            int cantidad = 0;
+            for (int i = 0; i < limite; i++) {
+                cantidad += categoria[i] == codigo ? 1 : 0;
+            }
+            return cantidad == 0 ? 0 : sumar(rangoFrecuencia) / cantidad;
+        }
+    }
+
+    /**
+     * Cuenta los productos cuyo peso está en el rango indicado.
+     *
+     * @param minimo Peso mínimo en kilogramos, inclusive
+     * @param maximo Peso máximo en kilogramos, inclusive
+     * @return Cantidad de productos en el rango
+     */
+    public int contarPesoEntre(double minimo, double maximo) {
+        synchronized (bloqueo) {
+            return contarEntre(peso, minimo, maximo);
+        }
+    }
+
+    /**
+     * Cuenta los productos cuyo volumen está en el rango indicado.
+     *
+     * @param minimo Volumen mínimo en metros cúbicos, inclusive
+     * @param maximo Volumen máximo en metros cúbicos, inclusive
+     * @return Cantidad de productos en el rango
+     */
+    public int contarVolumenEntre(double minimo, double maximo) {
+        synchronized (bloqueo) {
+            return contarEntre(volumen, minimo, maximo);
+        }
+    }
+
+    /**
+     * Obtiene las posiciones de los productos cuyo peso está en el rango indicado.
+     * <p>
+     * Las posiciones pueden convertirse en productos con
+     * {@link ImplementacionOperacionCRUD#leerRanuras(int[])}.
+     * </p>
+     *
+     * @param minimo Peso mínimo en kilogramos, inclusive
+     * @param maximo Peso máximo en kilogramos, inclusive
+     * @return Posiciones en orden ascendente
+     */
+    public int[] ranurasPesoEntre(double minimo, double maximo) {
+        synchronized (bloqueo) {
+            return filtrarEntre(peso, minimo, maximo);
+        }
+    }
+
+    /**
+     * Obtiene las posiciones de los productos cuyo volumen está en el rango indicado.
+     *
+     * @param minimo Volumen mínimo en metros cúbicos, inclusive
+     * @param maximo Volumen máximo en metros cúbicos, inclusive
+     * @return Posiciones en orden ascendente
+     */
+    public int[] ranurasVolumenEntre(double minimo, double maximo) {
+        synchronized (bloqueo) {
+            return filtrarEntre(volumen, minimo, maximo);
+        }
+    }
+
+    /**
+     * Suma una columna hasta el límite de posiciones usadas.
+     *
+     * @param columna Columna a sumar
+     * @return Suma de los valores
+     */
+    private double sumar(double[] columna) {
+        double suma = 0;
+        for (int i = 0; i < limite; i++) {
+            suma += columna[i];
+        }
+        return suma;
+    }
+
+    /**
+     * Cuenta las posiciones ocupadas hasta el límite.
+     *
+     * @return Cantidad de productos activos
+     */
+    private int contarActivos() {
+        int cantidad = 0;
+        for (int i = 0; i < limite; i++) {
+            cantidad += categoria[i] != VACIA ? 1 : 0;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Cuenta las posiciones ocupadas cuyo valor está en un rango.
+     *
+     * @param columna Columna a evaluar
+     * @param minimo Valor mínimo, inclusive
+     * @param maximo Valor máximo, inclusive
+     * @return Cantidad de posiciones en el rango
+     */
+    private int contarEntre(double[] columna, double minimo, double maximo) {
+        int cantidad = 0;
+        for (int i = 0; i < limite; i++) {
+            double v = columna[i];
+            cantidad += (categoria[i] != VACIA & v >= minimo & v <= maximo) ? 1 : 0;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Obtiene las posiciones ocupadas cuyo valor está en un rango.
+     *
+     * @param columna Columna a evaluar
+     * @param minimo Valor mínimo, inclusive
+     * @param maximo Valor máximo, inclusive
+     * @return Posiciones en el rango, en orden ascendente
+     */
+    private int[] filtrarEntre(double[] columna, double minimo, double maximo) {
+        int[] resultado = new int[contarEntre(columna, minimo, maximo)];
+        int j = 0;
+        for (int i = 0; i < limite && j < resultado.length; i++) {
+            double v = columna[i];
+            if (categoria[i] != VACIA & v >= minimo & v <= maximo) {
+                resultado[j++] = i;
+            }
+        }
+        return resultado;
+    }
+}
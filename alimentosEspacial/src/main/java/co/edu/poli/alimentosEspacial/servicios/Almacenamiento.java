@@ -0,0 +1,64 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.Closeable;
+
+/**
+ * Almacenamiento de productos abierto por un {@link ProveedorAlmacenamiento}.
+ * <p>
+ * Reúne las operaciones CRUD de un motor de almacenamiento con su ciclo de vida: la
+ * carga del contenido persistido, el guardado y el cierre. Así quien lo usa, como el
+ * controlador de la interfaz, no depende de la implementación concreta ni de cómo
+ * persiste los datos, y el motor puede elegirse por configuración.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ProveedorAlmacenamiento
+ * @see ConfiguracionAlmacenamiento
+ */
+public interface Almacenamiento extends Closeable {
+
+    /**
+     * Obtiene las operaciones CRUD sobre el contenido del almacenamiento.
+     *
+     * @return Operaciones CRUD; siempre la misma instancia
+     */
+    OperacionCRUD getOperaciones();
+
+    /**
+     * Carga el contenido persistido, reemplazando el que haya en memoria.
+     * <p>
+     * Puede invocarse desde un hilo de fondo y más de una vez; cada invocación vuelve a
+     * leer lo persistido. Los motores que leen un archivo entregan los productos al
+     * oyente por lotes a medida que se leen; los que consultan el contenido bajo demanda
+     * pueden no invocarlo, por lo que al terminar el contenido definitivo debe obtenerse
+     * con {@link OperacionCRUD#read()}.
+     * </p>
+     *
+     * @param oyente Oyente que recibe los productos por lotes, o {@code null}
+     * @param tamanoLote Cantidad de productos por lote
+     * @return Mensaje con el resultado de la carga; comienza con {@code "Error"} si falla
+     */
+    String cargar(OyenteCarga oyente, int tamanoLote);
+
+    /**
+     * Persiste el contenido actual.
+     * <p>
+     * Puede invocarse desde un hilo de fondo, como hace {@link ServicioGuardado}.
+     * </p>
+     *
+     * @return Mensaje con el resultado del guardado; comienza con {@code "Error"} si falla
+     */
+    String guardar();
+
+    /**
+     * Libera los recursos del almacenamiento, dejando persistido lo que el motor
+     * persiste de forma continua. Lo no guardado de los motores que sólo persisten con
+     * {@link #guardar()} se descarta.
+     *
+     * @throws java.io.UncheckedIOException Si el cierre falla
+     */
+    @Override
+    void close();
+}
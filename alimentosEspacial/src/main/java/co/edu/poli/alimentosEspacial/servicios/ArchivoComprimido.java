@@ -0,0 +1,199 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Inflater;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Acceso por bloques a un archivo escrito con {@link FormatoArchivo#COMPRIMIDO}.
+ * <p>
+ * Al abrir el archivo sólo se lee su índice de bloques. Cada bloque se lee y
+ * descomprime por separado cuando se solicita, de modo que consultar unos pocos
+ * productos no requiere descomprimir el archivo completo. Los productos se numeran en
+ * el orden en que fueron escritos.
+ * </p>
+ * <p>
+ * Los métodos están sincronizados sobre la instancia.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see CodecComprimido
+ */
+public final class ArchivoComprimido implements Closeable {
+
+    /** Canal de lectura del archivo. */
+    private final FileChannel canal;
+
+    /** Posición de cada bloque en el archivo. */
+    private final long[] desplazamientos;
+
+    /** Tamaño comprimido de cada bloque. */
+    private final int[] comprimidos;
+
+    /** Tamaño descomprimido de cada bloque. */
+    private final int[] originales;
+
+    /**
+     * Cantidad de productos anteriores a cada bloque; el último elemento es el total.
+     * Es estrictamente creciente porque ningún bloque está vacío.
+     */
+    private final int[] acumulados;
+
+    /** Descompresor reutilizado entre lecturas. */
+    private final Inflater inflater = new Inflater();
+
+    /**
+     * Constructor privado; las instancias se crean con {@link #abrir(Path)}.
+     *
+     * @param canal Canal abierto sobre el archivo
+     * @param bloques Cantidad de bloques
+     */
+    private ArchivoComprimido(FileChannel canal, int bloques) {
+        this.canal = canal;
+        this.desplazamientos = new long[bloques];
+        this.comprimidos = new int[bloques];
+        this.originales = new int[bloques];
+        this.acumulados = new int[bloques + 1];
+    }
+
+    /**
+     * Abre un archivo comprimido leyendo sólo su índice de bloques.
+     *
+     * @param archivo Archivo comprimido
+     * @return Archivo abierto
+     * @throws IOException Si el archivo no puede leerse o no está en formato comprimido
+     */
+    public static ArchivoComprimido abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            ByteBuffer cabecera = leer(canal, 0, CodecComprimido.FIRMA.length + 1);
+            byte[] firma = new byte[CodecComprimido.FIRMA.length];
+            cabecera.get(firma);
+            if (!Arrays.equals(firma, CodecComprimido.FIRMA) || cabecera.get() != CodecComprimido.VERSION) {
+                throw new StreamCorruptedException("El archivo no está en formato comprimido de productos");
+            }
+            long tamano = canal.size();
+            long desplazamientoIndice = leer(canal, tamano - Long.BYTES, Long.BYTES).getLong();
+            if (desplazamientoIndice < cabecera.capacity() || desplazamientoIndice > tamano - Long.BYTES - Integer.BYTES) {
+                throw new StreamCorruptedException("Índice de bloques no válido");
+            }
+            int bloques = leer(canal, desplazamientoIndice, Integer.BYTES).getInt();
+            if (bloques < 0 || desplazamientoIndice + Integer.BYTES
+                    + (long) bloques * CodecComprimido.ENTRADA_INDICE != tamano - Long.BYTES) {
+                throw new StreamCorruptedException("Índice de bloques no válido");
+            }
+            ArchivoComprimido abierto = new ArchivoComprimido(canal, bloques);
+            ByteBuffer indice = leer(canal, desplazamientoIndice + Integer.BYTES,
+                                     bloques * CodecComprimido.ENTRADA_INDICE);
+            for (int i = 0; i < bloques; i++) {
+                abierto.desplazamientos[i] = indice.getLong();
+                abierto.comprimidos[i] = indice.getInt();
+                abierto.originales[i] = indice.getInt();
+                abierto.acumulados[i + 1] = abierto.acumulados[i] + indice.getInt();
+            }
+            return abierto;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de bloques del archivo.
+     *
+     * @return Número de bloques
+     */
+    public int getCantidadBloques() {
+        return desplazamientos.length;
+    }
+
+    /**
+     * Obtiene la cantidad total de productos del archivo, sin descomprimirlo.
+     *
+     * @return Número de productos
+     */
+    public int getCantidadProductos() {
+        return acumulados[desplazamientos.length];
+    }
+
+    /**
+     * Lee y descomprime un único bloque.
+     *
+     * @param bloque Índice del bloque
+     * @return Productos del bloque, en orden de escritura
+     * @throws IndexOutOfBoundsException Si el bloque no existe
+     * @throws IOException Si el bloque no puede leerse o no es válido
+     */
+    public synchronized List<Producto> leerBloque(int bloque) throws IOException {
+        if (bloque < 0 || bloque >= desplazamientos.length) {
+            throw new IndexOutOfBoundsException("Bloque " + bloque + " fuera de rango");
+        }
+        ByteBuffer datos = leer(canal, desplazamientos[bloque] + CodecComprimido.CABECERA_BLOQUE, comprimidos[bloque]);
+        List<Producto> productos = new ArrayList<>(acumulados[bloque + 1] - acumulados[bloque]);
+        CodecComprimido.decodificarBloque(CodecComprimido.inflar(inflater, datos.array(), originales[bloque]),
+                                          acumulados[bloque + 1] - acumulados[bloque], productos::add);
+        return productos;
+    }
+
+    /**
+     * Obtiene un producto por su posición, descomprimiendo sólo el bloque que lo contiene.
+     *
+     * @param posicion Posición del producto, en orden de escritura
+     * @return Producto en esa posición
+     * @throws IndexOutOfBoundsException Si la posición no existe
+     * @throws IOException Si el bloque no puede leerse o no es válido
+     */
+    public synchronized Producto leerProducto(int posicion) throws IOException {
+        if (posicion < 0 || posicion >= getCantidadProductos()) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + " fuera de rango");
+        }
+        int bloque = Arrays.binarySearch(acumulados, posicion);
+        if (bloque < 0) {
+            bloque = -bloque - 2;
+        }
+        return leerBloque(bloque).get(posicion - acumulados[bloque]);
+    }
+
+    /**
+     * Cierra el archivo y libera el descompresor.
+     *
+     * @throws IOException Si ocurre un error al cerrar
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        inflater.end();
+        canal.close();
+    }
+
+    /**
+     * Lee una región del archivo completa.
+     *
+     * @param canal Canal del archivo
+     * @param desde Posición inicial
+     * @param cantidad Cantidad de bytes
+     * @return Búfer con los bytes leídos, listo para leerse
+     * @throws IOException Si el archivo termina antes de la región
+     */
+    private static ByteBuffer leer(FileChannel canal, long desde, int cantidad) throws IOException {
+        ByteBuffer datos = ByteBuffer.allocate(cantidad);
+        while (datos.hasRemaining()) {
+            if (canal.read(datos, desde + datos.position()) < 0) {
+                throw new EOFException("El archivo comprimido está incompleto");
+            }
+        }
+        datos.flip();
+        return datos;
+    }
+}
@@ -0,0 +1,289 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Archivo de registros abierto para modificarse registro a registro.
+ * <p>
+ * Mantiene el desplazamiento del registro vigente de cada ID, de modo que guardar un
+ * conjunto de cambios cuesta en proporción a los cambios y no al inventario: los
+ * productos guardados se agregan al final del archivo y los registros que reemplazan
+ * o eliminan se marcan como {@link ArchivoRegistros#ELIMINADO} escribiendo un único
+ * byte en su cabecera.
+ * </p>
+ * <p>
+ * Los registros nuevos se sincronizan con el disco antes de marcar los anteriores, así
+ * que una interrupción deja a lo sumo dos registros vigentes con el mismo ID, de los
+ * que prevalece el último, o un registro final incompleto, que se descarta al abrir. El
+ * espacio de los registros marcados sólo se recupera con
+ * {@link #reescribir(Path, Iterable)}; {@link #requiereCompactacion()} indica cuándo
+ * conviene hacerlo.
+ * </p>
+ * <p>
+ * El archivo se lee y escribe sólo con operaciones posicionales del {@link FileChannel},
+ * nunca mapeándolo, porque Windows no permite truncar ni reemplazar un archivo mientras
+ * un mapeo siga vivo y Java no ofrece forma de liberarlo explícitamente. Aun así, en
+ * Windows la instancia debe cerrarse antes de reemplazar el archivo con
+ * {@link #reescribir(Path, Iterable)}.
+ * </p>
+ * <p>
+ * La clase no está sincronizada.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ArchivoRegistros
+ * @see FormatoArchivo#REGISTROS
+ */
+final class ArchivoIncremental implements Closeable {
+
+    /** Archivo de registros. */
+    private final Path archivo;
+
+    /** Canal de lectura y escritura del archivo. */
+    private final FileChannel canal;
+
+    /** Desplazamiento del registro vigente de cada ID. */
+    private final Map<String, Integer> desplazamientos;
+
+    /** Tamaño del archivo en bytes. */
+    private long tamano;
+
+    /** Bytes ocupados por registros marcados como eliminados. */
+    private long bytesMuertos;
+
+    /**
+     * Constructor privado; las instancias se crean con {@link #abrir(Path)} o
+     * {@link #reescribir(Path, Iterable)}.
+     *
+     * @param archivo Archivo de registros
+     * @param canal Canal abierto sobre el archivo
+     * @param desplazamientos Desplazamientos de los registros vigentes
+     * @param tamano Tamaño del archivo en bytes
+     * @param bytesMuertos Bytes ocupados por registros eliminados
+     */
+    private ArchivoIncremental(Path archivo, FileChannel canal, Map<String, Integer> desplazamientos,
+                               long tamano, long bytesMuertos) {
+        this.archivo = archivo;
+        this.canal = canal;
+        this.desplazamientos = desplazamientos;
+        this.tamano = tamano;
+        this.bytesMuertos = bytesMuertos;
+    }
+
+    /**
+     * Abre un archivo de registros existente, indexando sus cabeceras.
+     * <p>
+     * Descarta el registro final incompleto que pudo dejar una escritura interrumpida y
+     * marca como eliminados los registros vigentes que tienen un ID repetido, salvo el
+     * último. El archivo se lee completo en memoria, en lugar de mapearse, para poder
+     * truncarlo después en cualquier plataforma.
+     * </p>
+     *
+     * @param archivo Archivo de registros
+     * @return Archivo abierto
+     * @throws IOException Si el archivo no puede abrirse o no es un archivo de registros
+     */
+    static ArchivoIncremental abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer datos = leer(canal);
+            Map<String, Integer> desplazamientos = new HashMap<>();
+            List<Integer> repetidos = new ArrayList<>();
+            int fin = ArchivoRegistros.recorrer(datos, (id, desplazamiento) -> {
+                Integer anterior = desplazamientos.put(id, desplazamiento);
+                if (anterior != null) {
+                    repetidos.add(anterior);
+                }
+            });
+            long vigentes = 0;
+            for (int desplazamiento : desplazamientos.values()) {
+                vigentes += Integer.BYTES + datos.getInt(desplazamiento);
+            }
+            if (fin < canal.size()) {
+                canal.truncate(fin);
+            }
+            ArchivoIncremental abierto = new ArchivoIncremental(archivo, canal, desplazamientos, fin,
+                                                                fin - ArchivoRegistros.CABECERA - vigentes);
+            if (!repetidos.isEmpty()) {
+                abierto.marcarEliminados(repetidos);
+                canal.force(false);
+            }
+            return abierto;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Escribe un archivo de registros completo que reemplaza al indicado y lo abre.
+     * <p>
+     * El contenido se escribe en un archivo temporal, se sincroniza con el disco y
+     * reemplaza al anterior de forma atómica, por lo que el archivo nuevo no contiene
+     * registros eliminados.
+     * </p>
+     *
+     * @param archivo Archivo a reemplazar
+     * @param productos Productos vigentes; los elementos {@code null} se omiten
+     * @return Archivo nuevo abierto
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static ArchivoIncremental reescribir(Path archivo, Iterable<Producto> productos) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        ArchivoRegistros.escribir(temporal, productos);
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return abrir(archivo);
+    }
+
+    /**
+     * Aplica un conjunto de cambios al archivo.
+     * <p>
+     * Un ID presente en ambas colecciones se trata como eliminado y vuelto a guardar.
+     * Los IDs eliminados que no están en el archivo se ignoran.
+     * </p>
+     *
+     * @param guardados Productos creados o actualizados desde el último guardado
+     * @param eliminados IDs de los productos eliminados desde el último guardado
+     * @throws IOException Si ocurre un error de escritura; el archivo queda en un estado
+     *                     que, al abrirse, refleja el anterior o el nuevo contenido de
+     *                     cada producto, pero la instancia no debe seguir usándose
+     */
+    void aplicar(Collection<Producto> guardados, Collection<String> eliminados) throws IOException {
+        List<Integer> reemplazados = new ArrayList<>();
+        for (String id : eliminados) {
+            Integer desplazamiento = desplazamientos.remove(id);
+            if (desplazamiento != null) {
+                reemplazados.add(desplazamiento);
+            }
+        }
+        if (!guardados.isEmpty()) {
+            long fin = tamano;
+            ByteArrayOutputStream nuevos = new ByteArrayOutputStream(guardados.size() * 96);
+            Map<String, Integer> nuevosDesplazamientos = new HashMap<>();
+            for (Producto producto : guardados) {
+                nuevosDesplazamientos.put(producto.getId(), (int) fin + nuevos.size());
+                nuevos.write(ArchivoRegistros.codificar(producto));
+            }
+            if (fin + nuevos.size() > Integer.MAX_VALUE) {
+                throw new IOException("El archivo de registros supera el tamaño máximo");
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(nuevos.toByteArray());
+            while (bytes.hasRemaining()) {
+                canal.write(bytes, fin + bytes.position());
+            }
+            canal.force(false);
+            tamano = fin + nuevos.size();
+            for (Map.Entry<String, Integer> entrada : nuevosDesplazamientos.entrySet()) {
+                Integer anterior = desplazamientos.put(entrada.getKey(), entrada.getValue());
+                if (anterior != null) {
+                    reemplazados.add(anterior);
+                }
+            }
+        }
+        if (!reemplazados.isEmpty()) {
+            bytesMuertos += marcarEliminados(reemplazados);
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Indica si el espacio de los registros eliminados supera al de los vigentes.
+     *
+     * @return {@code true} si conviene reescribir el archivo completo
+     */
+    boolean requiereCompactacion() {
+        return bytesMuertos > (tamano - ArchivoRegistros.CABECERA) / 2;
+    }
+
+    /**
+     * Obtiene el archivo de registros.
+     *
+     * @return Ruta del archivo
+     */
+    Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Obtiene la cantidad de registros vigentes.
+     *
+     * @return Número de productos del archivo
+     */
+    int getCantidadRegistros() {
+        return desplazamientos.size();
+    }
+
+    /**
+     * Cierra el canal del archivo.
+     *
+     * @throws IOException Si ocurre un error al cerrar
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Lee el contenido completo de un canal en un búfer de memoria.
+     *
+     * @param canal Canal a leer desde el inicio
+     * @return Búfer con el contenido del archivo
+     * @throws IOException Si ocurre un error de lectura o el archivo supera 2 GB
+     */
+    private static ByteBuffer leer(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("El archivo de registros supera el tamaño máximo");
+        }
+        ByteBuffer datos = ByteBuffer.allocate((int) tamano);
+        while (datos.hasRemaining()) {
+            if (canal.read(datos, datos.position()) < 0) {
+                throw new EOFException("El archivo de registros cambió mientras se leía");
+            }
+        }
+        return datos.flip();
+    }
+
+    /**
+     * Marca registros como eliminados, sin sincronizar con el disco.
+     *
+     * @param registros Desplazamientos de los registros a marcar
+     * @return Bytes ocupados por los registros marcados
+     * @throws IOException Si ocurre un error de lectura o escritura
+     */
+    private long marcarEliminados(List<Integer> registros) throws IOException {
+        ByteBuffer longitud = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer estado = ByteBuffer.allocate(1);
+        long marcados = 0;
+        for (int desplazamiento : registros) {
+            longitud.clear();
+            while (longitud.hasRemaining()) {
+                if (canal.read(longitud, desplazamiento + longitud.position()) < 0) {
+                    throw new EOFException("Registro truncado en la posición " + desplazamiento);
+                }
+            }
+            estado.clear();
+            estado.put(0, ArchivoRegistros.ELIMINADO);
+            canal.write(estado, desplazamiento + Integer.BYTES);
+            marcados += Integer.BYTES + longitud.getInt(0);
+        }
+        return marcados;
+    }
+}
@@ -0,0 +1,233 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Formato de archivo de registros direccionables, pensado para leerse mapeado en memoria.
+ * <p>
+ * A diferencia de {@link FormatoArchivo}, que codifica el arreglo completo como una
+ * unidad, aquí cada producto es un registro independiente que puede localizarse por su
+ * desplazamiento y decodificarse por separado:
+ * </p>
+ * <pre>
+ * PRDR version:byte
+ * registro: longitud:int estado:byte idBytes:short id:utf8 producto
+ * </pre>
+ * <p>
+ * {@code longitud} cuenta los bytes que siguen al propio entero. El ID va en la
+ * cabecera del registro para poder construir el índice recorriendo sólo las cabeceras,
+ * y el producto se codifica con {@link FormatoBinario}. Un registro con estado
+ * {@link #ELIMINADO} se conserva en el archivo pero no forma parte del inventario. Si
+ * varios registros vigentes tienen el mismo ID, prevalece el último.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUDMapeada
+ */
+final class ArchivoRegistros {
+
+    /** Firma de los archivos de registros. */
+    static final byte[] FIRMA = {'P', 'R', 'D', 'R'};
+
+    /** Versión del formato. */
+    static final int VERSION = 1;
+
+    /** Tamaño de la cabecera del archivo: firma y versión. */
+    static final int CABECERA = FIRMA.length + 1;
+
+    /** Estado de un registro vigente. */
+    static final byte ACTIVO = 1;
+
+    /** Estado de un registro reemplazado o eliminado. */
+    static final byte ELIMINADO = 0;
+
+    /**
+     * Acción aplicada a cada registro vigente al recorrer un archivo.
+     */
+    interface VisitanteRegistro {
+
+        /**
+         * Recibe la cabecera de un registro vigente.
+         *
+         * @param id ID del producto del registro
+         * @param desplazamiento Posición del registro dentro del archivo
+         */
+        void visitar(String id, int desplazamiento);
+    }
+
+    /**
+     * Constructor privado; la clase sólo tiene métodos estáticos.
+     */
+    private ArchivoRegistros() {
+    }
+
+    /**
+     * Escribe un archivo de registros con los productos indicados.
+     *
+     * @param archivo Archivo de destino; se reemplaza si existe
+     * @param productos Productos a escribir; los elementos {@code null} se omiten
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribir(Path archivo, Iterable<Producto> productos) throws IOException {
+        try (FileOutputStream flujo = new FileOutputStream(archivo.toFile())) {
+            BufferedOutputStream salida = new BufferedOutputStream(flujo, 65536);
+            escribir(salida, productos);
+            salida.flush();
+            flujo.getFD().sync();
+        }
+    }
+
+    /**
+     * Escribe un archivo de registros completo en un flujo.
+     *
+     * @param salida Flujo de destino; no se cierra
+     * @param productos Productos a escribir; los elementos {@code null} se omiten
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribir(OutputStream salida, Iterable<Producto> productos) throws IOException {
+        salida.write(FIRMA);
+        salida.write(VERSION);
+        for (Producto producto : productos) {
+            if (producto != null) {
+                salida.write(codificar(producto));
+            }
+        }
+    }
+
+    /**
+     * Codifica un producto como un registro vigente completo.
+     *
+     * @param producto Producto a codificar
+     * @return Bytes del registro, incluida su longitud
+     * @throws IOException Si el producto no puede codificarse
+     */
+    static byte[] codificar(Producto producto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream salida = new DataOutputStream(bytes);
+        byte[] id = producto.getId().getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(0);
+        salida.writeByte(ACTIVO);
+        salida.writeShort(id.length);
+        salida.write(id);
+        FormatoBinario.escribirProducto(salida, producto);
+        byte[] registro = bytes.toByteArray();
+        ByteBuffer.wrap(registro).putInt(0, registro.length - Integer.BYTES);
+        return registro;
+    }
+
+    /**
+     * Verifica la cabecera de un archivo mapeado.
+     *
+     * @param datos Contenido del archivo
+     * @throws StreamCorruptedException Si el archivo no es un archivo de registros
+     */
+    static void verificarCabecera(ByteBuffer datos) throws StreamCorruptedException {
+        if (datos.limit() < CABECERA) {
+            throw new StreamCorruptedException("El archivo no es un archivo de registros de productos");
+        }
+        for (int i = 0; i < FIRMA.length; i++) {
+            if (datos.get(i) != FIRMA[i]) {
+                throw new StreamCorruptedException("El archivo no es un archivo de registros de productos");
+            }
+        }
+        if (datos.get(FIRMA.length) != VERSION) {
+            throw new StreamCorruptedException("Versión de archivo de registros no soportada: " + datos.get(FIRMA.length));
+        }
+    }
+
+    /**
+     * Recorre las cabeceras de todos los registros vigentes sin decodificar los productos.
+     *
+     * @param datos Contenido del archivo
+     * @param visitante Acción a aplicar a cada registro vigente
+     * @return Posición siguiente al último registro completo
+     * @throws StreamCorruptedException Si la cabecera del archivo no es válida
+     */
+    static int recorrer(ByteBuffer datos, VisitanteRegistro visitante) throws StreamCorruptedException {
+        verificarCabecera(datos);
+        int posicion = CABECERA;
+        int limite = datos.limit();
+        while (posicion + Integer.BYTES + 3 <= limite) {
+            int longitud = datos.getInt(posicion);
+            if (longitud < 3 || posicion + Integer.BYTES + longitud > limite) {
+                break;
+            }
+            if (datos.get(posicion + Integer.BYTES) == ACTIVO) {
+                visitante.visitar(leerId(datos, posicion), posicion);
+            }
+            posicion += Integer.BYTES + longitud;
+        }
+        return posicion;
+    }
+
+    /**
+     * Lee el ID de la cabecera de un registro.
+     *
+     * @param datos Contenido del archivo
+     * @param desplazamiento Posición del registro
+     * @return ID del producto
+     */
+    static String leerId(ByteBuffer datos, int desplazamiento) {
+        int inicio = desplazamiento + Integer.BYTES + 1;
+        byte[] id = new byte[datos.getShort(inicio) & 0xFFFF];
+        copiar(datos, inicio + Short.BYTES, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodifica el producto de un registro.
+     *
+     * @param datos Contenido del archivo
+     * @param desplazamiento Posición del registro
+     * @return Producto decodificado
+     * @throws IOException Si el registro no es válido
+     */
+    static Producto decodificar(ByteBuffer datos, int desplazamiento) throws IOException {
+        int longitud = datos.getInt(desplazamiento);
+        byte[] registro = new byte[longitud];
+        copiar(datos, desplazamiento + Integer.BYTES, registro);
+        return decodificar(registro, 0, longitud);
+    }
+
+    /**
+     * Decodifica el producto de un registro ya leído, sin su entero de longitud.
+     *
+     * @param datos Bytes que contienen el registro
+     * @param desde Posición del estado del registro
+     * @param longitud Longitud del registro
+     * @return Producto decodificado
+     * @throws IOException Si el registro no es válido
+     */
+    static Producto decodificar(byte[] datos, int desde, int longitud) throws IOException {
+        int saltar = 1 + Short.BYTES + (((datos[desde + 1] & 0xFF) << 8) | (datos[desde + 2] & 0xFF));
+        return FormatoBinario.leerProducto(new DataInputStream(
+                new ByteArrayInputStream(datos, desde + saltar, longitud - saltar)));
+    }
+
+    /**
+     * Copia bytes del archivo sin alterar la posición del búfer compartido.
+     *
+     * @param datos Contenido del archivo
+     * @param desde Posición inicial
+     * @param destino Arreglo a llenar
+     */
+    private static void copiar(ByteBuffer datos, int desde, byte[] destino) {
+        ByteBuffer vista = datos.duplicate();
+        vista.position(desde);
+        vista.get(destino);
+    }
+}
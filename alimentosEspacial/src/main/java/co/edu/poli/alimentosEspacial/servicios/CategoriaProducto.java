@@ -0,0 +1,71 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Enumeración de las categorías concretas de productos espaciales.
+ * <p>
+ * Permite clasificar un {@link Producto} según su subtipo sin repetir cadenas de
+ * comparaciones {@code instanceof} en cada servicio que necesita agrupar productos
+ * por categoría (estadísticas, índices, formatos de archivo).
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see Producto
+ */
+public enum CategoriaProducto {
+
+    /** Productos de tipo {@link Alimento}. */
+    ALIMENTO(Alimento.class),
+
+    /** Productos de tipo {@link EquipoMedico}. */
+    EQUIPO_MEDICO(EquipoMedico.class),
+
+    /** Productos de tipo {@link Herramienta}. */
+    HERRAMIENTA(Herramienta.class),
+
+    /** Productos de tipo {@link EquipoComunicacion}. */
+    EQUIPO_COMUNICACION(EquipoComunicacion.class),
+
+    /** Productos genéricos que no pertenecen a ninguna subclase conocida. */
+    OTRO(Producto.class);
+
+    /**
+     * Clase del modelo asociada a la categoría.
+     */
+    private final Class<? extends Producto> tipo;
+
+    /**
+     * Constructor de la categoría.
+     *
+     * @param tipo Clase del modelo asociada
+     */
+    CategoriaProducto(Class<? extends Producto> tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Obtiene la clase del modelo asociada a la categoría.
+     *
+     * @return Clase concreta del producto
+     */
+    public Class<? extends Producto> getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Determina la categoría de un producto.
+     *
+     * @param producto Producto a clasificar. No debe ser {@code null}.
+     * @return Categoría correspondiente al subtipo del producto
+     */
+    public static CategoriaProducto de(Producto producto) {
+        if (producto instanceof Alimento) return ALIMENTO;
+        if (producto instanceof EquipoMedico) return EQUIPO_MEDICO;
+        if (producto instanceof Herramienta) return HERRAMIENTA;
+        if (producto instanceof EquipoComunicacion) return EQUIPO_COMUNICACION;
+        return OTRO;
+    }
+}
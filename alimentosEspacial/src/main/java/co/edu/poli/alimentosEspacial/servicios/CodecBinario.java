@@ -0,0 +1,634 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Codificación binaria compacta y versionada de la jerarquía de productos.
+ * <p>
+ * El archivo comienza con la firma {@code PRDB} y un byte de versión, seguidos de la
+ * longitud del arreglo, un diccionario de textos y un registro por posición:
+ * </p>
+ * <pre>
+ * PRDB version:byte longitud:varint
+ * diccionario: cantidad:varint (bytes:varint utf8)*
+ * posición:    etiqueta:byte id nombre peso volumen atributos-del-subtipo
+ * </pre>
+ * <p>
+ * Los enteros se escriben como varint en zigzag, de uno a cinco bytes según su
+ * magnitud. Los decimales con hasta tres cifras decimales exactas, como {@code 2.5}
+ * o {@code 0.75}, se escriben como un entero escalado en varint; el resto ocupa los
+ * ocho bytes del {@code double}. Los textos que se repiten (fechas, materiales, tipos)
+ * se guardan una sola vez en el diccionario y cada producto los referencia por
+ * número; los que aparecen una sola vez, como el ID, se escriben en línea. Las
+ * posiciones {@code null} ocupan un único byte de etiqueta. Un producto de un tipo no
+ * contemplado se guarda con su serialización Java para no perderlo.
+ * </p>
+ * <p>
+ * La lectura carga el archivo completo en memoria y decodifica sobre el arreglo de
+ * bytes, sin flujos intermedios ni reflexión.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo#BINARIO
+ */
+final class CodecBinario implements CodecProductos {
+
+    /** Firma de los archivos en este formato. */
+    static final byte[] FIRMA = {'P', 'R', 'D', 'B'};
+
+    /** Versión del formato que escribe este codec. */
+    static final int VERSION = 1;
+
+    /** Etiqueta de una posición vacía. */
+    private static final byte NULO = 0;
+
+    /** Etiqueta de un {@link Producto} genérico. */
+    private static final byte PRODUCTO = 1;
+
+    /** Etiqueta de un {@link Alimento}. */
+    private static final byte ALIMENTO = 2;
+
+    /** Etiqueta de un {@link EquipoMedico}. */
+    private static final byte EQUIPO_MEDICO = 3;
+
+    /** Etiqueta de una {@link Herramienta}. */
+    private static final byte HERRAMIENTA = 4;
+
+    /** Etiqueta de un {@link EquipoComunicacion}. */
+    private static final byte EQUIPO_COMUNICACION = 5;
+
+    /** Etiqueta de un producto de otro tipo, guardado con serialización Java. */
+    private static final byte SERIALIZADO = 6;
+
+    /** Referencia de texto que indica que el texto sigue en línea. */
+    private static final int EN_LINEA = 1;
+
+    /** Potencias de diez de las escalas decimales admitidas. */
+    private static final double[] ESCALAS = {1, 10, 100, 1000};
+
+    @Override
+    public void escribir(Producto[] productos, OutputStream salida) throws IOException {
+        Map<String, Integer> diccionario = construirDiccionario(productos);
+        List<String> textos = new ArrayList<>();
+        Bufer cuerpo = new Bufer(productos.length * 48 + 16);
+        for (Producto producto : productos) {
+            escribirProducto(cuerpo, producto, diccionario, textos);
+        }
+
+        Bufer cabecera = new Bufer(64 + textos.size() * 16);
+        cabecera.escribirBytes(FIRMA, 0, FIRMA.length);
+        cabecera.escribirByte(VERSION);
+        cabecera.escribirVarint(productos.length);
+        cabecera.escribirVarint(textos.size());
+        for (String texto : textos) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            cabecera.escribirVarint(bytes.length);
+            cabecera.escribirBytes(bytes, 0, bytes.length);
+        }
+        salida.write(cabecera.datos, 0, cabecera.posicion);
+        salida.write(cuerpo.datos, 0, cuerpo.posicion);
+        salida.flush();
+    }
+
+    @Override
+    public Producto[] leer(InputStream entrada) throws IOException {
+        Lector lector = new Lector(entrada.readAllBytes());
+        try {
+            for (byte b : FIRMA) {
+                if (lector.leerByte() != b) {
+                    throw new StreamCorruptedException("El archivo no está en formato binario de productos");
+                }
+            }
+            int version = lector.leerByte();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Versión de formato no soportada: " + version);
+            }
+            Producto[] productos = new Producto[lector.leerLongitud()];
+            String[] textos = new String[lector.leerLongitud()];
+            for (int i = 0; i < textos.length; i++) {
+                textos[i] = lector.leerUtf8(lector.leerLongitud());
+            }
+            for (int i = 0; i < productos.length; i++) {
+                productos[i] = leerProducto(lector, textos);
+            }
+            return productos;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new EOFException("El archivo binario de productos está incompleto");
+        }
+    }
+
+    /**
+     * Identifica los textos que aparecen más de una vez entre los atributos de los
+     * productos, que son los únicos que conviene guardar en el diccionario.
+     *
+     * @param productos Productos a escribir
+     * @return Textos repetidos, asociados a -1 hasta que reciban número
+     */
+    private static Map<String, Integer> construirDiccionario(Producto[] productos) {
+        Map<String, Integer> apariciones = new HashMap<>();
+        for (Producto producto : productos) {
+            if (producto == null) {
+                continue;
+            }
+            contar(apariciones, producto.getNombre());
+            if (producto instanceof Alimento) {
+                Alimento alimento = (Alimento) producto;
+                contar(apariciones, alimento.getFechaCaducidad());
+                contar(apariciones, alimento.getTipoAlimento());
+            } else if (producto instanceof EquipoMedico) {
+                EquipoMedico equipo = (EquipoMedico) producto;
+                contar(apariciones, equipo.getUsoEspecifico());
+                contar(apariciones, equipo.getFechaEsterilizacion());
+                contar(apariciones, equipo.getUdt());
+            } else if (producto instanceof Herramienta) {
+                Herramienta herramienta = (Herramienta) producto;
+                contar(apariciones, herramienta.getFuncion());
+                contar(apariciones, herramienta.getMaterial());
+            } else if (producto instanceof EquipoComunicacion) {
+                contar(apariciones, ((EquipoComunicacion) producto).getTipoComunicacion());
+            }
+        }
+        Map<String, Integer> repetidos = new HashMap<>();
+        for (Map.Entry<String, Integer> entrada : apariciones.entrySet()) {
+            if (entrada.getValue() > 1) {
+                repetidos.put(entrada.getKey(), -1);
+            }
+        }
+        return repetidos;
+    }
+
+    /**
+     * Incrementa el contador de apariciones de un texto.
+     *
+     * @param apariciones Apariciones por texto
+     * @param texto Texto encontrado, puede ser {@code null}
+     */
+    private static void contar(Map<String, Integer> apariciones, String texto) {
+        if (texto != null) {
+            apariciones.merge(texto, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Escribe una posición del arreglo.
+     *
+     * @param salida Búfer de destino
+     * @param producto Producto de la posición, o {@code null}
+     * @param diccionario Textos repetidos, con su número o -1 si aún no lo tienen
+     * @param textos Textos del diccionario en orden de numeración
+     * @throws IOException Si un producto de tipo no contemplado no puede serializarse
+     */
+    private static void escribirProducto(Bufer salida, Producto producto,
+                                         Map<String, Integer> diccionario, List<String> textos) throws IOException {
+        if (producto == null) {
+            salida.escribirByte(NULO);
+            return;
+        }
+        Class<?> tipo = producto.getClass();
+        byte etiqueta = tipo == Producto.class ? PRODUCTO
+                : tipo == Alimento.class ? ALIMENTO
+                : tipo == EquipoMedico.class ? EQUIPO_MEDICO
+                : tipo == Herramienta.class ? HERRAMIENTA
+                : tipo == EquipoComunicacion.class ? EQUIPO_COMUNICACION
+                : SERIALIZADO;
+        salida.escribirByte(etiqueta);
+        if (etiqueta == SERIALIZADO) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(producto);
+            }
+            salida.escribirVarint(bytes.size());
+            salida.escribirBytes(bytes.toByteArray(), 0, bytes.size());
+            return;
+        }
+        salida.escribirTextoEnLinea(producto.getId());
+        salida.escribirReferencia(producto.getNombre(), diccionario, textos);
+        salida.escribirDecimal(producto.getPeso());
+        salida.escribirDecimal(producto.getVolumen());
+        switch (etiqueta) {
+            case ALIMENTO:
+                Alimento alimento = (Alimento) producto;
+                salida.escribirReferencia(alimento.getFechaCaducidad(), diccionario, textos);
+                salida.escribirReferencia(alimento.getTipoAlimento(), diccionario, textos);
+                salida.escribirVarint(alimento.getCaloriasPorRacion());
+                break;
+            case EQUIPO_MEDICO:
+                EquipoMedico equipo = (EquipoMedico) producto;
+                salida.escribirReferencia(equipo.getUsoEspecifico(), diccionario, textos);
+                salida.escribirByte(equipo.isEsEsterilizado() ? 1 : 0);
+                salida.escribirReferencia(equipo.getFechaEsterilizacion(), diccionario, textos);
+                salida.escribirReferencia(equipo.getUdt(), diccionario, textos);
+                break;
+            case HERRAMIENTA:
+                Herramienta herramienta = (Herramienta) producto;
+                salida.escribirReferencia(herramienta.getFuncion(), diccionario, textos);
+                salida.escribirReferencia(herramienta.getMaterial(), diccionario, textos);
+                salida.escribirByte(herramienta.isRequiereEnergia() ? 1 : 0);
+                break;
+            case EQUIPO_COMUNICACION:
+                EquipoComunicacion comunicacion = (EquipoComunicacion) producto;
+                salida.escribirReferencia(comunicacion.getTipoComunicacion(), diccionario, textos);
+                salida.escribirDecimal(comunicacion.getRangoFrecuencia());
+                salida.escribirVarint(comunicacion.getPotencia());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Lee una posición del arreglo.
+     *
+     * @param entrada Lector posicionado al inicio de la posición
+     * @param textos Diccionario de textos del archivo
+     * @return Producto leído, o {@code null} si la posición está vacía
+     * @throws IOException Si la etiqueta es desconocida o el producto serializado no es válido
+     */
+    private static Producto leerProducto(Lector entrada, String[] textos) throws IOException {
+        byte etiqueta = entrada.leerByte();
+        if (etiqueta == NULO) {
+            return null;
+        }
+        if (etiqueta == SERIALIZADO) {
+            int longitud = entrada.leerLongitud();
+            try (ObjectInputStream ois = new ObjectInputStream(
+                    new ByteArrayInputStream(entrada.datos, entrada.posicion, longitud))) {
+                entrada.posicion += longitud;
+                return (Producto) ois.readObject();
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new InvalidObjectException("Producto serializado no válido: " + e.getMessage());
+            }
+        }
+        String id = entrada.leerTextoEnLinea();
+        String nombre = entrada.leerReferencia(textos);
+        double peso = entrada.leerDecimal();
+        double volumen = entrada.leerDecimal();
+        switch (etiqueta) {
+            case PRODUCTO:
+                return new Producto(id, nombre, peso, volumen);
+            case ALIMENTO:
+                return new Alimento(id, nombre, peso, volumen, entrada.leerReferencia(textos),
+                                    entrada.leerReferencia(textos), entrada.leerVarint());
+            case EQUIPO_MEDICO:
+                return new EquipoMedico(id, nombre, peso, volumen, entrada.leerReferencia(textos),
+                                        entrada.leerByte() != 0, entrada.leerReferencia(textos),
+                                        entrada.leerReferencia(textos));
+            case HERRAMIENTA:
+                return new Herramienta(id, nombre, peso, volumen, entrada.leerReferencia(textos),
+                                       entrada.leerReferencia(textos), entrada.leerByte() != 0);
+            case EQUIPO_COMUNICACION:
+                return new EquipoComunicacion(id, nombre, peso, volumen, entrada.leerReferencia(textos),
+                                              entrada.leerDecimal(), entrada.leerVarint());
+            default:
+                throw new StreamCorruptedException("Etiqueta de producto desconocida: " + etiqueta);
+        }
+    }
+
+    /**
+     * Búfer de bytes ampliable para la escritura.
+     */
+    private static final class Bufer {
+
+        /** Bytes escritos. */
+        private byte[] datos;
+
+        /** Cantidad de bytes escritos. */
+        private int posicion;
+
+        /**
+         * Constructor del búfer.
+         *
+         * @param capacidad Capacidad inicial en bytes
+         */
+        Bufer(int capacidad) {
+            datos = new byte[Math.max(16, capacidad)];
+        }
+
+        /**
+         * Garantiza espacio para la cantidad de bytes indicada.
+         *
+         * @param adicionales Bytes que se van a escribir
+         */
+        private void asegurar(int adicionales) {
+            if (posicion + adicionales > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(posicion + adicionales, datos.length + (datos.length >> 1)));
+            }
+        }
+
+        /**
+         * Escribe un byte.
+         *
+         * @param valor Byte a escribir
+         */
+        void escribirByte(int valor) {
+            asegurar(1);
+            datos[posicion++] = (byte) valor;
+        }
+
+        /**
+         * Escribe una porción de un arreglo de bytes.
+         *
+         * @param bytes Arreglo de origen
+         * @param desde Posición inicial
+         * @param cantidad Cantidad de bytes
+         */
+        void escribirBytes(byte[] bytes, int desde, int cantidad) {
+            asegurar(cantidad);
+            System.arraycopy(bytes, desde, datos, posicion, cantidad);
+            posicion += cantidad;
+        }
+
+        /**
+         * Escribe un entero como varint en zigzag.
+         *
+         * @param valor Entero a escribir
+         */
+        void escribirVarint(int valor) {
+            asegurar(5);
+            int v = (valor << 1) ^ (valor >> 31);
+            while ((v & ~0x7F) != 0) {
+                datos[posicion++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            datos[posicion++] = (byte) v;
+        }
+
+        /**
+         * Escribe un double en orden big-endian.
+         *
+         * @param valor Valor a escribir
+         */
+        void escribirDouble(double valor) {
+            asegurar(8);
+            long bits = Double.doubleToRawLongBits(valor);
+            for (int desplazamiento = 56; desplazamiento >= 0; desplazamiento -= 8) {
+                datos[posicion++] = (byte) (bits >>> desplazamiento);
+            }
+        }
+
+        /**
+         * Escribe un texto en línea: su longitud en bytes más uno (cero si es
+         * {@code null}) seguida de sus bytes UTF-8.
+         *
+         * @param texto Texto a escribir
+         */
+        void escribirTextoEnLinea(String texto) {
+            if (texto == null) {
+                escribirVarint(0);
+                return;
+            }
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            escribirVarint(bytes.length + 1);
+            escribirBytes(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Escribe la referencia a un texto: cero si es {@code null}, {@link #EN_LINEA}
+         * seguido del texto si no está en el diccionario, o su número más dos si lo está.
+         * Los textos del diccionario reciben número la primera vez que se referencian.
+         *
+         * @param texto Texto a referenciar
+         * @param diccionario Textos repetidos, con su número o -1 si aún no lo tienen
+         * @param textos Textos del diccionario en orden de numeración
+         */
+        void escribirReferencia(String texto, Map<String, Integer> diccionario, List<String> textos) {
+            if (texto == null) {
+                escribirVarint(0);
+                return;
+            }
+            Integer numero = diccionario.get(texto);
+            if (numero == null) {
+                escribirVarint(EN_LINEA);
+                byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                escribirVarint(bytes.length);
+                escribirBytes(bytes, 0, bytes.length);
+                return;
+            }
+            if (numero < 0) {
+                numero = textos.size();
+                diccionario.put(texto, numero);
+                textos.add(texto);
+            }
+            escribirVarint(numero + 2);
+        }
+
+        /**
+         * Escribe un decimal: como entero escalado si tiene hasta tres cifras decimales
+         * exactas, o con sus ocho bytes en caso contrario.
+         * <p>
+         * Se escribe un varint cuyos dos bits bajos más uno indican la escala
+         * (1 a 4 para 10^0 a 10^3) y el resto el valor escalado; un varint cero indica
+         * que siguen los ocho bytes del {@code double}. El único código escalado que
+         * sumándole uno daría cero es el de {@code -0.001} (entero {@code -1}, escala
+         * 10^3), que por eso se escribe con sus ocho bytes.
+         * </p>
+         *
+         * @param valor Valor a escribir
+         */
+        void escribirDecimal(double valor) {
+            if (valor != 0 || Double.doubleToRawLongBits(valor) == 0) {
+                for (int escala = 0; escala < ESCALAS.length; escala++) {
+                    double escalado = valor * ESCALAS[escala];
+                    if (Math.abs(escalado) < (1 << 26)) {
+                        long entero = Math.round(escalado);
+                        long codigo = entero << 2 | escala;
+                        if (entero / ESCALAS[escala] == valor && codigo != -1) {
+                            escribirVarintLargo(codigo + 1);
+                            return;
+                        }
+                    }
+                }
+            }
+            escribirVarintLargo(0);
+            escribirDouble(valor);
+        }
+
+        /**
+         * Escribe un entero largo como varint en zigzag.
+         *
+         * @param valor Entero a escribir
+         */
+        void escribirVarintLargo(long valor) {
+            asegurar(10);
+            long v = (valor << 1) ^ (valor >> 63);
+            while ((v & ~0x7FL) != 0) {
+                datos[posicion++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            datos[posicion++] = (byte) v;
+        }
+    }
+
+    /**
+     * Lector secuencial sobre un arreglo de bytes.
+     */
+    private static final class Lector {
+
+        /** Bytes del archivo. */
+        private final byte[] datos;
+
+        /** Posición de lectura. */
+        private int posicion;
+
+        /**
+         * Constructor del lector.
+         *
+         * @param datos Bytes del archivo
+         */
+        Lector(byte[] datos) {
+            this.datos = datos;
+        }
+
+        /**
+         * Lee un byte.
+         *
+         * @return Byte leído
+         */
+        byte leerByte() {
+            return datos[posicion++];
+        }
+
+        /**
+         * Lee un entero escrito como varint en zigzag.
+         *
+         * @return Entero leído
+         * @throws StreamCorruptedException Si el varint excede cinco bytes
+         */
+        int leerVarint() throws StreamCorruptedException {
+            int v = 0;
+            for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+                byte b = datos[posicion++];
+                v |= (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return (v >>> 1) ^ -(v & 1);
+                }
+            }
+            throw new StreamCorruptedException("Varint demasiado largo");
+        }
+
+        /**
+         * Lee una longitud, validando que no sea negativa ni exceda los datos restantes.
+         *
+         * @return Longitud leída
+         * @throws IOException Si la longitud no es válida
+         */
+        int leerLongitud() throws IOException {
+            int longitud = leerVarint();
+            if (longitud < 0 || longitud > datos.length) {
+                throw new StreamCorruptedException("Longitud no válida: " + longitud);
+            }
+            return longitud;
+        }
+
+        /**
+         * Lee un double en orden big-endian.
+         *
+         * @return Valor leído
+         */
+        double leerDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (datos[posicion++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        /**
+         * Lee texto UTF-8 de la longitud indicada.
+         *
+         * @param longitud Cantidad de bytes del texto
+         * @return Texto leído
+         */
+        String leerUtf8(int longitud) {
+            if (posicion + longitud > datos.length) {
+                throw new ArrayIndexOutOfBoundsException(posicion + longitud);
+            }
+            String texto = new String(datos, posicion, longitud, StandardCharsets.UTF_8);
+            posicion += longitud;
+            return texto;
+        }
+
+        /**
+         * Lee un texto escrito en línea.
+         *
+         * @return Texto leído, o {@code null}
+         * @throws IOException Si la longitud no es válida
+         */
+        String leerTextoEnLinea() throws IOException {
+            int longitud = leerLongitud();
+            return longitud == 0 ? null : leerUtf8(longitud - 1);
+        }
+
+        /**
+         * Lee una referencia de texto y retorna el texto correspondiente.
+         *
+         * @param textos Diccionario de textos del archivo
+         * @return Texto referenciado o en línea, o {@code null}
+         * @throws IOException Si la referencia está fuera del diccionario
+         */
+        String leerReferencia(String[] textos) throws IOException {
+            int referencia = leerVarint();
+            if (referencia == 0) {
+                return null;
+            }
+            if (referencia == EN_LINEA) {
+                return leerUtf8(leerLongitud());
+            }
+            if (referencia < 0 || referencia - 2 >= textos.length) {
+                throw new StreamCorruptedException("Referencia de texto no válida: " + referencia);
+            }
+            return textos[referencia - 2];
+        }
+
+        /**
+         * Lee un decimal escrito con {@code escribirDecimal}.
+         *
+         * @return Valor leído
+         * @throws StreamCorruptedException Si el varint no es válido
+         */
+        double leerDecimal() throws StreamCorruptedException {
+            long codigo = leerVarintLargo();
+            if (codigo == 0) {
+                return leerDouble();
+            }
+            codigo--;
+            return (codigo >> 2) / ESCALAS[(int) (codigo & 3)];
+        }
+
+        /**
+         * Lee un entero largo escrito como varint en zigzag.
+         *
+         * @return Entero leído
+         * @throws StreamCorruptedException Si el varint excede diez bytes
+         */
+        long leerVarintLargo() throws StreamCorruptedException {
+            long v = 0;
+            for (int desplazamiento = 0; desplazamiento < 70; desplazamiento += 7) {
+                byte b = datos[posicion++];
+                v |= (long) (b & 0x7F) << desplazamiento;
+                if (b >= 0) {
+                    return (v >>> 1) ^ -(v & 1);
+                }
+            }
+            throw new StreamCorruptedException("Varint demasiado largo");
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Codificación de productos en bloques comprimidos con {@link Deflater}.
+ * <p>
+ * Los productos se codifican como los registros de {@link ArchivoRegistros} y se
+ * agrupan en bloques de unos {@value #TAMANO_BLOQUE} bytes, cada uno comprimido por
+ * separado. Como los atributos de texto se repiten mucho dentro de un inventario, la
+ * compresión reduce el tamaño del archivo y los bytes que hay que leer del disco. Al
+ * final se agrega un índice de bloques para poder descomprimir cualquiera de ellos sin
+ * tocar los demás con {@link ArchivoComprimido}:
+ * </p>
+ * <pre>
+ * PRDZ version:byte
+ * bloque: comprimidos:int originales:int productos:int datos
+ * fin:int(-1)
+ * indice: bloques:int (desplazamiento:long comprimidos:int originales:int productos:int)*
+ * desplazamientoIndice:long
+ * </pre>
+ * <p>
+ * Como en {@link CodecRegistros}, las posiciones {@code null} del arreglo no se
+ * conservan.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo#COMPRIMIDO
+ * @see ArchivoComprimido
+ */
+final class CodecComprimido implements CodecProductos {
+
+    /** Firma de los archivos comprimidos. */
+    static final byte[] FIRMA = {'P', 'R', 'D', 'Z'};
+
+    /** Versión del formato. */
+    static final int VERSION = 1;
+
+    /** Tamaño aproximado de un bloque antes de comprimirse, en bytes. */
+    static final int TAMANO_BLOQUE = 64 * 1024;
+
+    /** Marca que sigue al último bloque. */
+    static final int FIN_BLOQUES = -1;
+
+    /** Tamaño de la cabecera de cada bloque. */
+    static final int CABECERA_BLOQUE = 3 * Integer.BYTES;
+
+    /** Tamaño de cada entrada del índice de bloques. */
+    static final int ENTRADA_INDICE = Long.BYTES + 3 * Integer.BYTES;
+
+    @Override
+    public void escribir(Producto[] productos, OutputStream salida) throws IOException {
+        DataOutputStream datos = new DataOutputStream(salida);
+        datos.write(FIRMA);
+        datos.writeByte(VERSION);
+        long posicion = FIRMA.length + 1;
+        List<long[]> indice = new ArrayList<>();
+        ByteArrayOutputStream bloque = new ByteArrayOutputStream(TAMANO_BLOQUE + 1024);
+        byte[] comprimido = new byte[TAMANO_BLOQUE];
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            int enBloque = 0;
+            for (int i = 0; i < productos.length; i++) {
+                if (productos[i] != null) {
+                    bloque.write(ArchivoRegistros.codificar(productos[i]));
+                    enBloque++;
+                }
+                if (enBloque > 0 && (bloque.size() >= TAMANO_BLOQUE || i == productos.length - 1)) {
+                    byte[] originales = bloque.toByteArray();
+                    deflater.reset();
+                    deflater.setInput(originales);
+                    deflater.finish();
+                    int comprimidos = 0;
+                    while (!deflater.finished()) {
+                        if (comprimidos == comprimido.length) {
+                            comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+                        }
+                        comprimidos += deflater.deflate(comprimido, comprimidos, comprimido.length - comprimidos);
+                    }
+                    datos.writeInt(comprimidos);
+                    datos.writeInt(originales.length);
+                    datos.writeInt(enBloque);
+                    datos.write(comprimido, 0, comprimidos);
+                    indice.add(new long[] {posicion, comprimidos, originales.length, enBloque});
+                    posicion += CABECERA_BLOQUE + comprimidos;
+                    bloque.reset();
+                    enBloque = 0;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        datos.writeInt(FIN_BLOQUES);
+        long desplazamientoIndice = posicion + Integer.BYTES;
+        datos.writeInt(indice.size());
+        for (long[] entrada : indice) {
+            datos.writeLong(entrada[0]);
+            datos.writeInt((int) entrada[1]);
+            datos.writeInt((int) entrada[2]);
+            datos.writeInt((int) entrada[3]);
+        }
+        datos.writeLong(desplazamientoIndice);
+        datos.flush();
+    }
+
+    @Override
+    public Producto[] leer(InputStream entrada) throws IOException {
+        List<Producto> productos = new ArrayList<>();
+        leer(entrada, productos::add);
+        return productos.toArray(new Producto[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Descomprime y decodifica bloque a bloque, sin cargar el archivo completo.
+     * </p>
+     */
+    @Override
+    public void leer(InputStream entrada, Consumer<Producto> alLeer) throws IOException {
+        DataInputStream datos = new DataInputStream(entrada);
+        byte[] firma = new byte[FIRMA.length];
+        datos.readFully(firma);
+        if (!Arrays.equals(firma, FIRMA)) {
+            throw new StreamCorruptedException("El archivo no está en formato comprimido de productos");
+        }
+        int version = datos.readUnsignedByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Versión de formato comprimido no soportada: " + version);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            int comprimidos;
+            while ((comprimidos = datos.readInt()) != FIN_BLOQUES) {
+                int originales = datos.readInt();
+                int productos = datos.readInt();
+                if (comprimidos < 0 || originales < 0) {
+                    throw new StreamCorruptedException("Cabecera de bloque no válida");
+                }
+                byte[] bloque = new byte[comprimidos];
+                datos.readFully(bloque);
+                decodificarBloque(inflar(inflater, bloque, originales), productos, alLeer);
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Descomprime un bloque.
+     *
+     * @param inflater Descompresor a reutilizar
+     * @param comprimido Bytes comprimidos del bloque
+     * @param originales Tamaño del bloque descomprimido
+     * @return Bytes del bloque descomprimido
+     * @throws IOException Si los datos comprimidos no son válidos
+     */
+    static byte[] inflar(Inflater inflater, byte[] comprimido, int originales) throws IOException {
+        inflater.reset();
+        inflater.setInput(comprimido);
+        byte[] bloque = new byte[originales];
+        try {
+            int leidos = 0;
+            while (leidos < originales && !inflater.finished()) {
+                int n = inflater.inflate(bloque, leidos, originales - leidos);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                leidos += n;
+            }
+            if (leidos != originales) {
+                throw new StreamCorruptedException("Bloque comprimido incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new StreamCorruptedException("Bloque comprimido no válido: " + e.getMessage());
+        }
+        return bloque;
+    }
+
+    /**
+     * Decodifica los registros de un bloque descomprimido.
+     *
+     * @param bloque Bytes del bloque descomprimido
+     * @param productos Cantidad de productos del bloque
+     * @param alLeer Acción que recibe cada producto
+     * @throws IOException Si un registro no es válido
+     */
+    static void decodificarBloque(byte[] bloque, int productos, Consumer<Producto> alLeer) throws IOException {
+        int posicion = 0;
+        for (int i = 0; i < productos; i++) {
+            if (posicion + Integer.BYTES > bloque.length) {
+                throw new StreamCorruptedException("Bloque con menos productos de los indicados");
+            }
+            int longitud = ((bloque[posicion] & 0xFF) << 24) | ((bloque[posicion + 1] & 0xFF) << 16)
+                    | ((bloque[posicion + 2] & 0xFF) << 8) | (bloque[posicion + 3] & 0xFF);
+            posicion += Integer.BYTES;
+            if (longitud < 3 || posicion + longitud > bloque.length) {
+                throw new StreamCorruptedException("Registro no válido en el bloque");
+            }
+            alLeer.accept(ArchivoRegistros.decodificar(bloque, posicion, longitud));
+            posicion += longitud;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Codificación de productos en fragmentos independientes que se decodifican en paralelo.
+ * <p>
+ * El arreglo se divide en tramos de {@value #PRODUCTOS_POR_FRAGMENTO} posiciones y cada
+ * tramo se codifica por separado con el formato {@link FormatoArchivo#BINARIO}, con su
+ * propio diccionario de textos. La cabecera lista la posición, la longitud y la
+ * cantidad de posiciones de cada fragmento, de modo que al leer cada uno se decodifica
+ * en una tarea distinta del {@link java.util.concurrent.ForkJoinPool#commonPool()} y
+ * se copia directamente a su lugar en el arreglo resultante:
+ * </p>
+ * <pre>
+ * PRDP version:byte fragmentos:int (desplazamiento:int longitud:int posiciones:int)* datos
+ * </pre>
+ * <p>
+ * Los desplazamientos se cuentan desde el inicio de los datos. Las posiciones
+ * {@code null} del arreglo se conservan. La escritura también codifica los fragmentos
+ * en paralelo.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo#FRAGMENTADO
+ */
+final class CodecFragmentado implements CodecProductos {
+
+    /** Firma de los archivos fragmentados. */
+    static final byte[] FIRMA = {'P', 'R', 'D', 'P'};
+
+    /** Versión del formato. */
+    static final int VERSION = 1;
+
+    /** Cantidad de posiciones del arreglo por fragmento. */
+    static final int PRODUCTOS_POR_FRAGMENTO = 8192;
+
+    /** Codec con que se codifica cada fragmento. */
+    private final CodecProductos codecFragmento = new CodecBinario();
+
+    @Override
+    public void escribir(Producto[] productos, OutputStream salida) throws IOException {
+        int fragmentos = (productos.length + PRODUCTOS_POR_FRAGMENTO - 1) / PRODUCTOS_POR_FRAGMENTO;
+        byte[][] codificados = new byte[fragmentos][];
+        try {
+            IntStream.range(0, fragmentos).parallel().forEach(i -> {
+                int inicio = i * PRODUCTOS_POR_FRAGMENTO;
+                Producto[] tramo = Arrays.copyOfRange(productos, inicio,
+                                                      Math.min(productos.length, inicio + PRODUCTOS_POR_FRAGMENTO));
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try {
+                    codecFragmento.escribir(tramo, bytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                codificados[i] = bytes.toByteArray();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        DataOutputStream datos = new DataOutputStream(salida);
+        datos.write(FIRMA);
+        datos.writeByte(VERSION);
+        datos.writeInt(fragmentos);
+        long desplazamiento = 0;
+        for (int i = 0; i < fragmentos; i++) {
+            if (desplazamiento + codificados[i].length > Integer.MAX_VALUE) {
+                throw new IOException("El archivo fragmentado supera el tamaño máximo");
+            }
+            datos.writeInt((int) desplazamiento);
+            datos.writeInt(codificados[i].length);
+            datos.writeInt(Math.min(PRODUCTOS_POR_FRAGMENTO, productos.length - i * PRODUCTOS_POR_FRAGMENTO));
+            desplazamiento += codificados[i].length;
+        }
+        for (byte[] fragmento : codificados) {
+            datos.write(fragmento);
+        }
+        datos.flush();
+    }
+
+    @Override
+    public Producto[] leer(InputStream entrada) throws IOException {
+        DataInputStream datos = new DataInputStream(entrada);
+        byte[] firma = new byte[FIRMA.length];
+        datos.readFully(firma);
+        if (!Arrays.equals(firma, FIRMA)) {
+            throw new StreamCorruptedException("El archivo no está en formato fragmentado de productos");
+        }
+        int version = datos.readUnsignedByte();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Versión de formato fragmentado no soportada: " + version);
+        }
+        int fragmentos = datos.readInt();
+        if (fragmentos < 0) {
+            throw new StreamCorruptedException("Cantidad de fragmentos no válida: " + fragmentos);
+        }
+        int[] desplazamientos = new int[fragmentos];
+        int[] longitudes = new int[fragmentos];
+        int[] inicios = new int[fragmentos + 1];
+        for (int i = 0; i < fragmentos; i++) {
+            desplazamientos[i] = datos.readInt();
+            longitudes[i] = datos.readInt();
+            int posiciones = datos.readInt();
+            if (desplazamientos[i] < 0 || longitudes[i] < 0 || posiciones < 0
+                    || (long) inicios[i] + posiciones > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Cabecera de fragmento no válida");
+            }
+            inicios[i + 1] = inicios[i] + posiciones;
+        }
+        byte[] contenido = datos.readAllBytes();
+        for (int i = 0; i < fragmentos; i++) {
+            if ((long) desplazamientos[i] + longitudes[i] > contenido.length) {
+                throw new StreamCorruptedException("El archivo fragmentado está incompleto");
+            }
+        }
+        Producto[] productos = new Producto[inicios[fragmentos]];
+        try {
+            IntStream.range(0, fragmentos).parallel().forEach(i -> {
+                Producto[] tramo;
+                try {
+                    tramo = codecFragmento.leer(new ByteArrayInputStream(contenido, desplazamientos[i], longitudes[i]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (tramo.length != inicios[i + 1] - inicios[i]) {
+                    throw new UncheckedIOException(new StreamCorruptedException(
+                            "El fragmento " + i + " no tiene la cantidad de posiciones indicada"));
+                }
+                System.arraycopy(tramo, 0, productos, inicios[i], tramo.length);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return productos;
+    }
+}
@@ -0,0 +1,63 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Codificación de un arreglo de productos en un flujo de bytes.
+ * <p>
+ * Cada implementación define un formato de archivo. Salvo que el formato indique lo
+ * contrario, las posiciones {@code null} del arreglo se preservan, de modo que
+ * {@link #leer(InputStream)} retorne un arreglo del mismo tamaño que el escrito.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo
+ * @see OperacionArchivo
+ */
+public interface CodecProductos {
+
+    /**
+     * Escribe un arreglo de productos.
+     *
+     * @param productos Arreglo a escribir; puede contener elementos {@code null}
+     * @param salida Flujo de destino; no se cierra
+     * @throws IOException Si ocurre un error de escritura
+     */
+    void escribir(Producto[] productos, OutputStream salida) throws IOException;
+
+    /**
+     * Lee un arreglo de productos escrito con {@link #escribir(Producto[], OutputStream)}.
+     *
+     * @param entrada Flujo de origen; no se cierra
+     * @return Arreglo de productos leído
+     * @throws IOException Si ocurre un error de lectura o los datos no son válidos
+     */
+    Producto[] leer(InputStream entrada) throws IOException;
+
+    /**
+     * Lee los productos de un flujo entregándolos uno a uno a medida que se decodifican.
+     * <p>
+     * Los elementos {@code null} se omiten. La implementación por defecto decodifica el
+     * arreglo completo antes de entregar el primero; los formatos que lo permiten lo
+     * redefinen para entregar cada producto apenas se lee, de modo que quien consume
+     * pueda mostrar los primeros antes de terminar la lectura.
+     * </p>
+     *
+     * @param entrada Flujo de origen; no se cierra
+     * @param alLeer Acción que recibe cada producto leído
+     * @throws IOException Si ocurre un error de lectura o los datos no son válidos
+     */
+    default void leer(InputStream entrada, Consumer<Producto> alLeer) throws IOException {
+        for (Producto producto : leer(entrada)) {
+            if (producto != null) {
+                alLeer.accept(producto);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Codificación de productos como archivo de registros direccionables.
+ * <p>
+ * Escribe un registro independiente por producto con {@link ArchivoRegistros}, lo que
+ * permite modificar el archivo registro a registro con {@link ArchivoIncremental}. A
+ * diferencia de los demás formatos, las posiciones {@code null} del arreglo no se
+ * conservan: al leer se obtienen sólo los productos vigentes, en orden de aparición.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo#REGISTROS
+ */
+final class CodecRegistros implements CodecProductos {
+
+    @Override
+    public void escribir(Producto[] productos, OutputStream salida) throws IOException {
+        ArchivoRegistros.escribir(salida, Arrays.asList(productos));
+    }
+
+    @Override
+    public Producto[] leer(InputStream entrada) throws IOException {
+        ByteBuffer datos = ByteBuffer.wrap(entrada.readAllBytes());
+        Map<String, Integer> vigentes = new LinkedHashMap<>();
+        ArchivoRegistros.recorrer(datos, vigentes::put);
+        Producto[] productos = new Producto[vigentes.size()];
+        int i = 0;
+        for (int desplazamiento : vigentes.values()) {
+            productos[i++] = ArchivoRegistros.decodificar(datos, desplazamiento);
+        }
+        return productos;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lee y decodifica registro a registro, sin cargar el archivo completo. Un registro
+     * final incompleto se descarta. Si un ID aparece en más de un registro vigente, se
+     * entrega cada vez y prevalece el último.
+     * </p>
+     */
+    @Override
+    public void leer(InputStream entrada, Consumer<Producto> alLeer) throws IOException {
+        DataInputStream datos = new DataInputStream(entrada);
+        byte[] cabecera = new byte[ArchivoRegistros.CABECERA];
+        datos.readFully(cabecera);
+        ArchivoRegistros.verificarCabecera(ByteBuffer.wrap(cabecera));
+        byte[] registro = new byte[256];
+        while (true) {
+            int longitud;
+            try {
+                longitud = datos.readInt();
+                if (longitud < 3) {
+                    return;
+                }
+                if (longitud > registro.length) {
+                    registro = new byte[Math.max(longitud, registro.length * 2)];
+                }
+                datos.readFully(registro, 0, longitud);
+            } catch (EOFException e) {
+                return;
+            }
+            if (registro[0] == ArchivoRegistros.ACTIVO) {
+                alLeer.accept(ArchivoRegistros.decodificar(registro, 0, longitud));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Codificación de productos con la serialización de objetos Java.
+ * <p>
+ * Es el formato original de {@code productos.dat}: escribe el arreglo completo con
+ * {@link ObjectOutputStream}, incluyendo descriptores de clase y nombres de campo.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see FormatoArchivo#SERIALIZACION_JAVA
+ */
+final class CodecSerializacionJava implements CodecProductos {
+
+    @Override
+    public void escribir(Producto[] productos, OutputStream salida) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(salida);
+        oos.writeObject(productos);
+        oos.flush();
+    }
+
+    @Override
+    public Producto[] leer(InputStream entrada) throws IOException {
+        try {
+            return (Producto[]) new ObjectInputStream(entrada).readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException("El archivo no contiene un arreglo de productos: " + e.getMessage());
+        }
+    }
+}
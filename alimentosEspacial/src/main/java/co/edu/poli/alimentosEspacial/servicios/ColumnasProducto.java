@@ -0,0 +1,230 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.Locale;
+import java.util.Map;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Correspondencia entre los atributos de la jerarquía de {@link Producto} y las columnas
+ * de los archivos de texto de importación y exportación.
+ * <p>
+ * Cada fila tiene la columna {@link #CATEGORIA}, que determina la subclase, las
+ * columnas comunes de {@link Producto} y las columnas propias de cada subclase; las
+ * columnas que no corresponden a la categoría de la fila se dejan vacías. Al importar,
+ * los nombres de columna no distinguen mayúsculas, el orden es libre y las columnas
+ * desconocidas se ignoran.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImportadorProductos
+ * @see ExportadorProductos
+ */
+final class ColumnasProducto {
+
+    /** Columna con la categoría del producto. */
+    static final String CATEGORIA = "categoria";
+
+    /** Nombres de todas las columnas, en el orden en que se exportan. */
+    static final String[] COLUMNAS = {
+        CATEGORIA, "id", "nombre", "peso", "volumen",
+        "fechaCaducidad", "tipoAlimento", "caloriasPorRacion",
+        "usoEspecifico", "esEsterilizado", "fechaEsterilizacion", "udt",
+        "funcion", "material", "requiereEnergia",
+        "tipoComunicacion", "rangoFrecuencia", "potencia"
+    };
+
+    /** Columnas cuyo valor es numérico o lógico y se exporta sin comillas en JSON. */
+    static final boolean[] SIN_COMILLAS = {
+        false, false, false, true, true,
+        false, false, true,
+        false, true, false, false,
+        false, false, true,
+        false, true, true
+    };
+
+    /**
+     * Constructor privado; la clase sólo tiene métodos estáticos.
+     */
+    private ColumnasProducto() {
+    }
+
+    /**
+     * Obtiene los valores de las columnas de un producto, en el orden de {@link #COLUMNAS}.
+     *
+     * @param producto Producto a exportar
+     * @return Valores de la fila; {@code null} en las columnas que no aplican
+     */
+    static String[] aFila(Producto producto) {
+        String[] fila = new String[COLUMNAS.length];
+        fila[0] = CategoriaProducto.de(producto).name();
+        fila[1] = producto.getId();
+        fila[2] = producto.getNombre();
+        fila[3] = String.valueOf(producto.getPeso());
+        fila[4] = String.valueOf(producto.getVolumen());
+        if (producto instanceof Alimento) {
+            Alimento alimento = (Alimento) producto;
+            fila[5] = alimento.getFechaCaducidad();
+            fila[6] = alimento.getTipoAlimento();
+            fila[7] = String.valueOf(alimento.getCaloriasPorRacion());
+        } else if (producto instanceof EquipoMedico) {
+            EquipoMedico equipo = (EquipoMedico) producto;
+            fila[8] = equipo.getUsoEspecifico();
+            fila[9] = String.valueOf(equipo.isEsEsterilizado());
+            fila[10] = equipo.getFechaEsterilizacion();
+            fila[11] = equipo.getUdt();
+        } else if (producto instanceof Herramienta) {
+            Herramienta herramienta = (Herramienta) producto;
+            fila[12] = herramienta.getFuncion();
+            fila[13] = herramienta.getMaterial();
+            fila[14] = String.valueOf(herramienta.isRequiereEnergia());
+        } else if (producto instanceof EquipoComunicacion) {
+            EquipoComunicacion equipo = (EquipoComunicacion) producto;
+            fila[15] = equipo.getTipoComunicacion();
+            fila[16] = String.valueOf(equipo.getRangoFrecuencia());
+            fila[17] = String.valueOf(equipo.getPotencia());
+        }
+        return fila;
+    }
+
+    /**
+     * Construye un producto a partir de los valores de una fila.
+     * <p>
+     * La categoría admite el nombre de {@link CategoriaProducto} o el nombre simple de la
+     * clase; si falta, el producto es un {@link Producto} genérico. Las columnas numéricas
+     * o lógicas vacías o ausentes valen cero o {@code false}.
+     * </p>
+     *
+     * @param valores Valores de la fila, por nombre de columna en minúsculas
+     * @return Producto construido
+     * @throws IllegalArgumentException Si falta el ID, la categoría no existe o un valor
+     *                                  numérico o lógico no es válido
+     */
+    static Producto deFila(Map<String, String> valores) {
+        String id = texto(valores, "id");
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("Falta el ID del producto");
+        }
+        String nombre = texto(valores, "nombre");
+        double peso = decimal(valores, "peso");
+        double volumen = decimal(valores, "volumen");
+        switch (categoria(texto(valores, CATEGORIA))) {
+            case ALIMENTO:
+                return new Alimento(id, nombre, peso, volumen, texto(valores, "fechaCaducidad"),
+                                    texto(valores, "tipoAlimento"), entero(valores, "caloriasPorRacion"));
+            case EQUIPO_MEDICO:
+                return new EquipoMedico(id, nombre, peso, volumen, texto(valores, "usoEspecifico"),
+                                        logico(valores, "esEsterilizado"), texto(valores, "fechaEsterilizacion"),
+                                        texto(valores, "udt"));
+            case HERRAMIENTA:
+                return new Herramienta(id, nombre, peso, volumen, texto(valores, "funcion"),
+                                       texto(valores, "material"), logico(valores, "requiereEnergia"));
+            case EQUIPO_COMUNICACION:
+                return new EquipoComunicacion(id, nombre, peso, volumen, texto(valores, "tipoComunicacion"),
+                                              decimal(valores, "rangoFrecuencia"), entero(valores, "potencia"));
+            default:
+                return new Producto(id, nombre, peso, volumen);
+        }
+    }
+
+    /**
+     * Reconoce la categoría de una fila.
+     *
+     * @param valor Valor de la columna de categoría, o {@code null}
+     * @return Categoría correspondiente
+     * @throws IllegalArgumentException Si la categoría no existe
+     */
+    private static CategoriaProducto categoria(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return CategoriaProducto.OTRO;
+        }
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            if (categoria.name().equalsIgnoreCase(valor)
+                    || categoria.getTipo().getSimpleName().equalsIgnoreCase(valor)) {
+                return categoria;
+            }
+        }
+        throw new IllegalArgumentException("Categoría desconocida: " + valor);
+    }
+
+    /**
+     * Obtiene el valor de texto de una columna.
+     *
+     * @param valores Valores de la fila
+     * @param columna Nombre de la columna
+     * @return Valor de la columna, o {@code null} si no está
+     */
+    private static String texto(Map<String, String> valores, String columna) {
+        return valores.get(columna.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Obtiene el valor decimal de una columna.
+     *
+     * @param valores Valores de la fila
+     * @param columna Nombre de la columna
+     * @return Valor de la columna, o cero si está vacía o no está
+     * @throws IllegalArgumentException Si el valor no es un número
+     */
+    private static double decimal(Map<String, String> valores, String columna) {
+        String valor = texto(valores, columna);
+        if (valor == null || valor.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico en '" + columna + "': " + valor);
+        }
+    }
+
+    /**
+     * Obtiene el valor entero de una columna.
+     *
+     * @param valores Valores de la fila
+     * @param columna Nombre de la columna
+     * @return Valor de la columna, o cero si está vacía o no está
+     * @throws IllegalArgumentException Si el valor no es un entero
+     */
+    private static int entero(Map<String, String> valores, String columna) {
+        String valor = texto(valores, columna);
+        if (valor == null || valor.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no entero en '" + columna + "': " + valor);
+        }
+    }
+
+    /**
+     * Obtiene el valor lógico de una columna; admite {@code true/false}, {@code si/no}
+     * y {@code 1/0}.
+     *
+     * @param valores Valores de la fila
+     * @param columna Nombre de la columna
+     * @return Valor de la columna, o {@code false} si está vacía o no está
+     * @throws IllegalArgumentException Si el valor no es lógico
+     */
+    private static boolean logico(Map<String, String> valores, String columna) {
+        String valor = texto(valores, columna);
+        if (valor == null || valor.trim().isEmpty()) {
+            return false;
+        }
+        switch (valor.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "si":
+            case "sí":
+            case "1":
+                return true;
+            case "false":
+            case "no":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("Valor no lógico en '" + columna + "': " + valor);
+        }
+    }
+}
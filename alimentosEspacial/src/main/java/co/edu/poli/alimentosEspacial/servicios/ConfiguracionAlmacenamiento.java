@@ -0,0 +1,200 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.ServiceLoader;
+
+/**
+ * Configuración del almacenamiento de productos, que elige el motor al iniciar.
+ * <p>
+ * Las propiedades se leen del archivo {@value #ARCHIVO} del directorio de trabajo, si
+ * existe, y las propiedades del sistema con el prefijo {@code almacenamiento.} tienen
+ * prioridad sobre él, por ejemplo {@code -Dalmacenamiento.tipo=sql}. Las propiedades
+ * comunes son:
+ * </p>
+ * <ul>
+ *   <li>{@value #PROPIEDAD_TIPO}: nombre del {@link ProveedorAlmacenamiento}; por defecto
+ *       {@value #TIPO_POR_DEFECTO}.</li>
+ *   <li>{@value #PROPIEDAD_RUTA}: directorio de los datos; por defecto el de trabajo.</li>
+ *   <li>{@value #PROPIEDAD_NOMBRE}: nombre del archivo o base de datos; por defecto
+ *       {@value #NOMBRE_POR_DEFECTO}.</li>
+ *   <li>{@value #PROPIEDAD_FORMATO}: {@link FormatoArchivo} de los motores que escriben
+ *       archivos de productos.</li>
+ * </ul>
+ * <p>
+ * Cada motor puede leer propiedades propias con {@link #getPropiedad(String, String)}.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ProveedorAlmacenamiento
+ */
+public final class ConfiguracionAlmacenamiento {
+
+    /** Archivo de configuración, relativo al directorio de trabajo. */
+    public static final String ARCHIVO = "almacenamiento.properties";
+
+    /** Prefijo de las propiedades del almacenamiento. */
+    public static final String PREFIJO = "almacenamiento.";
+
+    /** Propiedad con el nombre del proveedor. */
+    public static final String PROPIEDAD_TIPO = PREFIJO + "tipo";
+
+    /** Propiedad con el directorio de los datos. */
+    public static final String PROPIEDAD_RUTA = PREFIJO + "ruta";
+
+    /** Propiedad con el nombre del archivo o base de datos. */
+    public static final String PROPIEDAD_NOMBRE = PREFIJO + "nombre";
+
+    /** Propiedad con el formato de los archivos de productos. */
+    public static final String PROPIEDAD_FORMATO = PREFIJO + "formato";
+
+    /** Proveedor usado si la configuración no indica otro. */
+    public static final String TIPO_POR_DEFECTO = "arreglo";
+
+    /** Nombre de los datos si la configuración no indica otro. */
+    public static final String NOMBRE_POR_DEFECTO = "productos.dat";
+
+    /** Propiedades de la configuración. */
+    private final Properties propiedades;
+
+    /**
+     * Constructor con propiedades explícitas.
+     *
+     * @param propiedades Propiedades de la configuración; se copian
+     */
+    public ConfiguracionAlmacenamiento(Properties propiedades) {
+        this.propiedades = new Properties();
+        this.propiedades.putAll(propiedades);
+    }
+
+    /**
+     * Carga la configuración del archivo {@value #ARCHIVO}, si existe, y de las
+     * propiedades del sistema.
+     *
+     * @return Configuración cargada
+     * @throws IOException Si el archivo existe pero no puede leerse
+     */
+    public static ConfiguracionAlmacenamiento cargar() throws IOException {
+        Properties propiedades = new Properties();
+        Path archivo = Paths.get(ARCHIVO);
+        if (Files.exists(archivo)) {
+            try (Reader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                propiedades.load(lector);
+            }
+        }
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith(PREFIJO)) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        return new ConfiguracionAlmacenamiento(propiedades);
+    }
+
+    /**
+     * Crea el almacenamiento del proveedor configurado, buscándolo con {@link ServiceLoader}.
+     *
+     * @return Almacenamiento creado, sin cargar
+     * @throws IllegalArgumentException Si no hay un proveedor con el nombre configurado o
+     *                                  una propiedad no es válida
+     * @throws IllegalStateException Si el motor no puede inicializarse
+     */
+    public Almacenamiento abrir() {
+        String tipo = getTipo();
+        List<String> disponibles = new ArrayList<>();
+        for (ProveedorAlmacenamiento proveedor : ServiceLoader.load(ProveedorAlmacenamiento.class)) {
+            if (proveedor.getNombre().equalsIgnoreCase(tipo)) {
+                return proveedor.crear(this);
+            }
+            disponibles.add(proveedor.getNombre());
+        }
+        throw new IllegalArgumentException("Almacenamiento desconocido '" + tipo + "'; disponibles: " + disponibles);
+    }
+
+    /**
+     * Obtiene el nombre del proveedor configurado.
+     *
+     * @return Nombre del proveedor
+     */
+    public String getTipo() {
+        return getPropiedad(PROPIEDAD_TIPO, TIPO_POR_DEFECTO);
+    }
+
+    /**
+     * Obtiene el directorio de los datos.
+     *
+     * @return Ruta del directorio
+     */
+    public String getRuta() {
+        return getPropiedad(PROPIEDAD_RUTA, ".");
+    }
+
+    /**
+     * Obtiene el nombre del archivo o base de datos.
+     *
+     * @return Nombre de los datos
+     */
+    public String getNombre() {
+        return getPropiedad(PROPIEDAD_NOMBRE, NOMBRE_POR_DEFECTO);
+    }
+
+    /**
+     * Obtiene el formato de los archivos de productos.
+     *
+     * @param porDefecto Formato si la configuración no indica otro
+     * @return Formato configurado
+     * @throws IllegalArgumentException Si el formato configurado no existe
+     */
+    public FormatoArchivo getFormato(FormatoArchivo porDefecto) {
+        String formato = getPropiedad(PROPIEDAD_FORMATO, null);
+        if (formato == null) {
+            return porDefecto;
+        }
+        try {
+            return FormatoArchivo.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de archivo desconocido: " + formato);
+        }
+    }
+
+    /**
+     * Obtiene una propiedad, sin espacios alrededor.
+     *
+     * @param clave Clave de la propiedad
+     * @param porDefecto Valor si la propiedad no está o está vacía
+     * @return Valor de la propiedad
+     */
+    public String getPropiedad(String clave, String porDefecto) {
+        String valor = propiedades.getProperty(clave);
+        return valor == null || valor.trim().isEmpty() ? porDefecto : valor.trim();
+    }
+
+    /**
+     * Obtiene una propiedad numérica.
+     *
+     * @param clave Clave de la propiedad
+     * @param porDefecto Valor si la propiedad no está o está vacía
+     * @return Valor de la propiedad
+     * @throws IllegalArgumentException Si el valor no es un entero
+     */
+    public long getPropiedadEntera(String clave, long porDefecto) {
+        String valor = getPropiedad(clave, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no entero en '" + clave + "': " + valor);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Consulta declarativa sobre los productos del sistema.
+ * <p>
+ * Se construye encadenando criterios que se combinan con conjunción lógica:
+ * </p>
+ * <pre>
+ * Consulta.nueva()
+ *         .material("Titanio")
+ *         .pesoEntre(0, 2)
+ *         .nombreEmpiezaCon("Kit");
+ * </pre>
+ * <p>
+ * Los criterios sobre atributos de un subtipo (calorías, esterilización, material)
+ * restringen implícitamente la consulta a la categoría correspondiente. Los criterios
+ * de categoría, peso, volumen y prefijo de nombre pueden resolverse con índices
+ * secundarios; el resto se evalúa como filtro sobre los candidatos del índice elegido.
+ * Las instancias no son seguras para hilos y no deben modificarse mientras se ejecutan.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#consultar(Consulta)
+ * @see CategoriaProducto
+ */
+public final class Consulta {
+
+    /** Categorías admitidas por la consulta. */
+    private final EnumSet<CategoriaProducto> categorias = EnumSet.allOf(CategoriaProducto.class);
+
+    /** Peso mínimo admitido, inclusive. */
+    private double pesoMinimo = Double.NEGATIVE_INFINITY;
+
+    /** Peso máximo admitido, inclusive. */
+    private double pesoMaximo = Double.POSITIVE_INFINITY;
+
+    /** Indica si la consulta restringe el peso. */
+    private boolean conPeso;
+
+    /** Volumen mínimo admitido, inclusive. */
+    private double volumenMinimo = Double.NEGATIVE_INFINITY;
+
+    /** Volumen máximo admitido, inclusive. */
+    private double volumenMaximo = Double.POSITIVE_INFINITY;
+
+    /** Indica si la consulta restringe el volumen. */
+    private boolean conVolumen;
+
+    /** Prefijo que debe tener el nombre, o {@code null} si no se restringe. */
+    private String prefijoNombre;
+
+    /** Filtro adicional sobre atributos sin índice. */
+    private Predicate<Producto> filtro;
+
+    /**
+     * Constructor privado; use {@link #nueva()}.
+     */
+    private Consulta() {
+    }
+
+    /**
+     * Crea una consulta sin criterios, que selecciona todos los productos.
+     *
+     * @return Nueva consulta
+     */
+    public static Consulta nueva() {
+        return new Consulta();
+    }
+
+    /**
+     * Restringe la consulta a las categorías indicadas.
+     *
+     * @param admitidas Categorías admitidas
+     * @return Esta misma consulta, para encadenar criterios
+     */
+    public Consulta deCategoria(CategoriaProducto... admitidas) {
+        EnumSet<CategoriaProducto> conjunto = EnumSet.noneOf(CategoriaProducto.class);
+        for (CategoriaProducto categoria : admitidas) {
+            conjunto.add(categoria);
+        }
+        categorias.retainAll(conjunto);
+        return this;
+    }
+
+    /**
+     * Restringe el peso de los productos a un rango.
+     *
+     * @param minimo Peso mínimo en kilogramos, inclusive
+     * @param maximo Peso máximo en kilogramos, inclusive
+     * @return Esta misma consulta, para encadenar criterios
+     */
+    public Consulta pesoEntre(double minimo, double maximo) {
+        pesoMinimo = Math.max(pesoMinimo, minimo);
+        pesoMaximo = Math.min(pesoMaximo, maximo);
+        conPeso = true;
+        return this;
+    }
+
+    /**
+     * Restringe el volumen de los productos a un rango.
+     *
+     * @param minimo Volumen mínimo en metros cúbicos, inclusive
+     * @param maximo Volumen máximo en metros cúbicos, inclusive
+     * @return Esta misma consulta, para encadenar criterios
+     */
+    public Consulta volumenEntre(double minimo, double maximo) {
+        volumenMinimo = Math.max(volumenMinimo, minimo);
+        volumenMaximo = Math.min(volumenMaximo, maximo);
+        conVolumen = true;
+        return this;
+    }
+
+    /**
+     * Restringe la consulta a los productos cuyo nombre comienza con un prefijo,
+     * sin distinguir mayúsculas de minúsculas.
+     *
+     * @param prefijo Prefijo del nombre
+     * @return Esta misma consulta, para encadenar criterios
+     */
+    public Consulta nombreEmpiezaCon(String prefijo) {
+        if (prefijoNombre == null || prefijo.length() > prefijoNombre.length()) {
+            prefijoNombre = prefijo;
+        }
+        return donde(p -> empiezaCon(p.getNombre(), prefijo));
+    }
+
+    /**
+     * Restringe la consulta a alimentos cuyas calorías por ración están en un rango.
+     *
+     * @param minimo Calorías mínimas, inclusive
+     * @param maximo Calorías máximas, inclusive
+     * @return Esta misma consulta, para encadenar criterios
+     * @see Alimento#getCaloriasPorRacion()
+     */
+    public Consulta caloriasEntre(int minimo, int maximo) {
+        deCategoria(CategoriaProducto.ALIMENTO);
+        return donde(p -> {
+            int calorias = ((Alimento) p).getCaloriasPorRacion();
+            return calorias >= minimo && calorias <= maximo;
+        });
+    }
+
+    /**
+     * Restringe la consulta a equipos médicos según su estado de esterilización.
+     *
+     * @param esterilizado Estado de esterilización requerido
+     * @return Esta misma consulta, para encadenar criterios
+     * @see EquipoMedico#isEsEsterilizado()
+     */
+    public Consulta esterilizado(boolean esterilizado) {
+        deCategoria(CategoriaProducto.EQUIPO_MEDICO);
+        return donde(p -> ((EquipoMedico) p).isEsEsterilizado() == esterilizado);
+    }
+
+    /**
+     * Restringe la consulta a herramientas de un material, sin distinguir mayúsculas.
+     *
+     * @param material Material requerido
+     * @return Esta misma consulta, para encadenar criterios
+     * @see Herramienta#getMaterial()
+     */
+    public Consulta material(String material) {
+        deCategoria(CategoriaProducto.HERRAMIENTA);
+        return donde(p -> material.equalsIgnoreCase(((Herramienta) p).getMaterial()));
+    }
+
+    /**
+     * Agrega un filtro arbitrario que se combina con los demás criterios.
+     * <p>
+     * El filtro sólo se evalúa sobre productos que ya cumplen los criterios de
+     * categoría, por lo que puede convertir el producto al subtipo correspondiente.
+     * </p>
+     *
+     * @param predicado Condición adicional que deben cumplir los productos
+     * @return Esta misma consulta, para encadenar criterios
+     */
+    public Consulta donde(Predicate<Producto> predicado) {
+        filtro = filtro == null ? predicado : filtro.and(predicado);
+        return this;
+    }
+
+    /**
+     * Obtiene el predicado equivalente a todos los criterios de la consulta.
+     *
+     * @return Predicado que aceptan sólo los productos que cumplen la consulta
+     */
+    public Predicate<Producto> comoPredicado() {
+        EnumSet<CategoriaProducto> admitidas = EnumSet.copyOf(categorias);
+        boolean todas = admitidas.size() == CategoriaProducto.values().length;
+        double pMin = pesoMinimo, pMax = pesoMaximo, vMin = volumenMinimo, vMax = volumenMaximo;
+        boolean filtrarPeso = conPeso, filtrarVolumen = conVolumen;
+        Predicate<Producto> adicional = filtro;
+        return p -> (todas || admitidas.contains(CategoriaProducto.de(p)))
+                && (!filtrarPeso || (p.getPeso() >= pMin && p.getPeso() <= pMax))
+                && (!filtrarVolumen || (p.getVolumen() >= vMin && p.getVolumen() <= vMax))
+                && (adicional == null || adicional.test(p));
+    }
+
+    /**
+     * Obtiene las categorías admitidas por la consulta.
+     *
+     * @return Conjunto de categorías; no debe modificarse
+     */
+    Set<CategoriaProducto> getCategorias() {
+        return categorias;
+    }
+
+    /**
+     * Indica si la consulta restringe alguna categoría.
+     *
+     * @return {@code true} si no todas las categorías son admitidas
+     */
+    boolean restringeCategoria() {
+        return categorias.size() < CategoriaProducto.values().length;
+    }
+
+    /**
+     * Indica si la consulta restringe el peso.
+     *
+     * @return {@code true} si hay un rango de peso
+     */
+    boolean isConPeso() {
+        return conPeso;
+    }
+
+    /**
+     * Obtiene el peso mínimo admitido.
+     *
+     * @return Peso mínimo en kilogramos
+     */
+    double getPesoMinimo() {
+        return pesoMinimo;
+    }
+
+    /**
+     * Obtiene el peso máximo admitido.
+     *
+     * @return Peso máximo en kilogramos
+     */
+    double getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    /**
+     * Indica si la consulta restringe el volumen.
+     *
+     * @return {@code true} si hay un rango de volumen
+     */
+    boolean isConVolumen() {
+        return conVolumen;
+    }
+
+    /**
+     * Obtiene el volumen mínimo admitido.
+     *
+     * @return Volumen mínimo en metros cúbicos
+     */
+    double getVolumenMinimo() {
+        return volumenMinimo;
+    }
+
+    /**
+     * Obtiene el volumen máximo admitido.
+     *
+     * @return Volumen máximo en metros cúbicos
+     */
+    double getVolumenMaximo() {
+        return volumenMaximo;
+    }
+
+    /**
+     * Obtiene el prefijo de nombre más largo exigido por la consulta.
+     *
+     * @return Prefijo del nombre, o {@code null} si no se restringe
+     */
+    String getPrefijoNombre() {
+        return prefijoNombre;
+    }
+
+    /**
+     * Verifica si un texto comienza con un prefijo sin distinguir mayúsculas.
+     *
+     * @param texto Texto a verificar, puede ser {@code null}
+     * @param prefijo Prefijo buscado
+     * @return {@code true} si el texto comienza con el prefijo
+     */
+    private static boolean empiezaCon(String texto, String prefijo) {
+        return texto != null && texto.regionMatches(true, 0, prefijo, 0, prefijo.length());
+    }
+}
@@ -0,0 +1,550 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Diario de operaciones de escritura anticipada (write-ahead log).
+ * <p>
+ * Cada modificación del inventario se agrega al final del archivo como un registro
+ * compacto, de modo que el costo de persistir un cambio depende del tamaño del cambio
+ * y no del inventario completo. Cada registro tiene el formato
+ * {@code [longitud:int][crc32:int][tipo:byte][datos]}; los productos se codifican con
+ * {@link FormatoBinario}.
+ * </p>
+ * <p>
+ * Las escrituras se agrupan (group commit): los registros se acumulan en memoria y un
+ * hilo de fondo los escribe y sincroniza con el disco en un solo {@code force} cada
+ * {@code intervaloMs} milisegundos como máximo. Así, muchas operaciones comparten una
+ * misma sincronización y quien agrega registros nunca espera al disco. Un fallo del
+ * sistema puede perder como mucho los registros del último intervalo; para garantizar
+ * la durabilidad en un punto concreto se usa {@link #sincronizar()}.
+ * </p>
+ * <p>
+ * Al recuperar, un registro incompleto o con CRC incorrecto al final del archivo se
+ * interpreta como una escritura interrumpida: se descarta junto con lo que le sigue.
+ * Los registros son idempotentes (guardar y eliminar por ID), por lo que reproducir
+ * el diario sobre una instantánea que ya incluye parte de sus cambios es seguro.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD#abrirDiario(String, String)
+ */
+public final class DiarioOperaciones implements Closeable {
+
+    /** Extensión del archivo del diario, agregada al nombre de la instantánea. */
+    public static final String EXTENSION = ".journal";
+
+    /** Extensión del diario rotado que una compactación en curso aún no ha descartado. */
+    public static final String EXTENSION_ANTERIOR = ".old";
+
+    /** Intervalo máximo por defecto entre sincronizaciones, en milisegundos. */
+    public static final long INTERVALO_POR_DEFECTO = 20;
+
+    /** Registro que guarda (crea o reemplaza) un producto. */
+    static final byte GUARDAR = 1;
+
+    /** Registro que elimina un producto por ID. */
+    static final byte ELIMINAR = 2;
+
+    /** Registro que elimina todos los productos. */
+    static final byte VACIAR = 3;
+
+    /** Longitud máxima admitida de un registro; una longitud mayor indica corrupción. */
+    private static final int LONGITUD_MAXIMA = 16 * 1024 * 1024;
+
+    /** Archivo del diario. */
+    private final Path archivo;
+
+    /** Canal de escritura del archivo; cambia al rotar el diario. */
+    private FileChannel canal;
+
+    /** Intervalo máximo entre sincronizaciones, en milisegundos. */
+    private final long intervaloMs;
+
+    /** Bloqueo que protege los búferes y los contadores. */
+    private final Object bloqueo = new Object();
+
+    /** Registros agregados y aún no entregados al hilo de escritura. */
+    private ByteArrayOutputStream pendiente = new ByteArrayOutputStream(8192);
+
+    /** Búfer que el hilo de escritura está volcando al archivo. */
+    private ByteArrayOutputStream enEscritura = new ByteArrayOutputStream(8192);
+
+    /** Búfer para armar el cuerpo de un registro antes de calcular su CRC. */
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream(256);
+
+    /** Flujo de datos sobre {@link #cuerpo}. */
+    private final DataOutputStream salidaCuerpo = new DataOutputStream(cuerpo);
+
+    /** Suma de verificación reutilizada por registro. */
+    private final CRC32 crc = new CRC32();
+
+    /** Cantidad de registros agregados desde la apertura. */
+    private long agregados;
+
+    /** Cantidad de registros sincronizados con el disco. */
+    private long sincronizados;
+
+    /** Indica que hay quien espera una sincronización inmediata. */
+    private boolean urgente;
+
+    /** Indica que el diario se está cerrando. */
+    private boolean cerrado;
+
+    /** Primer error de escritura, que se propaga en las operaciones siguientes. */
+    private IOException error;
+
+    /** Hilo de fondo que escribe y sincroniza los registros. */
+    private final Thread escritor;
+
+    /**
+     * Abre un diario para agregar registros al final del archivo, creándolo si no existe.
+     *
+     * @param archivo Archivo del diario
+     * @param intervaloMs Intervalo máximo entre sincronizaciones, en milisegundos
+     * @throws IOException Si el archivo no puede abrirse
+     */
+    public DiarioOperaciones(Path archivo, long intervaloMs) throws IOException {
+        this.archivo = archivo;
+        this.intervaloMs = intervaloMs;
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.position(canal.size());
+        escritor = new Thread(this::escribirPendientes, "diario-" + archivo.getFileName());
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Agrega un registro que guarda un producto.
+     *
+     * @param producto Producto creado o actualizado
+     * @throws UncheckedIOException Si una escritura anterior del diario falló
+     */
+    public void registrarGuardado(Producto producto) {
+        synchronized (bloqueo) {
+            try {
+                cuerpo.reset();
+                salidaCuerpo.writeByte(GUARDAR);
+                FormatoBinario.escribirProducto(salidaCuerpo, producto);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            agregarCuerpo();
+        }
+    }
+
+    /**
+     * Agrega un registro que elimina un producto.
+     *
+     * @param id ID del producto eliminado
+     * @throws UncheckedIOException Si una escritura anterior del diario falló
+     */
+    public void registrarEliminacion(String id) {
+        synchronized (bloqueo) {
+            try {
+                cuerpo.reset();
+                salidaCuerpo.writeByte(ELIMINAR);
+                salidaCuerpo.writeUTF(id);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            agregarCuerpo();
+        }
+    }
+
+    /**
+     * Agrega los registros de un producto que cambió de ID: la eliminación del ID
+     * anterior y el guardado del producto.
+     * <p>
+     * Ambos registros se agregan sin soltar el bloqueo, así que se agregan los dos o,
+     * si una escritura anterior falló, ninguno.
+     * </p>
+     *
+     * @param idAnterior ID que tenía el producto
+     * @param producto Producto con el ID nuevo
+     * @throws UncheckedIOException Si una escritura anterior del diario falló
+     */
+    public void registrarCambioId(String idAnterior, Producto producto) {
+        synchronized (bloqueo) {
+            byte[] guardado = codificarGuardado(producto);
+            verificarError();
+            try {
+                cuerpo.reset();
+                salidaCuerpo.writeByte(ELIMINAR);
+                salidaCuerpo.writeUTF(idAnterior);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            agregarCuerpo();
+            cuerpo.reset();
+            cuerpo.write(guardado, 0, guardado.length);
+            agregarCuerpo();
+        }
+    }
+
+    /**
+     * Agrega un registro que elimina todos los productos.
+     *
+     * @throws UncheckedIOException Si una escritura anterior del diario falló
+     */
+    public void registrarVaciado() {
+        synchronized (bloqueo) {
+            cuerpo.reset();
+            cuerpo.write(VACIAR);
+            agregarCuerpo();
+        }
+    }
+
+    /**
+     * Agrega los registros que reemplazan todo el contenido: un vaciado seguido del
+     * guardado de cada producto.
+     * <p>
+     * Los productos se codifican antes de agregar el primer registro y todos se agregan
+     * sin soltar el bloqueo, así que un error de codificación o una escritura anterior
+     * fallida no dejan el reemplazo a medias en el diario.
+     * </p>
+     *
+     * @param productos Nuevo contenido; las posiciones {@code null} se omiten
+     * @throws UncheckedIOException Si un producto no puede codificarse o una escritura
+     *                              anterior del diario falló
+     */
+    public void registrarContenido(Producto[] productos) {
+        synchronized (bloqueo) {
+            List<byte[]> guardados = new ArrayList<>();
+            for (Producto producto : productos) {
+                if (producto != null) {
+                    guardados.add(codificarGuardado(producto));
+                }
+            }
+            verificarError();
+            cuerpo.reset();
+            cuerpo.write(VACIAR);
+            agregarCuerpo();
+            for (byte[] guardado : guardados) {
+                cuerpo.reset();
+                cuerpo.write(guardado, 0, guardado.length);
+                agregarCuerpo();
+            }
+        }
+    }
+
+    /**
+     * Espera a que todos los registros agregados hasta ahora estén en el disco.
+     *
+     * @throws UncheckedIOException Si la escritura del diario falló
+     */
+    public void sincronizar() {
+        synchronized (bloqueo) {
+            long objetivo = agregados;
+            if (sincronizados < objetivo) {
+                urgente = true;
+                bloqueo.notifyAll();
+            }
+            while (sincronizados < objetivo && error == null) {
+                try {
+                    bloqueo.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new IOException("Sincronización interrumpida", e));
+                }
+            }
+            verificarError();
+        }
+    }
+
+    /**
+     * Aparta los registros actuales en el diario anterior y continúa en un archivo vacío.
+     * <p>
+     * Se usa al iniciar una compactación: los registros apartados quedan cubiertos por
+     * la instantánea que se va a escribir, y los nuevos siguen agregándose sin esperar
+     * a que termine. Si ya existe un diario anterior (una compactación previa falló),
+     * los registros actuales se agregan a su final en lugar de reemplazarlo. Quien lo
+     * invoca debe impedir que se agreguen registros mientras tanto.
+     * </p>
+     *
+     * @return Archivo del diario anterior, que puede eliminarse una vez guardada la instantánea
+     * @throws IOException Si el archivo no puede rotarse
+     */
+    Path rotar() throws IOException {
+        sincronizar();
+        Path anterior = anteriorDe(archivo);
+        synchronized (bloqueo) {
+            canal.close();
+            if (Files.exists(anterior)) {
+                try (FileChannel destino = FileChannel.open(anterior, StandardOpenOption.WRITE,
+                                                            StandardOpenOption.APPEND);
+                     FileChannel origen = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                    long copiados = 0;
+                    while (copiados < origen.size()) {
+                        copiados += origen.transferTo(copiados, origen.size() - copiados, destino);
+                    }
+                    destino.force(true);
+                }
+                Files.delete(archivo);
+            } else {
+                Files.move(archivo, anterior, StandardCopyOption.ATOMIC_MOVE);
+            }
+            canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return anterior;
+    }
+
+    /**
+     * Obtiene el archivo del diario anterior correspondiente a un diario.
+     *
+     * @param archivo Archivo del diario
+     * @return Archivo donde se apartan sus registros durante una compactación
+     */
+    static Path anteriorDe(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName() + EXTENSION_ANTERIOR);
+    }
+
+    /**
+     * Obtiene el archivo del diario.
+     *
+     * @return Ruta del archivo
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Obtiene el tamaño actual del archivo del diario, sin contar los registros pendientes.
+     *
+     * @return Tamaño en bytes
+     * @throws UncheckedIOException Si el tamaño no puede consultarse
+     */
+    public long getTamano() {
+        try {
+            synchronized (bloqueo) {
+                return canal.size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sincroniza los registros pendientes, detiene el hilo de escritura y cierra el archivo.
+     *
+     * @throws IOException Si la escritura o el cierre del archivo fallan
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sincronizar();
+        } catch (UncheckedIOException e) {
+            canal.close();
+            throw e.getCause();
+        }
+        synchronized (bloqueo) {
+            cerrado = true;
+            bloqueo.notifyAll();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        canal.close();
+    }
+
+    /**
+     * Reproduce los registros de un archivo de diario en orden.
+     * <p>
+     * La lectura se detiene en el primer registro incompleto o corrupto, y el archivo se
+     * trunca en ese punto para que los registros agregados después queden legibles.
+     * </p>
+     *
+     * @param archivo Archivo del diario; si no existe no se reproduce nada
+     * @param guardar Acción que crea o reemplaza un producto
+     * @param eliminar Acción que elimina un producto por ID
+     * @param vaciar Acción que elimina todos los productos
+     * @return Cantidad de registros reproducidos
+     * @throws IOException Si el archivo no puede leerse
+     */
+    static int reproducir(Path archivo, Consumer<Producto> guardar, Consumer<String> eliminar,
+                          Runnable vaciar) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        int reproducidos = 0;
+        long valido = 0;
+        try (FileChannel lectura = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            InputStream flujo = new BufferedInputStream(Channels.newInputStream(lectura), 65536);
+            DataInputStream entrada = new DataInputStream(flujo);
+            CRC32 verificacion = new CRC32();
+            while (true) {
+                byte[] datos;
+                try {
+                    int longitud = entrada.readInt();
+                    int esperado = entrada.readInt();
+                    if (longitud <= 0 || longitud > LONGITUD_MAXIMA) {
+                        break;
+                    }
+                    datos = new byte[longitud];
+                    entrada.readFully(datos);
+                    verificacion.reset();
+                    verificacion.update(datos);
+                    if ((int) verificacion.getValue() != esperado) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                DataInputStream registro = new DataInputStream(new ByteArrayInputStream(datos));
+                byte tipo = registro.readByte();
+                if (tipo == GUARDAR) {
+                    guardar.accept(FormatoBinario.leerProducto(registro));
+                } else if (tipo == ELIMINAR) {
+                    eliminar.accept(registro.readUTF());
+                } else if (tipo == VACIAR) {
+                    vaciar.run();
+                } else {
+                    break;
+                }
+                valido += 8 + datos.length;
+                reproducidos++;
+            }
+            if (valido < lectura.size()) {
+                lectura.truncate(valido);
+            }
+        }
+        return reproducidos;
+    }
+
+    /**
+     * Codifica el cuerpo de un registro de guardado sin agregarlo al diario.
+     * Debe invocarse con {@link #bloqueo} tomado.
+     *
+     * @param producto Producto a guardar
+     * @return Cuerpo del registro
+     * @throws UncheckedIOException Si el producto no puede codificarse
+     */
+    private byte[] codificarGuardado(Producto producto) {
+        try {
+            cuerpo.reset();
+            salidaCuerpo.writeByte(GUARDAR);
+            FormatoBinario.escribirProducto(salidaCuerpo, producto);
+            return cuerpo.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Agrega el cuerpo armado como un registro completo al búfer pendiente.
+     * Debe invocarse con {@link #bloqueo} tomado.
+     */
+    private void agregarCuerpo() {
+        verificarError();
+        byte[] datos = cuerpo.toByteArray();
+        crc.reset();
+        crc.update(datos);
+        escribirEntero(pendiente, datos.length);
+        escribirEntero(pendiente, (int) crc.getValue());
+        pendiente.write(datos, 0, datos.length);
+        agregados++;
+        bloqueo.notifyAll();
+    }
+
+    /**
+     * Bucle del hilo de escritura: espera registros, deja pasar el intervalo de
+     * agrupación y vuelca todo lo acumulado con una única sincronización.
+     */
+    private void escribirPendientes() {
+        while (true) {
+            ByteArrayOutputStream lote;
+            FileChannel destino;
+            long hasta;
+            synchronized (bloqueo) {
+                try {
+                    while (pendiente.size() == 0 && !cerrado) {
+                        bloqueo.wait();
+                    }
+                    if (pendiente.size() == 0) {
+                        return;
+                    }
+                    long limite = System.currentTimeMillis() + intervaloMs;
+                    long restante;
+                    while (!urgente && !cerrado && (restante = limite - System.currentTimeMillis()) > 0) {
+                        bloqueo.wait(restante);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                urgente = false;
+                lote = pendiente;
+                pendiente = enEscritura;
+                enEscritura = lote;
+                destino = canal;
+                hasta = agregados;
+            }
+            try {
+                ByteBuffer datos = ByteBuffer.wrap(lote.toByteArray());
+                while (datos.hasRemaining()) {
+                    destino.write(datos);
+                }
+                destino.force(false);
+            } catch (IOException e) {
+                synchronized (bloqueo) {
+                    error = e;
+                    bloqueo.notifyAll();
+                }
+                return;
+            }
+            synchronized (bloqueo) {
+                lote.reset();
+                sincronizados = hasta;
+                bloqueo.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Propaga el error de escritura, si lo hubo.
+     *
+     * @throws UncheckedIOException Si una escritura anterior falló
+     */
+    private void verificarError() {
+        if (error != null) {
+            throw new UncheckedIOException("El diario " + archivo + " no pudo escribirse", error);
+        }
+    }
+
+    /**
+     * Escribe un entero en orden big-endian.
+     *
+     * @param destino Búfer de destino
+     * @param valor Valor a escribir
+     */
+    private static void escribirEntero(ByteArrayOutputStream destino, int valor) {
+        destino.write(valor >>> 24);
+        destino.write(valor >>> 16);
+        destino.write(valor >>> 8);
+        destino.write(valor);
+    }
+}
@@ -0,0 +1,67 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Flujo de entrada que cuenta los bytes leídos, para informar el avance de una carga.
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OyenteCarga
+ */
+final class EntradaContada extends FilterInputStream {
+
+    /** Bytes leídos hasta el momento. */
+    private long leidos;
+
+    /**
+     * Constructor del flujo.
+     *
+     * @param entrada Flujo de origen
+     */
+    EntradaContada(InputStream entrada) {
+        super(entrada);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            leidos++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int desde, int cantidad) throws IOException {
+        int n = super.read(b, desde, cantidad);
+        if (n > 0) {
+            leidos += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long cantidad) throws IOException {
+        long n = super.skip(cantidad);
+        leidos += n;
+        return n;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Obtiene la cantidad de bytes leídos.
+     *
+     * @return Bytes leídos hasta el momento
+     */
+    long getLeidos() {
+        return leidos;
+    }
+}
@@ -0,0 +1,29 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+/**
+ * Escucha que recibe los cambios de un {@link OperacionCRUD}.
+ * <p>
+ * Se invoca en el hilo que hizo el cambio, después de aplicarlo y, en las
+ * implementaciones sincronizadas, con el bloqueo del almacenamiento tomado, de modo
+ * que los eventos llegan en el orden en que ocurrieron. Por eso no debe bloquearse ni
+ * hacer trabajo costoso: las vistas deben trasladar el evento a su propio hilo, por
+ * ejemplo con {@code Platform.runLater}. Una excepción lanzada por la escucha se
+ * informa y no afecta al cambio ni a las demás escuchas.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#agregarEscucha(EscuchaCambios)
+ * @see EventoCambio
+ */
+@FunctionalInterface
+public interface EscuchaCambios {
+
+    /**
+     * Recibe un cambio del almacenamiento.
+     *
+     * @param evento Cambio ocurrido
+     */
+    void alCambiar(EventoCambio evento);
+}
@@ -0,0 +1,122 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+/**
+ * Instantánea inmutable de las estadísticas del inventario de productos.
+ * <p>
+ * Se construye a partir de los contadores que {@link ImplementacionOperacionCRUD}
+ * mantiene de forma incremental, por lo que obtenerla tiene costo constante
+ * independientemente de la cantidad de productos almacenados.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD
+ * @see CategoriaProducto
+ */
+public final class EstadisticasInventario {
+
+    /** Cantidad de productos activos. */
+    private final int cantidadProductos;
+
+    /** Capacidad total del almacenamiento. */
+    private final int capacidadTotal;
+
+    /** Cantidad de productos por categoría, indexada por {@link CategoriaProducto#ordinal()}. */
+    private final int[] cantidadPorCategoria;
+
+    /** Peso total de los productos activos en kilogramos. */
+    private final double pesoTotal;
+
+    /** Volumen total de los productos activos en metros cúbicos. */
+    private final double volumenTotal;
+
+    /**
+     * Constructor completo de la instantánea.
+     *
+     * @param cantidadProductos Cantidad de productos activos
+     * @param capacidadTotal Capacidad total del almacenamiento
+     * @param cantidadPorCategoria Cantidad de productos por categoría; se copia
+     * @param pesoTotal Peso total en kilogramos
+     * @param volumenTotal Volumen total en metros cúbicos
+     */
+    public EstadisticasInventario(int cantidadProductos, int capacidadTotal, int[] cantidadPorCategoria,
+                                  double pesoTotal, double volumenTotal) {
+        this.cantidadProductos = cantidadProductos;
+        this.capacidadTotal = capacidadTotal;
+        this.cantidadPorCategoria = cantidadPorCategoria.clone();
+        this.pesoTotal = pesoTotal;
+        this.volumenTotal = volumenTotal;
+    }
+
+    /**
+     * Obtiene la cantidad de productos activos.
+     *
+     * @return Número de productos activos
+     */
+    public int getCantidadProductos() {
+        return cantidadProductos;
+    }
+
+    /**
+     * Obtiene la capacidad total del almacenamiento.
+     *
+     * @return Capacidad total
+     */
+    public int getCapacidadTotal() {
+        return capacidadTotal;
+    }
+
+    /**
+     * Obtiene la cantidad de productos de una categoría.
+     *
+     * @param categoria Categoría a consultar
+     * @return Número de productos de esa categoría
+     */
+    public int getCantidad(CategoriaProducto categoria) {
+        return cantidadPorCategoria[categoria.ordinal()];
+    }
+
+    /**
+     * Obtiene el peso total de los productos activos.
+     *
+     * @return Peso total en kilogramos
+     */
+    public double getPesoTotal() {
+        return pesoTotal;
+    }
+
+    /**
+     * Obtiene el volumen total de los productos activos.
+     *
+     * @return Volumen total en metros cúbicos
+     */
+    public double getVolumenTotal() {
+        return volumenTotal;
+    }
+
+    /**
+     * Calcula el porcentaje de ocupación del almacenamiento.
+     *
+     * @return Porcentaje de posiciones ocupadas, o 0 si la capacidad es 0
+     */
+    public double getPorcentajeOcupacion() {
+        return capacidadTotal == 0 ? 0 : cantidadProductos * 100.0 / capacidadTotal;
+    }
+
+    /**
+     * Representación en texto de las estadísticas.
+     *
+     * @return String con el resumen de las estadísticas
+     */
+    @Override
+    public String toString() {
+        return String.format("Productos activos: %d/%d (%.1f%%) - Alimentos: %d, Equipos médicos: %d, "
+                           + "Herramientas: %d, Equipos de comunicación: %d - Peso total: %.2f kg, "
+                           + "Volumen total: %.2f m³",
+                           cantidadProductos, capacidadTotal, getPorcentajeOcupacion(),
+                           getCantidad(CategoriaProducto.ALIMENTO), getCantidad(CategoriaProducto.EQUIPO_MEDICO),
+                           getCantidad(CategoriaProducto.HERRAMIENTA), getCantidad(CategoriaProducto.EQUIPO_COMUNICACION),
+                           pesoTotal, volumenTotal);
+    }
+}
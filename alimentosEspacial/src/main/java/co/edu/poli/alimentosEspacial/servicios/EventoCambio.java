@@ -0,0 +1,177 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Cambio de un producto notificado por un {@link OperacionCRUD}.
+ * <p>
+ * Lleva el ID afectado y, si el motor la conoce, la ranura que ocupa el producto en el
+ * almacenamiento, para que vistas, cachés e índices apliquen el cambio sin volver a
+ * leer todo el inventario. Las operaciones por lotes notifican un evento por cada
+ * elemento exitoso. Un evento {@link TipoCambio#RECARGADO} indica que el contenido se
+ * reemplazó por completo y no lleva ID.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see EscuchaCambios
+ * @see TipoCambio
+ */
+public final class EventoCambio {
+
+    /** Ranura de los motores que no ubican los productos por posición. */
+    public static final int SIN_RANURA = -1;
+
+    /** Evento de recarga compartido. */
+    private static final EventoCambio RECARGA = new EventoCambio(TipoCambio.RECARGADO, null, null, null, null, SIN_RANURA);
+
+    /** Tipo de cambio. */
+    private final TipoCambio tipo;
+
+    /** ID del producto después del cambio, o el eliminado. */
+    private final String id;
+
+    /** ID del producto antes del cambio. */
+    private final String idAnterior;
+
+    /** Producto después del cambio. */
+    private final Producto producto;
+
+    /** Producto antes del cambio. */
+    private final Producto anterior;
+
+    /** Ranura del producto en el almacenamiento. */
+    private final int ranura;
+
+    /**
+     * Constructor del evento.
+     *
+     * @param tipo Tipo de cambio
+     * @param id ID del producto después del cambio
+     * @param idAnterior ID del producto antes del cambio
+     * @param producto Producto después del cambio
+     * @param anterior Producto antes del cambio
+     * @param ranura Ranura del producto
+     */
+    private EventoCambio(TipoCambio tipo, String id, String idAnterior, Producto producto, Producto anterior,
+                         int ranura) {
+        this.tipo = tipo;
+        this.id = id;
+        this.idAnterior = idAnterior;
+        this.producto = producto;
+        this.anterior = anterior;
+        this.ranura = ranura;
+    }
+
+    /**
+     * Crea el evento de un producto creado.
+     *
+     * @param producto Producto creado
+     * @param ranura Ranura asignada, o {@link #SIN_RANURA}
+     * @return Evento de creación
+     */
+    public static EventoCambio creado(Producto producto, int ranura) {
+        return new EventoCambio(TipoCambio.CREADO, producto.getId(), producto.getId(), producto, null, ranura);
+    }
+
+    /**
+     * Crea el evento de un producto actualizado.
+     *
+     * @param idAnterior ID con que se actualizó el producto
+     * @param anterior Producto reemplazado, o {@code null} si el motor no lo conoce
+     * @param producto Producto con los datos nuevos
+     * @param ranura Ranura del producto, o {@link #SIN_RANURA}
+     * @return Evento de actualización
+     */
+    public static EventoCambio actualizado(String idAnterior, Producto anterior, Producto producto, int ranura) {
+        return new EventoCambio(TipoCambio.ACTUALIZADO, producto.getId(), idAnterior, producto, anterior, ranura);
+    }
+
+    /**
+     * Crea el evento de un producto eliminado.
+     *
+     * @param id ID del producto eliminado
+     * @param anterior Producto eliminado, o {@code null} si el motor no lo conoce
+     * @param ranura Ranura que ocupaba, o {@link #SIN_RANURA}
+     * @return Evento de eliminación
+     */
+    public static EventoCambio eliminado(String id, Producto anterior, int ranura) {
+        return new EventoCambio(TipoCambio.ELIMINADO, id, id, null, anterior, ranura);
+    }
+
+    /**
+     * Obtiene el evento de reemplazo completo del contenido.
+     *
+     * @return Evento de recarga
+     */
+    public static EventoCambio recargado() {
+        return RECARGA;
+    }
+
+    /**
+     * Obtiene el tipo de cambio.
+     *
+     * @return Tipo de cambio
+     */
+    public TipoCambio getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtiene el ID del producto después del cambio; en una eliminación, el del
+     * producto eliminado.
+     *
+     * @return ID del producto, o {@code null} en una recarga
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el ID del producto antes del cambio. Sólo difiere de {@link #getId()} en
+     * una actualización que cambió el ID.
+     *
+     * @return ID anterior, o {@code null} en una recarga
+     */
+    public String getIdAnterior() {
+        return idAnterior;
+    }
+
+    /**
+     * Obtiene el producto después del cambio.
+     *
+     * @return Producto creado o actualizado, o {@code null} en una eliminación o recarga
+     */
+    public Producto getProducto() {
+        return producto;
+    }
+
+    /**
+     * Obtiene el producto antes del cambio.
+     *
+     * @return Producto reemplazado o eliminado, o {@code null} si no aplica o el motor
+     *         no lo conoce
+     */
+    public Producto getAnterior() {
+        return anterior;
+    }
+
+    /**
+     * Obtiene la ranura del producto en el almacenamiento.
+     *
+     * @return Ranura, o {@link #SIN_RANURA} si el motor no ubica los productos por posición
+     */
+    public int getRanura() {
+        return ranura;
+    }
+
+    @Override
+    public String toString() {
+        return tipo == TipoCambio.RECARGADO
+                ? "EventoCambio{" + tipo + '}'
+                : "EventoCambio{" + tipo + ", id='" + id + "'"
+                        + (idAnterior.equals(id) ? "" : ", idAnterior='" + idAnterior + "'")
+                        + (ranura == SIN_RANURA ? "" : ", ranura=" + ranura) + '}';
+    }
+}
@@ -0,0 +1,238 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Exportador de productos a archivos CSV o JSON Lines.
+ * <p>
+ * Los productos se obtienen del origen con {@link OperacionCRUD#recorrer(int)}, página
+ * por página y en orden de ID, y se escriben fila por fila en UTF-8, de modo que la
+ * memoria usada no depende de la cantidad de productos. Los archivos generados usan
+ * las columnas de {@link ColumnasProducto} y pueden volver a leerse con
+ * {@link ImportadorProductos}.
+ * </p>
+ * <p>
+ * En CSV la primera fila es el encabezado con todas las columnas, las filas terminan en
+ * {@code \r\n} como indica la RFC 4180 y las columnas que no corresponden a la
+ * categoría de la fila quedan vacías. En JSON Lines cada producto es un objeto en una
+ * línea que sólo incluye las columnas de su categoría.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImportadorProductos
+ */
+public final class ExportadorProductos {
+
+    /** Cantidad de productos por página al recorrer el origen. */
+    public static final int TAMANO_PAGINA = 1000;
+
+    /** Almacenamiento de donde se leen los productos. */
+    private final OperacionCRUD origen;
+
+    /**
+     * Constructor del exportador.
+     *
+     * @param origen Almacenamiento de donde se leen los productos
+     */
+    public ExportadorProductos(OperacionCRUD origen) {
+        this.origen = origen;
+    }
+
+    /**
+     * Exporta todos los productos a un archivo CSV separado por comas.
+     *
+     * @param archivo Archivo de destino; se reemplaza si existe
+     * @return Cantidad de productos exportados
+     * @throws IOException Si el archivo no puede escribirse
+     */
+    public long exportarCsv(Path archivo) throws IOException {
+        return exportarCsv(archivo, ImportadorProductos.SEPARADOR_POR_DEFECTO);
+    }
+
+    /**
+     * Exporta todos los productos a un archivo CSV con el separador indicado.
+     *
+     * @param archivo Archivo de destino; se reemplaza si existe
+     * @param separador Separador de campos, por ejemplo {@code ';'}
+     * @return Cantidad de productos exportados
+     * @throws IOException Si el archivo no puede escribirse
+     * @throws IllegalArgumentException Si el separador es una comilla doble o un salto de línea
+     */
+    public long exportarCsv(Path archivo, char separador) throws IOException {
+        if (separador == '"' || separador == '\r' || separador == '\n') {
+            throw new IllegalArgumentException("Separador de campos no válido");
+        }
+        try (BufferedWriter escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            escribirFilaCsv(escritor, ColumnasProducto.COLUMNAS, separador);
+            return escribir(producto -> escribirFilaCsv(escritor, ColumnasProducto.aFila(producto), separador));
+        }
+    }
+
+    /**
+     * Exporta todos los productos a un archivo JSON Lines, con un objeto por línea.
+     *
+     * @param archivo Archivo de destino; se reemplaza si existe
+     * @return Cantidad de productos exportados
+     * @throws IOException Si el archivo no puede escribirse
+     */
+    public long exportarJson(Path archivo) throws IOException {
+        try (BufferedWriter escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            return escribir(producto -> escribirObjetoJson(escritor, ColumnasProducto.aFila(producto)));
+        }
+    }
+
+    /**
+     * Recorre el origen y escribe cada producto.
+     *
+     * @param escritura Escritura de un producto
+     * @return Cantidad de productos escritos
+     * @throws IOException Si la escritura falla
+     */
+    private long escribir(EscrituraProducto escritura) throws IOException {
+        long escritos = 0;
+        try (Stream<Producto> productos = origen.recorrer(TAMANO_PAGINA)) {
+            Iterator<Producto> iterador = productos.iterator();
+            while (iterador.hasNext()) {
+                escritura.escribir(iterador.next());
+                escritos++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return escritos;
+    }
+
+    /**
+     * Escribe una fila CSV terminada en {@code \r\n}.
+     *
+     * @param escritor Destino
+     * @param campos Campos de la fila; los {@code null} se escriben vacíos
+     * @param separador Separador de campos
+     * @throws IOException Si la escritura falla
+     */
+    private static void escribirFilaCsv(Writer escritor, String[] campos, char separador) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(separador);
+            }
+            String campo = campos[i];
+            if (campo == null) {
+                continue;
+            }
+            boolean comillas = campo.indexOf(separador) >= 0 || campo.indexOf('"') >= 0
+                    || campo.indexOf('\r') >= 0 || campo.indexOf('\n') >= 0;
+            if (!comillas) {
+                escritor.write(campo);
+                continue;
+            }
+            escritor.write('"');
+            escritor.write(campo.replace("\"", "\"\""));
+            escritor.write('"');
+        }
+        escritor.write("\r\n");
+    }
+
+    /**
+     * Escribe un objeto JSON con las columnas no nulas de una fila, seguido de un salto de línea.
+     *
+     * @param escritor Destino
+     * @param campos Campos de la fila, en el orden de {@link ColumnasProducto#COLUMNAS}
+     * @throws IOException Si la escritura falla
+     */
+    private static void escribirObjetoJson(Writer escritor, String[] campos) throws IOException {
+        escritor.write('{');
+        boolean primero = true;
+        for (int i = 0; i < campos.length; i++) {
+            if (campos[i] == null) {
+                continue;
+            }
+            if (!primero) {
+                escritor.write(',');
+            }
+            primero = false;
+            escribirTextoJson(escritor, ColumnasProducto.COLUMNAS[i]);
+            escritor.write(':');
+            if (ColumnasProducto.SIN_COMILLAS[i] && esLiteralJson(campos[i])) {
+                escritor.write(campos[i]);
+            } else {
+                escribirTextoJson(escritor, campos[i]);
+            }
+        }
+        escritor.write("}\n");
+    }
+
+    /**
+     * Indica si un valor numérico o lógico puede escribirse como literal JSON; los
+     * números no finitos se escriben como texto.
+     *
+     * @param valor Valor a escribir
+     * @return {@code true} si es un literal JSON válido
+     */
+    private static boolean esLiteralJson(String valor) {
+        return !valor.equals("NaN") && !valor.endsWith("Infinity");
+    }
+
+    /**
+     * Escribe un texto JSON entre comillas, escapando los caracteres necesarios.
+     *
+     * @param escritor Destino
+     * @param texto Texto a escribir
+     * @throws IOException Si la escritura falla
+     */
+    private static void escribirTextoJson(Writer escritor, String texto) throws IOException {
+        escritor.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    escritor.write("\\\"");
+                    break;
+                case '\\':
+                    escritor.write("\\\\");
+                    break;
+                case '\n':
+                    escritor.write("\\n");
+                    break;
+                case '\r':
+                    escritor.write("\\r");
+                    break;
+                case '\t':
+                    escritor.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        escritor.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        escritor.write(c);
+                    }
+            }
+        }
+        escritor.write('"');
+    }
+
+    /**
+     * Escritura de un producto en el archivo de destino.
+     */
+    @FunctionalInterface
+    private interface EscrituraProducto {
+
+        /**
+         * Escribe un producto.
+         *
+         * @param producto Producto a escribir
+         * @throws IOException Si la escritura falla
+         */
+        void escribir(Producto producto) throws IOException;
+    }
+}
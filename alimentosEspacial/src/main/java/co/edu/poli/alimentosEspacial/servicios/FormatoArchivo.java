@@ -0,0 +1,111 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Formatos de archivo disponibles para guardar los productos.
+ * <p>
+ * El formato sólo determina cómo se escribe: al leer, el formato se reconoce por los
+ * primeros bytes del archivo, de modo que los archivos guardados con cualquiera de
+ * los formatos pueden cargarse sin importar cuál esté seleccionado.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionArchivo#setFormatoArchivo(FormatoArchivo)
+ * @see CodecProductos
+ */
+public enum FormatoArchivo {
+
+    /** Serialización de objetos Java, el formato original. */
+    SERIALIZACION_JAVA(new CodecSerializacionJava()),
+
+    /** Formato binario compacto con diccionario de textos y enteros variables. */
+    BINARIO(new CodecBinario()),
+
+    /** Un registro direccionable por producto; admite guardado incremental. */
+    REGISTROS(new CodecRegistros()),
+
+    /** Registros agrupados en bloques comprimidos con índice de bloques. */
+    COMPRIMIDO(new CodecComprimido()),
+
+    /** Fragmentos binarios independientes que se decodifican en paralelo. */
+    FRAGMENTADO(new CodecFragmentado());
+
+    /** Bytes con que comienza todo flujo de serialización Java. */
+    private static final byte[] FIRMA_SERIALIZACION = {(byte) 0xAC, (byte) 0xED};
+
+    /** Codec que implementa el formato. */
+    private final CodecProductos codec;
+
+    /**
+     * Constructor del formato.
+     *
+     * @param codec Codec que implementa el formato
+     */
+    FormatoArchivo(CodecProductos codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Obtiene el codec que implementa el formato.
+     *
+     * @return Codec del formato
+     */
+    public CodecProductos getCodec() {
+        return codec;
+    }
+
+    /**
+     * Reconoce el formato de un flujo por sus primeros bytes, sin consumirlos.
+     *
+     * @param entrada Flujo que admite {@link InputStream#mark(int)}
+     * @return Formato del flujo
+     * @throws IOException Si el flujo no puede leerse o su formato no se reconoce
+     */
+    public static FormatoArchivo detectar(InputStream entrada) throws IOException {
+        byte[] cabecera = new byte[CodecBinario.FIRMA.length];
+        entrada.mark(cabecera.length);
+        int leidos = entrada.readNBytes(cabecera, 0, cabecera.length);
+        entrada.reset();
+        if (empiezaCon(cabecera, leidos, CodecBinario.FIRMA)) {
+            return BINARIO;
+        }
+        if (empiezaCon(cabecera, leidos, ArchivoRegistros.FIRMA)) {
+            return REGISTROS;
+        }
+        if (empiezaCon(cabecera, leidos, CodecComprimido.FIRMA)) {
+            return COMPRIMIDO;
+        }
+        if (empiezaCon(cabecera, leidos, CodecFragmentado.FIRMA)) {
+            return FRAGMENTADO;
+        }
+        if (empiezaCon(cabecera, leidos, FIRMA_SERIALIZACION)) {
+            return SERIALIZACION_JAVA;
+        }
+        throw new StreamCorruptedException("Formato de archivo de productos no reconocido");
+    }
+
+    /**
+     * Verifica si una cabecera comienza con una firma.
+     *
+     * @param cabecera Bytes leídos
+     * @param leidos Cantidad de bytes válidos en la cabecera
+     * @param firma Firma buscada
+     * @return {@code true} si la cabecera comienza con la firma
+     */
+    private static boolean empiezaCon(byte[] cabecera, int leidos, byte[] firma) {
+        if (leidos < firma.length) {
+            return false;
+        }
+        for (int i = 0; i < firma.length; i++) {
+            if (cabecera[i] != firma[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,183 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Codificación binaria compacta de un producto.
+ * <p>
+ * Escribe una etiqueta con el tipo concreto del producto seguida de sus atributos en
+ * orden fijo, sin descriptores de clase ni nombres de campo. Un producto de un tipo no
+ * contemplado se escribe con la etiqueta {@link #SERIALIZADO} y su serialización Java,
+ * de modo que ningún producto queda sin representación.
+ * </p>
+ * <p>
+ * Los textos pueden ser {@code null}: se precede cada uno de un byte que indica si
+ * está presente.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see DiarioOperaciones
+ */
+final class FormatoBinario {
+
+    /** Etiqueta de un {@link Producto} genérico. */
+    static final byte PRODUCTO = 0;
+
+    /** Etiqueta de un {@link Alimento}. */
+    static final byte ALIMENTO = 1;
+
+    /** Etiqueta de un {@link EquipoMedico}. */
+    static final byte EQUIPO_MEDICO = 2;
+
+    /** Etiqueta de una {@link Herramienta}. */
+    static final byte HERRAMIENTA = 3;
+
+    /** Etiqueta de un {@link EquipoComunicacion}. */
+    static final byte EQUIPO_COMUNICACION = 4;
+
+    /** Etiqueta de un producto de otro tipo, guardado con serialización Java. */
+    static final byte SERIALIZADO = 5;
+
+    /**
+     * Constructor privado; la clase sólo tiene métodos estáticos.
+     */
+    private FormatoBinario() {
+    }
+
+    /**
+     * Escribe un producto.
+     *
+     * @param salida Destino de los bytes
+     * @param producto Producto a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirProducto(DataOutput salida, Producto producto) throws IOException {
+        Class<?> tipo = producto.getClass();
+        byte etiqueta = tipo == Producto.class ? PRODUCTO
+                : tipo == Alimento.class ? ALIMENTO
+                : tipo == EquipoMedico.class ? EQUIPO_MEDICO
+                : tipo == Herramienta.class ? HERRAMIENTA
+                : tipo == EquipoComunicacion.class ? EQUIPO_COMUNICACION
+                : SERIALIZADO;
+        salida.writeByte(etiqueta);
+        if (etiqueta == SERIALIZADO) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(producto);
+            }
+            salida.writeInt(bytes.size());
+            salida.write(bytes.toByteArray());
+            return;
+        }
+        escribirTexto(salida, producto.getId());
+        escribirTexto(salida, producto.getNombre());
+        salida.writeDouble(producto.getPeso());
+        salida.writeDouble(producto.getVolumen());
+        switch (etiqueta) {
+            case ALIMENTO:
+                Alimento alimento = (Alimento) producto;
+                escribirTexto(salida, alimento.getFechaCaducidad());
+                escribirTexto(salida, alimento.getTipoAlimento());
+                salida.writeInt(alimento.getCaloriasPorRacion());
+                break;
+            case EQUIPO_MEDICO:
+                EquipoMedico equipo = (EquipoMedico) producto;
+                escribirTexto(salida, equipo.getUsoEspecifico());
+                salida.writeBoolean(equipo.isEsEsterilizado());
+                escribirTexto(salida, equipo.getFechaEsterilizacion());
+                escribirTexto(salida, equipo.getUdt());
+                break;
+            case HERRAMIENTA:
+                Herramienta herramienta = (Herramienta) producto;
+                escribirTexto(salida, herramienta.getFuncion());
+                escribirTexto(salida, herramienta.getMaterial());
+                salida.writeBoolean(herramienta.isRequiereEnergia());
+                break;
+            case EQUIPO_COMUNICACION:
+                EquipoComunicacion comunicacion = (EquipoComunicacion) producto;
+                escribirTexto(salida, comunicacion.getTipoComunicacion());
+                salida.writeDouble(comunicacion.getRangoFrecuencia());
+                salida.writeInt(comunicacion.getPotencia());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Lee un producto escrito con {@link #escribirProducto(DataOutput, Producto)}.
+     *
+     * @param entrada Origen de los bytes
+     * @return Producto leído
+     * @throws IOException Si ocurre un error de lectura o la etiqueta es desconocida
+     */
+    static Producto leerProducto(DataInput entrada) throws IOException {
+        byte etiqueta = entrada.readByte();
+        if (etiqueta == SERIALIZADO) {
+            byte[] bytes = new byte[entrada.readInt()];
+            entrada.readFully(bytes);
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                return (Producto) ois.readObject();
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new InvalidObjectException("Producto serializado no válido: " + e.getMessage());
+            }
+        }
+        String id = leerTexto(entrada);
+        String nombre = leerTexto(entrada);
+        double peso = entrada.readDouble();
+        double volumen = entrada.readDouble();
+        switch (etiqueta) {
+            case PRODUCTO:
+                return new Producto(id, nombre, peso, volumen);
+            case ALIMENTO:
+                return new Alimento(id, nombre, peso, volumen,
+                                    leerTexto(entrada), leerTexto(entrada), entrada.readInt());
+            case EQUIPO_MEDICO:
+                return new EquipoMedico(id, nombre, peso, volumen,
+                                        leerTexto(entrada), entrada.readBoolean(), leerTexto(entrada), leerTexto(entrada));
+            case HERRAMIENTA:
+                return new Herramienta(id, nombre, peso, volumen,
+                                       leerTexto(entrada), leerTexto(entrada), entrada.readBoolean());
+            case EQUIPO_COMUNICACION:
+                return new EquipoComunicacion(id, nombre, peso, volumen,
+                                              leerTexto(entrada), entrada.readDouble(), entrada.readInt());
+            default:
+                throw new InvalidObjectException("Etiqueta de producto desconocida: " + etiqueta);
+        }
+    }
+
+    /**
+     * Escribe un texto que puede ser {@code null}.
+     *
+     * @param salida Destino de los bytes
+     * @param texto Texto a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirTexto(DataOutput salida, String texto) throws IOException {
+        salida.writeBoolean(texto != null);
+        if (texto != null) {
+            salida.writeUTF(texto);
+        }
+    }
+
+    /**
+     * Lee un texto escrito con {@link #escribirTexto(DataOutput, String)}.
+     *
+     * @param entrada Origen de los bytes
+     * @return Texto leído, o {@code null}
+     * @throws IOException Si ocurre un error de lectura
+     */
+    static String leerTexto(DataInput entrada) throws IOException {
+        return entrada.readBoolean() ? entrada.readUTF() : null;
+    }
+}
@@ -1,6 +1,25 @@
 package co.edu.poli.alimentosEspacial.servicios;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import co.edu.poli.alimentosEspacial.modelo.Producto;
 
 /**
@@ -10,6 +29,16 @@ import co.edu.poli.alimentosEspacial.modelo.Producto;
  * incluyendo operaciones básicas CRUD (Create, Read, Update, Delete) y operaciones
  * de serialización/deserialización para persistencia de datos.
  * </p>
+ * <p>
+ * Las operaciones están sincronizadas sobre la propia instancia. Los lectores que
+ * necesitan recorrer el inventario sin bloquear a los escritores deben usar
+ * {@link #instantanea()}.
+ * </p>
+ * <p>
+ * Los eventos de cambio llevan la ranura del arreglo que ocupa el producto. Se
+ * entregan con el bloqueo de la instancia tomado, después de invalidar la instantánea,
+ * de modo que una escucha que la lee ya ve el cambio.
+ * </p>
  * 
  * @author Politécnico Grancolombiano
  * @version 1.0
@@ -31,11 +60,144 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
     /**
      * Capacidad inicial del arreglo de productos.
      * <p>
-     * Define el tamaño inicial del arreglo y el incremento cuando se necesita expandir.
+     * Define el tamaño inicial del arreglo y el crecimiento mínimo cuando se necesita
+     * expandir. Las expansiones posteriores son geométricas (factor 1.5).
      * </p>
      */
     private int capacidadInicial = 5;
 
+    /**
+     * Límite de posiciones utilizadas alguna vez en el arreglo.
+     * <p>
+     * Todas las posiciones a partir de este índice están libres y nunca han sido
+     * asignadas, por lo que no necesitan registrarse en la lista de huecos.
+     * </p>
+     */
+    private int limiteUsado;
+
+    /**
+     * Pila de posiciones liberadas por {@link #delete(String)} que pueden reutilizarse.
+     */
+    private int[] ranurasLibres = new int[0];
+
+    /**
+     * Cantidad de posiciones válidas en {@link #ranurasLibres}.
+     */
+    private int cantidadLibres;
+
+    /**
+     * Cantidad de productos activos, mantenida de forma incremental.
+     */
+    private int cantidadActivos;
+
+    /**
+     * Cantidad de productos activos por categoría, indexada por {@link CategoriaProducto#ordinal()}.
+     */
+    private final int[] cantidadPorCategoria = new int[CategoriaProducto.values().length];
+
+    /**
+     * Suma del peso de los productos activos en kilogramos.
+     */
+    private double pesoTotal;
+
+    /**
+     * Suma del volumen de los productos activos en metros cúbicos.
+     */
+    private double volumenTotal;
+
+    /**
+     * Versión del almacenamiento, incrementada en cada modificación. Sólo se accede con
+     * el bloqueo de la instancia tomado.
+     */
+    private long version;
+
+    /**
+     * Instantánea publicada para la versión actual, o {@code null} si aún no se ha construido.
+     * <p>
+     * Se invalida en cada modificación y se reconstruye de forma perezosa en la siguiente
+     * lectura, por lo que los escritores publican versiones nuevas en tiempo constante y
+     * los lectores reutilizan la misma instantánea sin bloqueos mientras no haya cambios.
+     * </p>
+     */
+    private volatile InstantaneaProductos instantanea;
+
+    /**
+     * Índice hash que asocia el ID de cada producto con su posición en el arreglo.
+     * <p>
+     * Se mantiene sincronizado en cada operación de creación, actualización y
+     * eliminación, de modo que las búsquedas por ID no requieren recorrer el arreglo.
+     * </p>
+     */
+    private Map<String, Integer> indicePorId = new HashMap<>();
+
+    /**
+     * Índices secundarios por categoría, peso, volumen y prefijo de nombre.
+     */
+    private final IndicesSecundarios indices = new IndicesSecundarios();
+
+    /**
+     * Almacenamiento columnar opcional de los atributos numéricos, paralelo al arreglo
+     * de productos, o {@code null} si no está habilitado.
+     */
+    private AlmacenColumnar columnas;
+
+    /**
+     * Diario de operaciones donde se registra cada modificación, o {@code null} si la
+     * persistencia por diario no está habilitada.
+     */
+    private DiarioOperaciones diario;
+
+    /** Formato con que se escriben los archivos de productos. */
+    private volatile FormatoArchivo formatoArchivo = FormatoArchivo.BINARIO;
+
+    /** Archivo de la instantánea asociada al diario. */
+    private Path archivoInstantanea;
+
+    /**
+     * Bloqueo que serializa las compactaciones y la recuperación del diario. Se toma
+     * siempre antes que el bloqueo de la instancia, nunca después.
+     */
+    private final Object bloqueoCompactacion = new Object();
+
+    /** Hilo de fondo de las compactaciones periódicas, o {@code null} si no se programaron. */
+    private ScheduledExecutorService compactador;
+
+    /** Tarea de compactación periódica vigente. */
+    private ScheduledFuture<?> compactacionProgramada;
+
+    /** Resultado de la última compactación periódica, o {@code null} si no hubo ninguna. */
+    private volatile String ultimaCompactacion;
+
+    /**
+     * Fallos de la compactación en segundo plano o del cierre de la instantánea, que
+     * {@link #cerrarDiario()} relanza; {@code null} si no hubo ninguno.
+     */
+    private IOException falloPendiente;
+
+    /**
+     * Posiciones cuyo producto se creó o reemplazó desde el último punto de control.
+     */
+    private final BitSet ranurasModificadas = new BitSet();
+
+    /** IDs de los productos eliminados desde el último punto de control. */
+    private final Set<String> idsEliminados = new HashSet<>();
+
+    /**
+     * Indica si el próximo punto de control debe escribir la instantánea completa, porque
+     * el contenido se reemplazó en bloque o la instantánea en disco no admite cambios
+     * incrementales.
+     */
+    private boolean reescrituraPendiente = true;
+
+    /**
+     * Instantánea en disco abierta para guardado incremental, o {@code null}. Sólo se
+     * usa con el bloqueo de compactación tomado.
+     */
+    private ArchivoIncremental archivoIncremental;
+
+    /** Escuchas de los cambios del inventario. */
+    private final SoporteEscuchas escuchas = new SoporteEscuchas();
+
     /**
      * Constructor por defecto que inicializa el arreglo de productos.
      * <p>
@@ -46,51 +208,316 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
         productos = new Producto[capacidadInicial];
     }
 
+    /**
+     * Constructor que dimensiona el almacenamiento para una cantidad conocida de productos.
+     * <p>
+     * Evita expansiones sucesivas del arreglo y del índice cuando se sabe de antemano
+     * cuántos productos se van a cargar.
+     * </p>
+     *
+     * @param capacidadEsperada Cantidad de productos que se espera almacenar
+     * @throws IllegalArgumentException Si la capacidad es negativa
+     */
+    public ImplementacionOperacionCRUD(int capacidadEsperada) {
+        if (capacidadEsperada < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa: " + capacidadEsperada);
+        }
+        productos = new Producto[Math.max(capacidadInicial, capacidadEsperada)];
+        indicePorId = new HashMap<>(capacidadHash(productos.length));
+    }
+
     /**
      * Crea un nuevo producto en el sistema.
      * <p>
-     * Busca la primera posición disponible en el arreglo. Si no hay espacio disponible,
-     * expande el arreglo automáticamente antes de agregar el producto.
+     * Reutiliza primero las posiciones liberadas por eliminaciones previas y, si no
+     * hay ninguna, la siguiente posición nunca usada. Cuando el arreglo está lleno se
+     * expande geométricamente, por lo que el costo amortizado de cada inserción es constante.
      * </p>
      *
      * @param objeto Producto a ser creado/agregado al sistema
      * @return Mensaje de confirmación indicando la posición donde fue agregado
-     * @throws IllegalArgumentException Si el producto es nulo
+     * @throws IllegalArgumentException Si el producto es nulo o si ya existe un
+     *                                  producto con el mismo ID
+     * @throws UncheckedIOException Si el diario no pudo escribirse; el producto no se crea
      * @see Producto
      */
     @Override
-    public String create(Producto objeto) {
-        for (int i = 0; i < productos.length; i++) {
-            if (productos[i] == null) {
-                productos[i] = objeto;
-                return "Producto agregado en posición " + i;
+    public synchronized String create(Producto objeto) {
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        if (indicePorId.containsKey(objeto.getId())) {
+            throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+        }
+        int posicion = insertar(objeto);
+        invalidarInstantanea();
+        if (escuchas.hayEscuchas()) {
+            escuchas.notificar(EventoCambio.creado(objeto, posicion));
+        }
+        return "Producto agregado en posición " + posicion;
+    }
+
+    /**
+     * Crea un lote de productos dimensionando el almacenamiento una sola vez.
+     * <p>
+     * El arreglo y el índice por ID se expanden al inicio para todo el lote, y la
+     * instantánea publicada se invalida una única vez al final.
+     * </p>
+     *
+     * @param objetos Productos a crear
+     * @return Resumen con las posiciones del lote creadas con éxito
+     * @see ResultadoLote
+     */
+    @Override
+    public synchronized ResultadoLote createAll(Collection<? extends Producto> objetos) {
+        asegurarCapacidad(objetos.size());
+        if (objetos.size() > indicePorId.size()) {
+            Map<String, Integer> ampliado = new HashMap<>(capacidadHash(indicePorId.size() + objetos.size()));
+            ampliado.putAll(indicePorId);
+            indicePorId = ampliado;
+        }
+        BitSet exitosos = new BitSet(objetos.size());
+        List<EventoCambio> eventos = escuchas.hayEscuchas() ? new ArrayList<>() : null;
+        int i = 0;
+        try {
+            for (Producto objeto : objetos) {
+                if (objeto != null && objeto.getId() != null && !objeto.getId().isEmpty()
+                        && !indicePorId.containsKey(objeto.getId())) {
+                    int posicion = insertar(objeto);
+                    exitosos.set(i);
+                    if (eventos != null) {
+                        eventos.add(EventoCambio.creado(objeto, posicion));
+                    }
+                }
+                i++;
             }
+        } finally {
+            publicarLote(exitosos, eventos);
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * Publica los cambios de un lote: invalida la instantánea y notifica los eventos.
+     * <p>
+     * Los métodos por lotes la invocan en un bloque {@code finally}, de modo que si el
+     * diario falla a mitad del lote los elementos ya aplicados quedan visibles.
+     * </p>
+     *
+     * @param exitosos Posiciones del lote aplicadas
+     * @param eventos Eventos de los elementos aplicados, o {@code null} si no hay escuchas
+     */
+    private void publicarLote(BitSet exitosos, List<EventoCambio> eventos) {
+        if (!exitosos.isEmpty()) {
+            invalidarInstantanea();
+            escuchas.notificar(eventos);
+        }
+    }
+
+    /**
+     * Coloca un producto en una posición libre y lo registra en el índice y los contadores.
+     * <p>
+     * El guardado se registra en el diario antes de modificar la memoria; si el diario
+     * falla, el producto no se inserta.
+     * </p>
+     *
+     * @param objeto Producto a insertar, cuyo ID no debe existir en el sistema
+     * @return Índice de la posición asignada
+     * @throws UncheckedIOException Si el diario no pudo escribirse
+     */
+    private int insertar(Producto objeto) {
+        if (diario != null) {
+            diario.registrarGuardado(objeto);
+        }
+        int posicion = asignarRanura();
+        productos[posicion] = objeto;
+        indicePorId.put(objeto.getId(), posicion);
+        registrar(posicion, objeto);
+        ranurasModificadas.set(posicion);
+        return posicion;
+    }
+
+    /**
+     * Reserva espacio para al menos la cantidad indicada de productos adicionales.
+     * <p>
+     * Útil antes de cargas masivas: el arreglo se expande una sola vez en lugar de
+     * hacerlo repetidamente durante las inserciones.
+     * </p>
+     *
+     * @param adicionales Cantidad de productos que se van a agregar
+     */
+    public synchronized void asegurarCapacidad(int adicionales) {
+        int requeridas = limiteUsado + Math.max(0, adicionales - cantidadLibres);
+        if (requeridas > productos.length) {
+            expandir(requeridas);
+        }
+    }
+
+    /**
+     * Obtiene una posición libre del arreglo, expandiéndolo si es necesario.
+     *
+     * @return Índice de la posición asignada
+     */
+    private int asignarRanura() {
+        if (cantidadLibres > 0) {
+            return ranurasLibres[--cantidadLibres];
         }
-        Producto[] nuevoArreglo = new Producto[productos.length + capacidadInicial];
-        System.arraycopy(productos, 0, nuevoArreglo, 0, productos.length);
-        nuevoArreglo[productos.length] = objeto;
+        if (limiteUsado == productos.length) {
+            expandir(limiteUsado + 1);
+        }
+        return limiteUsado++;
+    }
+
+    /**
+     * Devuelve una posición a la pila de huecos reutilizables.
+     *
+     * @param posicion Índice de la posición liberada
+     */
+    private void liberarRanura(int posicion) {
+        if (cantidadLibres == ranurasLibres.length) {
+            ranurasLibres = Arrays.copyOf(ranurasLibres,
+                    Math.max(capacidadInicial, ranurasLibres.length + (ranurasLibres.length >> 1)));
+        }
+        ranurasLibres[cantidadLibres++] = posicion;
+    }
+
+    /**
+     * Expande el arreglo de productos con crecimiento geométrico.
+     *
+     * @param minimo Capacidad mínima que debe tener el arreglo tras la expansión
+     */
+    private void expandir(int minimo) {
+        int nuevaCapacidad = Math.max(minimo, productos.length + Math.max(capacidadInicial, productos.length >> 1));
+        Producto[] nuevoArreglo = new Producto[nuevaCapacidad];
+        System.arraycopy(productos, 0, nuevoArreglo, 0, limiteUsado);
         productos = nuevoArreglo;
-        return "Producto agregado en nueva posición " + productos.length;
+        if (columnas != null) {
+            columnas.asegurarCapacidad(nuevaCapacidad);
+        }
+    }
+
+    /**
+     * Incorpora un producto a los índices secundarios, a los contadores estadísticos
+     * y, si está habilitado, al almacenamiento columnar.
+     *
+     * @param posicion Posición que ocupa el producto
+     * @param producto Producto que pasa a estar activo
+     */
+    private void registrar(int posicion, Producto producto) {
+        indices.agregar(producto);
+        if (columnas != null) {
+            columnas.escribir(posicion, producto);
+        }
+        cantidadActivos++;
+        cantidadPorCategoria[CategoriaProducto.de(producto).ordinal()]++;
+        pesoTotal += producto.getPeso();
+        volumenTotal += producto.getVolumen();
+    }
+
+    /**
+     * Retira un producto de los índices secundarios, de los contadores estadísticos y,
+     * si está habilitado, del almacenamiento columnar.
+     * <p>
+     * Cuando el inventario queda vacío los acumulados se reinician a cero para
+     * descartar el error de redondeo acumulado por sumas y restas sucesivas.
+     * </p>
+     *
+     * @param posicion Posición que ocupaba el producto
+     * @param producto Producto que deja de estar activo
+     */
+    private void desregistrar(int posicion, Producto producto) {
+        indices.quitar(producto);
+        if (columnas != null) {
+            columnas.borrar(posicion);
+        }
+        cantidadActivos--;
+        cantidadPorCategoria[CategoriaProducto.de(producto).ordinal()]--;
+        if (cantidadActivos == 0) {
+            pesoTotal = 0;
+            volumenTotal = 0;
+        } else {
+            pesoTotal -= producto.getPeso();
+            volumenTotal -= producto.getVolumen();
+        }
+    }
+
+    /**
+     * Descarta la instantánea publicada y avanza la versión del almacenamiento.
+     */
+    private void invalidarInstantanea() {
+        version++;
+        instantanea = null;
+    }
+
+    /**
+     * Calcula la capacidad inicial de un {@link HashMap} para contener la cantidad
+     * indicada de entradas sin redimensionarse.
+     *
+     * @param entradas Cantidad de entradas esperadas
+     * @return Capacidad inicial adecuada para el mapa
+     */
+    private static int capacidadHash(int entradas) {
+        return Math.max(16, (int) (entradas / 0.75f) + 1);
     }
 
     /**
      * Obtiene todos los productos del sistema.
      * <p>
-     * Retorna el arreglo completo de productos, incluyendo posiciones nulas.
+     * Retorna una copia sin posiciones nulas de la instantánea actual; el arreglo interno
+     * nunca se expone. Para recorrer el inventario sin copiarlo use {@link #instantanea()}.
      * </p>
      *
-     * @return Arreglo con todos los productos gestionados
+     * @return Arreglo con todos los productos gestionados, sin posiciones nulas
      * @see Producto
      */
     @Override
     public Producto[] read() {
-        return productos;
+        return instantanea().toArray();
+    }
+
+    /**
+     * Obtiene una instantánea inmutable y sin huecos de los productos del sistema.
+     * <p>
+     * Si no ha habido modificaciones desde la última llamada se retorna la misma
+     * instantánea sin tomar bloqueos. En caso contrario se construye una nueva bajo
+     * el bloqueo de la instancia y se publica para las lecturas siguientes.
+     * </p>
+     *
+     * @return Instantánea de la versión actual del inventario
+     * @see InstantaneaProductos
+     */
+    @Override
+    public InstantaneaProductos instantanea() {
+        InstantaneaProductos publicada = instantanea;
+        if (publicada != null) {
+            return publicada;
+        }
+        synchronized (this) {
+            if (instantanea == null) {
+                instantanea = InstantaneaProductos.compactar(version, productos, limiteUsado, cantidadActivos);
+            }
+            return instantanea;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las instantáneas siguen el orden de las ranuras, que no se mueven, y los eventos se
+     * entregan con el bloqueo de la instancia tomado, el mismo con el que se construye
+     * cada instantánea.
+     * </p>
+     */
+    @Override
+    public boolean admiteCambiosIncrementales() {
+        return true;
     }
 
     /**
      * Busca un producto por su identificador único.
      * <p>
-     * Recorre el arreglo de productos buscando coincidencia exacta del ID.
+     * Consulta el índice hash por ID, por lo que el costo es constante
+     * independientemente de la cantidad de productos.
      * </p>
      *
      * @param id Identificador único del producto a buscar
@@ -99,79 +526,286 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      * @see Producto
      */
     @Override
-    public Producto readId(String id) {
-        for (Producto p : productos) {
-            if (p != null && p.getId().equals(id)) {
-                return p;
-            }
-        }
-        return null;
+    public synchronized Producto readId(String id) {
+        Integer posicion = indicePorId.get(id);
+        return posicion == null ? null : productos[posicion];
     }
 
     /**
      * Actualiza un producto existente en el sistema.
      * <p>
-     * Busca el producto por ID y lo reemplaza con el nuevo objeto proporcionado.
+     * Localiza el producto mediante el índice por ID y lo reemplaza con el nuevo
+     * objeto proporcionado. Si el nuevo objeto trae un ID distinto, el índice se
+     * actualiza para reflejarlo.
      * </p>
      *
      * @param id Identificador único del producto a actualizar
      * @param objeto Nuevo objeto producto con los datos actualizados
      * @return Mensaje de confirmación indicando el resultado de la operación
      * @throws IllegalArgumentException Si el id es nulo/vacío o el objeto es nulo
+     * @throws UncheckedIOException Si el diario no pudo escribirse; el producto no cambia
      * @see Producto
      */
     @Override
-    public String update(String id, Producto objeto) {
-        for (int i = 0; i < productos.length; i++) {
-            if (productos[i] != null && productos[i].getId().equals(id)) {
-                productos[i] = objeto;
-                return "Producto actualizado en posición " + i;
+    public synchronized String update(String id, Producto objeto) {
+        Integer posicion = indicePorId.get(id);
+        if (posicion == null) {
+            return "Producto con ID " + id + " no encontrado.";
+        }
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        Producto anterior = productos[posicion];
+        if (!id.equals(objeto.getId())) {
+            if (indicePorId.containsKey(objeto.getId())) {
+                throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+            }
+            if (diario != null) {
+                diario.registrarCambioId(id, objeto);
             }
+            indicePorId.remove(id);
+            indicePorId.put(objeto.getId(), posicion);
+            idsEliminados.add(id);
+            sustituir(posicion, objeto);
+        } else {
+            reemplazar(posicion, objeto);
+        }
+        invalidarInstantanea();
+        if (escuchas.hayEscuchas()) {
+            escuchas.notificar(EventoCambio.actualizado(id, anterior, objeto, posicion));
         }
-        return "Producto con ID " + id + " no encontrado.";
+        return "Producto actualizado en posición " + posicion;
+    }
+
+    /**
+     * Actualiza un lote de productos existentes usando el ID de cada producto.
+     * <p>
+     * La instantánea publicada se invalida una única vez al final del lote.
+     * </p>
+     *
+     * @param objetos Productos con los datos actualizados
+     * @return Resumen con las posiciones del lote actualizadas con éxito
+     * @see ResultadoLote
+     */
+    @Override
+    public synchronized ResultadoLote updateAll(Collection<? extends Producto> objetos) {
+        BitSet exitosos = new BitSet(objetos.size());
+        List<EventoCambio> eventos = escuchas.hayEscuchas() ? new ArrayList<>() : null;
+        int i = 0;
+        try {
+            for (Producto objeto : objetos) {
+                Integer posicion = objeto == null ? null : indicePorId.get(objeto.getId());
+                if (posicion != null) {
+                    Producto anterior = productos[posicion];
+                    reemplazar(posicion, objeto);
+                    exitosos.set(i);
+                    if (eventos != null) {
+                        eventos.add(EventoCambio.actualizado(objeto.getId(), anterior, objeto, posicion));
+                    }
+                }
+                i++;
+            }
+        } finally {
+            publicarLote(exitosos, eventos);
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * Sustituye el producto de una posición ocupada por otro con el mismo ID,
+     * registrando el guardado en el diario antes de modificar la memoria.
+     *
+     * @param posicion Índice de la posición a sustituir
+     * @param objeto Nuevo producto para esa posición
+     * @throws UncheckedIOException Si el diario no pudo escribirse; la posición no cambia
+     */
+    private void reemplazar(int posicion, Producto objeto) {
+        if (diario != null) {
+            diario.registrarGuardado(objeto);
+        }
+        sustituir(posicion, objeto);
+    }
+
+    /**
+     * Sustituye el producto de una posición ocupada, actualizando los contadores. No
+     * escribe en el diario.
+     *
+     * @param posicion Índice de la posición a sustituir
+     * @param objeto Nuevo producto para esa posición
+     */
+    private void sustituir(int posicion, Producto objeto) {
+        desregistrar(posicion, productos[posicion]);
+        productos[posicion] = objeto;
+        registrar(posicion, objeto);
+        ranurasModificadas.set(posicion);
     }
 
     /**
      * Elimina un producto del sistema.
      * <p>
-     * Busca el producto por ID y lo elimina estableciendo la posición a {@code null}.
+     * Localiza el producto mediante el índice por ID y lo elimina estableciendo
+     * la posición a {@code null}.
      * </p>
      *
      * @param id Identificador único del producto a eliminar
      * @return El producto eliminado, o {@code null} si no fue encontrado
      * @throws IllegalArgumentException Si el id es nulo o vacío
+     * @throws UncheckedIOException Si el diario no pudo escribirse; el producto no se elimina
      * @see Producto
      */
     @Override
-    public Producto delete(String id) {
-        for (int i = 0; i < productos.length; i++) {
-            if (productos[i] != null && productos[i].getId().equals(id)) {
-                Producto eliminado = productos[i];
-                productos[i] = null;
-                return eliminado;
+    public synchronized Producto delete(String id) {
+        Integer posicion = indicePorId.get(id);
+        Producto eliminado = eliminar(id);
+        if (eliminado != null) {
+            invalidarInstantanea();
+            if (escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.eliminado(id, eliminado, posicion));
+            }
+        }
+        return eliminado;
+    }
+
+    /**
+     * Elimina un lote de productos por ID.
+     * <p>
+     * La instantánea publicada se invalida una única vez al final del lote.
+     * </p>
+     *
+     * @param ids Identificadores de los productos a eliminar
+     * @return Resumen con las posiciones del lote eliminadas con éxito
+     * @see ResultadoLote
+     */
+    @Override
+    public synchronized ResultadoLote deleteAll(Collection<String> ids) {
+        BitSet exitosos = new BitSet(ids.size());
+        List<EventoCambio> eventos = escuchas.hayEscuchas() ? new ArrayList<>() : null;
+        int i = 0;
+        try {
+            for (String id : ids) {
+                Integer posicion = id == null ? null : indicePorId.get(id);
+                Producto eliminado = posicion == null ? null : eliminar(id);
+                if (eliminado != null) {
+                    exitosos.set(i);
+                    if (eventos != null) {
+                        eventos.add(EventoCambio.eliminado(id, eliminado, posicion));
+                    }
+                }
+                i++;
             }
+        } finally {
+            publicarLote(exitosos, eventos);
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Los eventos llevan la ranura del arreglo que ocupa, u ocupaba, el producto.
+     * </p>
+     */
+    @Override
+    public void agregarEscucha(EscuchaCambios escucha) {
+        escuchas.agregar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quitarEscucha(EscuchaCambios escucha) {
+        escuchas.quitar(escucha);
+    }
+
+    /**
+     * Retira un producto de su posición, del índice y de los contadores, registrando la
+     * eliminación en el diario antes de modificar la memoria.
+     *
+     * @param id Identificador del producto a eliminar
+     * @return El producto eliminado, o {@code null} si no existía
+     * @throws UncheckedIOException Si el diario no pudo escribirse; el producto no se elimina
+     */
+    private Producto eliminar(String id) {
+        Integer posicion = indicePorId.get(id);
+        if (posicion == null) {
+            return null;
+        }
+        if (diario != null) {
+            diario.registrarEliminacion(id);
         }
-        return null;
+        indicePorId.remove(id);
+        Producto eliminado = productos[posicion];
+        productos[posicion] = null;
+        liberarRanura(posicion);
+        desregistrar(posicion, eliminado);
+        ranurasModificadas.clear(posicion);
+        idsEliminados.add(id);
+        return eliminado;
     }
 
     /**
      * Establece el arreglo de productos directamente.
      * <p>
      * Útil para inicializar el sistema con un conjunto preexistente de productos.
+     * El índice por ID se reconstruye a partir del nuevo arreglo. Si el diario está
+     * habilitado, el reemplazo completo se registra antes de modificar la memoria. Las
+     * escuchas reciben un único evento {@link TipoCambio#RECARGADO}.
      * </p>
      *
      * @param nuevosProductos Nuevo arreglo de productos a gestionar
+     * @throws UncheckedIOException Si el diario no pudo escribirse; el contenido no cambia
      * @see Producto
      */
-    public void setProductos(Producto[] nuevosProductos) {
+    public synchronized void setProductos(Producto[] nuevosProductos) {
+        if (diario != null) {
+            diario.registrarContenido(nuevosProductos);
+        }
         this.productos = nuevosProductos;
+        reconstruirIndice();
+        invalidarInstantanea();
+        escuchas.notificar(EventoCambio.recargado());
+    }
+
+    /**
+     * Reconstruye el índice por ID, los índices secundarios, la pila de huecos y los
+     * contadores estadísticos recorriendo el arreglo actual.
+     * <p>
+     * Como el contenido se reemplaza en bloque, el próximo punto de control escribe la
+     * instantánea completa.
+     * </p>
+     */
+    private void reconstruirIndice() {
+        ranurasModificadas.clear();
+        idsEliminados.clear();
+        reescrituraPendiente = true;
+        indicePorId = new HashMap<>(capacidadHash(productos.length));
+        indices.limpiar();
+        limiteUsado = productos.length;
+        cantidadLibres = 0;
+        cantidadActivos = 0;
+        Arrays.fill(cantidadPorCategoria, 0);
+        pesoTotal = 0;
+        volumenTotal = 0;
+        if (columnas != null) {
+            columnas.limpiar();
+            columnas.asegurarCapacidad(productos.length);
+        }
+        for (int i = productos.length - 1; i >= 0; i--) {
+            if (productos[i] != null) {
+                indicePorId.put(productos[i].getId(), i);
+                registrar(i, productos[i]);
+            } else {
+                liberarRanura(i);
+            }
+        }
     }
 
     /**
      * Serializa el arreglo de productos a un archivo binario.
      * <p>
-     * Guarda el estado actual del sistema en un archivo para persistencia.
-     * Utiliza serialización de objetos Java.
+     * Guarda el estado actual del sistema en un archivo para persistencia, usando
+     * el formato seleccionado (por defecto {@link FormatoArchivo#BINARIO}).
      * </p>
      *
      * @param productos Arreglo de productos a serializar
@@ -180,12 +814,12 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      * @return Mensaje de confirmación del resultado de la operación
      * @throws IOException Si ocurre un error durante la escritura del archivo
      * @see Producto
-     * @see Serializable
+     * @see FormatoArchivo
      */
     @Override
     public String serializar(Producto[] productos, String path, String name) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(path + File.separator + name))) {
-            oos.writeObject(productos);
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(path + File.separator + name))) {
+            formatoArchivo.getCodec().escribir(productos, salida);
             return ">> Archivo '" + name + "' guardado exitosamente en '" + path + "'";
         } catch (IOException e) {
             return "Error al guardar el archivo: " + e.getMessage();
@@ -196,16 +830,17 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      * Deserializa un arreglo de productos desde un archivo binario.
      * <p>
      * Carga el estado del sistema desde un archivo previamente guardado.
-     * Si el archivo no existe, retorna un arreglo vacío.
+     * Si el archivo no existe, retorna un arreglo vacío. El formato se reconoce por
+     * los primeros bytes del archivo, por lo que los archivos antiguos con
+     * serialización Java siguen cargándose.
      * </p>
      *
      * @param path Ruta del directorio donde se encuentra el archivo
      * @param name Nombre del archivo a cargar
      * @return Arreglo de productos cargado desde el archivo, o arreglo vacío si el archivo no existe
      * @throws IOException Si ocurre un error durante la lectura del archivo
-     * @throws ClassNotFoundException Si la clase del objeto serializado no se encuentra
      * @see Producto
-     * @see Serializable
+     * @see FormatoArchivo
      */
     @Override
     public Producto[] deserializar(String path, String name) {
@@ -215,27 +850,46 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
             return new Producto[10];
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(archivo))) {
-            return (Producto[]) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+        try (InputStream entrada = new BufferedInputStream(new FileInputStream(archivo))) {
+            return FormatoArchivo.detectar(entrada).getCodec().leer(entrada);
+        } catch (IOException e) {
             System.err.println("Error al cargar el archivo: " + e.getMessage());
             return null;
         }
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FormatoArchivo getFormatoArchivo() {
+        return formatoArchivo;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Afecta también a las instantáneas que escribe {@link #guardarPuntoControl()}.
+     * </p>
+     */
+    @Override
+    public void setFormatoArchivo(FormatoArchivo formato) {
+        if (formato == null) {
+            throw new IllegalArgumentException("El formato no puede ser nulo");
+        }
+        this.formatoArchivo = formato;
+    }
+
     /**
      * Obtiene la cantidad actual de productos no nulos en el sistema.
+     * <p>
+     * El valor se mantiene de forma incremental, por lo que no recorre el arreglo.
+     * </p>
      *
      * @return Número de productos activos en el sistema
      */
-    public int getCantidadProductos() {
-        int count = 0;
-        for (Producto p : productos) {
-            if (p != null) {
-                count++;
-            }
-        }
-        return count;
+    public synchronized int getCantidadProductos() {
+        return cantidadActivos;
     }
     
     /**
@@ -243,7 +897,7 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      *
      * @return Tamaño actual del arreglo de productos
      */
-    public int getCapacidadTotal() {
+    public synchronized int getCapacidadTotal() {
         return productos.length;
     }
     
@@ -253,8 +907,8 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      * @param id Identificador único a verificar
      * @return {@code true} si existe un producto con ese ID, {@code false} en caso contrario
      */
-    public boolean existeProducto(String id) {
-        return readId(id) != null;
+    public synchronized boolean existeProducto(String id) {
+        return indicePorId.containsKey(id);
     }
     
     /**
@@ -262,9 +916,703 @@ public class ImplementacionOperacionCRUD implements OperacionCRUD, OperacionArch
      *
      * @return String con información sobre cantidad y capacidad del sistema
      */
-    public String obtenerEstadisticas() {
+    public synchronized String obtenerEstadisticas() {
         return String.format("Productos activos: %d/%d (%.1f%%)", 
-                           getCantidadProductos(), getCapacidadTotal(),
-                           (getCantidadProductos() * 100.0 / getCapacidadTotal()));
+                           cantidadActivos, getCapacidadTotal(),
+                           (cantidadActivos * 100.0 / getCapacidadTotal()));
+    }
+
+    /**
+     * Obtiene una instantánea de las estadísticas del inventario.
+     * <p>
+     * Incluye la cantidad por categoría y los totales de peso y volumen. Se construye
+     * a partir de contadores incrementales, por lo que su costo es constante.
+     * </p>
+     *
+     * @return Estadísticas actuales del inventario
+     * @see EstadisticasInventario
+     */
+    public synchronized EstadisticasInventario getEstadisticas() {
+        return new EstadisticasInventario(cantidadActivos, getCapacidadTotal(), cantidadPorCategoria,
+                                          pesoTotal, volumenTotal);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Usa el índice ordenado por ID, por lo que cada página cuesta O(log n + tamaño)
+     * sin importar cuántos productos haya antes del cursor.
+     * </p>
+     */
+    @Override
+    public synchronized Pagina leerPagina(String despuesDeId, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        List<Producto> elementos = new ArrayList<>(Math.min(tamano, cantidadActivos));
+        boolean hayMas = false;
+        for (Producto p : indices.posterioresA(despuesDeId)) {
+            if (elementos.size() == tamano) {
+                hayMas = true;
+                break;
+            }
+            elementos.add(p);
+        }
+        return new Pagina(elementos, hayMas);
+    }
+
+    /**
+     * Busca todos los productos de una categoría usando el índice secundario.
+     *
+     * @param categoria Categoría a consultar
+     * @return Lista con los productos de la categoría, ordenados por peso
+     * @see CategoriaProducto
+     */
+    public synchronized List<Producto> buscarPorCategoria(CategoriaProducto categoria) {
+        return new ArrayList<>(indices.porCategoria(categoria));
+    }
+
+    /**
+     * Busca los productos de una categoría cuyo peso está en el rango indicado.
+     * <p>
+     * Por ejemplo, todas las herramientas de menos de 2 kg. El costo es logarítmico
+     * más la cantidad de resultados.
+     * </p>
+     *
+     * @param categoria Categoría a consultar
+     * @param minimo Peso mínimo en kilogramos, inclusive
+     * @param maximo Peso máximo en kilogramos, inclusive
+     * @return Lista con los productos en el rango, ordenados por peso
+     */
+    public synchronized List<Producto> buscarPorRangoPeso(CategoriaProducto categoria, double minimo, double maximo) {
+        return new ArrayList<>(indices.porRangoPeso(categoria, minimo, maximo));
+    }
+
+    /**
+     * Busca los productos de cualquier categoría cuyo peso está en el rango indicado.
+     *
+     * @param minimo Peso mínimo en kilogramos, inclusive
+     * @param maximo Peso máximo en kilogramos, inclusive
+     * @return Lista con los productos en el rango, ordenados por peso dentro de cada categoría
+     */
+    public synchronized List<Producto> buscarPorRangoPeso(double minimo, double maximo) {
+        List<Producto> resultado = new ArrayList<>();
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            resultado.addAll(indices.porRangoPeso(categoria, minimo, maximo));
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca los productos de una categoría cuyo volumen está en el rango indicado.
+     *
+     * @param categoria Categoría a consultar
+     * @param minimo Volumen mínimo en metros cúbicos, inclusive
+     * @param maximo Volumen máximo en metros cúbicos, inclusive
+     * @return Lista con los productos en el rango, ordenados por volumen
+     */
+    public synchronized List<Producto> buscarPorRangoVolumen(CategoriaProducto categoria, double minimo, double maximo) {
+        return new ArrayList<>(indices.porRangoVolumen(categoria, minimo, maximo));
+    }
+
+    /**
+     * Busca los productos de cualquier categoría cuyo volumen está en el rango indicado.
+     *
+     * @param minimo Volumen mínimo en metros cúbicos, inclusive
+     * @param maximo Volumen máximo en metros cúbicos, inclusive
+     * @return Lista con los productos en el rango, ordenados por volumen dentro de cada categoría
+     */
+    public synchronized List<Producto> buscarPorRangoVolumen(double minimo, double maximo) {
+        List<Producto> resultado = new ArrayList<>();
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            resultado.addAll(indices.porRangoVolumen(categoria, minimo, maximo));
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca los productos cuyo nombre comienza con el prefijo indicado.
+     * <p>
+     * La comparación no distingue mayúsculas de minúsculas. El costo es logarítmico
+     * más la cantidad de resultados.
+     * </p>
+     *
+     * @param prefijo Prefijo del nombre, por ejemplo {@code "Kit"}
+     * @return Lista con los productos encontrados, ordenados por nombre
+     */
+    public synchronized List<Producto> buscarPorPrefijoNombre(String prefijo) {
+        return new ArrayList<>(indices.porPrefijoNombre(prefijo));
+    }
+
+    /**
+     * Ejecuta una consulta usando el índice secundario más selectivo disponible.
+     * <p>
+     * Los índices secundarios son mapas vivos que no admiten lecturas concurrentes con
+     * las escrituras, así que los resultados del índice elegido se reúnen bajo el
+     * bloqueo de la instancia y el flujo retornado recorre esa copia. Cuando ningún
+     * índice es aplicable se recorre de forma perezosa la instantánea actual, que no se
+     * ve afectada por modificaciones posteriores. En ambos casos el flujo puede
+     * consumirse después de liberar el bloqueo.
+     * </p>
+     * <p>
+     * Por eso, con un índice, el flujo no es perezoso: un {@code limit} posterior no
+     * evita reunir todas las coincidencias. Quien sólo necesita los primeros resultados
+     * debe usar {@link #consultar(Consulta, int)}.
+     * </p>
+     *
+     * @param consulta Consulta a ejecutar
+     * @return Flujo con los productos que cumplen la consulta
+     * @see Consulta
+     */
+    @Override
+    public synchronized Stream<Producto> consultar(Consulta consulta) {
+        PlanConsulta plan = PlanConsulta.elegir(consulta, indices, cantidadPorCategoria, cantidadActivos);
+        if (plan.esRecorridoCompleto()) {
+            return instantanea().stream().filter(consulta.comoPredicado());
+        }
+        return plan.candidatos().filter(consulta.comoPredicado()).collect(Collectors.toList()).stream();
+    }
+
+    /**
+     * Ejecuta una consulta y materializa como máximo la cantidad indicada de resultados
+     * bajo el bloqueo de la instancia.
+     * <p>
+     * A diferencia de {@link #consultar(Consulta)}, deja de recorrer el índice al
+     * alcanzar el límite.
+     * </p>
+     *
+     * @param consulta Consulta a ejecutar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista con los primeros productos que cumplen la consulta
+     * @see Consulta
+     */
+    @Override
+    public synchronized List<Producto> consultar(Consulta consulta, int limite) {
+        PlanConsulta plan = PlanConsulta.elegir(consulta, indices, cantidadPorCategoria, cantidadActivos);
+        Stream<Producto> candidatos = plan.esRecorridoCompleto() ? instantanea().stream() : plan.candidatos();
+        return candidatos.filter(consulta.comoPredicado()).limit(limite).collect(Collectors.toList());
+    }
+
+    /**
+     * Describe el plan que se usaría para ejecutar una consulta.
+     *
+     * @param consulta Consulta a planificar
+     * @return Índice elegido y cantidad estimada de candidatos
+     */
+    public synchronized String explicar(Consulta consulta) {
+        return PlanConsulta.elegir(consulta, indices, cantidadPorCategoria, cantidadActivos).toString();
+    }
+
+    /**
+     * Habilita el almacenamiento columnar de los atributos numéricos.
+     * <p>
+     * Copia peso, volumen, calorías, potencia y rango de frecuencia de los productos
+     * actuales a arreglos primitivos paralelos, que a partir de entonces se mantienen
+     * en cada modificación. Llamadas posteriores retornan el mismo almacenamiento.
+     * </p>
+     *
+     * @return Almacenamiento columnar asociado a esta instancia
+     * @see AlmacenColumnar
+     */
+    public synchronized AlmacenColumnar habilitarAlmacenColumnar() {
+        if (columnas == null) {
+            columnas = new AlmacenColumnar(this, productos.length);
+            for (int i = 0; i < limiteUsado; i++) {
+                if (productos[i] != null) {
+                    columnas.escribir(i, productos[i]);
+                }
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Obtiene el almacenamiento columnar, si está habilitado.
+     *
+     * @return Almacenamiento columnar, o {@code null} si no se ha habilitado
+     * @see #habilitarAlmacenColumnar()
+     */
+    public synchronized AlmacenColumnar getAlmacenColumnar() {
+        return columnas;
+    }
+
+    /**
+     * Obtiene los productos almacenados en las posiciones indicadas.
+     * <p>
+     * Permite convertir en productos las posiciones retornadas por los filtros del
+     * almacenamiento columnar. Las posiciones vacías se omiten.
+     * </p>
+     *
+     * @param ranuras Posiciones del arreglo de productos
+     * @return Lista con los productos de esas posiciones
+     */
+    public synchronized List<Producto> leerRanuras(int[] ranuras) {
+        List<Producto> resultado = new ArrayList<>(ranuras.length);
+        for (int ranura : ranuras) {
+            if (ranura >= 0 && ranura < limiteUsado && productos[ranura] != null) {
+                resultado.add(productos[ranura]);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Habilita la persistencia por diario de operaciones, recuperando el estado guardado.
+     * <p>
+     * Reemplaza el contenido actual por la instantánea {@code name} (o un inventario
+     * vacío si no existe) y reproduce sobre ella el diario {@code name + ".journal"}.
+     * A partir de entonces cada creación, actualización y eliminación se agrega al
+     * diario en lugar de requerir que se reescriba el inventario completo. Las
+     * sincronizaciones con el disco se agrupan en segundo plano.
+     * </p>
+     * <p>
+     * Si una compactación quedó interrumpida, los registros del diario anterior
+     * ({@code name + ".journal.old"}) se reproducen antes que los del diario actual.
+     * </p>
+     *
+     * @param path Ruta del directorio de la instantánea y el diario
+     * @param name Nombre del archivo de la instantánea
+     * @return Mensaje con la cantidad de operaciones recuperadas del diario, o el error
+     * @throws IllegalStateException Si el diario ya está habilitado
+     * @see DiarioOperaciones
+     * @see #guardarPuntoControl()
+     */
+    public String abrirDiario(String path, String name) {
+        return abrirDiario(path, name, null, 0);
+    }
+
+    /**
+     * Habilita la persistencia por diario entregando los productos de la instantánea a
+     * medida que se leen.
+     * <p>
+     * Igual que {@link #abrirDiario(String, String)}, pero cada {@code tamanoLote}
+     * productos leídos de la instantánea se entregan al oyente junto con el avance de la
+     * lectura, de modo que una interfaz pueda mostrarlos antes de que termine la carga.
+     * Los lotes reflejan la instantánea; las operaciones del diario se reproducen después,
+     * así que al terminar el contenido definitivo debe obtenerse con {@link #read()}.
+     * </p>
+     *
+     * @param path Ruta del directorio de la instantánea y el diario
+     * @param name Nombre del archivo de la instantánea
+     * @param oyente Oyente que recibe los lotes, o {@code null}
+     * @param tamanoLote Cantidad de productos por lote
+     * @return Mensaje con la cantidad de operaciones recuperadas del diario, o el error
+     * @throws IllegalArgumentException Si hay oyente y el tamaño de lote no es positivo
+     * @throws IllegalStateException Si el diario ya está habilitado
+     * @see OyenteCarga
+     */
+    public String abrirDiario(String path, String name, OyenteCarga oyente, int tamanoLote) {
+        if (oyente != null && tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        synchronized (bloqueoCompactacion) {
+            synchronized (this) {
+                return recuperarYAbrirDiario(path, name, oyente, tamanoLote);
+            }
+        }
+    }
+
+    /**
+     * Carga la instantánea, reproduce los diarios y abre el diario actual, y notifica
+     * a las escuchas que el contenido se reemplazó, aun si la recuperación falló.
+     * Debe invocarse con el bloqueo de compactación y el de la instancia tomados.
+     * <p>
+     * Si la instantánea no puede leerse se aparta con {@link #apartarInstantanea(Path)},
+     * los diarios se reproducen sobre un inventario vacío y el diario se abre igual, de
+     * modo que los cambios siguientes puedan guardarse; el mensaje retornado advierte lo
+     * ocurrido e indica dónde quedó el archivo dañado.
+     * </p>
+     *
+     * @param path Ruta del directorio de la instantánea y el diario
+     * @param name Nombre del archivo de la instantánea
+     * @param oyente Oyente que recibe los lotes de la instantánea, o {@code null}
+     * @param tamanoLote Cantidad de productos por lote
+     * @return Mensaje con la cantidad de operaciones recuperadas, la advertencia de una
+     *         instantánea dañada, o el error
+     */
+    private String recuperarYAbrirDiario(String path, String name, OyenteCarga oyente, int tamanoLote) {
+        if (diario != null) {
+            throw new IllegalStateException("El diario ya está habilitado");
+        }
+        Path instantaneaGuardada = Paths.get(path, name);
+        Path archivoDiario = Paths.get(path, name + DiarioOperaciones.EXTENSION);
+        try {
+            vaciar();
+            String advertencia = null;
+            if (Files.exists(instantaneaGuardada)) {
+                try {
+                    cargarInstantanea(instantaneaGuardada, oyente, tamanoLote);
+                } catch (IOException e) {
+                    vaciar();
+                    advertencia = apartarInstantanea(instantaneaGuardada) + " (" + e.getMessage() + ")";
+                }
+            }
+            ranurasModificadas.clear();
+            idsEliminados.clear();
+            reescrituraPendiente = true;
+            cerrarArchivoIncremental();
+            if (formatoArchivo == FormatoArchivo.REGISTROS && advertencia == null && Files.exists(instantaneaGuardada)) {
+                try {
+                    archivoIncremental = ArchivoIncremental.abrir(instantaneaGuardada);
+                    reescrituraPendiente = false;
+                } catch (StreamCorruptedException e) {
+                    // Instantánea en otro formato: el primer punto de control la reescribe.
+                }
+            }
+            int recuperadas = DiarioOperaciones.reproducir(DiarioOperaciones.anteriorDe(archivoDiario),
+                                                           this::guardarRecuperado, this::eliminar, this::vaciar);
+            recuperadas += DiarioOperaciones.reproducir(archivoDiario, this::guardarRecuperado,
+                                                        this::eliminar, this::vaciar);
+            invalidarInstantanea();
+            diario = new DiarioOperaciones(archivoDiario, DiarioOperaciones.INTERVALO_POR_DEFECTO);
+            archivoInstantanea = instantaneaGuardada;
+            String abierto = ">> Diario '" + archivoDiario.getFileName() + "' abierto: "
+                    + recuperadas + " operaciones recuperadas";
+            return advertencia == null ? abierto
+                    : "Advertencia: " + advertencia + ". Se recuperaron sólo las operaciones del diario y el "
+                      + "próximo guardado escribirá una instantánea nueva.\n" + abierto;
+        } catch (IOException e) {
+            return "Error al abrir el diario: " + e.getMessage();
+        } finally {
+            escuchas.notificar(EventoCambio.recargado());
+        }
+    }
+
+    /**
+     * Aparta una instantánea que no pudo leerse, renombrándola con el sufijo
+     * {@code .danada} y la hora actual, para que el próximo punto de control no la
+     * sobrescriba y pueda examinarse después.
+     *
+     * @param archivo Instantánea dañada
+     * @return Descripción de lo ocurrido para el usuario
+     */
+    private static String apartarInstantanea(Path archivo) {
+        Path apartada = archivo.resolveSibling(archivo.getFileName() + ".danada." + System.currentTimeMillis());
+        try {
+            Files.move(archivo, apartada);
+            return "la instantánea '" + archivo.getFileName() + "' estaba dañada y se movió a '"
+                    + apartada.getFileName() + "'";
+        } catch (IOException e) {
+            return "la instantánea '" + archivo.getFileName() + "' estaba dañada y no pudo apartarse ("
+                    + e.getMessage() + "); el próximo guardado la reemplazará";
+        }
+    }
+
+    /**
+     * Agrega los productos de una instantánea guardada, a medida que se decodifican.
+     * Debe invocarse con el bloqueo de la instancia tomado y el diario deshabilitado.
+     *
+     * @param archivo Archivo de la instantánea
+     * @param oyente Oyente que recibe los lotes, o {@code null}
+     * @param tamanoLote Cantidad de productos por lote
+     * @throws IOException Si la instantánea no puede leerse
+     */
+    private void cargarInstantanea(Path archivo, OyenteCarga oyente, int tamanoLote) throws IOException {
+        long total = Files.size(archivo);
+        try (EntradaContada contada = new EntradaContada(new FileInputStream(archivo.toFile()))) {
+            InputStream entrada = new BufferedInputStream(contada, 65536);
+            List<Producto> lote = new ArrayList<>();
+            FormatoArchivo.detectar(entrada).getCodec().leer(entrada, producto -> {
+                guardarRecuperado(producto);
+                if (oyente != null) {
+                    lote.add(producto);
+                    if (lote.size() == tamanoLote) {
+                        oyente.alCargarLote(new ArrayList<>(lote), contada.getLeidos(), total);
+                        lote.clear();
+                    }
+                }
+            });
+            if (oyente != null && !lote.isEmpty()) {
+                oyente.alCargarLote(lote, total, total);
+            }
+        }
+    }
+
+    /**
+     * Compacta el diario: guarda una instantánea completa y descarta los registros
+     * que ésta ya incluye.
+     * <p>
+     * Sólo la rotación del diario y la captura de la instantánea inmutable se hacen con
+     * el bloqueo de la instancia tomado; la escritura de la instantánea, que es la parte
+     * costosa, ocurre sin él, de modo que las demás operaciones continúan y sus registros
+     * van al diario nuevo. La instantánea se escribe en un archivo temporal, se sincroniza
+     * con el disco y reemplaza a la anterior de forma atómica; sólo entonces se elimina
+     * el diario apartado. Un fallo en cualquier punto deja en disco una instantánea y
+     * unos diarios que juntos reproducen el estado.
+     * </p>
+     * <p>
+     * Con el formato {@link FormatoArchivo#REGISTROS} el punto de control es incremental:
+     * sólo se escriben los productos de las posiciones modificadas desde el punto de
+     * control anterior y se marcan los registros de los eliminados, de modo que el costo
+     * es proporcional a los cambios. La instantánea se reescribe completa cuando el
+     * contenido se reemplazó en bloque, cuando la instantánea en disco está en otro
+     * formato o cuando los registros marcados ocupan más que los vigentes.
+     * </p>
+     *
+     * @return Mensaje de confirmación del resultado de la operación
+     * @throws IllegalStateException Si el diario no está habilitado
+     * @see #programarCompactacion(long, long)
+     */
+    public String guardarPuntoControl() {
+        synchronized (bloqueoCompactacion) {
+            InstantaneaProductos estado = null;
+            List<Producto> guardados = null;
+            List<String> eliminados = null;
+            FormatoArchivo formato;
+            Path destino;
+            Path apartado;
+            synchronized (this) {
+                if (diario == null) {
+                    throw new IllegalStateException("El diario no está habilitado");
+                }
+                try {
+                    apartado = diario.rotar();
+                } catch (IOException | UncheckedIOException e) {
+                    return "Error al rotar el diario: " + e.getMessage();
+                }
+                formato = formatoArchivo;
+                destino = archivoInstantanea;
+                if (formato == FormatoArchivo.REGISTROS && !reescrituraPendiente && archivoIncremental != null
+                        && !archivoIncremental.requiereCompactacion()) {
+                    guardados = new ArrayList<>(ranurasModificadas.cardinality());
+                    for (int i = ranurasModificadas.nextSetBit(0); i >= 0; i = ranurasModificadas.nextSetBit(i + 1)) {
+                        guardados.add(productos[i]);
+                    }
+                    eliminados = new ArrayList<>(idsEliminados);
+                } else {
+                    estado = instantanea();
+                }
+                ranurasModificadas.clear();
+                idsEliminados.clear();
+                reescrituraPendiente = false;
+            }
+            try {
+                if (estado == null) {
+                    archivoIncremental.aplicar(guardados, eliminados);
+                    Files.deleteIfExists(apartado);
+                    return ">> Punto de control incremental en '" + destino + "' (" + guardados.size()
+                            + " guardados, " + eliminados.size() + " eliminados)";
+                }
+                cerrarArchivoIncremental();
+                if (formato == FormatoArchivo.REGISTROS) {
+                    archivoIncremental = ArchivoIncremental.reescribir(destino, estado);
+                } else {
+                    Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+                    try (FileOutputStream archivo = new FileOutputStream(temporal.toFile())) {
+                        BufferedOutputStream salida = new BufferedOutputStream(archivo);
+                        formato.getCodec().escribir(estado.toArray(), salida);
+                        salida.flush();
+                        archivo.getFD().sync();
+                    }
+                    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.deleteIfExists(apartado);
+                return ">> Punto de control guardado en '" + destino + "' (" + estado.size() + " productos)";
+            } catch (IOException e) {
+                cerrarArchivoIncremental();
+                synchronized (this) {
+                    reescrituraPendiente = true;
+                }
+                return "Error al guardar el punto de control: " + e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Programa la compactación periódica del diario en un hilo de fondo.
+     * <p>
+     * Cada {@code periodoSegundos} se revisa el tamaño del diario y, si alcanza
+     * {@code tamanoMinimo} bytes, se compacta con {@link #guardarPuntoControl()}. Así el
+     * diario y el tiempo de recuperación al iniciar quedan acotados. Mientras el diario
+     * no esté habilitado, las revisiones no hacen nada. Llamadas posteriores reemplazan
+     * la programación anterior y {@link #cerrarDiario()} la cancela.
+     * </p>
+     * <p>
+     * El resultado de cada compactación se consulta con {@link #getUltimaCompactacion()}.
+     * Un fallo se conserva y {@link #cerrarDiario()} lo relanza, de modo que no pasa
+     * inadvertido aunque nadie consulte el resultado.
+     * </p>
+     *
+     * @param periodoSegundos Intervalo entre revisiones, en segundos
+     * @param tamanoMinimo Tamaño del diario a partir del cual se compacta, en bytes
+     */
+    public synchronized void programarCompactacion(long periodoSegundos, long tamanoMinimo) {
+        if (compactador == null) {
+            compactador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "compactacion-diario");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        if (compactacionProgramada != null) {
+            compactacionProgramada.cancel(false);
+        }
+        compactacionProgramada = compactador.scheduleWithFixedDelay(() -> {
+            DiarioOperaciones actual;
+            synchronized (this) {
+                actual = diario;
+            }
+            if (actual == null) {
+                return;
+            }
+            String resultado;
+            IOException fallo = null;
+            try {
+                if (actual.getTamano() < tamanoMinimo) {
+                    return;
+                }
+                resultado = guardarPuntoControl();
+                if (!resultado.startsWith(">>")) {
+                    fallo = new IOException(resultado);
+                }
+            } catch (IllegalStateException e) {
+                // El diario se cerró entre la revisión y la compactación
+                return;
+            } catch (UncheckedIOException e) {
+                resultado = "Compactación omitida: " + e.getMessage();
+                fallo = e.getCause();
+            }
+            ultimaCompactacion = resultado;
+            if (fallo != null) {
+                synchronized (this) {
+                    if (diario == actual) {
+                        acumularFallo(fallo);
+                    }
+                }
+            }
+        }, periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Obtiene el resultado de la última compactación periódica.
+     *
+     * @return Mensaje de la última compactación, o {@code null} si aún no hubo ninguna
+     * @see #programarCompactacion(long, long)
+     */
+    public String getUltimaCompactacion() {
+        return ultimaCompactacion;
+    }
+
+    /**
+     * Espera a que todas las modificaciones registradas estén sincronizadas con el disco.
+     *
+     * @throws UncheckedIOException Si la escritura del diario falló
+     */
+    public void sincronizarDiario() {
+        DiarioOperaciones actual;
+        synchronized (this) {
+            actual = diario;
+        }
+        if (actual != null) {
+            actual.sincronizar();
+        }
+    }
+
+    /**
+     * Sincroniza y cierra el diario, deshabilitando la persistencia por diario.
+     * <p>
+     * También cancela la compactación periódica y detiene su hilo; una compactación en
+     * curso termina antes de que el diario se cierre.
+     * </p>
+     *
+     * @throws UncheckedIOException Si la escritura o el cierre del diario fallan, o si
+     *                              falló una compactación en segundo plano o el cierre
+     *                              de la instantánea desde la última llamada; el diario
+     *                              queda cerrado de todos modos
+     */
+    public void cerrarDiario() {
+        synchronized (bloqueoCompactacion) {
+            synchronized (this) {
+                if (compactador != null) {
+                    compactacionProgramada.cancel(false);
+                    compactador.shutdown();
+                    compactacionProgramada = null;
+                    compactador = null;
+                }
+                cerrarArchivoIncremental();
+                IOException fallo = falloPendiente;
+                falloPendiente = null;
+                if (diario != null) {
+                    try {
+                        diario.close();
+                    } catch (IOException e) {
+                        if (fallo != null) {
+                            e.addSuppressed(fallo);
+                        }
+                        fallo = e;
+                    } finally {
+                        diario = null;
+                        archivoInstantanea = null;
+                    }
+                }
+                if (fallo != null) {
+                    throw new UncheckedIOException(fallo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si hay modificaciones posteriores al último punto de control.
+     *
+     * @return {@code true} si el próximo punto de control tiene algo que escribir
+     */
+    public synchronized boolean tieneCambiosPendientes() {
+        return reescrituraPendiente || !ranurasModificadas.isEmpty() || !idsEliminados.isEmpty();
+    }
+
+    /**
+     * Aplica un registro de guardado del diario: crea o reemplaza el producto.
+     *
+     * @param producto Producto recuperado
+     */
+    private void guardarRecuperado(Producto producto) {
+        Integer posicion = indicePorId.get(producto.getId());
+        if (posicion != null) {
+            reemplazar(posicion, producto);
+        } else {
+            insertar(producto);
+        }
+    }
+
+    /**
+     * Cierra la instantánea abierta para guardado incremental, si la hay. Debe
+     * invocarse con el bloqueo de compactación tomado. Un fallo al cerrarla se conserva
+     * para que {@link #cerrarDiario()} lo relance.
+     */
+    private void cerrarArchivoIncremental() {
+        if (archivoIncremental != null) {
+            try {
+                archivoIncremental.close();
+            } catch (IOException e) {
+                synchronized (this) {
+                    acumularFallo(e);
+                }
+            } finally {
+                archivoIncremental = null;
+            }
+        }
+    }
+
+    /**
+     * Conserva un fallo para relanzarlo al cerrar el diario. Debe invocarse con el
+     * bloqueo de la instancia tomado.
+     *
+     * @param fallo Fallo ocurrido
+     */
+    private void acumularFallo(IOException fallo) {
+        if (falloPendiente == null) {
+            falloPendiente = fallo;
+        } else {
+            falloPendiente.addSuppressed(fallo);
+        }
+    }
+
+    /**
+     * Aplica un registro de vaciado del diario: elimina todos los productos.
+     */
+    private void vaciar() {
+        productos = new Producto[capacidadInicial];
+        reconstruirIndice();
     }
 }
\ No newline at end of file
@@ -0,0 +1,284 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Implementación de las operaciones CRUD segura para uso concurrente.
+ * <p>
+ * A diferencia de {@link ImplementacionOperacionCRUD}, que sincroniza cada operación
+ * sobre la instancia, esta clase almacena los productos en un
+ * {@link ConcurrentHashMap} indexado por ID.
+ * Las lecturas no toman bloqueos y las escrituras sólo bloquean el segmento del mapa
+ * que contiene la clave afectada, por lo que hilos de importación pueden escribir
+ * mientras el hilo de JavaFX lee sin necesidad de sincronización externa.
+ * </p>
+ * <p>
+ * Un cambio de ID en {@link #update(String, Producto)} agrega el producto con el ID
+ * nuevo y luego retira el anterior, con el bloqueo de la franja del ID anterior tomado,
+ * de modo que ninguna otra escritura sobre ese ID se intercala. Una lectura sin bloqueo
+ * hecha en medio puede encontrar el producto con ambos IDs, pero nunca con ninguno.
+ * </p>
+ * <p>
+ * Los eventos de cambio no llevan ranura. Como se entregan sin bloqueo en el hilo que
+ * hizo cada cambio, los de hilos distintos pueden llegar en un orden diferente al de
+ * las escrituras; los de un mismo hilo llegan en orden.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD
+ * @see ImplementacionOperacionCRUD
+ * @see Producto
+ */
+public class ImplementacionOperacionCRUDConcurrente implements OperacionCRUD {
+
+    /**
+     * Cantidad de franjas de bloqueo de las actualizaciones y eliminaciones.
+     */
+    private static final int FRANJAS = 64;
+
+    /**
+     * Mapa concurrente que asocia el ID de cada producto con el producto.
+     */
+    private final ConcurrentHashMap<String, Producto> productos;
+
+    /**
+     * Versión del almacenamiento, incrementada después de cada modificación.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Última instantánea publicada. Sólo es válida si su versión coincide con {@link #version}.
+     */
+    private volatile InstantaneaProductos instantanea;
+
+    /**
+     * Escuchas de los cambios del inventario.
+     */
+    private final SoporteEscuchas escuchas = new SoporteEscuchas();
+
+    /**
+     * Bloqueos por franja de IDs. Las actualizaciones y eliminaciones toman el de su ID,
+     * para que un cambio de ID no se intercale con otra escritura sobre el mismo producto.
+     */
+    private final Object[] bloqueos = new Object[FRANJAS];
+
+    /**
+     * Constructor por defecto que inicializa un almacenamiento vacío.
+     */
+    public ImplementacionOperacionCRUDConcurrente() {
+        this(16);
+    }
+
+    /**
+     * Constructor que dimensiona el almacenamiento para una cantidad conocida de productos.
+     *
+     * @param capacidadEsperada Cantidad de productos que se espera almacenar
+     * @throws IllegalArgumentException Si la capacidad es negativa
+     */
+    public ImplementacionOperacionCRUDConcurrente(int capacidadEsperada) {
+        productos = new ConcurrentHashMap<>(capacidadEsperada);
+        for (int i = 0; i < FRANJAS; i++) {
+            bloqueos[i] = new Object();
+        }
+    }
+
+    /**
+     * Crea un nuevo producto en el sistema.
+     * <p>
+     * La verificación de unicidad y la inserción se realizan de forma atómica.
+     * </p>
+     *
+     * @param objeto Producto a ser creado/agregado al sistema
+     * @return Mensaje de confirmación de la creación
+     * @throws IllegalArgumentException Si el producto o su ID son nulos o vacíos, o si
+     *                                  ya existe un producto con el mismo ID
+     * @see Producto
+     */
+    @Override
+    public String create(Producto objeto) {
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        if (productos.putIfAbsent(objeto.getId(), objeto) != null) {
+            throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+        }
+        version.incrementAndGet();
+        if (escuchas.hayEscuchas()) {
+            escuchas.notificar(EventoCambio.creado(objeto, EventoCambio.SIN_RANURA));
+        }
+        return "Producto " + objeto.getId() + " agregado";
+    }
+
+    /**
+     * Obtiene todos los productos del sistema.
+     * <p>
+     * Retorna una copia sin posiciones nulas. Si otros hilos modifican el almacenamiento
+     * durante la copia, el resultado puede reflejar sólo parte de esos cambios.
+     * </p>
+     *
+     * @return Arreglo con los productos gestionados
+     * @see Producto
+     */
+    @Override
+    public Producto[] read() {
+        return productos.values().toArray(new Producto[0]);
+    }
+
+    /**
+     * Obtiene una instantánea inmutable de los productos sin tomar bloqueos.
+     * <p>
+     * La instantánea se reutiliza mientras no haya modificaciones. Como el recorrido del
+     * mapa concurrente es débilmente consistente, una instantánea construida mientras
+     * otros hilos escriben puede reflejar sólo parte de esas escrituras; en ese caso la
+     * versión ya habrá cambiado y la siguiente llamada construirá una instantánea nueva.
+     * </p>
+     *
+     * @return Instantánea de los productos actuales
+     * @see InstantaneaProductos
+     */
+    @Override
+    public InstantaneaProductos instantanea() {
+        long actual = version.get();
+        InstantaneaProductos publicada = instantanea;
+        if (publicada != null && publicada.getVersion() == actual) {
+            return publicada;
+        }
+        InstantaneaProductos nueva = new InstantaneaProductos(actual, read());
+        if (version.get() == actual) {
+            instantanea = nueva;
+        }
+        return nueva;
+    }
+
+    /**
+     * Busca un producto por su identificador único sin tomar bloqueos.
+     *
+     * @param id Identificador único del producto a buscar
+     * @return El producto encontrado, o {@code null} si no existe o el ID es nulo
+     * @see Producto
+     */
+    @Override
+    public Producto readId(String id) {
+        return id == null ? null : productos.get(id);
+    }
+
+    /**
+     * Actualiza un producto existente en el sistema de forma atómica.
+     * <p>
+     * Si el nuevo objeto trae un ID distinto, el producto pasa a registrarse con él,
+     * como en {@link ImplementacionOperacionCRUD}.
+     * </p>
+     *
+     * @param id Identificador único del producto a actualizar
+     * @param objeto Nuevo objeto producto con los datos actualizados
+     * @return Mensaje de confirmación indicando el resultado de la operación
+     * @throws IllegalArgumentException Si el objeto o su ID son nulos o vacíos, o si el
+     *                                  nuevo ID ya pertenece a otro producto
+     * @see Producto
+     */
+    @Override
+    public String update(String id, Producto objeto) {
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        if (id == null) {
+            return "Producto con ID " + id + " no encontrado.";
+        }
+        Producto anterior;
+        synchronized (bloqueo(id)) {
+            if (id.equals(objeto.getId())) {
+                anterior = productos.replace(id, objeto);
+            } else {
+                anterior = productos.get(id);
+                if (anterior != null) {
+                    if (productos.putIfAbsent(objeto.getId(), objeto) != null) {
+                        throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+                    }
+                    productos.remove(id);
+                }
+            }
+        }
+        if (anterior == null) {
+            return "Producto con ID " + id + " no encontrado.";
+        }
+        version.incrementAndGet();
+        if (escuchas.hayEscuchas()) {
+            escuchas.notificar(EventoCambio.actualizado(id, anterior, objeto, EventoCambio.SIN_RANURA));
+        }
+        return "Producto " + id + " actualizado";
+    }
+
+    /**
+     * Elimina un producto del sistema de forma atómica.
+     *
+     * @param id Identificador único del producto a eliminar
+     * @return El producto eliminado, o {@code null} si no fue encontrado o el ID es nulo
+     * @see Producto
+     */
+    @Override
+    public Producto delete(String id) {
+        if (id == null) {
+            return null;
+        }
+        Producto eliminado;
+        synchronized (bloqueo(id)) {
+            eliminado = productos.remove(id);
+        }
+        if (eliminado != null) {
+            version.incrementAndGet();
+            if (escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.eliminado(id, eliminado, EventoCambio.SIN_RANURA));
+            }
+        }
+        return eliminado;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void agregarEscucha(EscuchaCambios escucha) {
+        escuchas.agregar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quitarEscucha(EscuchaCambios escucha) {
+        escuchas.quitar(escucha);
+    }
+
+    /**
+     * Obtiene la cantidad actual de productos en el sistema.
+     *
+     * @return Número de productos almacenados
+     */
+    public int getCantidadProductos() {
+        return productos.size();
+    }
+
+    /**
+     * Verifica si existe un producto con el ID especificado.
+     *
+     * @param id Identificador único a verificar
+     * @return {@code true} si existe un producto con ese ID, {@code false} en caso contrario
+     */
+    public boolean existeProducto(String id) {
+        return id != null && productos.containsKey(id);
+    }
+
+    /**
+     * Obtiene el bloqueo de la franja de un ID.
+     *
+     * @param id ID del producto
+     * @return Objeto sobre el que se sincronizan las escrituras de ese ID
+     */
+    private Object bloqueo(String id) {
+        return bloqueos[(id.hashCode() & Integer.MAX_VALUE) % FRANJAS];
+    }
+}
@@ -0,0 +1,605 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Implementación de las operaciones CRUD sobre un archivo de registros mapeado en memoria.
+ * <p>
+ * Al abrir un inventario, el archivo se mapea con {@link FileChannel#map} y sólo se
+ * recorren las cabeceras de los registros para construir un índice de ID a
+ * desplazamiento; ningún producto se decodifica. Cada producto se decodifica la primera
+ * vez que se accede a él y se conserva en una caché de tamaño acotado con política LRU,
+ * de modo que abrir un inventario grande es casi inmediato y el uso de memoria sigue al
+ * conjunto de productos efectivamente consultados, no al tamaño del archivo.
+ * </p>
+ * <p>
+ * Las modificaciones no alteran el archivo mapeado: los productos creados o
+ * actualizados se mantienen en memoria y las eliminaciones sólo retiran la entrada del
+ * índice, hasta que {@link #guardar()} escribe un archivo nuevo que reemplaza al
+ * anterior. Los productos se recorren en orden de ID.
+ * </p>
+ * <p>
+ * El archivo mapeado admite hasta 2 GB. Todos los métodos públicos se sincronizan
+ * sobre la instancia.
+ * </p>
+ * <p>
+ * Un archivo mapeado nunca se sobrescribe ni se trunca, porque en Linux eso provoca
+ * fallos al leer el mapeo y en Windows la operación se rechaza. Java no permite liberar
+ * un mapeo de forma explícita: se libera cuando el recolector de basura reclama el
+ * búfer. Por eso, en Windows, reemplazar el archivo al guardar puede fallar mientras
+ * el mapeo anterior siga vivo; en ese caso {@link #guardar()} pasa a mapear el archivo
+ * temporal con el inventario guardado y lo informa, y el siguiente guardado vuelve a
+ * intentar el reemplazo.
+ * </p>
+ * <p>
+ * Los eventos de cambio no llevan ranura. Abrir otro archivo o cerrar el inventario
+ * notifica un evento {@link TipoCambio#RECARGADO}; guardar no, porque el contenido no
+ * cambia.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ArchivoRegistros
+ * @see ImplementacionOperacionCRUD
+ */
+public class ImplementacionOperacionCRUDMapeada implements OperacionCRUD, OperacionArchivo, Closeable {
+
+    /** Capacidad por defecto de la caché de productos decodificados. */
+    public static final int CAPACIDAD_CACHE_POR_DEFECTO = 10_000;
+
+    /** Desplazamiento que indica que el producto sólo existe en memoria. */
+    private static final int EN_MEMORIA = -1;
+
+    /** Índice ordenado de ID a desplazamiento del registro, o {@link #EN_MEMORIA}. */
+    private final NavigableMap<String, Integer> indice = new TreeMap<>();
+
+    /** Productos creados o actualizados que aún no están en el archivo. */
+    private final Map<String, Producto> modificados = new HashMap<>();
+
+    /** Productos decodificados del archivo, en orden de acceso, acotados a la capacidad. */
+    private final LinkedHashMap<String, Producto> cache;
+
+    /** Contenido del archivo mapeado, o {@code null} si no hay archivo abierto. */
+    private MappedByteBuffer datos;
+
+    /** Archivo abierto, o {@code null}. */
+    private Path archivo;
+
+    /**
+     * Archivo mapeado: el abierto o, si no pudo reemplazarse al guardar, el temporal
+     * con el último inventario guardado.
+     */
+    private Path mapeado;
+
+    /** Versión del almacenamiento, incrementada después de cada modificación. */
+    private long version;
+
+    /** Última instantánea publicada, válida sólo para su versión. */
+    private InstantaneaProductos instantanea;
+
+    /** Escuchas de los cambios del inventario. */
+    private final SoporteEscuchas escuchas = new SoporteEscuchas();
+
+    /**
+     * Constructor por defecto: almacenamiento vacío con la caché de tamaño por defecto.
+     */
+    public ImplementacionOperacionCRUDMapeada() {
+        this(CAPACIDAD_CACHE_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor con capacidad de caché explícita.
+     *
+     * @param capacidadCache Cantidad máxima de productos decodificados que se conservan
+     * @throws IllegalArgumentException Si la capacidad no es positiva
+     */
+    public ImplementacionOperacionCRUDMapeada(int capacidadCache) {
+        if (capacidadCache <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser positiva");
+        }
+        cache = new LinkedHashMap<String, Producto>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Producto> mayor) {
+                return size() > capacidadCache;
+            }
+        };
+    }
+
+    /**
+     * Abre un archivo de registros, mapeándolo en memoria y construyendo el índice.
+     * <p>
+     * Sólo se leen las cabeceras de los registros. Si el archivo no existe, se crea
+     * vacío. Las modificaciones no guardadas del inventario anterior se descartan.
+     * </p>
+     *
+     * @param path Ruta del directorio del archivo
+     * @param name Nombre del archivo
+     * @return Mensaje con la cantidad de productos indexados, o el error
+     */
+    public synchronized String abrir(String path, String name) {
+        Path ruta = Paths.get(path, name);
+        try {
+            if (!Files.exists(ruta)) {
+                ArchivoRegistros.escribir(ruta, new ArrayList<>());
+            }
+            mapear(ruta);
+            archivo = ruta;
+            escuchas.notificar(EventoCambio.recargado());
+            return ">> Archivo '" + name + "' abierto: " + indice.size() + " productos indexados";
+        } catch (IOException e) {
+            return "Error al abrir el archivo: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Guarda el inventario completo en el archivo abierto y lo vuelve a mapear.
+     * <p>
+     * Escribe un archivo temporal de nombre único con todos los productos vigentes, que
+     * reemplaza al anterior de forma atómica. Los productos que no se habían decodificado
+     * se copian sin pasar por la caché. El archivo mapeado no se modifica: en sistemas
+     * POSIX el mapeo anterior sigue leyendo el contenido reemplazado hasta que se libera.
+     * </p>
+     * <p>
+     * Si el sistema rechaza el reemplazo, como Windows mientras el archivo siga mapeado,
+     * el temporal se conserva, pasa a ser el archivo mapeado y el mensaje, que comienza
+     * con "Advertencia", indica dónde quedó el inventario. El siguiente guardado vuelve a
+     * intentar el reemplazo y, si lo logra, elimina ese temporal.
+     * </p>
+     *
+     * @return Mensaje de confirmación del resultado de la operación
+     * @throws IllegalStateException Si no hay un archivo abierto
+     */
+    public synchronized String guardar() {
+        if (archivo == null) {
+            throw new IllegalStateException("No hay un archivo abierto");
+        }
+        Path temporal = null;
+        try {
+            List<Producto> vigentes = new ArrayList<>(indice.size());
+            for (Map.Entry<String, Integer> entrada : indice.entrySet()) {
+                vigentes.add(resolver(entrada.getKey(), entrada.getValue(), false));
+            }
+            temporal = Files.createTempFile(archivo.toAbsolutePath().getParent(), archivo.getFileName() + ".", ".tmp");
+            ArchivoRegistros.escribir(temporal, vigentes);
+        } catch (IOException | UncheckedIOException e) {
+            eliminarTemporal(temporal);
+            return "Error al guardar el archivo: " + e.getMessage();
+        }
+        Path anterior = mapeado;
+        try {
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                mapear(temporal);
+                return "Advertencia: no se pudo reemplazar '" + archivo.getFileName() + "' (" + e.getMessage()
+                        + "); el inventario guardado quedó en '" + temporal.getFileName() + "'";
+            }
+            mapear(archivo);
+        } catch (IOException e) {
+            return "Error al volver a abrir el archivo guardado: " + e.getMessage();
+        }
+        if (!anterior.equals(archivo)) {
+            eliminarTemporal(anterior);
+        }
+        return ">> Archivo '" + archivo.getFileName() + "' guardado: " + indice.size() + " productos";
+    }
+
+    /**
+     * Crea un nuevo producto, que se mantiene en memoria hasta el próximo guardado.
+     *
+     * @param objeto Producto a ser creado/agregado al sistema
+     * @return Mensaje de confirmación de la creación
+     * @throws IllegalArgumentException Si el producto o su ID son nulos o vacíos, o si
+     *                                  ya existe un producto con el mismo ID
+     */
+    @Override
+    public synchronized String create(Producto objeto) {
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        if (indice.containsKey(objeto.getId())) {
+            throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+        }
+        indice.put(objeto.getId(), EN_MEMORIA);
+        modificados.put(objeto.getId(), objeto);
+        version++;
+        if (escuchas.hayEscuchas()) {
+            escuchas.notificar(EventoCambio.creado(objeto, EventoCambio.SIN_RANURA));
+        }
+        return "Producto " + objeto.getId() + " agregado";
+    }
+
+    /**
+     * Obtiene todos los productos, decodificando los que aún no lo estén.
+     * <p>
+     * Recorre el inventario completo, por lo que anula la carga perezosa; para recorrer
+     * un inventario grande conviene usar {@link #leerPagina(String, int)}.
+     * </p>
+     *
+     * @return Arreglo sin huecos con los productos, ordenados por ID
+     */
+    @Override
+    public synchronized Producto[] read() {
+        return instantanea().toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * La instantánea se construye una vez por versión, en orden de ID, y es
+     * {@linkplain InstantaneaProductos#isPerezosa() perezosa}: sólo copia los IDs y los
+     * desplazamientos del índice, y cada producto del archivo se decodifica al leerlo de
+     * ella, sin pasar por la caché. Así una vista que sólo lee las filas visibles no
+     * carga el inventario completo en memoria. Conserva el mapeo de su versión, por lo
+     * que sigue siendo válida después de un guardado.
+     * </p>
+     */
+    @Override
+    public synchronized InstantaneaProductos instantanea() {
+        if (instantanea == null || instantanea.getVersion() != version) {
+            String[] ids = new String[indice.size()];
+            int[] desplazamientos = new int[ids.length];
+            Producto[] conocidos = new Producto[ids.length];
+            int i = 0;
+            for (Map.Entry<String, Integer> entrada : indice.entrySet()) {
+                ids[i] = entrada.getKey();
+                desplazamientos[i] = entrada.getValue();
+                if (entrada.getValue() == EN_MEMORIA) {
+                    conocidos[i] = modificados.get(entrada.getKey());
+                }
+                i++;
+            }
+            MappedByteBuffer contenido = datos;
+            Path origen = archivo;
+            instantanea = InstantaneaProductos.perezosa(version, ids, conocidos,
+                    posicion -> decodificar(contenido, desplazamientos[posicion], origen));
+        }
+        return instantanea;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las instantáneas siguen el orden de ID y los eventos se entregan dentro de los
+     * métodos sincronizados, antes de que pueda construirse la instantánea siguiente.
+     * </p>
+     */
+    @Override
+    public boolean admiteCambiosIncrementales() {
+        return true;
+    }
+
+    /**
+     * Busca un producto por ID, decodificándolo del archivo si es el primer acceso.
+     *
+     * @param id Identificador único del producto a buscar
+     * @return El producto encontrado, o {@code null} si no existe
+     * @throws UncheckedIOException Si el registro del archivo no puede decodificarse
+     */
+    @Override
+    public synchronized Producto readId(String id) {
+        if (id == null) {
+            return null;
+        }
+        Integer desplazamiento = indice.get(id);
+        return desplazamiento == null ? null : resolver(id, desplazamiento, true);
+    }
+
+    /**
+     * Actualiza un producto existente; la nueva versión se mantiene en memoria hasta
+     * el próximo guardado.
+     *
+     * @param id Identificador único del producto a actualizar
+     * @param objeto Nuevo objeto producto con los datos actualizados
+     * @return Mensaje de confirmación indicando el resultado de la operación
+     * @throws IllegalArgumentException Si el objeto o su ID son nulos o vacíos, o si el
+     *                                  nuevo ID ya pertenece a otro producto
+     */
+    @Override
+    public synchronized String update(String id, Producto objeto) {
+        if (id == null || !indice.containsKey(id)) {
+            return "Producto con ID " + id + " no encontrado.";
+        }
+        if (objeto == null || objeto.getId() == null || objeto.getId().isEmpty()) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+        if (!id.equals(objeto.getId()) && indice.containsKey(objeto.getId())) {
+            throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+        }
+        // El producto reemplazado sólo se decodifica si alguien va a recibirlo.
+        Producto anterior = escuchas.hayEscuchas() ? readId(id) : null;
+        if (!id.equals(objeto.getId())) {
+            quitar(id);
+        }
+        cache.remove(objeto.getId());
+        indice.put(objeto.getId(), EN_MEMORIA);
+        modificados.put(objeto.getId(), objeto);
+        version++;
+        if (anterior != null) {
+            escuchas.notificar(EventoCambio.actualizado(id, anterior, objeto, EventoCambio.SIN_RANURA));
+        }
+        return "Producto " + objeto.getId() + " actualizado";
+    }
+
+    /**
+     * Elimina un producto del inventario.
+     *
+     * @param id Identificador único del producto a eliminar
+     * @return El producto eliminado, o {@code null} si no fue encontrado
+     */
+    @Override
+    public synchronized Producto delete(String id) {
+        Producto eliminado = readId(id);
+        if (eliminado != null) {
+            quitar(id);
+            version++;
+            if (escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.eliminado(id, eliminado, EventoCambio.SIN_RANURA));
+            }
+        }
+        return eliminado;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void agregarEscucha(EscuchaCambios escucha) {
+        escuchas.agregar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quitarEscucha(EscuchaCambios escucha) {
+        escuchas.quitar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Recorre el índice ordenado a partir del cursor y decodifica sólo los productos de
+     * la página.
+     * </p>
+     */
+    @Override
+    public synchronized Pagina leerPagina(String despuesDeId, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        NavigableMap<String, Integer> restantes = despuesDeId == null ? indice : indice.tailMap(despuesDeId, false);
+        List<Producto> elementos = new ArrayList<>(Math.min(tamano, restantes.size()));
+        boolean hayMas = false;
+        for (Map.Entry<String, Integer> entrada : restantes.entrySet()) {
+            if (elementos.size() == tamano) {
+                hayMas = true;
+                break;
+            }
+            elementos.add(resolver(entrada.getKey(), entrada.getValue(), true));
+        }
+        return new Pagina(elementos, hayMas);
+    }
+
+    /**
+     * Escribe un arreglo de productos como archivo de registros.
+     * <p>
+     * No sobrescribe el archivo mapeado, porque truncarlo invalidaría el mapeo; para
+     * guardar el inventario abierto se usa {@link #guardar()}.
+     * </p>
+     *
+     * @param productos Arreglo de productos a serializar; los elementos {@code null} se omiten
+     * @param path Ruta del directorio donde se guardará el archivo
+     * @param name Nombre del archivo a crear
+     * @return Mensaje de confirmación del resultado de la operación
+     */
+    @Override
+    public String serializar(Producto[] productos, String path, String name) {
+        Path ruta = Paths.get(path, name);
+        try {
+            synchronized (this) {
+                if (mapeado != null && Files.exists(ruta) && Files.isSameFile(ruta, mapeado)) {
+                    return "Error al guardar el archivo: '" + name + "' está abierto; use guardar()";
+                }
+            }
+            ArchivoRegistros.escribir(ruta, Arrays.asList(productos));
+            return ">> Archivo '" + name + "' guardado exitosamente en '" + path + "'";
+        } catch (IOException e) {
+            return "Error al guardar el archivo: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Lee todos los productos de un archivo, decodificándolos de inmediato.
+     * <p>
+     * Admite archivos escritos con cualquiera de los formatos de {@link FormatoArchivo}.
+     * Para abrir un archivo de registros sin decodificarlo se usa
+     * {@link #abrir(String, String)}.
+     * </p>
+     *
+     * @param path Ruta del directorio donde se encuentra el archivo
+     * @param name Nombre del archivo a cargar
+     * @return Arreglo de productos, un arreglo vacío si el archivo no existe, o
+     *         {@code null} si no pudo leerse
+     */
+    @Override
+    public Producto[] deserializar(String path, String name) {
+        File ruta = new File(path + File.separator + name);
+        if (!ruta.exists()) {
+            return new Producto[10];
+        }
+        try (InputStream entrada = new BufferedInputStream(new FileInputStream(ruta))) {
+            return FormatoArchivo.detectar(entrada).getCodec().leer(entrada);
+        } catch (IOException e) {
+            System.err.println("Error al cargar el archivo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de productos del inventario.
+     *
+     * @return Número de productos
+     */
+    public synchronized int getCantidadProductos() {
+        return indice.size();
+    }
+
+    /**
+     * Verifica si existe un producto con el ID especificado, sin decodificarlo.
+     *
+     * @param id ID del producto a verificar
+     * @return {@code true} si existe
+     */
+    public synchronized boolean existeProducto(String id) {
+        return id != null && indice.containsKey(id);
+    }
+
+    /**
+     * Obtiene la cantidad de productos que ocupan memoria como objetos: los
+     * decodificados en caché más los modificados pendientes de guardar.
+     *
+     * @return Número de productos materializados
+     */
+    public synchronized int getCantidadEnMemoria() {
+        return cache.size() + modificados.size();
+    }
+
+    /**
+     * Libera el archivo mapeado y vacía el inventario en memoria.
+     * <p>
+     * Las modificaciones no guardadas se descartan y las escuchas reciben un evento
+     * {@link TipoCambio#RECARGADO}. El mapeo se libera cuando el recolector de basura
+     * reclama el búfer.
+     * </p>
+     */
+    @Override
+    public synchronized void close() {
+        datos = null;
+        archivo = null;
+        mapeado = null;
+        indice.clear();
+        modificados.clear();
+        cache.clear();
+        version++;
+        escuchas.notificar(EventoCambio.recargado());
+    }
+
+    /**
+     * Mapea un archivo de registros y reconstruye el índice a partir de sus cabeceras.
+     * <p>
+     * El mapeo anterior sólo deja de referenciarse; se libera cuando el recolector de
+     * basura reclama su búfer.
+     * </p>
+     *
+     * @param ruta Archivo a mapear
+     * @throws IOException Si el archivo no puede mapearse o no es un archivo de registros
+     */
+    private void mapear(Path ruta) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        NavigableMap<String, Integer> nuevo = new TreeMap<>();
+        ArchivoRegistros.recorrer(buffer, nuevo::put);
+        datos = buffer;
+        this.mapeado = ruta;
+        indice.clear();
+        indice.putAll(nuevo);
+        modificados.clear();
+        cache.clear();
+        version++;
+    }
+
+    /**
+     * Obtiene el producto de una entrada del índice.
+     *
+     * @param id ID del producto
+     * @param desplazamiento Desplazamiento del registro, o {@link #EN_MEMORIA}
+     * @param conservar Indica si un producto decodificado debe guardarse en la caché
+     * @return Producto correspondiente
+     * @throws UncheckedIOException Si el registro no puede decodificarse
+     */
+    private Producto resolver(String id, int desplazamiento, boolean conservar) {
+        if (desplazamiento == EN_MEMORIA) {
+            return modificados.get(id);
+        }
+        Producto producto = cache.get(id);
+        if (producto == null) {
+            producto = decodificar(datos, desplazamiento, archivo);
+            if (conservar) {
+                cache.put(id, producto);
+            }
+        }
+        return producto;
+    }
+
+    /**
+     * Decodifica un registro del archivo mapeado.
+     *
+     * @param contenido Contenido del archivo mapeado
+     * @param desplazamiento Desplazamiento del registro
+     * @param origen Archivo abierto, para el mensaje de error
+     * @return Producto decodificado
+     * @throws UncheckedIOException Si el registro no puede decodificarse
+     */
+    private static Producto decodificar(MappedByteBuffer contenido, int desplazamiento, Path origen) {
+        try {
+            return ArchivoRegistros.decodificar(contenido, desplazamiento);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Registro no válido en " + origen, e);
+        }
+    }
+
+    /**
+     * Elimina un archivo temporal de guardado, si existe. Un fallo, por ejemplo en
+     * Windows si el archivo sigue mapeado, sólo se informa y el archivo queda en disco.
+     *
+     * @param temporal Archivo a eliminar, o {@code null}
+     */
+    private static void eliminarTemporal(Path temporal) {
+        if (temporal != null) {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException e) {
+                System.err.println("No se pudo eliminar el archivo temporal '" + temporal + "': " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Retira un producto del índice, de la caché y de los modificados.
+     *
+     * @param id ID del producto
+     */
+    private void quitar(String id) {
+        indice.remove(id);
+        modificados.remove(id);
+        cache.remove(id);
+    }
+}
@@ -0,0 +1,851 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Implementación de las operaciones CRUD sobre una base de datos SQL embebida, accedida por JDBC.
+ * <p>
+ * Los productos se guardan en una sola tabla {@code producto} con herencia de tabla
+ * única: la columna {@code categoria} indica la subclase y las columnas propias de las
+ * demás subclases quedan en {@code NULL}. El ID es la clave primaria, por lo que las
+ * búsquedas, actualizaciones y eliminaciones por ID y la paginación por cursor usan su
+ * índice; la categoría tiene un índice secundario.
+ * </p>
+ * <p>
+ * Las sentencias se preparan una sola vez al abrir la base de datos y se reutilizan. Las
+ * operaciones por lotes agrupan sus sentencias con {@link PreparedStatement#addBatch()}
+ * en una única transacción. Con H2 la base de datos puede estar en memoria o en un
+ * archivo, que persiste los cambios al confirmar cada operación sin necesidad de
+ * serializar el inventario completo.
+ * </p>
+ * <p>
+ * Los errores de la base de datos se informan con {@link IllegalStateException}. Todos
+ * los métodos públicos se sincronizan sobre la instancia, que usa una única conexión.
+ * </p>
+ * <p>
+ * Los eventos de cambio se entregan después de confirmar la transacción y no llevan
+ * ranura. Como las actualizaciones y las eliminaciones por lotes no leen las filas
+ * afectadas, sus eventos no incluyen el producto anterior; la eliminación individual sí,
+ * porque ya lo lee para retornarlo. Los cambios hechos por otras conexiones a la misma
+ * base de datos no se notifican.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD
+ * @see ImplementacionOperacionCRUDMapeada
+ */
+public class ImplementacionOperacionCRUDSql implements OperacionCRUD, OperacionArchivo, Closeable {
+
+    /** Cantidad máxima de sentencias acumuladas antes de ejecutar un lote. */
+    static final int SENTENCIAS_POR_LOTE = 1000;
+
+    /** Columnas de la tabla, en el orden en que se asignan y se leen. */
+    private static final String COLUMNAS = "id, categoria, nombre, peso, volumen, "
+            + "fecha_caducidad, tipo_alimento, calorias_por_racion, "
+            + "uso_especifico, es_esterilizado, fecha_esterilizacion, udt, "
+            + "funcion, material, requiere_energia, "
+            + "tipo_comunicacion, rango_frecuencia, potencia";
+
+    /** Cantidad de columnas de la tabla. */
+    private static final int CANTIDAD_COLUMNAS = 18;
+
+    /** Sentencias que crean la tabla y sus índices si no existen. */
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS producto ("
+            + "id VARCHAR PRIMARY KEY, categoria VARCHAR(32) NOT NULL, nombre VARCHAR, "
+            + "peso DOUBLE PRECISION NOT NULL, volumen DOUBLE PRECISION NOT NULL, "
+            + "fecha_caducidad VARCHAR, tipo_alimento VARCHAR, calorias_por_racion INTEGER, "
+            + "uso_especifico VARCHAR, es_esterilizado BOOLEAN, fecha_esterilizacion VARCHAR, udt VARCHAR, "
+            + "funcion VARCHAR, material VARCHAR, requiere_energia BOOLEAN, "
+            + "tipo_comunicacion VARCHAR, rango_frecuencia DOUBLE PRECISION, potencia INTEGER)",
+        "CREATE INDEX IF NOT EXISTS producto_categoria ON producto (categoria)"
+    };
+
+    /** Conexión con la base de datos. */
+    private final Connection conexion;
+
+    /** Sentencia de inserción. */
+    private final PreparedStatement insertar;
+
+    /** Sentencia de búsqueda por ID. */
+    private final PreparedStatement buscar;
+
+    /** Sentencia de existencia por ID. */
+    private final PreparedStatement existe;
+
+    /** Sentencia de actualización por ID, que también puede cambiar el ID. */
+    private final PreparedStatement actualizar;
+
+    /** Sentencia de eliminación por ID. */
+    private final PreparedStatement eliminar;
+
+    /** Sentencia de la primera página en orden de ID. */
+    private final PreparedStatement primeraPagina;
+
+    /** Sentencia de la página siguiente a un cursor. */
+    private final PreparedStatement paginaSiguiente;
+
+    /** Formato con que {@link #serializar(Producto[], String, String)} escribe los archivos. */
+    private volatile FormatoArchivo formatoArchivo = FormatoArchivo.BINARIO;
+
+    /** Versión del almacenamiento, incrementada después de cada modificación. */
+    private long version;
+
+    /** Última instantánea publicada, válida sólo para su versión. */
+    private InstantaneaProductos instantanea;
+
+    /** Escuchas de los cambios del inventario. */
+    private final SoporteEscuchas escuchas = new SoporteEscuchas();
+
+    /**
+     * Constructor privado; las instancias se crean con {@link #abrir(String)}.
+     *
+     * @param conexion Conexión abierta con la base de datos
+     * @throws SQLException Si el esquema no puede crearse o las sentencias no pueden prepararse
+     */
+    private ImplementacionOperacionCRUDSql(Connection conexion) throws SQLException {
+        this.conexion = conexion;
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String ddl : ESQUEMA) {
+                sentencia.execute(ddl);
+            }
+        }
+        conexion.setAutoCommit(false);
+        String seleccion = "SELECT " + COLUMNAS + " FROM producto";
+        insertar = conexion.prepareStatement("INSERT INTO producto (" + COLUMNAS + ") VALUES ("
+                + "?, ".repeat(CANTIDAD_COLUMNAS - 1) + "?)");
+        buscar = conexion.prepareStatement(seleccion + " WHERE id = ?");
+        existe = conexion.prepareStatement("SELECT 1 FROM producto WHERE id = ?");
+        actualizar = conexion.prepareStatement("UPDATE producto SET "
+                + COLUMNAS.replace(",", " = ?,") + " = ? WHERE id = ?");
+        eliminar = conexion.prepareStatement("DELETE FROM producto WHERE id = ?");
+        primeraPagina = conexion.prepareStatement(seleccion + " ORDER BY id LIMIT ?");
+        paginaSiguiente = conexion.prepareStatement(seleccion + " WHERE id > ? ORDER BY id LIMIT ?");
+    }
+
+    /**
+     * Abre una base de datos por su URL JDBC, creando la tabla si no existe.
+     *
+     * @param url URL JDBC, por ejemplo {@code jdbc:h2:mem:} o {@code jdbc:h2:file:/ruta/inventario}
+     * @return Almacenamiento abierto
+     * @throws SQLException Si la base de datos no puede abrirse o prepararse
+     */
+    public static ImplementacionOperacionCRUDSql abrir(String url) throws SQLException {
+        Connection conexion = DriverManager.getConnection(url);
+        try {
+            return new ImplementacionOperacionCRUDSql(conexion);
+        } catch (SQLException | RuntimeException e) {
+            conexion.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre o crea una base de datos H2 en un archivo.
+     *
+     * @param path Ruta del directorio de la base de datos
+     * @param name Nombre de la base de datos; H2 agrega la extensión {@code .mv.db}
+     * @return Almacenamiento abierto
+     * @throws SQLException Si la base de datos no puede abrirse o prepararse
+     */
+    public static ImplementacionOperacionCRUDSql abrirArchivo(String path, String name) throws SQLException {
+        return abrir("jdbc:h2:file:" + Paths.get(path, name).toAbsolutePath());
+    }
+
+    /**
+     * Crea una base de datos H2 privada en memoria, que se descarta al cerrarla.
+     *
+     * @return Almacenamiento abierto
+     * @throws SQLException Si la base de datos no puede crearse
+     */
+    public static ImplementacionOperacionCRUDSql abrirEnMemoria() throws SQLException {
+        return abrir("jdbc:h2:mem:");
+    }
+
+    /**
+     * Crea un nuevo producto.
+     *
+     * @param objeto Producto a ser creado/agregado al sistema
+     * @return Mensaje de confirmación de la creación
+     * @throws IllegalArgumentException Si el producto o su ID son nulos o vacíos, o si
+     *                                  ya existe un producto con el mismo ID
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized String create(Producto objeto) {
+        validar(objeto);
+        try {
+            asignar(insertar, objeto);
+            insertar.executeUpdate();
+            confirmar();
+            version++;
+            if (escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.creado(objeto, EventoCambio.SIN_RANURA));
+            }
+            return "Producto " + objeto.getId() + " agregado";
+        } catch (SQLException e) {
+            deshacer();
+            if (esViolacionRestriccion(e)) {
+                throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+            }
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cada ID se verifica con una búsqueda por clave primaria y los productos válidos se
+     * insertan con sentencias agrupadas en lotes, dentro de una sola transacción.
+     * </p>
+     *
+     * @throws IllegalStateException Si ocurre un error en la base de datos; en ese caso
+     *                               no se crea ningún producto del lote
+     */
+    @Override
+    public synchronized ResultadoLote createAll(Collection<? extends Producto> objetos) {
+        BitSet exitosos = new BitSet(objetos.size());
+        Set<String> idsDelLote = new HashSet<>();
+        int i = 0;
+        try {
+            int pendientes = 0;
+            for (Producto objeto : objetos) {
+                if (esValido(objeto) && idsDelLote.add(objeto.getId()) && !existe(objeto.getId())) {
+                    asignar(insertar, objeto);
+                    insertar.addBatch();
+                    exitosos.set(i);
+                    if (++pendientes == SENTENCIAS_POR_LOTE) {
+                        insertar.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+                i++;
+            }
+            if (pendientes > 0) {
+                insertar.executeBatch();
+            }
+            confirmar();
+            version++;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+        if (escuchas.hayEscuchas()) {
+            int k = 0;
+            for (Producto objeto : objetos) {
+                if (exitosos.get(k++)) {
+                    escuchas.notificar(EventoCambio.creado(objeto, EventoCambio.SIN_RANURA));
+                }
+            }
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * Obtiene todos los productos.
+     *
+     * @return Arreglo sin huecos con los productos, ordenados por ID
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized Producto[] read() {
+        return instantanea().toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * La instantánea se construye con una consulta por versión, en orden de ID.
+     * </p>
+     *
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized InstantaneaProductos instantanea() {
+        if (instantanea == null || instantanea.getVersion() != version) {
+            List<Producto> todos = new ArrayList<>();
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet filas = sentencia.executeQuery("SELECT " + COLUMNAS + " FROM producto ORDER BY id")) {
+                while (filas.next()) {
+                    todos.add(leerFila(filas));
+                }
+                confirmar();
+            } catch (SQLException e) {
+                deshacer();
+                throw fallo(e);
+            }
+            instantanea = new InstantaneaProductos(version, todos.toArray(new Producto[0]));
+        }
+        return instantanea;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las instantáneas siguen el orden de la clave primaria y los eventos se entregan
+     * dentro de los métodos sincronizados, antes de que pueda construirse la instantánea
+     * siguiente.
+     * </p>
+     */
+    @Override
+    public boolean admiteCambiosIncrementales() {
+        return true;
+    }
+
+    /**
+     * Busca un producto por ID usando la clave primaria.
+     *
+     * @param id Identificador único del producto a buscar
+     * @return El producto encontrado, o {@code null} si no existe
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized Producto readId(String id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            buscar.setString(1, id);
+            Producto producto = null;
+            try (ResultSet filas = buscar.executeQuery()) {
+                if (filas.next()) {
+                    producto = leerFila(filas);
+                }
+            }
+            confirmar();
+            return producto;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * Actualiza un producto existente, que puede cambiar de ID.
+     *
+     * @param id Identificador único del producto a actualizar
+     * @param objeto Nuevo objeto producto con los datos actualizados
+     * @return Mensaje de confirmación indicando el resultado de la operación
+     * @throws IllegalArgumentException Si el objeto o su ID son nulos o vacíos, o si el
+     *                                  nuevo ID ya pertenece a otro producto
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized String update(String id, Producto objeto) {
+        if (!esValido(objeto)) {
+            if (!existeProducto(id)) {
+                return "Producto con ID " + id + " no encontrado.";
+            }
+            validar(objeto);
+        }
+        if (id == null) {
+            return "Producto con ID " + id + " no encontrado.";
+        }
+        try {
+            asignar(actualizar, objeto);
+            actualizar.setString(CANTIDAD_COLUMNAS + 1, id);
+            int actualizados = actualizar.executeUpdate();
+            confirmar();
+            version++;
+            if (actualizados > 0 && escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.actualizado(id, null, objeto, EventoCambio.SIN_RANURA));
+            }
+            return actualizados == 0
+                    ? "Producto con ID " + id + " no encontrado."
+                    : "Producto " + objeto.getId() + " actualizado";
+        } catch (SQLException e) {
+            deshacer();
+            if (esViolacionRestriccion(e)) {
+                throw new IllegalArgumentException("Ya existe un producto con ID " + objeto.getId());
+            }
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las actualizaciones se agrupan en lotes dentro de una sola transacción; un
+     * producto se considera actualizado si su sentencia afectó una fila.
+     * </p>
+     *
+     * @throws IllegalStateException Si ocurre un error en la base de datos; en ese caso
+     *                               no se actualiza ningún producto del lote
+     */
+    @Override
+    public synchronized ResultadoLote updateAll(Collection<? extends Producto> objetos) {
+        BitSet exitosos = new BitSet(objetos.size());
+        int[] posiciones = new int[SENTENCIAS_POR_LOTE];
+        int i = 0;
+        try {
+            int pendientes = 0;
+            for (Producto objeto : objetos) {
+                if (esValido(objeto)) {
+                    asignar(actualizar, objeto);
+                    actualizar.setString(CANTIDAD_COLUMNAS + 1, objeto.getId());
+                    actualizar.addBatch();
+                    posiciones[pendientes++] = i;
+                    if (pendientes == SENTENCIAS_POR_LOTE) {
+                        marcarAfectados(actualizar.executeBatch(), posiciones, exitosos);
+                        pendientes = 0;
+                    }
+                }
+                i++;
+            }
+            if (pendientes > 0) {
+                marcarAfectados(actualizar.executeBatch(), posiciones, exitosos);
+            }
+            confirmar();
+            version++;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+        if (escuchas.hayEscuchas()) {
+            int k = 0;
+            for (Producto objeto : objetos) {
+                if (exitosos.get(k++)) {
+                    escuchas.notificar(EventoCambio.actualizado(objeto.getId(), null, objeto, EventoCambio.SIN_RANURA));
+                }
+            }
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * Elimina un producto del inventario.
+     *
+     * @param id Identificador único del producto a eliminar
+     * @return El producto eliminado, o {@code null} si no fue encontrado
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized Producto delete(String id) {
+        Producto eliminado = readId(id);
+        if (eliminado == null) {
+            return null;
+        }
+        try {
+            eliminar.setString(1, id);
+            eliminar.executeUpdate();
+            confirmar();
+            version++;
+            if (escuchas.hayEscuchas()) {
+                escuchas.notificar(EventoCambio.eliminado(id, eliminado, EventoCambio.SIN_RANURA));
+            }
+            return eliminado;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las eliminaciones se agrupan en lotes dentro de una sola transacción.
+     * </p>
+     *
+     * @throws IllegalStateException Si ocurre un error en la base de datos; en ese caso
+     *                               no se elimina ningún producto del lote
+     */
+    @Override
+    public synchronized ResultadoLote deleteAll(Collection<String> ids) {
+        BitSet exitosos = new BitSet(ids.size());
+        int[] posiciones = new int[SENTENCIAS_POR_LOTE];
+        int i = 0;
+        try {
+            int pendientes = 0;
+            for (String id : ids) {
+                if (id != null) {
+                    eliminar.setString(1, id);
+                    eliminar.addBatch();
+                    posiciones[pendientes++] = i;
+                    if (pendientes == SENTENCIAS_POR_LOTE) {
+                        marcarAfectados(eliminar.executeBatch(), posiciones, exitosos);
+                        pendientes = 0;
+                    }
+                }
+                i++;
+            }
+            if (pendientes > 0) {
+                marcarAfectados(eliminar.executeBatch(), posiciones, exitosos);
+            }
+            confirmar();
+            version++;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+        if (escuchas.hayEscuchas()) {
+            int k = 0;
+            for (String id : ids) {
+                if (exitosos.get(k++)) {
+                    escuchas.notificar(EventoCambio.eliminado(id, null, EventoCambio.SIN_RANURA));
+                }
+            }
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void agregarEscucha(EscuchaCambios escucha) {
+        escuchas.agregar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void quitarEscucha(EscuchaCambios escucha) {
+        escuchas.quitar(escucha);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Consulta sólo las filas de la página, a partir del cursor, usando el índice de la
+     * clave primaria.
+     * </p>
+     *
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    @Override
+    public synchronized Pagina leerPagina(String despuesDeId, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        try {
+            PreparedStatement consulta;
+            if (despuesDeId == null) {
+                consulta = primeraPagina;
+                consulta.setInt(1, tamano + 1);
+            } else {
+                consulta = paginaSiguiente;
+                consulta.setString(1, despuesDeId);
+                consulta.setInt(2, tamano + 1);
+            }
+            List<Producto> elementos = new ArrayList<>();
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    elementos.add(leerFila(filas));
+                }
+            }
+            confirmar();
+            boolean hayMas = elementos.size() > tamano;
+            if (hayMas) {
+                elementos.remove(tamano);
+            }
+            return new Pagina(elementos, hayMas);
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * Serializa un arreglo de productos en un archivo con el formato seleccionado.
+     *
+     * @param productos Arreglo de productos a serializar
+     * @param path Ruta del directorio donde se guardará el archivo
+     * @param name Nombre del archivo a crear
+     * @return Mensaje de confirmación del resultado de la operación
+     */
+    @Override
+    public String serializar(Producto[] productos, String path, String name) {
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(path + File.separator + name))) {
+            formatoArchivo.getCodec().escribir(productos, salida);
+            return ">> Archivo '" + name + "' guardado exitosamente en '" + path + "'";
+        } catch (IOException e) {
+            return "Error al guardar el archivo: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Lee todos los productos de un archivo, reconociendo su formato por su contenido.
+     *
+     * @param path Ruta del directorio donde se encuentra el archivo
+     * @param name Nombre del archivo a cargar
+     * @return Arreglo de productos, un arreglo vacío si el archivo no existe, o
+     *         {@code null} si no pudo leerse
+     */
+    @Override
+    public Producto[] deserializar(String path, String name) {
+        File ruta = new File(path + File.separator + name);
+        if (!ruta.exists()) {
+            System.out.println(">> El archivo no existe. Se comenzará con una lista vacía.");
+            return new Producto[10];
+        }
+        try (InputStream entrada = new BufferedInputStream(new FileInputStream(ruta))) {
+            return FormatoArchivo.detectar(entrada).getCodec().leer(entrada);
+        } catch (IOException e) {
+            System.err.println("Error al cargar el archivo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public FormatoArchivo getFormatoArchivo() {
+        return formatoArchivo;
+    }
+
+    @Override
+    public void setFormatoArchivo(FormatoArchivo formato) {
+        if (formato == null) {
+            throw new IllegalArgumentException("El formato no puede ser nulo");
+        }
+        this.formatoArchivo = formato;
+    }
+
+    /**
+     * Obtiene la cantidad de productos del inventario.
+     *
+     * @return Número de productos
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    public synchronized int getCantidadProductos() {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT COUNT(*) FROM producto")) {
+            filas.next();
+            int cantidad = filas.getInt(1);
+            confirmar();
+            return cantidad;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * Verifica si existe un producto con el ID especificado, sin leer sus datos.
+     *
+     * @param id ID del producto a verificar
+     * @return {@code true} si existe
+     * @throws IllegalStateException Si ocurre un error en la base de datos
+     */
+    public synchronized boolean existeProducto(String id) {
+        if (id == null) {
+            return false;
+        }
+        try {
+            boolean encontrado = existe(id);
+            confirmar();
+            return encontrado;
+        } catch (SQLException e) {
+            deshacer();
+            throw fallo(e);
+        }
+    }
+
+    /**
+     * Cierra las sentencias preparadas y la conexión. Una base de datos en memoria se
+     * descarta; una en archivo conserva todo lo confirmado.
+     *
+     * @throws IOException Si la conexión no puede cerrarse
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            throw new IOException("Error al cerrar la base de datos: " + e.getMessage(), e);
+        }
+        instantanea = null;
+    }
+
+    /**
+     * Verifica si existe una fila con el ID indicado, dentro de la transacción actual.
+     *
+     * @param id ID a buscar
+     * @return {@code true} si existe
+     * @throws SQLException Si la consulta falla
+     */
+    private boolean existe(String id) throws SQLException {
+        existe.setString(1, id);
+        try (ResultSet filas = existe.executeQuery()) {
+            return filas.next();
+        }
+    }
+
+    /**
+     * Confirma la transacción actual.
+     *
+     * @throws SQLException Si la confirmación falla
+     */
+    private void confirmar() throws SQLException {
+        conexion.commit();
+    }
+
+    /**
+     * Revierte la transacción actual tras un error, ignorando un error adicional.
+     */
+    private void deshacer() {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            // Se informa el error original
+        }
+    }
+
+    /**
+     * Marca como exitosas las posiciones cuyas sentencias afectaron al menos una fila.
+     *
+     * @param afectadas Filas afectadas por cada sentencia del lote
+     * @param posiciones Posición en el lote de cada sentencia
+     * @param exitosos Posiciones exitosas del lote
+     */
+    private static void marcarAfectados(int[] afectadas, int[] posiciones, BitSet exitosos) {
+        for (int k = 0; k < afectadas.length; k++) {
+            if (afectadas[k] > 0 || afectadas[k] == Statement.SUCCESS_NO_INFO) {
+                exitosos.set(posiciones[k]);
+            }
+        }
+    }
+
+    /**
+     * Asigna los atributos de un producto a los primeros parámetros de una sentencia, en
+     * el orden de las columnas.
+     *
+     * @param sentencia Sentencia de inserción o actualización
+     * @param producto Producto de origen
+     * @throws SQLException Si un parámetro no puede asignarse
+     */
+    private static void asignar(PreparedStatement sentencia, Producto producto) throws SQLException {
+        sentencia.setString(1, producto.getId());
+        sentencia.setString(2, CategoriaProducto.de(producto).name());
+        sentencia.setString(3, producto.getNombre());
+        sentencia.setDouble(4, producto.getPeso());
+        sentencia.setDouble(5, producto.getVolumen());
+        for (int i = 6; i <= CANTIDAD_COLUMNAS; i++) {
+            sentencia.setNull(i, Types.NULL);
+        }
+        if (producto instanceof Alimento) {
+            Alimento alimento = (Alimento) producto;
+            sentencia.setString(6, alimento.getFechaCaducidad());
+            sentencia.setString(7, alimento.getTipoAlimento());
+            sentencia.setInt(8, alimento.getCaloriasPorRacion());
+        } else if (producto instanceof EquipoMedico) {
+            EquipoMedico equipo = (EquipoMedico) producto;
+            sentencia.setString(9, equipo.getUsoEspecifico());
+            sentencia.setBoolean(10, equipo.isEsEsterilizado());
+            sentencia.setString(11, equipo.getFechaEsterilizacion());
+            sentencia.setString(12, equipo.getUdt());
+        } else if (producto instanceof Herramienta) {
+            Herramienta herramienta = (Herramienta) producto;
+            sentencia.setString(13, herramienta.getFuncion());
+            sentencia.setString(14, herramienta.getMaterial());
+            sentencia.setBoolean(15, herramienta.isRequiereEnergia());
+        } else if (producto instanceof EquipoComunicacion) {
+            EquipoComunicacion equipo = (EquipoComunicacion) producto;
+            sentencia.setString(16, equipo.getTipoComunicacion());
+            sentencia.setDouble(17, equipo.getRangoFrecuencia());
+            sentencia.setInt(18, equipo.getPotencia());
+        }
+    }
+
+    /**
+     * Construye el producto de la fila actual según su categoría.
+     *
+     * @param fila Resultado posicionado en una fila
+     * @return Producto de la subclase correspondiente
+     * @throws SQLException Si una columna no puede leerse o la categoría no existe
+     */
+    private static Producto leerFila(ResultSet fila) throws SQLException {
+        String id = fila.getString(1);
+        String nombre = fila.getString(3);
+        double peso = fila.getDouble(4);
+        double volumen = fila.getDouble(5);
+        CategoriaProducto categoria;
+        try {
+            categoria = CategoriaProducto.valueOf(fila.getString(2));
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Categoría desconocida en el producto " + id + ": " + fila.getString(2));
+        }
+        switch (categoria) {
+            case ALIMENTO:
+                return new Alimento(id, nombre, peso, volumen, fila.getString(6), fila.getString(7), fila.getInt(8));
+            case EQUIPO_MEDICO:
+                return new EquipoMedico(id, nombre, peso, volumen, fila.getString(9), fila.getBoolean(10),
+                                        fila.getString(11), fila.getString(12));
+            case HERRAMIENTA:
+                return new Herramienta(id, nombre, peso, volumen, fila.getString(13), fila.getString(14),
+                                       fila.getBoolean(15));
+            case EQUIPO_COMUNICACION:
+                return new EquipoComunicacion(id, nombre, peso, volumen, fila.getString(16), fila.getDouble(17),
+                                              fila.getInt(18));
+            default:
+                return new Producto(id, nombre, peso, volumen);
+        }
+    }
+
+    /**
+     * Indica si un producto puede guardarse: no es nulo y tiene ID.
+     *
+     * @param objeto Producto a verificar
+     * @return {@code true} si es válido
+     */
+    private static boolean esValido(Producto objeto) {
+        return objeto != null && objeto.getId() != null && !objeto.getId().isEmpty();
+    }
+
+    /**
+     * Verifica que un producto pueda guardarse.
+     *
+     * @param objeto Producto a verificar
+     * @throws IllegalArgumentException Si el producto o su ID son nulos o vacíos
+     */
+    private static void validar(Producto objeto) {
+        if (!esValido(objeto)) {
+            throw new IllegalArgumentException("El producto y su ID no pueden ser nulos o vacíos");
+        }
+    }
+
+    /**
+     * Indica si un error corresponde a una restricción de integridad, como una clave
+     * primaria repetida (estado SQL de clase {@code 23}).
+     *
+     * @param e Error de la base de datos
+     * @return {@code true} si es una violación de restricción
+     */
+    private static boolean esViolacionRestriccion(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    /**
+     * Envuelve un error de la base de datos en una excepción no verificada.
+     *
+     * @param e Error de la base de datos
+     * @return Excepción a lanzar
+     */
+    private static IllegalStateException fallo(SQLException e) {
+        return new IllegalStateException("Error de base de datos: " + e.getMessage(), e);
+    }
+}
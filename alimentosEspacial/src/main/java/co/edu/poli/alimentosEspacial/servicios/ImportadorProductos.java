@@ -0,0 +1,695 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Importador de productos desde archivos CSV o JSON Lines de tamaño arbitrario.
+ * <p>
+ * El archivo se lee fila por fila en UTF-8 y los productos se crean en el destino por
+ * lotes de tamaño fijo con {@link OperacionCRUD#createAll(java.util.Collection)}, de modo
+ * que la memoria usada por la importación no depende del tamaño del archivo. Las
+ * columnas son las descritas en {@link ColumnasProducto}: la columna {@code categoria}
+ * determina si cada fila es un {@link co.edu.poli.alimentosEspacial.modelo.Alimento},
+ * un {@link co.edu.poli.alimentosEspacial.modelo.EquipoMedico}, una
+ * {@link co.edu.poli.alimentosEspacial.modelo.Herramienta}, un
+ * {@link co.edu.poli.alimentosEspacial.modelo.EquipoComunicacion} o un producto genérico.
+ * </p>
+ * <p>
+ * Las filas con datos no válidos o con un ID que ya existe se rechazan sin interrumpir la
+ * importación y se informan en el {@link ResultadoImportacion}; sólo los errores de
+ * lectura del archivo interrumpen la importación, en cuyo caso los lotes ya enviados
+ * quedan creados.
+ * </p>
+ * <p>
+ * CSV sigue la RFC 4180: la primera fila es el encabezado, los campos pueden ir entre
+ * comillas dobles, que se escapan duplicándolas, y los campos entre comillas pueden
+ * contener separadores y saltos de línea. En JSON Lines cada línea es un objeto plano
+ * cuyos atributos son las columnas; los valores anidados no se admiten.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ExportadorProductos
+ * @see ResultadoImportacion
+ */
+public final class ImportadorProductos {
+
+    /** Cantidad de productos por lote si no se indica otra. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 1000;
+
+    /** Separador de campos CSV por defecto. */
+    public static final char SEPARADOR_POR_DEFECTO = ',';
+
+    /** Longitud máxima de una fila, en caracteres, para acotar la memoria usada. */
+    static final int LONGITUD_MAXIMA_FILA = 1 << 20;
+
+    /** Tamaño del búfer de lectura del archivo, en caracteres. */
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    /** Almacenamiento donde se crean los productos. */
+    private final OperacionCRUD destino;
+
+    /** Cantidad de productos por lote. */
+    private final int tamanoLote;
+
+    /** Oyente que recibe los productos creados en cada lote, o {@code null}. */
+    private final OyenteCarga oyente;
+
+    /**
+     * Constructor del importador con el tamaño de lote por defecto y sin oyente.
+     *
+     * @param destino Almacenamiento donde se crean los productos
+     */
+    public ImportadorProductos(OperacionCRUD destino) {
+        this(destino, TAMANO_LOTE_POR_DEFECTO, null);
+    }
+
+    /**
+     * Constructor del importador.
+     *
+     * @param destino Almacenamiento donde se crean los productos
+     * @param tamanoLote Cantidad de productos por lote. Debe ser positiva.
+     * @param oyente Oyente que recibe los productos creados en cada lote y el avance de
+     *               la lectura del archivo, o {@code null}
+     * @throws IllegalArgumentException Si el tamaño de lote no es positivo
+     */
+    public ImportadorProductos(OperacionCRUD destino, int tamanoLote, OyenteCarga oyente) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.destino = destino;
+        this.tamanoLote = tamanoLote;
+        this.oyente = oyente;
+    }
+
+    /**
+     * Importa un archivo CSV separado por comas.
+     *
+     * @param archivo Archivo CSV con encabezado
+     * @return Resumen de la importación
+     * @throws IOException Si el archivo no puede leerse o su encabezado no tiene la columna {@code id}
+     */
+    public ResultadoImportacion importarCsv(Path archivo) throws IOException {
+        return importarCsv(archivo, SEPARADOR_POR_DEFECTO);
+    }
+
+    /**
+     * Importa un archivo CSV con el separador indicado.
+     *
+     * @param archivo Archivo CSV con encabezado
+     * @param separador Separador de campos, por ejemplo {@code ';'}
+     * @return Resumen de la importación
+     * @throws IOException Si el archivo no puede leerse o su encabezado no tiene la columna {@code id}
+     * @throws IllegalArgumentException Si el separador es una comilla doble o un salto de línea
+     */
+    public ResultadoImportacion importarCsv(Path archivo, char separador) throws IOException {
+        if (separador == '"' || separador == '\r' || separador == '\n') {
+            throw new IllegalArgumentException("Separador de campos no válido");
+        }
+        EntradaContada contada = new EntradaContada(Files.newInputStream(archivo));
+        try (LectorCaracteres lector = new LectorCaracteres(contada)) {
+            LectorCsv csv = new LectorCsv(lector, separador);
+            if (!csv.hayFila()) {
+                return new ResultadoImportacion();
+            }
+            List<String> encabezado;
+            try {
+                encabezado = csv.leerCampos();
+            } catch (IllegalArgumentException e) {
+                throw new StreamCorruptedException("Encabezado CSV no válido: " + e.getMessage());
+            }
+            String[] columnas = new String[encabezado.size()];
+            for (int i = 0; i < columnas.length; i++) {
+                String columna = encabezado.get(i).trim().toLowerCase(Locale.ROOT);
+                columnas[i] = i == 0 && columna.startsWith("\uFEFF") ? columna.substring(1) : columna;
+            }
+            if (!Arrays.asList(columnas).contains("id")) {
+                throw new StreamCorruptedException("El encabezado CSV no tiene la columna 'id'");
+            }
+            csv.setColumnas(columnas);
+            return importar(csv, contada, Files.size(archivo));
+        }
+    }
+
+    /**
+     * Importa un archivo JSON Lines, con un objeto por línea.
+     *
+     * @param archivo Archivo JSON Lines
+     * @return Resumen de la importación
+     * @throws IOException Si el archivo no puede leerse
+     */
+    public ResultadoImportacion importarJson(Path archivo) throws IOException {
+        EntradaContada contada = new EntradaContada(Files.newInputStream(archivo));
+        try (LectorCaracteres lector = new LectorCaracteres(contada)) {
+            return importar(new LectorJson(lector), contada, Files.size(archivo));
+        }
+    }
+
+    /**
+     * Lee todas las filas de la fuente y crea los productos por lotes.
+     *
+     * @param fuente Fuente de filas
+     * @param contada Flujo que cuenta los bytes leídos del archivo
+     * @param bytesTotales Tamaño del archivo
+     * @return Resumen de la importación
+     * @throws IOException Si el archivo no puede leerse
+     */
+    private ResultadoImportacion importar(FuenteFilas fuente, EntradaContada contada, long bytesTotales)
+            throws IOException {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        List<Producto> lote = new ArrayList<>(tamanoLote);
+        long[] lineas = new long[tamanoLote];
+        while (fuente.hayFila()) {
+            resultado.contarFila();
+            try {
+                Producto producto = ColumnasProducto.deFila(fuente.leerFila());
+                lineas[lote.size()] = fuente.getLinea();
+                lote.add(producto);
+            } catch (IllegalArgumentException e) {
+                resultado.rechazar(fuente.getLinea(), e.getMessage());
+            }
+            if (lote.size() == tamanoLote) {
+                enviar(lote, lineas, resultado, contada.getLeidos(), bytesTotales);
+            }
+        }
+        enviar(lote, lineas, resultado, bytesTotales, bytesTotales);
+        return resultado;
+    }
+
+    /**
+     * Crea en el destino los productos del lote y lo vacía.
+     *
+     * @param lote Productos pendientes
+     * @param lineas Línea de cada producto del lote
+     * @param resultado Resumen donde se registra el resultado
+     * @param bytesLeidos Bytes del archivo leídos hasta el momento
+     * @param bytesTotales Tamaño del archivo
+     */
+    private void enviar(List<Producto> lote, long[] lineas, ResultadoImportacion resultado,
+                        long bytesLeidos, long bytesTotales) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        ResultadoLote creados = destino.createAll(lote);
+        resultado.contarImportados(creados.getExitosos());
+        creados.indicesFallidos().forEach(i -> resultado.rechazar(
+                lineas[i], "Ya existe un producto con ID " + lote.get(i).getId()));
+        if (oyente != null) {
+            List<Producto> exitosos = new ArrayList<>(creados.getExitosos());
+            for (int i = 0; i < lote.size(); i++) {
+                if (creados.fueExitoso(i)) {
+                    exitosos.add(lote.get(i));
+                }
+            }
+            oyente.alCargarLote(exitosos, bytesLeidos, bytesTotales);
+        }
+        lote.clear();
+    }
+
+    /**
+     * Fuente de filas de un archivo de importación.
+     */
+    private interface FuenteFilas {
+
+        /**
+         * Avanza hasta la siguiente fila, omitiendo las líneas en blanco.
+         *
+         * @return {@code true} si queda al menos una fila
+         * @throws IOException Si el archivo no puede leerse
+         */
+        boolean hayFila() throws IOException;
+
+        /**
+         * Lee la fila actual completa.
+         *
+         * @return Valores de la fila por nombre de columna en minúsculas
+         * @throws IOException Si el archivo no puede leerse
+         * @throws IllegalArgumentException Si la fila está mal formada; la fila se
+         *                                  consume igualmente
+         */
+        Map<String, String> leerFila() throws IOException;
+
+        /**
+         * Obtiene la línea donde comienza la última fila leída.
+         *
+         * @return Número de línea, contando desde uno
+         */
+        long getLinea();
+    }
+
+    /**
+     * Lector de filas CSV según la RFC 4180.
+     */
+    private static final class LectorCsv implements FuenteFilas {
+
+        /** Lector del archivo. */
+        private final LectorCaracteres lector;
+
+        /** Separador de campos. */
+        private final char separador;
+
+        /** Nombres de las columnas del encabezado. */
+        private String[] columnas;
+
+        /** Línea en que está el lector. */
+        private long linea = 1;
+
+        /** Línea donde comienza la última fila leída. */
+        private long lineaFila;
+
+        /**
+         * Constructor del lector.
+         *
+         * @param lector Lector del archivo
+         * @param separador Separador de campos
+         */
+        LectorCsv(LectorCaracteres lector, char separador) {
+            this.lector = lector;
+            this.separador = separador;
+        }
+
+        /**
+         * Establece las columnas del encabezado.
+         *
+         * @param columnas Nombres de las columnas en minúsculas
+         */
+        void setColumnas(String[] columnas) {
+            this.columnas = columnas;
+        }
+
+        @Override
+        public boolean hayFila() throws IOException {
+            int c;
+            while ((c = lector.mirar()) == '\r' || c == '\n') {
+                saltarLinea(lector.leer());
+            }
+            return c >= 0;
+        }
+
+        @Override
+        public Map<String, String> leerFila() throws IOException {
+            List<String> campos = leerCampos();
+            if (campos.size() > columnas.length) {
+                throw new IllegalArgumentException("La fila tiene " + campos.size()
+                        + " campos y el encabezado " + columnas.length);
+            }
+            Map<String, String> valores = new HashMap<>();
+            for (int i = 0; i < campos.size(); i++) {
+                valores.put(columnas[i], campos.get(i));
+            }
+            return valores;
+        }
+
+        @Override
+        public long getLinea() {
+            return lineaFila;
+        }
+
+        /**
+         * Lee los campos de la fila actual, hasta el salto de línea que no está entre
+         * comillas o el final del archivo.
+         *
+         * @return Campos de la fila
+         * @throws IOException Si el archivo no puede leerse
+         * @throws IllegalArgumentException Si la fila está mal formada; la fila se
+         *                                  consume igualmente
+         */
+        List<String> leerCampos() throws IOException {
+            lineaFila = linea;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            String error = null;
+            int longitud = 0;
+            boolean entreComillas = false;
+            boolean conComillas = false;
+            while (true) {
+                int c = lector.leer();
+                if (c < 0) {
+                    if (entreComillas) {
+                        error = "Comillas sin cerrar";
+                    }
+                    break;
+                }
+                if (entreComillas) {
+                    if (c == '"') {
+                        if (lector.mirar() == '"') {
+                            lector.leer();
+                        } else {
+                            entreComillas = false;
+                            continue;
+                        }
+                    } else if (c == '\n' || (c == '\r' && lector.mirar() != '\n')) {
+                        linea++;
+                    }
+                } else if (c == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                    conComillas = false;
+                    continue;
+                } else if (c == '\r' || c == '\n') {
+                    saltarLinea(c);
+                    break;
+                } else if (c == '"' && campo.length() == 0 && !conComillas) {
+                    entreComillas = true;
+                    conComillas = true;
+                    continue;
+                } else if (conComillas && error == null) {
+                    error = "Texto después de las comillas de cierre";
+                }
+                if (++longitud > LONGITUD_MAXIMA_FILA) {
+                    if (error == null) {
+                        error = "La fila supera " + LONGITUD_MAXIMA_FILA + " caracteres";
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            }
+            campos.add(campo.toString());
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            return campos;
+        }
+
+        /**
+         * Consume un salto de línea, que puede ser {@code \r\n}, {@code \n} o {@code \r}.
+         *
+         * @param c Primer carácter del salto, ya leído
+         * @return Último carácter del salto
+         * @throws IOException Si el archivo no puede leerse
+         */
+        private int saltarLinea(int c) throws IOException {
+            linea++;
+            if (c == '\r' && lector.mirar() == '\n') {
+                return lector.leer();
+            }
+            return c;
+        }
+    }
+
+    /**
+     * Lector de objetos JSON planos, uno por línea.
+     */
+    private static final class LectorJson implements FuenteFilas {
+
+        /** Lector del archivo. */
+        private final LectorCaracteres lector;
+
+        /** Línea siguiente a la última leída. */
+        private long linea = 1;
+
+        /** Línea donde comienza la fila actual. */
+        private long lineaFila;
+
+        /** Texto de la fila actual. */
+        private final StringBuilder fila = new StringBuilder();
+
+        /** Indica si la fila actual superó la longitud máxima. */
+        private boolean desbordada;
+
+        /** Posición de análisis dentro de la fila actual. */
+        private int posicion;
+
+        /**
+         * Constructor del lector.
+         *
+         * @param lector Lector del archivo
+         */
+        LectorJson(LectorCaracteres lector) {
+            this.lector = lector;
+        }
+
+        @Override
+        public boolean hayFila() throws IOException {
+            while (true) {
+                fila.setLength(0);
+                desbordada = false;
+                lineaFila = linea;
+                int c;
+                while ((c = lector.leer()) >= 0 && c != '\n') {
+                    if (fila.length() < LONGITUD_MAXIMA_FILA) {
+                        fila.append((char) c);
+                    } else {
+                        desbordada = true;
+                    }
+                }
+                if (c == '\n') {
+                    linea++;
+                }
+                if (desbordada || !fila.toString().trim().isEmpty()) {
+                    return true;
+                }
+                if (c < 0) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public Map<String, String> leerFila() {
+            if (desbordada) {
+                throw new IllegalArgumentException("La fila supera " + LONGITUD_MAXIMA_FILA + " caracteres");
+            }
+            posicion = 0;
+            Map<String, String> valores = new HashMap<>();
+            esperar('{');
+            if (siguiente() == '}') {
+                posicion++;
+            } else {
+                do {
+                    String nombre = leerTexto();
+                    esperar(':');
+                    String valor = leerValor();
+                    if (valor != null) {
+                        valores.put(nombre.toLowerCase(Locale.ROOT), valor);
+                    }
+                } while (consumir(','));
+                esperar('}');
+            }
+            if (siguiente() != -1) {
+                throw new IllegalArgumentException("Contenido después del objeto JSON");
+            }
+            return valores;
+        }
+
+        @Override
+        public long getLinea() {
+            return lineaFila;
+        }
+
+        /**
+         * Lee un valor plano: texto, número, lógico o {@code null}.
+         *
+         * @return Texto del valor, o {@code null} si el valor es {@code null}
+         */
+        private String leerValor() {
+            int c = siguiente();
+            if (c == '"') {
+                return leerTexto();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Valores anidados no soportados");
+            }
+            int inicio = posicion;
+            while (posicion < fila.length() && ",}] \t\r".indexOf(fila.charAt(posicion)) < 0) {
+                posicion++;
+            }
+            String literal = fila.substring(inicio, posicion);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Falta un valor en la columna " + (inicio + 1));
+            }
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (!literal.equals("true") && !literal.equals("false")) {
+                try {
+                    Double.parseDouble(literal);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valor JSON no válido: " + literal);
+                }
+            }
+            return literal;
+        }
+
+        /**
+         * Lee un texto entre comillas dobles, interpretando sus secuencias de escape.
+         *
+         * @return Texto leído
+         */
+        private String leerTexto() {
+            esperar('"');
+            StringBuilder texto = new StringBuilder();
+            while (posicion < fila.length()) {
+                char c = fila.charAt(posicion++);
+                if (c == '"') {
+                    return texto.toString();
+                }
+                if (c != '\\') {
+                    texto.append(c);
+                    continue;
+                }
+                if (posicion >= fila.length()) {
+                    break;
+                }
+                char escape = fila.charAt(posicion++);
+                switch (escape) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        texto.append(escape);
+                        break;
+                    case 'b':
+                        texto.append('\b');
+                        break;
+                    case 'f':
+                        texto.append('\f');
+                        break;
+                    case 'n':
+                        texto.append('\n');
+                        break;
+                    case 'r':
+                        texto.append('\r');
+                        break;
+                    case 't':
+                        texto.append('\t');
+                        break;
+                    case 'u':
+                        if (posicion + 4 > fila.length()) {
+                            throw new IllegalArgumentException("Secuencia \\u incompleta");
+                        }
+                        try {
+                            texto.append((char) Integer.parseInt(fila.substring(posicion, posicion + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Secuencia \\u no válida");
+                        }
+                        posicion += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Secuencia de escape no válida: \\" + escape);
+                }
+            }
+            throw new IllegalArgumentException("Texto sin cerrar");
+        }
+
+        /**
+         * Consume el carácter indicado, omitiendo los espacios previos.
+         *
+         * @param esperado Carácter esperado
+         * @throws IllegalArgumentException Si el siguiente carácter es otro
+         */
+        private void esperar(char esperado) {
+            if (!consumir(esperado)) {
+                throw new IllegalArgumentException("Se esperaba '" + esperado + "' en la columna " + (posicion + 1));
+            }
+        }
+
+        /**
+         * Consume el carácter indicado si es el siguiente, omitiendo los espacios previos.
+         *
+         * @param esperado Carácter a consumir
+         * @return {@code true} si se consumió
+         */
+        private boolean consumir(char esperado) {
+            if (siguiente() == esperado) {
+                posicion++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Omite los espacios y obtiene el siguiente carácter sin consumirlo.
+         *
+         * @return Siguiente carácter, o {@code -1} al final de la fila
+         */
+        private int siguiente() {
+            while (posicion < fila.length() && Character.isWhitespace(fila.charAt(posicion))) {
+                posicion++;
+            }
+            return posicion < fila.length() ? fila.charAt(posicion) : -1;
+        }
+    }
+
+    /**
+     * Lector de caracteres UTF-8 estricto con búfer propio y un carácter de anticipación.
+     * <p>
+     * Evita el costo del bloqueo que {@link java.io.BufferedReader} toma en cada lectura
+     * de un carácter.
+     * </p>
+     */
+    private static final class LectorCaracteres implements Closeable {
+
+        /** Lector de origen. */
+        private final Reader origen;
+
+        /** Caracteres leídos del origen. */
+        private final char[] buffer = new char[TAMANO_BUFFER];
+
+        /** Posición del siguiente carácter en el búfer. */
+        private int posicion;
+
+        /** Cantidad de caracteres válidos en el búfer. */
+        private int limite;
+
+        /**
+         * Constructor del lector.
+         *
+         * @param entrada Flujo del archivo
+         */
+        LectorCaracteres(EntradaContada entrada) {
+            this.origen = new InputStreamReader(entrada, StandardCharsets.UTF_8.newDecoder());
+        }
+
+        /**
+         * Lee el siguiente carácter.
+         *
+         * @return Carácter leído, o {@code -1} al final del archivo
+         * @throws IOException Si el archivo no puede leerse o no es UTF-8 válido
+         */
+        int leer() throws IOException {
+            int c = mirar();
+            if (c >= 0) {
+                posicion++;
+            }
+            return c;
+        }
+
+        /**
+         * Obtiene el siguiente carácter sin consumirlo.
+         *
+         * @return Carácter siguiente, o {@code -1} al final del archivo
+         * @throws IOException Si el archivo no puede leerse o no es UTF-8 válido
+         */
+        int mirar() throws IOException {
+            while (posicion == limite) {
+                limite = origen.read(buffer, 0, buffer.length);
+                posicion = 0;
+                if (limite < 0) {
+                    limite = 0;
+                    return -1;
+                }
+            }
+            return buffer[posicion];
+        }
+
+        @Override
+        public void close() throws IOException {
+            origen.close();
+        }
+    }
+}
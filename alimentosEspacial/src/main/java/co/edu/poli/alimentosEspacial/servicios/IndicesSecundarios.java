@@ -0,0 +1,234 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Índices secundarios sobre los atributos de los productos almacenados.
+ * <p>
+ * Mantiene cuatro índices ordenados que {@link ImplementacionOperacionCRUD} actualiza
+ * en cada modificación:
+ * <ul>
+ *   <li>Por ID: permite paginar el inventario en orden estable a partir de un cursor.</li>
+ *   <li>Por categoría y peso: permite obtener todos los productos de una categoría,
+ *       o sólo los que están en un rango de peso, sin recorrer el resto.</li>
+ *   <li>Por categoría y volumen: análogo al anterior para rangos de volumen.</li>
+ *   <li>Por nombre normalizado a minúsculas: permite búsquedas por prefijo.</li>
+ * </ul>
+ * Todas las consultas retornan vistas cuyo recorrido cuesta O(log n + k), siendo
+ * k la cantidad de resultados. Las vistas reflejan el estado vivo del índice, por lo
+ * que deben recorrerse bajo el mismo bloqueo que protege las modificaciones.
+ * </p>
+ * <p>
+ * Los productos no deben modificarse directamente mientras están almacenados: un
+ * cambio de peso, volumen o nombre hecho con los setters no se refleja en los índices.
+ * Para cambiar un producto debe usarse {@link OperacionCRUD#update(String, Producto)}.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD
+ * @see CategoriaProducto
+ */
+class IndicesSecundarios {
+
+    /** Separador entre el nombre normalizado y el ID en las claves del índice por nombre. */
+    private static final char SEPARADOR = '\u0000';
+
+    /** Índice ordenado por ID. */
+    private final NavigableMap<String, Producto> porId = new TreeMap<>();
+
+    /** Índice ordenado por categoría, peso e ID. */
+    private final NavigableMap<ClaveOrden, Producto> porPeso = new TreeMap<>();
+
+    /** Índice ordenado por categoría, volumen e ID. */
+    private final NavigableMap<ClaveOrden, Producto> porVolumen = new TreeMap<>();
+
+    /** Índice ordenado por nombre normalizado e ID. */
+    private final NavigableMap<String, Producto> porNombre = new TreeMap<>();
+
+    /**
+     * Incorpora un producto a todos los índices.
+     *
+     * @param producto Producto a indexar
+     */
+    void agregar(Producto producto) {
+        int categoria = CategoriaProducto.de(producto).ordinal();
+        porId.put(producto.getId(), producto);
+        porPeso.put(new ClaveOrden(categoria, producto.getPeso(), producto.getId()), producto);
+        porVolumen.put(new ClaveOrden(categoria, producto.getVolumen(), producto.getId()), producto);
+        porNombre.put(claveNombre(producto), producto);
+    }
+
+    /**
+     * Retira un producto de todos los índices.
+     *
+     * @param producto Producto a retirar, con los mismos atributos con los que se indexó
+     */
+    void quitar(Producto producto) {
+        int categoria = CategoriaProducto.de(producto).ordinal();
+        porId.remove(producto.getId());
+        porPeso.remove(new ClaveOrden(categoria, producto.getPeso(), producto.getId()));
+        porVolumen.remove(new ClaveOrden(categoria, producto.getVolumen(), producto.getId()));
+        porNombre.remove(claveNombre(producto));
+    }
+
+    /**
+     * Vacía todos los índices.
+     */
+    void limpiar() {
+        porId.clear();
+        porPeso.clear();
+        porVolumen.clear();
+        porNombre.clear();
+    }
+
+    /**
+     * Obtiene los productos cuyo ID es mayor que el indicado, ordenados por ID.
+     *
+     * @param despuesDeId ID a partir del cual se consulta, exclusivo, o {@code null}
+     *                    para obtener todos los productos
+     * @return Vista de los productos posteriores al ID
+     */
+    Collection<Producto> posterioresA(String despuesDeId) {
+        return despuesDeId == null ? porId.values() : porId.tailMap(despuesDeId, false).values();
+    }
+
+    /**
+     * Obtiene los productos de una categoría, ordenados por peso.
+     *
+     * @param categoria Categoría a consultar
+     * @return Vista de los productos de la categoría
+     */
+    Collection<Producto> porCategoria(CategoriaProducto categoria) {
+        return porPeso.subMap(ClaveOrden.inicio(categoria.ordinal()), true,
+                              ClaveOrden.inicio(categoria.ordinal() + 1), false).values();
+    }
+
+    /**
+     * Obtiene los productos de una categoría cuyo peso está en el rango indicado.
+     *
+     * @param categoria Categoría a consultar
+     * @param minimo Peso mínimo, inclusive
+     * @param maximo Peso máximo, inclusive
+     * @return Vista de los productos en el rango, ordenados por peso
+     */
+    Collection<Producto> porRangoPeso(CategoriaProducto categoria, double minimo, double maximo) {
+        return rango(porPeso, categoria, minimo, maximo);
+    }
+
+    /**
+     * Obtiene los productos de una categoría cuyo volumen está en el rango indicado.
+     *
+     * @param categoria Categoría a consultar
+     * @param minimo Volumen mínimo, inclusive
+     * @param maximo Volumen máximo, inclusive
+     * @return Vista de los productos en el rango, ordenados por volumen
+     */
+    Collection<Producto> porRangoVolumen(CategoriaProducto categoria, double minimo, double maximo) {
+        return rango(porVolumen, categoria, minimo, maximo);
+    }
+
+    /**
+     * Obtiene los productos cuyo nombre comienza con el prefijo indicado,
+     * sin distinguir mayúsculas de minúsculas.
+     *
+     * @param prefijo Prefijo a buscar
+     * @return Vista de los productos cuyo nombre comienza con el prefijo, ordenados por nombre
+     */
+    Collection<Producto> porPrefijoNombre(String prefijo) {
+        String desde = normalizar(prefijo);
+        return porNombre.subMap(desde, true, desde + Character.MAX_VALUE, false).values();
+    }
+
+    /**
+     * Obtiene la vista de un rango de valores dentro de una categoría.
+     *
+     * @param indice Índice ordenado a consultar
+     * @param categoria Categoría a consultar
+     * @param minimo Valor mínimo, inclusive
+     * @param maximo Valor máximo, inclusive
+     * @return Vista de los productos en el rango
+     */
+    private static Collection<Producto> rango(NavigableMap<ClaveOrden, Producto> indice,
+                                              CategoriaProducto categoria, double minimo, double maximo) {
+        if (!(minimo <= maximo)) {
+            return Collections.emptyList();
+        }
+        int ordinal = categoria.ordinal();
+        return indice.subMap(new ClaveOrden(ordinal, minimo, ""), true,
+                             new ClaveOrden(ordinal, Math.nextUp(maximo), ""), false).values();
+    }
+
+    /**
+     * Construye la clave del índice por nombre de un producto.
+     *
+     * @param producto Producto indexado
+     * @return Nombre normalizado seguido del separador y el ID
+     */
+    private static String claveNombre(Producto producto) {
+        return normalizar(producto.getNombre()) + SEPARADOR + producto.getId();
+    }
+
+    /**
+     * Normaliza un nombre para el índice: minúsculas y sin nulos.
+     *
+     * @param nombre Nombre a normalizar
+     * @return Nombre normalizado
+     */
+    private static String normalizar(String nombre) {
+        return nombre == null ? "" : nombre.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave compuesta de los índices ordenados: categoría, valor numérico e ID.
+     */
+    private static final class ClaveOrden implements Comparable<ClaveOrden> {
+
+        /** Ordinal de la categoría del producto. */
+        private final int categoria;
+
+        /** Valor numérico indexado. */
+        private final double valor;
+
+        /** ID del producto, que desempata productos con el mismo valor. */
+        private final String id;
+
+        /**
+         * Constructor de la clave.
+         *
+         * @param categoria Ordinal de la categoría
+         * @param valor Valor numérico indexado
+         * @param id ID del producto
+         */
+        ClaveOrden(int categoria, double valor, String id) {
+            this.categoria = categoria;
+            this.valor = valor;
+            this.id = id;
+        }
+
+        /**
+         * Crea la menor clave posible de una categoría.
+         *
+         * @param categoria Ordinal de la categoría
+         * @return Clave que precede a todas las de la categoría
+         */
+        static ClaveOrden inicio(int categoria) {
+            return new ClaveOrden(categoria, Double.NEGATIVE_INFINITY, "");
+        }
+
+        @Override
+        public int compareTo(ClaveOrden otra) {
+            int c = Integer.compare(categoria, otra.categoria);
+            if (c == 0) {
+                c = Double.compare(valor, otra.valor);
+            }
+            return c != 0 ? c : id.compareTo(otra.id);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Vista inmutable y sin huecos del conjunto de productos en un momento dado.
+ * <p>
+ * Las implementaciones de {@link OperacionCRUD} publican una instantánea por cada
+ * versión del almacenamiento. Los lectores pueden recorrerla sin tomar bloqueos y sin
+ * riesgo de observar modificaciones concurrentes, ya que el arreglo interno nunca se
+ * modifica ni se expone.
+ * </p>
+ * <p>
+ * Una instantánea {@linkplain #isPerezosa() perezosa} guarda sólo los IDs y decodifica
+ * cada producto al leerlo, sin conservarlo, de modo que ocupa memoria por sus IDs y no
+ * por sus productos. Dos lecturas de la misma posición pueden retornar objetos
+ * distintos con los mismos datos, y recorrerla completa decodifica todo su contenido.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#instantanea()
+ * @see Producto
+ */
+public final class InstantaneaProductos implements Iterable<Producto> {
+
+    /** Instantánea vacía compartida. */
+    private static final InstantaneaProductos VACIA = new InstantaneaProductos(0, new Producto[0]);
+
+    /** Versión del almacenamiento a la que corresponde la instantánea. */
+    private final long version;
+
+    /**
+     * Productos de la instantánea, sin posiciones nulas salvo las que una instantánea
+     * perezosa decodifica al leerlas. Nunca se modifica.
+     */
+    private final Producto[] elementos;
+
+    /** IDs en orden ascendente de una instantánea perezosa, o {@code null}. */
+    private final String[] ids;
+
+    /** Decodificador de las posiciones sin producto, o {@code null} si no es perezosa. */
+    private final IntFunction<Producto> decodificador;
+
+    /** Posición de cada ID, construida en la primera llamada a {@link #indiceDe(String)}. */
+    private volatile Map<String, Integer> posiciones;
+
+    /**
+     * Constructor interno. El arreglo recibido pasa a ser propiedad de la instantánea.
+     *
+     * @param version Versión del almacenamiento
+     * @param elementos Productos sin posiciones nulas
+     */
+    InstantaneaProductos(long version, Producto[] elementos) {
+        this(version, elementos, null, null);
+    }
+
+    /**
+     * Constructor común de las instantáneas completas y perezosas.
+     *
+     * @param version Versión del almacenamiento
+     * @param elementos Productos, con posiciones nulas sólo si hay decodificador
+     * @param ids IDs en orden ascendente, o {@code null}
+     * @param decodificador Decodificador de las posiciones nulas, o {@code null}
+     */
+    private InstantaneaProductos(long version, Producto[] elementos, String[] ids,
+                                 IntFunction<Producto> decodificador) {
+        this.version = version;
+        this.elementos = elementos;
+        this.ids = ids;
+        this.decodificador = decodificador;
+    }
+
+    /**
+     * Crea una instantánea perezosa. Los arreglos recibidos pasan a ser propiedad de la
+     * instantánea.
+     * <p>
+     * El decodificador debe poder invocarse desde cualquier hilo y seguir leyendo los
+     * datos de esta versión aunque el almacenamiento cambie después.
+     * </p>
+     *
+     * @param version Versión del almacenamiento
+     * @param ids IDs de los productos, en orden ascendente
+     * @param conocidos Productos ya disponibles en la posición de su ID, y {@code null}
+     *                  en las que deben decodificarse
+     * @param decodificador Función que decodifica el producto de una posición
+     * @return Nueva instantánea perezosa
+     */
+    static InstantaneaProductos perezosa(long version, String[] ids, Producto[] conocidos,
+                                         IntFunction<Producto> decodificador) {
+        return new InstantaneaProductos(version, conocidos, ids, decodificador);
+    }
+
+    /**
+     * Crea una instantánea a partir de un arreglo que puede contener posiciones nulas.
+     * <p>
+     * El arreglo de origen se copia, por lo que puede seguir modificándose.
+     * </p>
+     *
+     * @param version Versión del almacenamiento
+     * @param productos Arreglo de origen, posiblemente con huecos
+     * @param limite Cantidad de posiciones del arreglo a considerar
+     * @param cantidad Cantidad de productos no nulos dentro del límite
+     * @return Nueva instantánea compacta
+     */
+    static InstantaneaProductos compactar(long version, Producto[] productos, int limite, int cantidad) {
+        Producto[] compacto = new Producto[cantidad];
+        int j = 0;
+        for (int i = 0; i < limite && j < cantidad; i++) {
+            if (productos[i] != null) {
+                compacto[j++] = productos[i];
+            }
+        }
+        return new InstantaneaProductos(version, j == cantidad ? compacto : Arrays.copyOf(compacto, j));
+    }
+
+    /**
+     * Crea una instantánea a partir de un arreglo que puede contener posiciones nulas.
+     *
+     * @param productos Arreglo de origen, posiblemente con huecos. Puede ser {@code null}.
+     * @return Nueva instantánea compacta
+     */
+    public static InstantaneaProductos de(Producto[] productos) {
+        if (productos == null || productos.length == 0) {
+            return VACIA;
+        }
+        int cantidad = 0;
+        for (Producto p : productos) {
+            if (p != null) {
+                cantidad++;
+            }
+        }
+        return compactar(0, productos, productos.length, cantidad);
+    }
+
+    /**
+     * Obtiene la versión del almacenamiento a la que corresponde la instantánea.
+     *
+     * @return Número de versión
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Indica si la instantánea decodifica sus productos al leerlos.
+     *
+     * @return {@code true} si es perezosa
+     */
+    public boolean isPerezosa() {
+        return decodificador != null;
+    }
+
+    /**
+     * Obtiene la cantidad de productos de la instantánea.
+     *
+     * @return Número de productos
+     */
+    public int size() {
+        return elementos.length;
+    }
+
+    /**
+     * Indica si la instantánea no contiene productos.
+     *
+     * @return {@code true} si está vacía
+     */
+    public boolean isEmpty() {
+        return elementos.length == 0;
+    }
+
+    /**
+     * Obtiene el producto en la posición indicada.
+     *
+     * @param indice Posición dentro de la instantánea
+     * @return Producto en esa posición
+     * @throws IndexOutOfBoundsException Si el índice está fuera de rango
+     */
+    public Producto get(int indice) {
+        Producto producto = elementos[indice];
+        return producto != null || decodificador == null ? producto : decodificador.apply(indice);
+    }
+
+    /**
+     * Obtiene la posición de un producto en la instantánea a partir de su ID.
+     * <p>
+     * La primera llamada construye un índice por ID en tiempo lineal y las siguientes
+     * tardan un tiempo constante, de modo que ubicar muchos productos en la misma
+     * instantánea no la recorre una vez por producto. Una instantánea perezosa no
+     * necesita el índice: busca en sus IDs ordenados en tiempo logarítmico.
+     * </p>
+     *
+     * @param id ID del producto
+     * @return Posición del producto, o {@code -1} si la instantánea no lo contiene
+     */
+    public int indiceDe(String id) {
+        if (ids != null) {
+            int posicion = id == null ? -1 : Arrays.binarySearch(ids, id);
+            return Math.max(posicion, -1);
+        }
+        Map<String, Integer> mapa = posiciones;
+        if (mapa == null) {
+            mapa = new HashMap<>(Math.max(16, (int) (elementos.length / 0.75f) + 1));
+            for (int i = 0; i < elementos.length; i++) {
+                mapa.put(elementos[i].getId(), i);
+            }
+            posiciones = mapa;
+        }
+        Integer posicion = mapa.get(id);
+        return posicion == null ? -1 : posicion;
+    }
+
+    /**
+     * Obtiene una vista de lista inmodificable de la instantánea, sin copiarla.
+     *
+     * @return Lista inmodificable de productos
+     */
+    public List<Producto> comoLista() {
+        if (decodificador != null) {
+            return new Vista();
+        }
+        return Collections.unmodifiableList(Arrays.asList(elementos));
+    }
+
+    /**
+     * Obtiene un flujo secuencial sobre los productos de la instantánea.
+     *
+     * @return Flujo de productos
+     */
+    public Stream<Producto> stream() {
+        if (decodificador != null) {
+            return IntStream.range(0, elementos.length).mapToObj(this::get);
+        }
+        return Arrays.stream(elementos);
+    }
+
+    /**
+     * Copia los productos de la instantánea a un arreglo nuevo.
+     *
+     * @return Arreglo sin posiciones nulas que el llamador puede modificar
+     */
+    public Producto[] toArray() {
+        Producto[] copia = elementos.clone();
+        if (decodificador != null) {
+            for (int i = 0; i < copia.length; i++) {
+                if (copia[i] == null) {
+                    copia[i] = decodificador.apply(i);
+                }
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * Obtiene un iterador de sólo lectura sobre los productos.
+     *
+     * @return Iterador de productos
+     */
+    @Override
+    public Iterator<Producto> iterator() {
+        return new Iterator<Producto>() {
+            private int siguiente;
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < elementos.length;
+            }
+
+            @Override
+            public Producto next() {
+                if (siguiente >= elementos.length) {
+                    throw new NoSuchElementException();
+                }
+                return get(siguiente++);
+            }
+        };
+    }
+
+    /**
+     * Vista de lista inmodificable de una instantánea perezosa, que decodifica cada
+     * producto al leerlo.
+     */
+    private final class Vista extends AbstractList<Producto> implements RandomAccess {
+
+        @Override
+        public Producto get(int indice) {
+            return InstantaneaProductos.this.get(indice);
+        }
+
+        @Override
+        public int size() {
+            return elementos.length;
+        }
+    }
+}
@@ -23,8 +23,9 @@ public interface OperacionArchivo {
      * Serializa un arreglo de productos y los guarda en un archivo binario.
      * <p>
      * Esta operación toma un arreglo de productos y los guarda en un archivo especificado
-     * utilizando serialización de objetos Java. El archivo resultante contendrá una
-     * representación binaria de todos los productos que puede ser recuperada posteriormente.
+     * utilizando el formato seleccionado con {@link #setFormatoArchivo(FormatoArchivo)}.
+     * El archivo resultante contendrá una representación binaria de todos los productos
+     * que puede ser recuperada posteriormente.
      * </p>
      *
      * @param productos Arreglo de productos a serializar y guardar. Puede contener
@@ -50,7 +51,8 @@ public interface OperacionArchivo {
      * Esta operación carga un arreglo de productos previamente guardado desde un archivo
      * binario. Si el archivo no existe, la implementación debe manejar este caso de manera
      * apropiada, ya sea retornando un arreglo vacío o manejando la excepción según la
-     * estrategia definida.
+     * estrategia definida. El formato del archivo se reconoce por su contenido, sin importar
+     * el formato seleccionado para escribir.
      * </p>
      *
      * @param path Ruta del directorio donde se encuentra el archivo. Debe ser una ruta
@@ -68,4 +70,36 @@ public interface OperacionArchivo {
      * @see java.io.Serializable
      */
     Producto[] deserializar(String path, String name);
+    
+    /**
+     * Obtiene el formato con que {@link #serializar(Producto[], String, String)} escribe
+     * los archivos.
+     * <p>
+     * La implementación por defecto retorna {@link FormatoArchivo#SERIALIZACION_JAVA}.
+     * </p>
+     *
+     * @return Formato de escritura actual
+     * @see FormatoArchivo
+     */
+    default FormatoArchivo getFormatoArchivo() {
+        return FormatoArchivo.SERIALIZACION_JAVA;
+    }
+    
+    /**
+     * Selecciona el formato con que {@link #serializar(Producto[], String, String)} escribe
+     * los archivos.
+     * <p>
+     * La implementación por defecto sólo admite el formato que ya retorna
+     * {@link #getFormatoArchivo()}.
+     * </p>
+     *
+     * @param formato Formato de escritura. No debe ser {@code null}.
+     * @throws UnsupportedOperationException Si la implementación no admite el formato
+     * @see FormatoArchivo
+     */
+    default void setFormatoArchivo(FormatoArchivo formato) {
+        if (formato != getFormatoArchivo()) {
+            throw new UnsupportedOperationException("Formato no soportado: " + formato);
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,19 @@
 package co.edu.poli.alimentosEspacial.servicios;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import co.edu.poli.alimentosEspacial.modelo.Producto;
 
 /**
@@ -10,6 +24,13 @@ import co.edu.poli.alimentosEspacial.modelo.Producto;
  * de datos de productos espaciales, proporcionando una API consistente para todas las
  * implementaciones de almacenamiento y gestión de productos.
  * </p>
+ * <p>
+ * Las vistas se enteran de los cambios hechos directamente sobre el almacenamiento,
+ * por otro componente o desde otro hilo, sólo mediante los eventos de
+ * {@link #agregarEscucha(EscuchaCambios)}. Una vista enlazada a una implementación que
+ * no emite eventos, como la implementación por defecto, nunca se entera de esos
+ * cambios: sólo los refleja cuando vuelve a leer {@link #instantanea()}.
+ * </p>
  * 
  * @author Politécnico Grancolombiano
  * @version 1.0
@@ -55,6 +76,41 @@ public interface OperacionCRUD {
      */
     Producto[] read();
     
+    /**
+     * Obtiene una instantánea inmutable y sin huecos de los productos del sistema.
+     * <p>
+     * A diferencia de {@link #read()}, la instantánea no expone el almacenamiento interno
+     * y permanece consistente aunque el sistema se modifique después. Las implementaciones
+     * deben publicar una instantánea por versión y reutilizarla mientras no haya cambios,
+     * de modo que las lecturas repetidas no copien el almacenamiento completo en cada llamada.
+     * La implementación por defecto construye una instantánea nueva a partir de {@link #read()}.
+     * </p>
+     *
+     * @return Instantánea de los productos actuales. Nunca es {@code null}.
+     * @see InstantaneaProductos
+     */
+    default InstantaneaProductos instantanea() {
+        return InstantaneaProductos.de(read());
+    }
+    
+    /**
+     * Indica si una vista puede pasar de una instantánea a la siguiente revisando sólo
+     * los productos nombrados por los eventos de cambio.
+     * <p>
+     * Requiere dos garantías: los productos que no cambian conservan su orden relativo
+     * entre instantáneas sucesivas, y el evento de cada cambio incluido en una
+     * instantánea ya se entregó cuando {@link #instantanea()} la retorna. Sin ellas, una
+     * vista debe reemplazar todo su contenido con cada instantánea nueva. La
+     * implementación por defecto retorna {@code false}.
+     * </p>
+     *
+     * @return {@code true} si los cambios entre instantáneas pueden ubicarse por producto
+     * @see #agregarEscucha(EscuchaCambios)
+     */
+    default boolean admiteCambiosIncrementales() {
+        return false;
+    }
+    
     /**
      * Busca y recupera un producto específico por su identificador único.
      * <p>
@@ -106,4 +162,241 @@ public interface OperacionCRUD {
      * @see Producto
      */
     Producto delete(String id);
+    
+    /**
+     * Crea y agrega un lote de productos al sistema.
+     * <p>
+     * Las implementaciones deben dimensionar el almacenamiento una sola vez para todo
+     * el lote en lugar de hacerlo producto por producto. Los productos nulos o con ID
+     * duplicado se registran como fallidos sin interrumpir el resto del lote.
+     * La implementación por defecto invoca {@link #create(Producto)} por cada elemento.
+     * </p>
+     *
+     * @param objetos Productos a crear. No debe ser {@code null}.
+     * @return Resumen con las posiciones del lote creadas con éxito
+     * @see ResultadoLote
+     */
+    default ResultadoLote createAll(Collection<? extends Producto> objetos) {
+        BitSet exitosos = new BitSet(objetos.size());
+        int i = 0;
+        for (Producto objeto : objetos) {
+            try {
+                create(objeto);
+                exitosos.set(i);
+            } catch (IllegalArgumentException e) {
+                // El elemento queda registrado como fallido
+            }
+            i++;
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+    
+    /**
+     * Actualiza un lote de productos existentes, usando el ID de cada producto.
+     * <p>
+     * Los productos nulos o cuyo ID no existe en el sistema se registran como fallidos
+     * sin interrumpir el resto del lote. La implementación por defecto invoca
+     * {@link #update(String, Producto)} por cada elemento.
+     * </p>
+     *
+     * @param objetos Productos con los datos actualizados. No debe ser {@code null}.
+     * @return Resumen con las posiciones del lote actualizadas con éxito
+     * @see ResultadoLote
+     */
+    default ResultadoLote updateAll(Collection<? extends Producto> objetos) {
+        BitSet exitosos = new BitSet(objetos.size());
+        int i = 0;
+        for (Producto objeto : objetos) {
+            try {
+                if (objeto != null && readId(objeto.getId()) != null) {
+                    update(objeto.getId(), objeto);
+                    exitosos.set(i);
+                }
+            } catch (IllegalArgumentException e) {
+                // El elemento queda registrado como fallido
+            }
+            i++;
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+    
+    /**
+     * Elimina un lote de productos por ID.
+     * <p>
+     * Los IDs que no existen en el sistema se registran como fallidos. La implementación
+     * por defecto invoca {@link #delete(String)} por cada elemento.
+     * </p>
+     *
+     * @param ids Identificadores de los productos a eliminar. No debe ser {@code null}.
+     * @return Resumen con las posiciones del lote eliminadas con éxito
+     * @see ResultadoLote
+     */
+    default ResultadoLote deleteAll(Collection<String> ids) {
+        BitSet exitosos = new BitSet(ids.size());
+        int i = 0;
+        for (String id : ids) {
+            if (id != null && delete(id) != null) {
+                exitosos.set(i);
+            }
+            i++;
+        }
+        return new ResultadoLote(i, exitosos);
+    }
+    
+    /**
+     * Ejecuta una consulta y retorna sus resultados como un flujo.
+     * <p>
+     * El flujo puede consumirse aunque otros hilos modifiquen el sistema después. No se
+     * garantiza que sea perezoso: las implementaciones cuyos índices no admiten lecturas
+     * concurrentes con las escrituras pueden reunir todos los resultados del índice
+     * antes de retornar, de modo que un {@code limit(50)} posterior no acota el trabajo.
+     * Para acotarlo se usa {@link #consultar(Consulta, int)}. Las implementaciones con
+     * índices secundarios deben elegir el índice más selectivo antes de recurrir a un
+     * recorrido completo. La implementación por defecto filtra de forma perezosa
+     * {@link #instantanea()}.
+     * </p>
+     *
+     * @param consulta Consulta a ejecutar. No debe ser {@code null}.
+     * @return Flujo con los productos que cumplen la consulta
+     * @see Consulta
+     */
+    default Stream<Producto> consultar(Consulta consulta) {
+        return instantanea().stream().filter(consulta.comoPredicado());
+    }
+    
+    /**
+     * Ejecuta una consulta y retorna como máximo la cantidad indicada de resultados.
+     * <p>
+     * Es la forma acotada de {@link #consultar(Consulta)}: las implementaciones deben
+     * dejar de buscar al alcanzar el límite, por lo que el costo sigue al límite y no a
+     * la cantidad total de coincidencias.
+     * </p>
+     *
+     * @param consulta Consulta a ejecutar. No debe ser {@code null}.
+     * @param limite Cantidad máxima de resultados
+     * @return Lista con los primeros productos que cumplen la consulta
+     * @see Consulta
+     */
+    default List<Producto> consultar(Consulta consulta, int limite) {
+        return consultar(consulta).limit(limite).collect(Collectors.toList());
+    }
+    
+    /**
+     * Obtiene una página de productos ordenados por ID, a partir de un cursor.
+     * <p>
+     * Retorna como máximo {@code tamano} productos cuyo ID es estrictamente mayor que
+     * {@code despuesDeId}, en orden ascendente de ID. Para recorrer el inventario
+     * completo se solicita la primera página con cursor {@code null} y luego cada página
+     * con el cursor retornado por la anterior; la memoria usada es proporcional al
+     * tamaño de página y no al del inventario. Las implementaciones con un índice
+     * ordenado por ID deben resolver cada página en tiempo logarítmico más el tamaño
+     * de la página. La implementación por defecto recorre {@link #instantanea()}
+     * conservando sólo los {@code tamano + 1} menores IDs.
+     * </p>
+     *
+     * @param despuesDeId ID del último producto de la página anterior, o {@code null}
+     *                    para obtener la primera página
+     * @param tamano Cantidad máxima de productos de la página. Debe ser positiva.
+     * @return Página con los productos y el cursor de la página siguiente
+     * @throws IllegalArgumentException Si {@code tamano} no es positivo
+     * @see Pagina
+     */
+    default Pagina leerPagina(String despuesDeId, int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        Comparator<Producto> porId = Comparator.comparing(Producto::getId);
+        PriorityQueue<Producto> menores = new PriorityQueue<>(porId.reversed());
+        for (Producto p : instantanea()) {
+            if (despuesDeId != null && p.getId().compareTo(despuesDeId) <= 0) {
+                continue;
+            }
+            if (menores.size() <= tamano) {
+                menores.add(p);
+            } else if (porId.compare(p, menores.peek()) < 0) {
+                menores.poll();
+                menores.add(p);
+            }
+        }
+        boolean hayMas = menores.size() > tamano;
+        if (hayMas) {
+            menores.poll();
+        }
+        List<Producto> elementos = new ArrayList<>(menores);
+        elementos.sort(porId);
+        return new Pagina(elementos, hayMas);
+    }
+    
+    /**
+     * Recorre todos los productos ordenados por ID, obteniéndolos página por página.
+     * <p>
+     * Cada página se solicita con {@link #leerPagina(String, int)} sólo cuando se consume
+     * la anterior, de modo que en memoria nunca hay más de una página. Los productos
+     * creados o eliminados durante el recorrido se reflejan o no según su posición
+     * respecto del cursor, pero ningún producto se visita dos veces.
+     * </p>
+     *
+     * @param tamanoPagina Cantidad de productos solicitados por página. Debe ser positiva.
+     * @return Flujo perezoso de productos en orden ascendente de ID
+     * @throws IllegalArgumentException Si {@code tamanoPagina} no es positivo
+     */
+    default Stream<Producto> recorrer(int tamanoPagina) {
+        if (tamanoPagina <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+        Iterator<Producto> paginado = new Iterator<Producto>() {
+            private Pagina pagina;
+            private Iterator<Producto> actual = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!actual.hasNext() && (pagina == null || pagina.hayMas())) {
+                    pagina = leerPagina(pagina == null ? null : pagina.getCursorSiguiente(), tamanoPagina);
+                    actual = pagina.getElementos().iterator();
+                }
+                return actual.hasNext();
+            }
+
+            @Override
+            public Producto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return actual.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(paginado,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Registra una escucha que recibirá un {@link EventoCambio} por cada producto
+     * creado, actualizado o eliminado, incluidos los de las operaciones por lotes.
+     * <p>
+     * Permite que vistas, cachés e índices apliquen cada cambio en lugar de volver a
+     * leer todo el almacenamiento. Los eventos se entregan después de aplicar el cambio,
+     * en el hilo que lo hizo; un reemplazo completo del contenido se notifica con un
+     * único evento {@link TipoCambio#RECARGADO}. La implementación por defecto no emite
+     * eventos: sólo valida la escucha y no la registra, de modo que quien escucha debe
+     * poder funcionar sin ellos.
+     * </p>
+     *
+     * @param escucha Escucha a registrar. No debe ser {@code null}.
+     * @throws IllegalArgumentException Si la escucha es nula
+     * @see EscuchaCambios
+     */
+    default void agregarEscucha(EscuchaCambios escucha) {
+        if (escucha == null) {
+            throw new IllegalArgumentException("La escucha no puede ser nula");
+        }
+    }
+    
+    /**
+     * Quita una escucha registrada con {@link #agregarEscucha(EscuchaCambios)}; no hace
+     * nada si no estaba registrada. La implementación por defecto no hace nada.
+     *
+     * @param escucha Escucha a quitar
+     */
+    default void quitarEscucha(EscuchaCambios escucha) {
+    }
 }
\ No newline at end of file
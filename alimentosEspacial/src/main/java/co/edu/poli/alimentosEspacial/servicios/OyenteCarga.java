@@ -0,0 +1,31 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.List;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Oyente que recibe los productos de una carga progresiva a medida que se leen.
+ * <p>
+ * Se invoca en el hilo que realiza la carga. Al recuperar una instantánea el bloqueo del
+ * almacenamiento está tomado, por lo que no debe consultar el almacenamiento; para
+ * actualizar una interfaz gráfica debe delegar en el hilo de ésta.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD#abrirDiario(String, String, OyenteCarga, int)
+ * @see ImportadorProductos
+ */
+@FunctionalInterface
+public interface OyenteCarga {
+
+    /**
+     * Recibe un lote de productos leídos de la instantánea o del archivo importado.
+     *
+     * @param lote Productos del lote, en orden de lectura; la lista pertenece al oyente
+     * @param bytesLeidos Bytes del archivo leídos hasta el momento
+     * @param bytesTotales Tamaño del archivo en bytes
+     */
+    void alCargarLote(List<Producto> lote, long bytesLeidos, long bytesTotales);
+}
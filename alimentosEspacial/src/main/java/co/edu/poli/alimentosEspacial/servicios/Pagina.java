@@ -0,0 +1,86 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.Collections;
+import java.util.List;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Página de productos obtenida con paginación por cursor.
+ * <p>
+ * Los productos de una página están ordenados por ID. El cursor de la página siguiente
+ * es el ID del último producto de esta página, de modo que recorrer todas las páginas
+ * visita cada producto una sola vez aunque el inventario cambie entre llamadas: los
+ * productos creados o eliminados detrás del cursor no desplazan a los siguientes.
+ * </p>
+ * <pre>
+ * Pagina pagina = crud.leerPagina(null, 100);
+ * while (true) {
+ *     procesar(pagina.getElementos());
+ *     if (!pagina.hayMas()) break;
+ *     pagina = crud.leerPagina(pagina.getCursorSiguiente(), 100);
+ * }
+ * </pre>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#leerPagina(String, int)
+ */
+public final class Pagina {
+
+    /** Productos de la página, ordenados por ID. */
+    private final List<Producto> elementos;
+
+    /** ID a partir del cual continúa la página siguiente, o {@code null} si es la última. */
+    private final String cursorSiguiente;
+
+    /**
+     * Constructor de la página.
+     *
+     * @param elementos Productos de la página, ordenados por ID
+     * @param hayMas Indica si existen productos después del último de la página
+     */
+    public Pagina(List<Producto> elementos, boolean hayMas) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.cursorSiguiente = hayMas && !elementos.isEmpty()
+                ? elementos.get(elementos.size() - 1).getId() : null;
+    }
+
+    /**
+     * Obtiene los productos de la página.
+     *
+     * @return Lista no modificable de productos, ordenados por ID
+     */
+    public List<Producto> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Obtiene el cursor para solicitar la página siguiente.
+     *
+     * @return ID del último producto de la página, o {@code null} si es la última
+     */
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    /**
+     * Indica si existen más productos después de esta página.
+     *
+     * @return {@code true} si hay una página siguiente
+     */
+    public boolean hayMas() {
+        return cursorSiguiente != null;
+    }
+
+    /**
+     * Representación en texto de la página.
+     *
+     * @return Cantidad de productos y cursor siguiente
+     */
+    @Override
+    public String toString() {
+        return "Página de " + elementos.size() + " productos"
+                + (hayMas() ? ", continúa después de " + cursorSiguiente : ", última");
+    }
+}
@@ -0,0 +1,197 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Plan de ejecución de una {@link Consulta} sobre los índices secundarios.
+ * <p>
+ * Evalúa cada índice aplicable a la consulta (categoría, rango de peso, rango de
+ * volumen y prefijo de nombre), estima cuántos candidatos produciría y elige el más
+ * selectivo. Si ningún índice es aplicable, o todos producirían tantos candidatos
+ * como un recorrido completo, el plan recorre la instantánea del inventario.
+ * </p>
+ * <p>
+ * Las estimaciones de los índices ordenados se obtienen contando candidatos sólo hasta
+ * superar la mejor estimación encontrada, de modo que planificar nunca cuesta más que
+ * ejecutar el mejor plan.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see Consulta
+ * @see IndicesSecundarios
+ */
+final class PlanConsulta {
+
+    /** Fuentes de candidatos del índice elegido, o {@code null} si se recorre todo. */
+    private final List<Collection<Producto>> fuentes;
+
+    /** Cantidad estimada de candidatos. */
+    private final long estimacion;
+
+    /** Descripción del índice elegido. */
+    private final String descripcion;
+
+    /**
+     * Constructor del plan.
+     *
+     * @param fuentes Fuentes de candidatos, o {@code null} para un recorrido completo
+     * @param estimacion Cantidad estimada de candidatos
+     * @param descripcion Descripción del índice elegido
+     */
+    private PlanConsulta(List<Collection<Producto>> fuentes, long estimacion, String descripcion) {
+        this.fuentes = fuentes;
+        this.estimacion = estimacion;
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Elige el plan más selectivo para una consulta.
+     *
+     * @param consulta Consulta a planificar
+     * @param indices Índices secundarios disponibles
+     * @param cantidadPorCategoria Cantidad exacta de productos por categoría
+     * @param total Cantidad total de productos
+     * @return Plan elegido
+     */
+    static PlanConsulta elegir(Consulta consulta, IndicesSecundarios indices,
+                               int[] cantidadPorCategoria, int total) {
+        PlanConsulta mejor = new PlanConsulta(null, total, "recorrido completo");
+
+        if (consulta.restringeCategoria()) {
+            long cantidad = 0;
+            List<Collection<Producto>> fuentes = new ArrayList<>();
+            for (CategoriaProducto categoria : consulta.getCategorias()) {
+                cantidad += cantidadPorCategoria[categoria.ordinal()];
+                fuentes.add(indices.porCategoria(categoria));
+            }
+            mejor = menor(mejor, new PlanConsulta(fuentes, cantidad, "índice de categoría"));
+        }
+
+        if (consulta.isConPeso()) {
+            List<Collection<Producto>> fuentes = new ArrayList<>();
+            for (CategoriaProducto categoria : consulta.getCategorias()) {
+                fuentes.add(indices.porRangoPeso(categoria, consulta.getPesoMinimo(), consulta.getPesoMaximo()));
+            }
+            mejor = menor(mejor, new PlanConsulta(fuentes, contarHasta(fuentes, mejor.estimacion), "índice de peso"));
+        }
+
+        if (consulta.isConVolumen()) {
+            List<Collection<Producto>> fuentes = new ArrayList<>();
+            for (CategoriaProducto categoria : consulta.getCategorias()) {
+                fuentes.add(indices.porRangoVolumen(categoria, consulta.getVolumenMinimo(), consulta.getVolumenMaximo()));
+            }
+            mejor = menor(mejor, new PlanConsulta(fuentes, contarHasta(fuentes, mejor.estimacion), "índice de volumen"));
+        }
+
+        if (consulta.getPrefijoNombre() != null) {
+            List<Collection<Producto>> fuentes = new ArrayList<>();
+            fuentes.add(indices.porPrefijoNombre(consulta.getPrefijoNombre()));
+            mejor = menor(mejor, new PlanConsulta(fuentes, contarHasta(fuentes, mejor.estimacion), "índice de nombre"));
+        }
+        return mejor;
+    }
+
+    /**
+     * Indica si el plan recorre el inventario completo en lugar de un índice.
+     *
+     * @return {@code true} si el plan es un recorrido completo
+     */
+    boolean esRecorridoCompleto() {
+        return fuentes == null;
+    }
+
+    /**
+     * Obtiene un flujo perezoso con los candidatos del índice elegido.
+     * <p>
+     * El flujo recorre las vistas vivas del índice de una en una, sin almacenar
+     * candidatos intermedios, por lo que no debe consumirse mientras el almacenamiento
+     * se modifica. Sólo es válido si el plan no es un recorrido completo.
+     * </p>
+     *
+     * @return Flujo de candidatos
+     */
+    Stream<Producto> candidatos() {
+        Iterator<Producto> concatenado = new Iterator<Producto>() {
+            private int fuente;
+            private Iterator<Producto> actual = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!actual.hasNext() && fuente < fuentes.size()) {
+                    actual = fuentes.get(fuente++).iterator();
+                }
+                return actual.hasNext();
+            }
+
+            @Override
+            public Producto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return actual.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(concatenado, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Obtiene la cantidad estimada de candidatos del plan.
+     *
+     * @return Estimación de candidatos
+     */
+    long getEstimacion() {
+        return estimacion;
+    }
+
+    /**
+     * Representación en texto del plan.
+     *
+     * @return Índice elegido y candidatos estimados
+     */
+    @Override
+    public String toString() {
+        return descripcion + " (~" + estimacion + " candidatos)";
+    }
+
+    /**
+     * Retorna el plan con menor estimación, prefiriendo el primero en caso de empate.
+     *
+     * @param actual Plan actual
+     * @param candidato Plan alternativo
+     * @return Plan con menor estimación
+     */
+    private static PlanConsulta menor(PlanConsulta actual, PlanConsulta candidato) {
+        return candidato.estimacion < actual.estimacion ? candidato : actual;
+    }
+
+    /**
+     * Cuenta los elementos de varias fuentes, deteniéndose al alcanzar un tope.
+     *
+     * @param fuentes Fuentes a contar
+     * @param tope Cantidad a partir de la cual deja de contarse
+     * @return Cantidad de elementos, o {@code tope} si hay al menos esa cantidad
+     */
+    private static long contarHasta(List<Collection<Producto>> fuentes, long tope) {
+        long cantidad = 0;
+        for (Collection<Producto> fuente : fuentes) {
+            for (Producto p : fuente) {
+                if (++cantidad >= tope) {
+                    return tope;
+                }
+            }
+        }
+        return cantidad;
+    }
+}
@@ -0,0 +1,41 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+/**
+ * Proveedor de un motor de almacenamiento de productos, descubierto con {@link java.util.ServiceLoader}.
+ * <p>
+ * Cada proveedor se identifica por un nombre corto, que es el valor de
+ * {@link ConfiguracionAlmacenamiento#PROPIEDAD_TIPO} con que se elige al iniciar. Los
+ * proveedores incluidos se declaran con {@code provides} en {@code module-info.java};
+ * otros módulos pueden agregar los suyos de la misma forma. Las implementaciones deben
+ * ser públicas y tener un constructor público sin parámetros.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ConfiguracionAlmacenamiento#abrir()
+ * @see Almacenamiento
+ */
+public interface ProveedorAlmacenamiento {
+
+    /**
+     * Obtiene el nombre con que se elige el proveedor en la configuración.
+     *
+     * @return Nombre corto en minúsculas, por ejemplo {@code "sql"}
+     */
+    String getNombre();
+
+    /**
+     * Crea un almacenamiento según la configuración.
+     * <p>
+     * El almacenamiento se crea sin cargar su contenido; la carga ocurre con
+     * {@link Almacenamiento#cargar(OyenteCarga, int)}.
+     * </p>
+     *
+     * @param configuracion Configuración con la ruta, el nombre y las propiedades del motor
+     * @return Almacenamiento creado
+     * @throws IllegalArgumentException Si una propiedad de la configuración no es válida
+     * @throws IllegalStateException Si el motor no puede inicializarse
+     */
+    Almacenamiento crear(ConfiguracionAlmacenamiento configuracion);
+}
@@ -0,0 +1,121 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Proveedor del almacenamiento sobre arreglo con índices y diario de operaciones.
+ * <p>
+ * Usa {@link ImplementacionOperacionCRUD}: el contenido completo está en memoria, cada
+ * modificación se registra en el diario y {@link Almacenamiento#guardar()} escribe un
+ * punto de control. El diario se compacta periódicamente en segundo plano según las
+ * propiedades {@value #PROPIEDAD_PERIODO_COMPACTACION} (segundos) y
+ * {@value #PROPIEDAD_TAMANO_COMPACTACION} (bytes). El formato por defecto de la
+ * instantánea es {@link FormatoArchivo#REGISTROS}, que admite puntos de control
+ * incrementales.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD#abrirDiario(String, String, OyenteCarga, int)
+ */
+public final class ProveedorArreglo implements ProveedorAlmacenamiento {
+
+    /** Nombre del proveedor. */
+    public static final String NOMBRE = "arreglo";
+
+    /** Propiedad con el intervalo entre revisiones del tamaño del diario, en segundos. */
+    public static final String PROPIEDAD_PERIODO_COMPACTACION = ConfiguracionAlmacenamiento.PREFIJO + "compactacion.periodo";
+
+    /** Propiedad con el tamaño del diario a partir del cual se compacta, en bytes. */
+    public static final String PROPIEDAD_TAMANO_COMPACTACION = ConfiguracionAlmacenamiento.PREFIJO + "compactacion.tamano";
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Almacenamiento crear(ConfiguracionAlmacenamiento configuracion) {
+        ImplementacionOperacionCRUD crud = new ImplementacionOperacionCRUD();
+        crud.setFormatoArchivo(configuracion.getFormato(FormatoArchivo.REGISTROS));
+        long periodo = configuracion.getPropiedadEntera(PROPIEDAD_PERIODO_COMPACTACION, 60);
+        long tamano = configuracion.getPropiedadEntera(PROPIEDAD_TAMANO_COMPACTACION, 1024 * 1024);
+        if (periodo <= 0) {
+            throw new IllegalArgumentException("El periodo de compactación debe ser positivo");
+        }
+        return new AlmacenamientoDiario(crud, configuracion.getRuta(), configuracion.getNombre(), periodo, tamano);
+    }
+
+    /**
+     * Almacenamiento sobre arreglo persistido con instantánea y diario.
+     */
+    private static final class AlmacenamientoDiario implements Almacenamiento {
+
+        /** Operaciones CRUD. */
+        private final ImplementacionOperacionCRUD crud;
+
+        /** Directorio de la instantánea y el diario. */
+        private final String ruta;
+
+        /** Nombre de la instantánea. */
+        private final String nombre;
+
+        /** Intervalo entre revisiones del tamaño del diario, en segundos. */
+        private final long periodoCompactacion;
+
+        /** Tamaño del diario a partir del cual se compacta, en bytes. */
+        private final long tamanoCompactacion;
+
+        /**
+         * Constructor del almacenamiento.
+         *
+         * @param crud Operaciones CRUD
+         * @param ruta Directorio de la instantánea y el diario
+         * @param nombre Nombre de la instantánea
+         * @param periodoCompactacion Intervalo entre revisiones del diario, en segundos
+         * @param tamanoCompactacion Tamaño del diario a partir del cual se compacta
+         */
+        AlmacenamientoDiario(ImplementacionOperacionCRUD crud, String ruta, String nombre,
+                             long periodoCompactacion, long tamanoCompactacion) {
+            this.crud = crud;
+            this.ruta = ruta;
+            this.nombre = nombre;
+            this.periodoCompactacion = periodoCompactacion;
+            this.tamanoCompactacion = tamanoCompactacion;
+        }
+
+        @Override
+        public OperacionCRUD getOperaciones() {
+            return crud;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Cierra el diario abierto, si lo hay, y recupera la instantánea y el diario.
+         * </p>
+         */
+        @Override
+        public String cargar(OyenteCarga oyente, int tamanoLote) {
+            try {
+                crud.cerrarDiario();
+            } catch (UncheckedIOException e) {
+                return "Error al cerrar el diario: " + e.getMessage();
+            }
+            String resultado = crud.abrirDiario(ruta, nombre, oyente, tamanoLote);
+            crud.programarCompactacion(periodoCompactacion, tamanoCompactacion);
+            return resultado;
+        }
+
+        @Override
+        public String guardar() {
+            return crud.guardarPuntoControl();
+        }
+
+        @Override
+        public void close() {
+            crud.cerrarDiario();
+        }
+    }
+}
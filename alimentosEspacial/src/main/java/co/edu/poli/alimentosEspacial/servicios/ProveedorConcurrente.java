@@ -0,0 +1,159 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Proveedor del almacenamiento en memoria sobre un mapa concurrente.
+ * <p>
+ * Usa {@link ImplementacionOperacionCRUDConcurrente}, que admite lecturas y escrituras
+ * desde varios hilos sin bloqueo global. El contenido se persiste como una instantánea
+ * completa en el {@link FormatoArchivo} configurado, por defecto
+ * {@link FormatoArchivo#BINARIO}: cargar reemplaza el contenido por el del archivo, o lo
+ * vacía si el archivo no existe, y guardar reescribe el archivo de forma atómica.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUDConcurrente
+ */
+public final class ProveedorConcurrente implements ProveedorAlmacenamiento {
+
+    /** Nombre del proveedor. */
+    public static final String NOMBRE = "concurrente";
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Almacenamiento crear(ConfiguracionAlmacenamiento configuracion) {
+        return new AlmacenamientoInstantanea(configuracion.getFormato(FormatoArchivo.BINARIO),
+                Paths.get(configuracion.getRuta(), configuracion.getNombre()));
+    }
+
+    /**
+     * Almacenamiento concurrente persistido con instantáneas completas.
+     */
+    private static final class AlmacenamientoInstantanea implements Almacenamiento {
+
+        /** Operaciones CRUD. */
+        private final ImplementacionOperacionCRUDConcurrente crud = new ImplementacionOperacionCRUDConcurrente();
+
+        /** Formato de las instantáneas guardadas. */
+        private final FormatoArchivo formato;
+
+        /** Archivo de la instantánea. */
+        private final Path archivo;
+
+        /**
+         * Constructor del almacenamiento.
+         *
+         * @param formato Formato de las instantáneas guardadas
+         * @param archivo Archivo de la instantánea
+         */
+        AlmacenamientoInstantanea(FormatoArchivo formato, Path archivo) {
+            this.formato = formato;
+            this.archivo = archivo;
+        }
+
+        @Override
+        public OperacionCRUD getOperaciones() {
+            return crud;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * El formato del archivo se detecta por su cabecera, así que puede leerse una
+         * instantánea escrita en un formato distinto del configurado.
+         * </p>
+         */
+        @Override
+        public String cargar(OyenteCarga oyente, int tamanoLote) {
+            List<String> ids = new ArrayList<>();
+            for (Producto producto : crud.instantanea()) {
+                ids.add(producto.getId());
+            }
+            crud.deleteAll(ids);
+            if (!Files.exists(archivo)) {
+                return ">> No existe '" + archivo + "'; se inicia un inventario vacío";
+            }
+            try {
+                long total = Files.size(archivo);
+                int[] rechazados = new int[1];
+                try (EntradaContada contada = new EntradaContada(new FileInputStream(archivo.toFile()))) {
+                    InputStream entrada = new BufferedInputStream(contada, 65536);
+                    List<Producto> lote = new ArrayList<>(tamanoLote);
+                    FormatoArchivo.detectar(entrada).getCodec().leer(entrada, producto -> {
+                        lote.add(producto);
+                        if (lote.size() == tamanoLote) {
+                            agregarLote(lote, oyente, contada.getLeidos(), total, rechazados);
+                            lote.clear();
+                        }
+                    });
+                    if (!lote.isEmpty()) {
+                        agregarLote(lote, oyente, total, total, rechazados);
+                    }
+                }
+                return ">> Archivo '" + archivo + "' cargado: " + crud.getCantidadProductos() + " productos"
+                        + (rechazados[0] > 0 ? ", " + rechazados[0] + " repetidos descartados" : "");
+            } catch (IOException e) {
+                return "Error al cargar el archivo: " + e.getMessage();
+            }
+        }
+
+        /**
+         * Agrega un lote leído y lo entrega al oyente.
+         *
+         * @param lote Productos leídos
+         * @param oyente Oyente que recibe los lotes, o {@code null}
+         * @param leidos Bytes leídos hasta el momento
+         * @param total Tamaño del archivo
+         * @param rechazados Contador de productos con ID repetido
+         */
+        private void agregarLote(List<Producto> lote, OyenteCarga oyente, long leidos, long total, int[] rechazados) {
+            ResultadoLote resultado = crud.createAll(lote);
+            rechazados[0] += resultado.getFallidos();
+            if (oyente != null) {
+                oyente.alCargarLote(new ArrayList<>(lote), leidos, total);
+            }
+        }
+
+        @Override
+        public String guardar() {
+            InstantaneaProductos estado = crud.instantanea();
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try {
+                try (FileOutputStream salidaArchivo = new FileOutputStream(temporal.toFile())) {
+                    BufferedOutputStream salida = new BufferedOutputStream(salidaArchivo);
+                    formato.getCodec().escribir(estado.toArray(), salida);
+                    salida.flush();
+                    salidaArchivo.getFD().sync();
+                }
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return ">> Archivo guardado en '" + archivo + "' (" + estado.size() + " productos)";
+            } catch (IOException e) {
+                return "Error al guardar el archivo: " + e.getMessage();
+            }
+        }
+
+        @Override
+        public void close() {
+            // El contenido vive sólo en memoria; no hay recursos abiertos.
+        }
+    }
+}
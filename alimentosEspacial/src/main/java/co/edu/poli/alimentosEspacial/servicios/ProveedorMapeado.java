@@ -0,0 +1,63 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+/**
+ * Proveedor del almacenamiento sobre un archivo de registros mapeado en memoria.
+ * <p>
+ * Usa {@link ImplementacionOperacionCRUDMapeada}: cargar sólo indexa el archivo, los
+ * productos se decodifican al consultarlos y {@link Almacenamiento#guardar()} reescribe
+ * el archivo. La capacidad de la caché de productos decodificados se configura con
+ * {@value #PROPIEDAD_CAPACIDAD_CACHE}. Como la carga no decodifica productos, no se
+ * entregan lotes al oyente.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUDMapeada
+ */
+public final class ProveedorMapeado implements ProveedorAlmacenamiento {
+
+    /** Nombre del proveedor. */
+    public static final String NOMBRE = "mapeado";
+
+    /** Propiedad con la capacidad de la caché de productos decodificados. */
+    public static final String PROPIEDAD_CAPACIDAD_CACHE = ConfiguracionAlmacenamiento.PREFIJO + "cache";
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Almacenamiento crear(ConfiguracionAlmacenamiento configuracion) {
+        long capacidad = configuracion.getPropiedadEntera(PROPIEDAD_CAPACIDAD_CACHE,
+                ImplementacionOperacionCRUDMapeada.CAPACIDAD_CACHE_POR_DEFECTO);
+        if (capacidad <= 0 || capacidad > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacidad de caché no válida: " + capacidad);
+        }
+        ImplementacionOperacionCRUDMapeada crud = new ImplementacionOperacionCRUDMapeada((int) capacidad);
+        String ruta = configuracion.getRuta();
+        String nombre = configuracion.getNombre();
+        return new Almacenamiento() {
+            @Override
+            public OperacionCRUD getOperaciones() {
+                return crud;
+            }
+
+            @Override
+            public String cargar(OyenteCarga oyente, int tamanoLote) {
+                return crud.abrir(ruta, nombre);
+            }
+
+            @Override
+            public String guardar() {
+                return crud.guardar();
+            }
+
+            @Override
+            public void close() {
+                crud.close();
+            }
+        };
+    }
+}
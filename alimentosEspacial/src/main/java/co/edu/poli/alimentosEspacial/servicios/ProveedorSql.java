@@ -0,0 +1,76 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+/**
+ * Proveedor del almacenamiento sobre una base de datos SQL embebida.
+ * <p>
+ * Usa {@link ImplementacionOperacionCRUDSql}. La base de datos se indica con la URL
+ * JDBC de la propiedad {@value #PROPIEDAD_URL}; si no está, es una base de datos H2
+ * en un archivo con la ruta y el nombre configurados. Cada operación se confirma al
+ * ejecutarse, así que cargar sólo informa el contenido y guardar no tiene nada que
+ * escribir.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUDSql
+ */
+public final class ProveedorSql implements ProveedorAlmacenamiento {
+
+    /** Nombre del proveedor. */
+    public static final String NOMBRE = "sql";
+
+    /** Propiedad con la URL JDBC de la base de datos. */
+    public static final String PROPIEDAD_URL = ConfiguracionAlmacenamiento.PREFIJO + "url";
+
+    @Override
+    public String getNombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public Almacenamiento crear(ConfiguracionAlmacenamiento configuracion) {
+        String url = configuracion.getPropiedad(PROPIEDAD_URL, null);
+        ImplementacionOperacionCRUDSql crud;
+        try {
+            crud = url != null
+                    ? ImplementacionOperacionCRUDSql.abrir(url)
+                    : ImplementacionOperacionCRUDSql.abrirArchivo(configuracion.getRuta(), configuracion.getNombre());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error al abrir la base de datos: " + e.getMessage(), e);
+        }
+        return new Almacenamiento() {
+            @Override
+            public OperacionCRUD getOperaciones() {
+                return crud;
+            }
+
+            @Override
+            public String cargar(OyenteCarga oyente, int tamanoLote) {
+                try {
+                    return ">> Base de datos abierta: " + crud.getCantidadProductos() + " productos";
+                } catch (IllegalStateException e) {
+                    return "Error al consultar la base de datos: " + e.getMessage();
+                }
+            }
+
+            @Override
+            public String guardar() {
+                return ">> Los cambios ya están confirmados en la base de datos";
+            }
+
+            @Override
+            public void close() {
+                try {
+                    crud.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
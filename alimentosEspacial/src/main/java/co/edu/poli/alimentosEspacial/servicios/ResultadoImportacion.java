@@ -0,0 +1,112 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen del resultado de una importación de productos.
+ * <p>
+ * A diferencia de {@link ResultadoLote}, no registra el resultado de cada fila, porque
+ * un archivo de importación puede tener millones; sólo cuenta las filas y conserva los
+ * primeros {@value #MAXIMO_ERRORES} mensajes de error, cada uno con el número de línea
+ * de la fila rechazada.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImportadorProductos
+ */
+public final class ResultadoImportacion {
+
+    /** Cantidad máxima de mensajes de error que se conservan. */
+    public static final int MAXIMO_ERRORES = 100;
+
+    /** Cantidad de filas de datos leídas. */
+    private long filasLeidas;
+
+    /** Cantidad de productos creados. */
+    private long importados;
+
+    /** Cantidad de filas rechazadas. */
+    private long rechazados;
+
+    /** Primeros mensajes de error. */
+    private final List<String> errores = new ArrayList<>();
+
+    /**
+     * Registra una fila leída.
+     */
+    void contarFila() {
+        filasLeidas++;
+    }
+
+    /**
+     * Registra productos creados con éxito.
+     *
+     * @param cantidad Cantidad de productos creados
+     */
+    void contarImportados(int cantidad) {
+        importados += cantidad;
+    }
+
+    /**
+     * Registra una fila rechazada.
+     *
+     * @param linea Número de línea donde comienza la fila
+     * @param mensaje Motivo del rechazo
+     */
+    void rechazar(long linea, String mensaje) {
+        rechazados++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add("Línea " + linea + ": " + mensaje);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de filas de datos leídas, sin contar el encabezado.
+     *
+     * @return Número de filas leídas
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    /**
+     * Obtiene la cantidad de productos creados.
+     *
+     * @return Número de productos importados
+     */
+    public long getImportados() {
+        return importados;
+    }
+
+    /**
+     * Obtiene la cantidad de filas rechazadas por datos no válidos o ID repetido.
+     *
+     * @return Número de filas rechazadas
+     */
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    /**
+     * Obtiene los primeros mensajes de error registrados.
+     *
+     * @return Lista no modificable de mensajes
+     */
+    public List<String> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    /**
+     * Representación en texto del resultado.
+     *
+     * @return Resumen con la cantidad de filas leídas, importadas y rechazadas
+     */
+    @Override
+    public String toString() {
+        return String.format("%d filas leídas: %d importadas, %d rechazadas", filasLeidas, importados, rechazados);
+    }
+}
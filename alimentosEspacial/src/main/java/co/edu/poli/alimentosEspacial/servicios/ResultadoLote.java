@@ -0,0 +1,104 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Resumen compacto del resultado de una operación por lotes.
+ * <p>
+ * En lugar de un mensaje por elemento, registra en un {@link BitSet} qué posiciones
+ * del lote se procesaron con éxito. Las posiciones corresponden al orden de iteración
+ * de la colección recibida por la operación.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see OperacionCRUD#createAll(java.util.Collection)
+ * @see OperacionCRUD#updateAll(java.util.Collection)
+ * @see OperacionCRUD#deleteAll(java.util.Collection)
+ */
+public final class ResultadoLote {
+
+    /** Cantidad de elementos del lote. */
+    private final int total;
+
+    /** Posiciones del lote procesadas con éxito. */
+    private final BitSet exitosos;
+
+    /**
+     * Constructor del resultado.
+     *
+     * @param total Cantidad de elementos del lote
+     * @param exitosos Posiciones procesadas con éxito; se copia
+     */
+    public ResultadoLote(int total, BitSet exitosos) {
+        this.total = total;
+        this.exitosos = (BitSet) exitosos.clone();
+    }
+
+    /**
+     * Obtiene la cantidad de elementos del lote.
+     *
+     * @return Número de elementos procesados
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtiene la cantidad de elementos procesados con éxito.
+     *
+     * @return Número de elementos exitosos
+     */
+    public int getExitosos() {
+        return exitosos.cardinality();
+    }
+
+    /**
+     * Obtiene la cantidad de elementos que no pudieron procesarse.
+     *
+     * @return Número de elementos fallidos
+     */
+    public int getFallidos() {
+        return total - exitosos.cardinality();
+    }
+
+    /**
+     * Indica si todos los elementos del lote se procesaron con éxito.
+     *
+     * @return {@code true} si no hubo fallos
+     */
+    public boolean esCompleto() {
+        return getFallidos() == 0;
+    }
+
+    /**
+     * Indica si el elemento en la posición dada se procesó con éxito.
+     *
+     * @param indice Posición del elemento dentro del lote
+     * @return {@code true} si el elemento se procesó con éxito
+     */
+    public boolean fueExitoso(int indice) {
+        return exitosos.get(indice);
+    }
+
+    /**
+     * Obtiene las posiciones de los elementos que no pudieron procesarse.
+     *
+     * @return Flujo ordenado de posiciones fallidas
+     */
+    public IntStream indicesFallidos() {
+        return IntStream.range(0, total).filter(i -> !exitosos.get(i));
+    }
+
+    /**
+     * Representación en texto del resultado.
+     *
+     * @return Resumen con la cantidad de elementos exitosos y fallidos
+     */
+    @Override
+    public String toString() {
+        return String.format("Lote de %d: %d exitosos, %d fallidos", total, getExitosos(), getFallidos());
+    }
+}
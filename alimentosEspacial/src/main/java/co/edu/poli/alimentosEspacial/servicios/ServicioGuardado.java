@@ -0,0 +1,148 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Servicio que ejecuta los guardados en un hilo de fondo, combinando solicitudes repetidas.
+ * <p>
+ * {@link #solicitar()} retorna de inmediato: el guardado se ejecuta en un único hilo
+ * dedicado, de modo que quien lo solicita, típicamente el hilo de la interfaz, nunca
+ * espera al disco. Las solicitudes que llegan mientras otra espera su turno se combinan
+ * con ella en una sola escritura; las que llegan durante una escritura en curso programan
+ * exactamente una escritura más, para que los cambios hechos entretanto también queden
+ * guardados.
+ * </p>
+ * <p>
+ * La operación de guardado es responsable de capturar un estado consistente, como hace
+ * {@link ImplementacionOperacionCRUD#guardarPuntoControl()}. El mensaje resultante, o el
+ * del error, se entrega al oyente a través del ejecutor de notificación, por ejemplo
+ * {@code Platform::runLater} para actualizar la interfaz en su propio hilo.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see ImplementacionOperacionCRUD#guardarPuntoControl()
+ */
+public final class ServicioGuardado implements Closeable {
+
+    /** Operación de guardado; retorna el mensaje del resultado. */
+    private final Supplier<String> guardado;
+
+    /** Ejecutor donde se notifica el resultado. */
+    private final Executor notificador;
+
+    /** Oyente que recibe el mensaje del resultado de cada guardado. */
+    private final Consumer<String> alTerminar;
+
+    /** Hilo de fondo donde se ejecutan los guardados. */
+    private final ExecutorService ejecutor;
+
+    /** Guardado solicitado que aún no comenzó, o {@code null}. */
+    private CompletableFuture<String> pendiente;
+
+    /** Indica si el servicio fue cerrado. */
+    private boolean cerrado;
+
+    /**
+     * Constructor del servicio.
+     *
+     * @param guardado Operación de guardado, que retorna el mensaje del resultado
+     * @param notificador Ejecutor donde se notifica el resultado al oyente
+     * @param alTerminar Oyente que recibe el mensaje del resultado o del error
+     */
+    public ServicioGuardado(Supplier<String> guardado, Executor notificador, Consumer<String> alTerminar) {
+        this.guardado = guardado;
+        this.notificador = notificador;
+        this.alTerminar = alTerminar;
+        this.ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "guardado-fondo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Solicita un guardado sin esperar a que se ejecute.
+     * <p>
+     * Si ya hay un guardado esperando su turno, la solicitud se combina con él y se
+     * retorna el mismo resultado futuro.
+     * </p>
+     *
+     * @return Resultado futuro del guardado que incluirá el estado actual
+     * @throws IllegalStateException Si el servicio fue cerrado
+     */
+    public synchronized CompletableFuture<String> solicitar() {
+        if (cerrado) {
+            throw new IllegalStateException("El servicio de guardado está cerrado");
+        }
+        if (pendiente == null) {
+            pendiente = new CompletableFuture<>();
+            ejecutor.execute(this::ejecutar);
+        }
+        return pendiente;
+    }
+
+    /**
+     * Indica si hay un guardado esperando su turno.
+     *
+     * @return {@code true} si hay un guardado solicitado que aún no comenzó
+     */
+    public synchronized boolean hayPendiente() {
+        return pendiente != null;
+    }
+
+    /**
+     * Cierra el servicio, esperando a que terminen los guardados ya solicitados.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            cerrado = true;
+        }
+        ejecutor.shutdown();
+        boolean interrumpido = false;
+        while (!ejecutor.isTerminated()) {
+            try {
+                ejecutor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ejecuta el guardado pendiente en el hilo de fondo y notifica su resultado.
+     */
+    private void ejecutar() {
+        CompletableFuture<String> actual;
+        synchronized (this) {
+            actual = pendiente;
+            pendiente = null;
+        }
+        String mensaje;
+        try {
+            mensaje = guardado.get();
+            actual.complete(mensaje);
+        } catch (RuntimeException e) {
+            mensaje = "Error al guardar: " + e.getMessage();
+            actual.completeExceptionally(e);
+        }
+        String notificado = mensaje;
+        try {
+            notificador.execute(() -> alTerminar.accept(notificado));
+        } catch (RuntimeException e) {
+            System.err.println("No se pudo notificar el guardado: " + mensaje);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registro de las escuchas de cambios de una implementación de {@link OperacionCRUD}.
+ * <p>
+ * Usa una {@link CopyOnWriteArrayList}: registrar o quitar una escucha copia la lista,
+ * lo que es raro, y notificar la recorre sin bloqueos aunque otro hilo la modifique.
+ * Las implementaciones consultan {@link #hayEscuchas()} antes de construir eventos, de
+ * modo que sin escuchas las operaciones no reservan memoria adicional.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see EscuchaCambios
+ */
+final class SoporteEscuchas {
+
+    /** Escuchas registradas, en orden de registro. */
+    private final List<EscuchaCambios> escuchas = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra una escucha.
+     *
+     * @param escucha Escucha a registrar
+     * @throws IllegalArgumentException Si la escucha es nula
+     */
+    void agregar(EscuchaCambios escucha) {
+        if (escucha == null) {
+            throw new IllegalArgumentException("La escucha no puede ser nula");
+        }
+        escuchas.add(escucha);
+    }
+
+    /**
+     * Quita una escucha registrada; no hace nada si no lo estaba.
+     *
+     * @param escucha Escucha a quitar
+     */
+    void quitar(EscuchaCambios escucha) {
+        escuchas.remove(escucha);
+    }
+
+    /**
+     * Indica si hay escuchas registradas.
+     *
+     * @return {@code true} si alguna escucha recibirá los eventos
+     */
+    boolean hayEscuchas() {
+        return !escuchas.isEmpty();
+    }
+
+    /**
+     * Entrega un evento a todas las escuchas.
+     *
+     * @param evento Evento a entregar
+     */
+    void notificar(EventoCambio evento) {
+        for (EscuchaCambios escucha : escuchas) {
+            try {
+                escucha.alCambiar(evento);
+            } catch (RuntimeException e) {
+                System.err.println("Error en una escucha de cambios: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Entrega una secuencia de eventos a todas las escuchas, en orden.
+     *
+     * @param eventos Eventos a entregar, o {@code null} si no se registraron
+     */
+    void notificar(List<EventoCambio> eventos) {
+        if (eventos != null) {
+            for (EventoCambio evento : eventos) {
+                notificar(evento);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+/**
+ * Enumeración de los tipos de cambio que notifica un {@link OperacionCRUD}.
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see EventoCambio
+ */
+public enum TipoCambio {
+
+    /** Se creó un producto. */
+    CREADO,
+
+    /** Se reemplazaron los datos de un producto, posiblemente cambiando su ID. */
+    ACTUALIZADO,
+
+    /** Se eliminó un producto. */
+    ELIMINADO,
+
+    /**
+     * Se reemplazó el contenido completo, por ejemplo al cargar un archivo; los
+     * interesados deben volver a leer el almacenamiento.
+     */
+    RECARGADO
+}
@@ -1,5 +1,6 @@
 package co.edu.poli.alimentosEspacial.vista;
 
+import co.edu.poli.alimentosEspacial.controlador.ProductoControlador;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -24,6 +25,9 @@ import javafx.stage.Stage;
  */
 public class App extends Application {
 
+    /** Controlador de la vista principal, que se cierra al terminar la aplicación. */
+    private ProductoControlador controlador;
+
     /**
      * Método principal de inicialización de la interfaz gráfica de usuario.
      * <p>
@@ -56,6 +60,7 @@ public class App extends Application {
     public void start(Stage stage) throws Exception {
         FXMLLoader fxmlLoader = new FXMLLoader(App.class.getResource("ProductoView.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1000, 750);
+        controlador = fxmlLoader.getController();
         stage.setTitle("Sistema de Gestión de Productos Espaciales");
         stage.setScene(scene);
         stage.show();
@@ -117,15 +122,17 @@ public class App extends Application {
      *   <li>Liberar recursos del sistema</li>
      *   <li>Realizar backup de datos</li>
      * </ul>
-     * La implementación por defecto no realiza ninguna operación.
+     * Cierra el controlador principal para que el diario de operaciones sincronice
+     * con el disco los cambios pendientes.
      * </p>
      *
      * @throws Exception Si ocurre algún error durante la limpieza
      */
     @Override
     public void stop() throws Exception {
-        // Limpieza opcional de la aplicación
-        // Puede ser sobreescrita para guardar estado, liberar recursos, etc.
+        if (controlador != null) {
+            controlador.cerrar();
+        }
         super.stop();
     }
 }
\ No newline at end of file
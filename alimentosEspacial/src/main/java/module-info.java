@@ -2,6 +2,8 @@ module co.edu.poli.alimentosEspacial {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.base;
+    requires java.sql;
+    requires com.h2database;
     
     opens co.edu.poli.alimentosEspacial.vista to javafx.graphics, javafx.fxml;
     opens co.edu.poli.alimentosEspacial.controlador to javafx.fxml;
@@ -10,4 +12,12 @@ module co.edu.poli.alimentosEspacial {
     exports co.edu.poli.alimentosEspacial.vista;
     exports co.edu.poli.alimentosEspacial.controlador;
     exports co.edu.poli.alimentosEspacial.modelo;
+    exports co.edu.poli.alimentosEspacial.servicios;
+    
+    uses co.edu.poli.alimentosEspacial.servicios.ProveedorAlmacenamiento;
+    provides co.edu.poli.alimentosEspacial.servicios.ProveedorAlmacenamiento with
+            co.edu.poli.alimentosEspacial.servicios.ProveedorArreglo,
+            co.edu.poli.alimentosEspacial.servicios.ProveedorConcurrente,
+            co.edu.poli.alimentosEspacial.servicios.ProveedorMapeado,
+            co.edu.poli.alimentosEspacial.servicios.ProveedorSql;
 }
@@ -0,0 +1,200 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import co.edu.poli.alimentosEspacial.modelo.*;
+
+/**
+ * Pruebas de ida y vuelta de los códecs de {@link FormatoArchivo}.
+ * <p>
+ * Cada formato escribe un inventario y lo vuelve a leer, y el resultado debe coincidir
+ * producto por producto con el original, incluidas las posiciones nulas en los formatos
+ * que las conservan. Los pesos y volúmenes cubren los casos límite de la escala decimal
+ * de {@link CodecBinario}.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see CodecProductos
+ */
+class CodecProductosTest {
+
+    /**
+     * Valores de peso y volumen que ejercitan la codificación de decimales.
+     */
+    private static final double[] DECIMALES = {
+        0.0, -0.0, 0.001, -0.001, 2.5, 123456.789, -2147483.648, 2147483.647,
+        2147483.648, 1e-9, 1e300, Double.MIN_VALUE, Double.MAX_VALUE,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+    };
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void idaYVueltaConservaTodasLasCategorias(FormatoArchivo formato) throws IOException {
+        Producto[] productos = {
+            new Producto("P1", "Genérico", 1.5, 0.25),
+            new Alimento("A1", "Arroz liofilizado", 0.35, 0.5, "01/01/2026", "Liofilizado", 420),
+            null,
+            new EquipoMedico("E1", "Desfibrilador", 4.2, 3.1, "Emergencias", true, "15/03/2025", "UDT-7"),
+            new Herramienta("H1", "Llave dinamométrica", 0.8, 0.3, "Ajuste", "Titanio", false),
+            new EquipoComunicacion("C1", "Radio ñandú 🚀", 2.0, 1.0, "VHF", -0.001, -5),
+            new Alimento("A2", null, 0, 0, null, "", Integer.MIN_VALUE),
+            null
+        };
+
+        Producto[] leidos = idaYVuelta(formato, productos);
+
+        assertIguales(esperados(formato, productos), leidos);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void idaYVueltaConservaDecimalesLimite(FormatoArchivo formato) throws IOException {
+        Producto[] productos = new Producto[DECIMALES.length];
+        for (int i = 0; i < DECIMALES.length; i++) {
+            productos[i] = new Producto("D" + i, "Decimal " + i, DECIMALES[i], -DECIMALES[i]);
+        }
+
+        Producto[] leidos = idaYVuelta(formato, productos);
+
+        assertEquals(productos.length, leidos.length);
+        for (int i = 0; i < productos.length; i++) {
+            assertEquals(Double.doubleToLongBits(productos[i].getPeso()),
+                         Double.doubleToLongBits(leidos[i].getPeso()), "Peso de " + productos[i].getId());
+            assertEquals(Double.doubleToLongBits(productos[i].getVolumen()),
+                         Double.doubleToLongBits(leidos[i].getVolumen()), "Volumen de " + productos[i].getId());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void idaYVueltaDeInventarioVacio(FormatoArchivo formato) throws IOException {
+        assertEquals(0, idaYVuelta(formato, new Producto[0]).length);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void idaYVueltaDeInventarioGrande(FormatoArchivo formato) throws IOException {
+        // Cruza varios fragmentos de FRAGMENTADO y varios bloques de COMPRIMIDO.
+        Producto[] productos = new Producto[3 * CodecFragmentado.PRODUCTOS_POR_FRAGMENTO + 17];
+        for (int i = 0; i < productos.length; i++) {
+            productos[i] = i % 101 == 0 ? null : crearProducto("G" + i, i);
+        }
+
+        Producto[] leidos = idaYVuelta(formato, productos);
+
+        assertIguales(esperados(formato, productos), leidos);
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void lecturaEnFlujoOmiteNulos(FormatoArchivo formato) throws IOException {
+        Producto[] productos = new Producto[CodecFragmentado.PRODUCTOS_POR_FRAGMENTO + 5];
+        for (int i = 0; i < productos.length; i++) {
+            productos[i] = i % 7 == 3 ? null : crearProducto("F" + i, i);
+        }
+        byte[] datos = escribir(formato, productos);
+
+        List<Producto> recibidos = new ArrayList<>();
+        formato.getCodec().leer(new ByteArrayInputStream(datos), recibidos::add);
+
+        List<Producto> esperados = new ArrayList<>();
+        for (Producto producto : productos) {
+            if (producto != null) {
+                esperados.add(producto);
+            }
+        }
+        assertIguales(esperados.toArray(new Producto[0]), recibidos.toArray(new Producto[0]));
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoArchivo.class)
+    void detectarIdentificaElFormato(FormatoArchivo formato) throws IOException {
+        byte[] datos = escribir(formato, new Producto[] {crearProducto("X1", 1)});
+
+        assertEquals(formato, FormatoArchivo.detectar(new BufferedInputStream(new ByteArrayInputStream(datos))));
+    }
+
+    /**
+     * Escribe los productos con un formato y los vuelve a leer.
+     */
+    private static Producto[] idaYVuelta(FormatoArchivo formato, Producto[] productos) throws IOException {
+        return formato.getCodec().leer(new ByteArrayInputStream(escribir(formato, productos)));
+    }
+
+    /**
+     * Escribe los productos con un formato en memoria.
+     */
+    private static byte[] escribir(FormatoArchivo formato, Producto[] productos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        formato.getCodec().escribir(productos, salida);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Obtiene lo que debe leerse de un formato: los formatos por registros no conservan
+     * las posiciones nulas.
+     */
+    private static Producto[] esperados(FormatoArchivo formato, Producto[] productos) {
+        if (formato != FormatoArchivo.REGISTROS && formato != FormatoArchivo.COMPRIMIDO) {
+            return productos;
+        }
+        List<Producto> compactos = new ArrayList<>();
+        for (Producto producto : productos) {
+            if (producto != null) {
+                compactos.add(producto);
+            }
+        }
+        return compactos.toArray(new Producto[0]);
+    }
+
+    /**
+     * Compara dos inventarios posición por posición por clase y contenido.
+     */
+    static void assertIguales(Producto[] esperados, Producto[] obtenidos) {
+        assertEquals(esperados.length, obtenidos.length, "Cantidad de posiciones");
+        for (int i = 0; i < esperados.length; i++) {
+            if (esperados[i] == null) {
+                assertNull(obtenidos[i], "Posición " + i);
+            } else {
+                assertNotNull(obtenidos[i], "Posición " + i);
+                assertEquals(esperados[i].getClass(), obtenidos[i].getClass(), "Clase en la posición " + i);
+                assertEquals(esperados[i].toString(), obtenidos[i].toString(), "Posición " + i);
+            }
+        }
+    }
+
+    /**
+     * Crea un producto de una categoría que depende de la semilla.
+     */
+    static Producto crearProducto(String id, int semilla) {
+        double peso = semilla % 1000 / 8.0;
+        double volumen = semilla % 37 * 0.125;
+        switch (semilla % 5) {
+            case 0:
+                return new Alimento(id, "Alimento " + semilla, peso, volumen, "01/01/2026", "Deshidratado", semilla % 900);
+            case 1:
+                return new EquipoMedico(id, "Equipo " + semilla, peso, volumen, "Primeros auxilios",
+                                        semilla % 2 == 0, "01/06/2025", "UDT-" + semilla % 10);
+            case 2:
+                return new Herramienta(id, "Herramienta " + semilla, peso, volumen, "Reparación",
+                                       "Aluminio", semilla % 2 == 0);
+            case 3:
+                return new EquipoComunicacion(id, "Radio " + semilla, peso, volumen, "UHF",
+                                              semilla % 500 * 0.5, semilla % 100);
+            default:
+                return new Producto(id, "Producto " + semilla, peso, volumen);
+        }
+    }
+}
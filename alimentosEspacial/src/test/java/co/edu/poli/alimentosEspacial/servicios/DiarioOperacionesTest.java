@@ -0,0 +1,198 @@
+package co.edu.poli.alimentosEspacial.servicios;
+
+import static co.edu.poli.alimentosEspacial.servicios.CodecProductosTest.assertIguales;
+import static co.edu.poli.alimentosEspacial.servicios.CodecProductosTest.crearProducto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import co.edu.poli.alimentosEspacial.modelo.Producto;
+
+/**
+ * Pruebas de escritura y recuperación de {@link DiarioOperaciones}.
+ * <p>
+ * Las fallas del sistema se simulan dañando el final del archivo después de escribirlo:
+ * la reproducción debe recuperar todos los registros completos, descartar el resto y
+ * dejar el archivo listo para seguir agregando registros.
+ * </p>
+ *
+ * @author Politécnico Grancolombiano
+ * @version 1.0
+ * @since 2024
+ * @see DiarioOperaciones#reproducir
+ */
+class DiarioOperacionesTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reproducirAplicaLosRegistrosEnOrden() throws IOException {
+        Path archivo = directorio.resolve("inventario.dat" + DiarioOperaciones.EXTENSION);
+        Producto a = crearProducto("A", 0);
+        Producto b = crearProducto("B", 1);
+        Producto c = crearProducto("C", 2);
+        Producto bRenombrado = crearProducto("B2", 3);
+        try (DiarioOperaciones diario = new DiarioOperaciones(archivo, DiarioOperaciones.INTERVALO_POR_DEFECTO)) {
+            diario.registrarGuardado(a);
+            diario.registrarGuardado(b);
+            diario.registrarEliminacion("A");
+            diario.registrarCambioId("B", bRenombrado);
+            diario.registrarGuardado(c);
+        }
+
+        Map<String, Producto> estado = new LinkedHashMap<>();
+        int reproducidos = reproducir(archivo, estado);
+
+        assertEquals(6, reproducidos);
+        assertIguales(new Producto[] {bRenombrado, c}, estado.values().toArray(new Producto[0]));
+    }
+
+    @Test
+    void vaciadoYContenidoReemplazanElEstado() throws IOException {
+        Path archivo = directorio.resolve("inventario.dat" + DiarioOperaciones.EXTENSION);
+        Producto[] contenido = {crearProducto("X", 4), null, crearProducto("Y", 5)};
+        try (DiarioOperaciones diario = new DiarioOperaciones(archivo, DiarioOperaciones.INTERVALO_POR_DEFECTO)) {
+            diario.registrarGuardado(crearProducto("A", 0));
+            diario.registrarVaciado();
+            diario.registrarGuardado(crearProducto("B", 1));
+            diario.registrarContenido(contenido);
+        }
+
+        Map<String, Producto> estado = new LinkedHashMap<>();
+        reproducir(archivo, estado);
+
+        assertIguales(new Producto[] {contenido[0], contenido[2]}, estado.values().toArray(new Producto[0]));
+    }
+
+    @Test
+    void reproducirSinArchivoNoHaceNada() throws IOException {
+        assertEquals(0, reproducir(directorio.resolve("inexistente"), new LinkedHashMap<>()));
+    }
+
+    @Test
+    void registroIncompletoAlFinalSeDescartaYElArchivoSigueUtilizable() throws IOException {
+        Path archivo = directorio.resolve("inventario.dat" + DiarioOperaciones.EXTENSION);
+        List<Producto> escritos = new ArrayList<>();
+        long validos;
+        try (DiarioOperaciones diario = new DiarioOperaciones(archivo, DiarioOperaciones.INTERVALO_POR_DEFECTO)) {
+            for (int i = 0; i < 10; i++) {
+                escritos.add(crearProducto("P" + i, i));
+                diario.registrarGuardado(escritos.get(i));
+            }
+            diario.sincronizar();
+            validos = diario.getTamano();
+            diario.registrarGuardado(crearProducto("Interrumpido", 99));
+        }
+        // Escritura interrumpida: sólo llegó al disco parte del último registro.
+        byte[] completo = Files.readAllBytes(archivo);
+        for (int corte = (int) validos + 1; corte < completo.length; corte += Math.max(1, (completo.length - validos) / 5)) {
+            Files.write(archivo, Arrays.copyOf(completo, corte));
+
+            Map<String, Producto> estado = new LinkedHashMap<>();
+            assertEquals(10, reproducir(archivo, estado), "Corte en el byte " + corte);
+            assertEquals(validos, Files.size(archivo), "El registro incompleto debe truncarse");
+            assertIguales(escritos.toArray(new Producto[0]), estado.values().toArray(new Producto[0]));
+        }
+
+        Producto posterior = crearProducto("Posterior", 11);
+        try (DiarioOperaciones diario = new DiarioOperaciones(archivo, DiarioOperaciones.INTERVALO_POR_DEFECTO)) {
+            diario.registrarGuardado(posterior);
+        }
+        escritos.add(posterior);
+
+        Map<String, Producto> estado = new LinkedHashMap<>();
+        assertEquals(11, reproducir(archivo, estado));
+        assertIguales(escritos.toArray(new Producto[0]), estado.values().toArray(new Producto[0]));
+    }
+
+    @Test
+    void registroConCrcIncorrectoDetieneLaReproduccion() throws IOException {
+        Path archivo = directorio.resolve("inventario.dat" + DiarioOperaciones.EXTENSION);
+        long validos;
+        try (DiarioOperaciones diario = new DiarioOperaciones(archivo, DiarioOperaciones.INTERVALO_POR_DEFECTO)) {
+            diario.registrarGuardado(crearProducto("A", 0));
+            diario.registrarGuardado(crearProducto("B", 1));
+            diario.sincronizar();
+            validos = diario.getTamano();
+            diario.registrarGuardado(crearProducto("C", 2));
+            diario.registrarEliminacion("A");
+        }
+        // Un byte dañado en los datos del tercer registro invalida su CRC.
+        try (RandomAccessFile acceso = new RandomAccessFile(archivo.toFile(), "rw")) {
+            acceso.seek(validos + 10);
+            int original = acceso.read();
+            acceso.seek(validos + 10);
+            acceso.write(original ^ 0xFF);
+        }
+
+        Map<String, Producto> estado = new LinkedHashMap<>();
+        assertEquals(2, reproducir(archivo, estado));
+        assertEquals(validos, Files.size(archivo));
+        assertEquals(List.of("A", "B"), new ArrayList<>(estado.keySet()));
+    }
+
+    @Test
+    void almacenRecuperaLosCambiosDelDiarioTrasUnaFalla() throws IOException {
+        String ruta = directorio.toString();
+        ImplementacionOperacionCRUD original = new ImplementacionOperacionCRUD();
+        original.abrirDiario(ruta, "inventario.dat");
+        for (int i = 0; i < 50; i++) {
+            original.create(crearProducto("P" + i, i));
+        }
+        original.guardarPuntoControl();
+        original.update("P3", crearProducto("P3", 1003));
+        original.update("P4", crearProducto("Q4", 1004));
+        original.delete("P7");
+        original.create(crearProducto("N1", 2001));
+        original.sincronizarDiario();
+        // Se abandona el almacén sin cerrar el diario, como si el proceso terminara.
+        Path archivoDiario = directorio.resolve("inventario.dat" + DiarioOperaciones.EXTENSION);
+        Files.write(archivoDiario, new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        ImplementacionOperacionCRUD recuperado = new ImplementacionOperacionCRUD();
+        recuperado.abrirDiario(ruta, "inventario.dat");
+        try {
+            assertIguales(ordenados(original.read()), ordenados(recuperado.read()));
+            assertNull(recuperado.readId("P7"));
+            assertNull(recuperado.readId("P4"));
+            assertEquals(crearProducto("Q4", 1004).toString(), recuperado.readId("Q4").toString());
+        } finally {
+            recuperado.cerrarDiario();
+            original.cerrarDiario();
+        }
+    }
+
+    /**
+     * Reproduce un diario sobre un mapa que hace de inventario.
+     */
+    private static int reproducir(Path archivo, Map<String, Producto> estado) throws IOException {
+        return DiarioOperaciones.reproducir(archivo, p -> estado.put(p.getId(), p), estado::remove, estado::clear);
+    }
+
+    /**
+     * Obtiene los productos no nulos ordenados por ID.
+     */
+    private static Producto[] ordenados(Producto[] productos) {
+        List<Producto> lista = new ArrayList<>();
+        for (Producto producto : productos) {
+            if (producto != null) {
+                lista.add(producto);
+            }
+        }
+        lista.sort(Comparator.comparing(Producto::getId));
+        return lista.toArray(new Producto[0]);
+    }
+}